@@ -17,6 +17,7 @@
 package org.apache.camel.component.file;
 
 import java.io.File;
+import java.io.FileOutputStream;
 import java.io.IOException;
 import java.io.InputStream;
 import java.io.InputStreamReader;
@@ -36,6 +37,7 @@ import java.util.Set;
 
 import org.apache.camel.Exchange;
 import org.apache.camel.InvalidPayloadException;
+import org.apache.camel.StreamCache;
 import org.apache.camel.WrappedFile;
 import org.apache.camel.util.FileUtil;
 import org.apache.camel.util.IOHelper;
@@ -328,6 +330,9 @@ public class FileOperations implements GenericFileOperations<File> {
                 // buffer the reader
                 in = IOHelper.buffered(in);
                 writeFileByReaderWithCharset(in, file, charset);
+            } else if (exchange.getIn().getBody() instanceof StreamCache && exchange.getIn().getBody() instanceof InputStream) {
+                // let the stream cache write itself which can avoid copying the data through the heap
+                writeFileByStreamCache(exchange.getIn().getBody(StreamCache.class), file);
             } else {
                 // fallback and use stream based
                 InputStream in = exchange.getIn().getMandatoryBody(InputStream.class);
@@ -403,6 +408,16 @@ public class FileOperations implements GenericFileOperations<File> {
         }
     }
 
+    private void writeFileByStreamCache(StreamCache cache, File target) throws IOException {
+        boolean append = endpoint.getFileExist() == GenericFileExist.Append;
+        try (FileOutputStream out = new FileOutputStream(target, append)) {
+            LOG.debug("Using StreamCache to write file: {}", target);
+            cache.writeTo(out);
+        } finally {
+            IOHelper.close((InputStream) cache, target.getName(), LOG);
+        }
+    }
+
     private void writeFileByReaderWithCharset(Reader in, File target, String charset) throws IOException {
         boolean append = endpoint.getFileExist() == GenericFileExist.Append;
         try (Writer out = Files.newBufferedWriter(target.toPath(), Charset.forName(charset), 
@@ -0,0 +1,111 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.apache.camel.component.micrometer;
+
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Tags;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import org.apache.camel.CamelContext;
+import org.apache.camel.Processor;
+import org.apache.camel.Route;
+import org.apache.camel.api.management.ManagedCamelContext;
+import org.apache.camel.api.management.mbean.ManagedPerformanceCounterMBean;
+import org.apache.camel.api.management.mbean.ManagedProcessorMBean;
+import org.apache.camel.api.management.mbean.ManagedRouteMBean;
+import org.apache.camel.spi.IdAware;
+import org.apache.camel.util.ObjectHelper;
+
+import static org.apache.camel.component.micrometer.MicrometerConstants.CAMEL_CONTEXT_TAG;
+import static org.apache.camel.component.micrometer.MicrometerConstants.DEFAULT_CAMEL_LATENCY_HISTOGRAM_METER_NAME;
+import static org.apache.camel.component.micrometer.MicrometerConstants.NODE_ID_TAG;
+import static org.apache.camel.component.micrometer.MicrometerConstants.QUANTILE_TAG;
+import static org.apache.camel.component.micrometer.MicrometerConstants.ROUTE_ID_TAG;
+
+/**
+ * A {@link MeterBinder} which exports the latency histograms gathered by Camel JMX management
+ * (see {@link org.apache.camel.spi.ManagementAgent#setLatencyHistogramEnabled(Boolean)}) as gauges
+ * with the p50, p99 and p999 processing time of every route and processor.
+ * <p/>
+ * The gauges read the histograms when the registry is scraped, so there is no additional overhead per exchange.
+ * Only the routes and processors which exist when {@link #bindTo(MeterRegistry)} is called are bound.
+ */
+public class MicrometerLatencyHistogramBinder implements MeterBinder {
+
+    private static final double[] PERCENTILES = {50, 99, 99.9};
+
+    private final CamelContext camelContext;
+    private String name = DEFAULT_CAMEL_LATENCY_HISTOGRAM_METER_NAME;
+
+    public MicrometerLatencyHistogramBinder(CamelContext camelContext) {
+        this.camelContext = ObjectHelper.notNull(camelContext, "CamelContext");
+    }
+
+    public String getName() {
+        return name;
+    }
+
+    /**
+     * The name of the gauges
+     */
+    public void setName(String name) {
+        this.name = name;
+    }
+
+    @Override
+    public void bindTo(MeterRegistry registry) {
+        ManagedCamelContext managed = camelContext.getExtension(ManagedCamelContext.class);
+        if (managed == null) {
+            return;
+        }
+        for (Route route : camelContext.getRoutes()) {
+            Tags tags = Tags.of(CAMEL_CONTEXT_TAG, camelContext.getName(), ROUTE_ID_TAG, route.getId());
+            ManagedRouteMBean mroute = managed.getManagedRoute(route.getId());
+            if (mroute != null) {
+                bindPercentiles(registry, mroute, tags, "Route " + route.getId());
+            }
+            for (Processor processor : route.filter("*")) {
+                if (processor instanceof IdAware) {
+                    String id = ((IdAware) processor).getId();
+                    ManagedProcessorMBean mprocessor = managed.getManagedProcessor(id);
+                    if (mprocessor != null) {
+                        bindPercentiles(registry, mprocessor, tags.and(NODE_ID_TAG, id), "Processor " + id);
+                    }
+                }
+            }
+        }
+    }
+
+    private void bindPercentiles(MeterRegistry registry, ManagedPerformanceCounterMBean counter, Tags tags, String description) {
+        for (double percentile : PERCENTILES) {
+            Gauge.builder(name, counter, c -> percentile(c, percentile))
+                    .tags(tags.and(QUANTILE_TAG, Double.toString(percentile / 100)))
+                    .description(description + " processing time [milliseconds]")
+                    .baseUnit("milliseconds")
+                    .register(registry);
+        }
+    }
+
+    private static double percentile(ManagedPerformanceCounterMBean counter, double percentile) {
+        try {
+            return counter.isLatencyHistogramEnabled() ? counter.processingTimePercentile(percentile) : Double.NaN;
+        } catch (Exception e) {
+            return Double.NaN;
+        }
+    }
+
+}
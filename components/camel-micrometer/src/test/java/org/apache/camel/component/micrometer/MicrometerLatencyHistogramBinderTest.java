@@ -0,0 +1,103 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.apache.camel.component.micrometer;
+
+import java.util.Collection;
+
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.apache.camel.CamelContext;
+import org.apache.camel.api.management.ManagedCamelContext;
+import org.apache.camel.builder.RouteBuilder;
+import org.apache.camel.test.junit4.CamelTestSupport;
+import org.junit.Test;
+
+import static org.apache.camel.component.micrometer.MicrometerConstants.DEFAULT_CAMEL_LATENCY_HISTOGRAM_METER_NAME;
+import static org.apache.camel.component.micrometer.MicrometerConstants.NODE_ID_TAG;
+import static org.apache.camel.component.micrometer.MicrometerConstants.QUANTILE_TAG;
+import static org.apache.camel.component.micrometer.MicrometerConstants.ROUTE_ID_TAG;
+
+public class MicrometerLatencyHistogramBinderTest extends CamelTestSupport {
+
+    private final MeterRegistry meterRegistry = new SimpleMeterRegistry();
+
+    @Override
+    protected boolean useJmx() {
+        return true;
+    }
+
+    @Override
+    protected CamelContext createCamelContext() throws Exception {
+        CamelContext context = super.createCamelContext();
+        context.init();
+        context.getManagementStrategy().getManagementAgent().setLatencyHistogramEnabled(true);
+        return context;
+    }
+
+    @Test
+    public void testBindPercentiles() throws Exception {
+        getMockEndpoint("mock:result").expectedMessageCount(10);
+        for (int i = 0; i < 10; i++) {
+            template.sendBody("direct:start", "Hello " + i);
+        }
+        assertMockEndpointsSatisfied();
+
+        new MicrometerLatencyHistogramBinder(context).bindTo(meterRegistry);
+
+        // p50, p99 and p999 of the processor
+        Collection<Gauge> gauges = meterRegistry.find(DEFAULT_CAMEL_LATENCY_HISTOGRAM_METER_NAME).tags(ROUTE_ID_TAG, "foo", NODE_ID_TAG, "delay").gauges();
+        assertEquals(3, gauges.size());
+
+        Gauge route = meterRegistry.find(DEFAULT_CAMEL_LATENCY_HISTOGRAM_METER_NAME)
+                .tags(ROUTE_ID_TAG, "foo", QUANTILE_TAG, "0.99").gauges().stream()
+                .filter(g -> g.getId().getTag(NODE_ID_TAG) == null).findFirst().get();
+        Gauge processor = meterRegistry.find(DEFAULT_CAMEL_LATENCY_HISTOGRAM_METER_NAME)
+                .tags(ROUTE_ID_TAG, "foo", NODE_ID_TAG, "delay", QUANTILE_TAG, "0.99").gauge();
+        assertNotNull(processor);
+
+        assertTrue("route p99 was " + route.value(), route.value() >= 20);
+        assertTrue("processor p99 was " + processor.value(), processor.value() >= 20);
+        assertTrue(route.value() >= processor.value());
+    }
+
+    @Test
+    public void testHistogramDisabled() throws Exception {
+        context.getExtension(ManagedCamelContext.class).getManagedRoute("foo").setLatencyHistogramEnabled(false);
+
+        template.sendBody("direct:start", "Hello");
+
+        new MicrometerLatencyHistogramBinder(context).bindTo(meterRegistry);
+
+        Gauge route = meterRegistry.find(DEFAULT_CAMEL_LATENCY_HISTOGRAM_METER_NAME)
+                .tags(ROUTE_ID_TAG, "foo", QUANTILE_TAG, "0.5").gauges().stream()
+                .filter(g -> g.getId().getTag(NODE_ID_TAG) == null).findFirst().get();
+        assertTrue(Double.isNaN(route.value()));
+    }
+
+    @Override
+    protected RouteBuilder createRouteBuilder() throws Exception {
+        return new RouteBuilder() {
+            @Override
+            public void configure() throws Exception {
+                from("direct:start").routeId("foo")
+                    .delay(20).id("delay")
+                    .to("mock:result");
+            }
+        };
+    }
+}
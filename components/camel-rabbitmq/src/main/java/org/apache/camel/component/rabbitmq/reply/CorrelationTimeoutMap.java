@@ -18,7 +18,7 @@ package org.apache.camel.component.rabbitmq.reply;
 
 import java.util.concurrent.ScheduledExecutorService;
 
-import org.apache.camel.support.DefaultTimeoutMap;
+import org.apache.camel.support.HashedWheelTimeoutMap;
 
 import static org.apache.camel.TimeoutMap.Listener.Type.*;
 
@@ -27,7 +27,7 @@ import static org.apache.camel.TimeoutMap.Listener.Type.*;
  * has been timed out, and thus should trigger the waiting {@link org.apache.camel.Exchange} to
  * timeout as well.
  */
-class CorrelationTimeoutMap extends DefaultTimeoutMap<String, ReplyHandler> {
+class CorrelationTimeoutMap extends HashedWheelTimeoutMap<String, ReplyHandler> {
 
     CorrelationTimeoutMap(ScheduledExecutorService executor, long requestMapPollTimeMillis) {
         super(executor, requestMapPollTimeMillis);
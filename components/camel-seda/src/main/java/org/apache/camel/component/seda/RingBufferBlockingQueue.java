@@ -0,0 +1,309 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.apache.camel.component.seda;
+
+import java.util.AbstractQueue;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Iterator;
+import java.util.List;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+import java.util.concurrent.locks.LockSupport;
+
+import org.apache.camel.util.ObjectHelper;
+
+/**
+ * A bounded lock-free multi producer multi consumer {@link BlockingQueue} backed by an array ring buffer.
+ * <p/>
+ * Each slot in the ring has a sequence number which tells whether the slot is ready to be written by a producer
+ * or read by a consumer, so producers and consumers only contend on the head and tail counters, and no node is
+ * allocated per element.
+ * <p/>
+ * The blocking operations do not use locks and conditions, but wait adaptively: first by spinning, then by yielding
+ * and then by parking for an increasing period of time up till {@link #getMaxParkNanos()}. This gives very low
+ * hand-off latency when the queue is busy, and little CPU usage when the queue is idle.
+ * <p/>
+ * The {@link #iterator()}, {@link #size()} and {@link #remove(Object)} operations are weakly consistent.
+ */
+public class RingBufferBlockingQueue<E> extends AbstractQueue<E> implements BlockingQueue<E> {
+
+    static final int MAX_CAPACITY = 1 << 30;
+
+    // marker for an element removed from the middle of the queue, which the consumers skip
+    private static final Object REMOVED = new Object();
+    private static final int SPINS = 100;
+    private static final int YIELDS = 10;
+
+    private final int capacity;
+    private final int mask;
+    private final AtomicReferenceArray<Object> elements;
+    private final AtomicLongArray sequences;
+    private final AtomicLong head = new AtomicLong();
+    private final AtomicLong tail = new AtomicLong();
+    private final long maxParkNanos;
+
+    public RingBufferBlockingQueue(int capacity) {
+        this(capacity, TimeUnit.MILLISECONDS.toNanos(1));
+    }
+
+    public RingBufferBlockingQueue(int capacity, long maxParkNanos) {
+        if (capacity < 1 || capacity > MAX_CAPACITY) {
+            throw new IllegalArgumentException("Capacity must be between 1 and " + MAX_CAPACITY + ", was: " + capacity);
+        }
+        int size = 1;
+        while (size < capacity) {
+            size <<= 1;
+        }
+        this.capacity = capacity;
+        this.mask = size - 1;
+        this.elements = new AtomicReferenceArray<>(size);
+        this.sequences = new AtomicLongArray(size);
+        for (int i = 0; i < size; i++) {
+            sequences.set(i, i);
+        }
+        this.maxParkNanos = maxParkNanos;
+    }
+
+    public int getCapacity() {
+        return capacity;
+    }
+
+    public long getMaxParkNanos() {
+        return maxParkNanos;
+    }
+
+    @Override
+    public boolean offer(E e) {
+        ObjectHelper.notNull(e, "element");
+        long pos = tail.get();
+        while (true) {
+            int index = (int) (pos & mask);
+            long diff = sequences.get(index) - pos;
+            if (diff == 0) {
+                if (pos - head.get() >= capacity) {
+                    // the ring may be larger than the capacity as its size is a power of two
+                    return false;
+                }
+                if (tail.compareAndSet(pos, pos + 1)) {
+                    elements.lazySet(index, e);
+                    // publish the element to the consumers
+                    sequences.lazySet(index, pos + 1);
+                    return true;
+                }
+                pos = tail.get();
+            } else if (diff < 0) {
+                // full
+                return false;
+            } else {
+                // another producer claimed the slot
+                pos = tail.get();
+            }
+        }
+    }
+
+    @Override
+    @SuppressWarnings("unchecked")
+    public E poll() {
+        long pos = head.get();
+        while (true) {
+            int index = (int) (pos & mask);
+            long diff = sequences.get(index) - (pos + 1);
+            if (diff == 0) {
+                if (head.compareAndSet(pos, pos + 1)) {
+                    // take the element atomically so it cannot be removed concurrently
+                    Object e = elements.getAndSet(index, null);
+                    // release the slot to the producers for the next lap
+                    sequences.lazySet(index, pos + mask + 1);
+                    if (e != REMOVED) {
+                        return (E) e;
+                    }
+                }
+                pos = head.get();
+            } else if (diff < 0) {
+                // empty
+                return null;
+            } else {
+                // another consumer claimed the slot
+                pos = head.get();
+            }
+        }
+    }
+
+    @Override
+    @SuppressWarnings("unchecked")
+    public E peek() {
+        for (long pos = head.get(), end = tail.get(); pos < end; pos++) {
+            Object e = elements.get((int) (pos & mask));
+            if (e != null && e != REMOVED) {
+                return (E) e;
+            }
+        }
+        return null;
+    }
+
+    @Override
+    public void put(E e) throws InterruptedException {
+        int round = 0;
+        while (!offer(e)) {
+            idle(round++, Long.MAX_VALUE);
+        }
+    }
+
+    @Override
+    public boolean offer(E e, long timeout, TimeUnit unit) throws InterruptedException {
+        long deadline = System.nanoTime() + unit.toNanos(timeout);
+        int round = 0;
+        while (!offer(e)) {
+            long remaining = deadline - System.nanoTime();
+            if (remaining <= 0) {
+                return false;
+            }
+            idle(round++, remaining);
+        }
+        return true;
+    }
+
+    @Override
+    public E take() throws InterruptedException {
+        int round = 0;
+        E e;
+        while ((e = poll()) == null) {
+            idle(round++, Long.MAX_VALUE);
+        }
+        return e;
+    }
+
+    @Override
+    public E poll(long timeout, TimeUnit unit) throws InterruptedException {
+        long deadline = System.nanoTime() + unit.toNanos(timeout);
+        int round = 0;
+        E e;
+        while ((e = poll()) == null) {
+            long remaining = deadline - System.nanoTime();
+            if (remaining <= 0) {
+                return null;
+            }
+            idle(round++, remaining);
+        }
+        return e;
+    }
+
+    @Override
+    public int drainTo(Collection<? super E> c) {
+        return drainTo(c, Integer.MAX_VALUE);
+    }
+
+    @Override
+    public int drainTo(Collection<? super E> c, int maxElements) {
+        if (c == this) {
+            throw new IllegalArgumentException("Cannot drain to itself");
+        }
+        int n = 0;
+        E e;
+        while (n < maxElements && (e = poll()) != null) {
+            c.add(e);
+            n++;
+        }
+        return n;
+    }
+
+    @Override
+    public boolean remove(Object o) {
+        if (o == null) {
+            return false;
+        }
+        for (long pos = head.get(), end = tail.get(); pos < end; pos++) {
+            // mark the slot as removed, which fails if a consumer has taken the element
+            if (elements.compareAndSet((int) (pos & mask), o, REMOVED)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    @Override
+    public int size() {
+        long h = head.get();
+        long size = tail.get() - h;
+        return (int) Math.max(0, Math.min(capacity, size));
+    }
+
+    @Override
+    public boolean isEmpty() {
+        return tail.get() == head.get();
+    }
+
+    @Override
+    public int remainingCapacity() {
+        return capacity - size();
+    }
+
+    @Override
+    public Iterator<E> iterator() {
+        // iterate a snapshot of the elements currently in the queue
+        final List<E> snapshot = new ArrayList<>();
+        for (long pos = head.get(), end = tail.get(); pos < end; pos++) {
+            Object e = elements.get((int) (pos & mask));
+            if (e != null && e != REMOVED) {
+                @SuppressWarnings("unchecked")
+                E element = (E) e;
+                snapshot.add(element);
+            }
+        }
+        final Iterator<E> it = snapshot.iterator();
+        return new Iterator<E>() {
+            private E last;
+
+            @Override
+            public boolean hasNext() {
+                return it.hasNext();
+            }
+
+            @Override
+            public E next() {
+                last = it.next();
+                return last;
+            }
+
+            @Override
+            public void remove() {
+                RingBufferBlockingQueue.this.remove(last);
+            }
+        };
+    }
+
+    private void idle(int round, long remainingNanos) throws InterruptedException {
+        if (round < SPINS) {
+            // busy spin
+            return;
+        } else if (round < SPINS + YIELDS) {
+            Thread.yield();
+        } else {
+            // park from 1 micro second doubling up till the max park time
+            long nanos = Math.min(maxParkNanos, 1000L << Math.min(round - SPINS - YIELDS, 20));
+            LockSupport.parkNanos(this, Math.min(nanos, remainingNanos));
+        }
+        if (Thread.interrupted()) {
+            throw new InterruptedException();
+        }
+    }
+
+}
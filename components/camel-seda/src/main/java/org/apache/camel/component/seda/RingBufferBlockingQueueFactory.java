@@ -0,0 +1,74 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.apache.camel.component.seda;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Creates bounded lock-free {@link RingBufferBlockingQueue}s.
+ */
+public class RingBufferBlockingQueueFactory<E> implements BlockingQueueFactory<E> {
+
+    /**
+     * Capacity used when none provided
+     */
+    private int defaultCapacity = 1024;
+
+    /**
+     * Maximum time in nanos a waiting producer or consumer parks before checking the queue again
+     */
+    private long maxParkNanos = TimeUnit.MILLISECONDS.toNanos(1);
+
+    /**
+     * @return Default ring buffer capacity
+     */
+    public int getDefaultCapacity() {
+        return defaultCapacity;
+    }
+
+    /**
+     * @param defaultCapacity Default ring buffer capacity
+     */
+    public void setDefaultCapacity(int defaultCapacity) {
+        this.defaultCapacity = defaultCapacity;
+    }
+
+    /**
+     * @return Maximum park time in nanos
+     */
+    public long getMaxParkNanos() {
+        return maxParkNanos;
+    }
+
+    /**
+     * @param maxParkNanos Maximum park time in nanos, a lower value reacts faster on an idle queue
+     *                     at the expense of more CPU usage
+     */
+    public void setMaxParkNanos(long maxParkNanos) {
+        this.maxParkNanos = maxParkNanos;
+    }
+
+    @Override
+    public RingBufferBlockingQueue<E> create() {
+        return create(defaultCapacity);
+    }
+
+    @Override
+    public RingBufferBlockingQueue<E> create(int capacity) {
+        return new RingBufferBlockingQueue<>(capacity, maxParkNanos);
+    }
+}
@@ -16,7 +16,9 @@
  */
 package org.apache.camel.component.seda;
 
+import java.util.ArrayList;
 import java.util.List;
+import java.util.concurrent.BlockingDeque;
 import java.util.concurrent.BlockingQueue;
 import java.util.concurrent.CountDownLatch;
 import java.util.concurrent.ExecutorService;
@@ -58,11 +60,15 @@ public class SedaConsumer extends ServiceSupport implements Consumer, Runnable,
     private ExecutorService executor;
     private ExceptionHandler exceptionHandler;
     private final int pollTimeout;
+    private final int pollBatchSize;
+    // number of exchanges drained from the queue in batches which has not yet been processed
+    private final AtomicInteger batchPending = new AtomicInteger();
 
     public SedaConsumer(SedaEndpoint endpoint, Processor processor) {
         this.endpoint = endpoint;
         this.processor = AsyncProcessorConverterHelper.convert(processor);
         this.pollTimeout = endpoint.getPollTimeout();
+        this.pollBatchSize = endpoint.getPollBatchSize();
         this.exceptionHandler = new LoggingExceptionHandler(endpoint.getCamelContext(), getClass());
     }
 
@@ -99,7 +105,7 @@ public class SedaConsumer extends ServiceSupport implements Consumer, Runnable,
         if (endpoint.isPurgeWhenStopping()) {
             endpoint.purgeQueue();
         }
-        return endpoint.getQueue().size();
+        return endpoint.getQueue().size() + batchPending.get();
     }
 
     @Override
@@ -155,6 +161,7 @@ public class SedaConsumer extends ServiceSupport implements Consumer, Runnable,
 
     protected void doRun() {
         BlockingQueue<Exchange> queue = endpoint.getQueue();
+        List<Exchange> batch = pollBatchSize > 1 ? new ArrayList<>(pollBatchSize) : null;
         // loop while we are allowed, or if we are stopping loop until the queue is empty
         while (queue != null && isRunAllowed()) {
 
@@ -196,24 +203,30 @@ public class SedaConsumer extends ServiceSupport implements Consumer, Runnable,
                     log.trace("Polled queue {} with timeout {} ms. -> {}", ObjectHelper.getIdentityHashCode(queue), pollTimeout, exchange);
                 }
                 if (exchange != null) {
-                    try {
-                        // send a new copied exchange with new camel context
-                        Exchange newExchange = prepareExchange(exchange);
-                        // process the exchange
-                        sendToConsumers(newExchange);
-                        // copy the message back
-                        if (newExchange.hasOut()) {
-                            exchange.setOut(newExchange.getOut().copy());
-                        } else {
-                            exchange.setIn(newExchange.getIn());
-                        }
-                        // log exception if an exception occurred and was not handled
-                        if (newExchange.getException() != null) {
-                            exchange.setException(newExchange.getException());
-                            getExceptionHandler().handleException("Error processing exchange", exchange, exchange.getException());
+                    if (batch != null) {
+                        // drain more exchanges which are ready so we process a batch per wakeup
+                        batch.add(exchange);
+                        queue.drainTo(batch, pollBatchSize - 1);
+                        batchPending.addAndGet(batch.size());
+                        int index = 0;
+                        try {
+                            while (index < batch.size()) {
+                                // do not continue the batch if we are stopping or suspending
+                                if (index > 0 && (!isRunAllowed() || isSuspendingOrSuspended())) {
+                                    break;
+                                }
+                                exchange = batch.get(index++);
+                                batchPending.decrementAndGet();
+                                processExchange(exchange);
+                            }
+                        } finally {
+                            if (index < batch.size()) {
+                                requeue(queue, batch.subList(index, batch.size()));
+                            }
+                            batch.clear();
                         }
-                    } catch (Exception e) {
-                        getExceptionHandler().handleException("Error processing exchange", exchange, e);
+                    } else {
+                        processExchange(exchange);
                     }
                 } else if (shutdownPending && queue.isEmpty()) {
                     log.trace("Shutdown is pending, so this consumer thread is breaking out because the task queue is empty.");
@@ -233,6 +246,61 @@ public class SedaConsumer extends ServiceSupport implements Consumer, Runnable,
         }
     }
 
+    /**
+     * Puts the exchanges of a batch which has not been processed back on the queue, so they are processed
+     * when the consumer is resumed, or by another consumer.
+     */
+    private void requeue(BlockingQueue<Exchange> queue, List<Exchange> exchanges) {
+        log.debug("Putting {} exchanges from the batch which has not been processed back on the queue", exchanges.size());
+        if (queue instanceof BlockingDeque) {
+            // put them back in front of the queue to keep the order
+            BlockingDeque<Exchange> deque = (BlockingDeque<Exchange>) queue;
+            for (int i = exchanges.size() - 1; i >= 0; i--) {
+                Exchange exchange = exchanges.get(i);
+                if (!deque.offerFirst(exchange)) {
+                    processRejected(exchange);
+                }
+                batchPending.decrementAndGet();
+            }
+        } else {
+            // otherwise they are added to the end of the queue
+            for (Exchange exchange : exchanges) {
+                if (!queue.offer(exchange)) {
+                    processRejected(exchange);
+                }
+                batchPending.decrementAndGet();
+            }
+        }
+    }
+
+    private void processRejected(Exchange exchange) {
+        // the queue has been filled up meanwhile, so process the exchange instead of losing it
+        log.debug("Cannot put exchange back on the queue as its full, processing the exchange: {}", exchange);
+        processExchange(exchange);
+    }
+
+    private void processExchange(Exchange exchange) {
+        try {
+            // send a new copied exchange with new camel context
+            Exchange newExchange = prepareExchange(exchange);
+            // process the exchange
+            sendToConsumers(newExchange);
+            // copy the message back
+            if (newExchange.hasOut()) {
+                exchange.setOut(newExchange.getOut().copy());
+            } else {
+                exchange.setIn(newExchange.getIn());
+            }
+            // log exception if an exception occurred and was not handled
+            if (newExchange.getException() != null) {
+                exchange.setException(newExchange.getException());
+                getExceptionHandler().handleException("Error processing exchange", exchange, exchange.getException());
+            }
+        } catch (Exception e) {
+            getExceptionHandler().handleException("Error processing exchange", exchange, e);
+        }
+    }
+
     /**
      * Strategy to prepare exchange for being processed by this consumer
      *
@@ -78,6 +78,8 @@ public class SedaEndpoint extends DefaultEndpoint implements AsyncEndpoint, Brow
     private boolean purgeWhenStopping;
     @UriParam(label = "consumer,advanced", defaultValue = "1000")
     private int pollTimeout = 1000;
+    @UriParam(label = "consumer,advanced", defaultValue = "1")
+    private int pollBatchSize = 1;
 
     @UriParam(label = "producer", defaultValue = "IfReplyExpected")
     private WaitForTaskToComplete waitForTaskToComplete = WaitForTaskToComplete.IfReplyExpected;
@@ -403,6 +405,21 @@ public class SedaEndpoint extends DefaultEndpoint implements AsyncEndpoint, Brow
         this.pollTimeout = pollTimeout;
     }
 
+    @ManagedAttribute
+    public int getPollBatchSize() {
+        return pollBatchSize;
+    }
+
+    /**
+     * The maximum number of exchanges the consumer takes from the queue per poll.
+     * Setting a value higher than 1 lets the consumer drain a batch of exchanges per wakeup, which reduces the
+     * hand-off overhead between the producers and consumers at high message rates.
+     * The exchanges in the batch are processed one by one by the same consumer thread.
+     */
+    public void setPollBatchSize(int pollBatchSize) {
+        this.pollBatchSize = pollBatchSize;
+    }
+
     @ManagedAttribute
     public boolean isPurgeWhenStopping() {
         return purgeWhenStopping;
@@ -174,7 +174,8 @@ public class TimerConsumer extends DefaultConsumer implements StartupListener, S
     }
 
     protected void sendTimerExchange(long counter) {
-        final Exchange exchange = endpoint.createExchange();
+        // the exchange is released when done, and any exception is handled by the exception handler
+        final Exchange exchange = createExchange(true);
         exchange.setProperty(Exchange.TIMER_COUNTER, counter);
         exchange.setProperty(Exchange.TIMER_NAME, endpoint.getTimerName());
         exchange.setProperty(Exchange.TIMER_TIME, endpoint.getTime());
@@ -193,22 +194,14 @@ public class TimerConsumer extends DefaultConsumer implements StartupListener, S
             getAsyncProcessor().process(exchange, new AsyncCallback() {
                 @Override
                 public void done(boolean doneSync) {
-                    // handle any thrown exception
-                    if (exchange.getException() != null) {
-                        getExceptionHandler().handleException("Error processing exchange", exchange, exchange.getException());
-                    }
+                    // noop
                 }
             });
         } else {
             try {
                 getProcessor().process(exchange);
             } catch (Exception e) {
-                exchange.setException(e);
-            }
-
-            // handle any thrown exception
-            if (exchange.getException() != null) {
-                getExceptionHandler().handleException("Error processing exchange", exchange, exchange.getException());
+                getExceptionHandler().handleException("Error processing exchange", e);
             }
         }
     }
@@ -183,6 +183,7 @@ public interface Exchange {
     String MESSAGE_HISTORY             = "CamelMessageHistory";
     String MESSAGE_HISTORY_HEADER_FORMAT      = "CamelMessageHistoryHeaderFormat";
     String MESSAGE_HISTORY_OUTPUT_FORMAT      = "CamelMessageHistoryOutputFormat";
+    String MESSAGE_HISTORY_SAMPLED     = "CamelMessageHistorySampled";
     String MULTICAST_INDEX             = "CamelMulticastIndex";
     String MULTICAST_COMPLETE          = "CamelMulticastComplete";
 
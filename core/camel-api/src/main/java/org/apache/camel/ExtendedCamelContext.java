@@ -31,6 +31,7 @@ import org.apache.camel.spi.CamelBeanPostProcessor;
 import org.apache.camel.spi.DataFormatResolver;
 import org.apache.camel.spi.DeferServiceFactory;
 import org.apache.camel.spi.EndpointStrategy;
+import org.apache.camel.spi.ExchangeFactory;
 import org.apache.camel.spi.FactoryFinder;
 import org.apache.camel.spi.FactoryFinderResolver;
 import org.apache.camel.spi.InterceptStrategy;
@@ -267,6 +268,16 @@ public interface ExtendedCamelContext extends CamelContext {
      */
     void setUnitOfWorkFactory(UnitOfWorkFactory unitOfWorkFactory);
 
+    /**
+     * Gets the {@link ExchangeFactory} to use.
+     */
+    ExchangeFactory getExchangeFactory();
+
+    /**
+     * Sets a custom {@link ExchangeFactory} to use.
+     */
+    void setExchangeFactory(ExchangeFactory exchangeFactory);
+
     /**
      * Gets the {@link AnnotationBasedProcessorFactory} to use.
      */
@@ -333,4 +344,28 @@ public interface ExtendedCamelContext extends CamelContext {
      */
     void setAsyncProcessorAwaitManager(AsyncProcessorAwaitManager manager);
 
+    /**
+     * Gets the number of endpoint lookups where the normalized uri was found in the cache of recently
+     * normalized endpoint uris.
+     * <p/>
+     * The cache is used to avoid normalizing the same uris over and over again when using dynamic endpoints
+     * such as toD, recipient list and routing slip.
+     */
+    long getEndpointUriCacheHits();
+
+    /**
+     * Gets the number of endpoint lookups where the uri was not in the cache of recently normalized endpoint uris.
+     */
+    long getEndpointUriCacheMisses();
+
+    /**
+     * Gets the number of uris in the cache of recently normalized endpoint uris.
+     */
+    int getEndpointUriCacheSize();
+
+    /**
+     * Resets the hits and misses statistics of the cache of recently normalized endpoint uris.
+     */
+    void resetEndpointUriCacheStatistics();
+
 }
@@ -0,0 +1,134 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.apache.camel.spi;
+
+import org.apache.camel.Endpoint;
+import org.apache.camel.Exchange;
+import org.apache.camel.ExchangePattern;
+
+/**
+ * Factory used by {@link Endpoint} and {@link org.apache.camel.Consumer} to create the {@link Exchange} instances.
+ * <p/>
+ * The default implementation creates a new {@link Exchange} every time. A pooled implementation recycles the
+ * exchanges which has been {@link #release(Exchange) released} back to the factory, which reduces the object
+ * allocations per message at high message rates.
+ * <p/>
+ * Important: An exchange must only be released when it is no longer in use, which for a consumer is after the
+ * {@link UnitOfWork} of the exchange has completed and the consumer is done with the exchange. The exchange must
+ * not be used after it has been released. A consumer which does not use the exchange after it has been processed
+ * can let the exchange be released automatically when its {@link UnitOfWork} is done, by creating the exchange
+ * with auto release enabled.
+ */
+public interface ExchangeFactory {
+
+    /**
+     * Utilization statistics of this factory.
+     */
+    interface Statistics {
+
+        /**
+         * Number of new exchanges created
+         */
+        long getCreatedCounter();
+
+        /**
+         * Number of exchanges acquired from the pool (pool hits)
+         */
+        long getAcquiredCounter();
+
+        /**
+         * Number of exchanges released back to the pool
+         */
+        long getReleasedCounter();
+
+        /**
+         * Number of released exchanges discarded as the pool was full or the exchange could not be recycled
+         */
+        long getDiscardedCounter();
+
+        /**
+         * Reset the counters
+         */
+        void reset();
+
+        /**
+         * Whether statistics is enabled.
+         */
+        boolean isStatisticsEnabled();
+
+        /**
+         * Sets whether statistics is enabled.
+         *
+         * @param statisticsEnabled <tt>true</tt> to enable
+         */
+        void setStatisticsEnabled(boolean statisticsEnabled);
+    }
+
+    /**
+     * Gets a new {@link Exchange}, which may be a recycled exchange if this factory is pooled.
+     *
+     * @param fromEndpoint    the endpoint the exchange originates from
+     * @param exchangePattern the exchange pattern
+     * @return the exchange
+     */
+    Exchange create(Endpoint fromEndpoint, ExchangePattern exchangePattern);
+
+    /**
+     * Releases the exchange back to this factory, when it is no longer in use.
+     *
+     * @param exchange the exchange
+     * @return <tt>true</tt> if the exchange was returned to the pool, <tt>false</tt> if not
+     */
+    boolean release(Exchange exchange);
+
+    /**
+     * Whether this factory recycles released exchanges.
+     */
+    boolean isPooled();
+
+    /**
+     * The maximum number of exchanges kept in the pool.
+     */
+    int getCapacity();
+
+    /**
+     * Sets the maximum number of exchanges kept in the pool.
+     */
+    void setCapacity(int capacity);
+
+    /**
+     * The current number of exchanges in the pool.
+     */
+    int getSize();
+
+    /**
+     * Whether leak detection is enabled.
+     */
+    boolean isLeakDetectionEnabled();
+
+    /**
+     * Sets whether leak detection is enabled, which keeps track of the exchanges in use, so exchanges which was
+     * never released can be reported. This is intended for testing and troubleshooting as it adds overhead.
+     */
+    void setLeakDetectionEnabled(boolean leakDetectionEnabled);
+
+    /**
+     * Gets the utilization statistics of this factory
+     */
+    Statistics getStatistics();
+
+}
@@ -134,6 +134,30 @@ public interface InflightRepository extends StaticService {
      */
     int size(String routeId);
 
+    /**
+     * Whether the inflight repository should allow browsing each inflight exchange.
+     * <p/>
+     * When disabled only the number of inflight exchanges (total and per route) is tracked,
+     * which avoids the overhead of keeping track of each individual exchange,
+     * and the browse operations return no exchanges.
+     *
+     * @return <tt>true</tt> if browsing is enabled
+     */
+    default boolean isInflightBrowseEnabled() {
+        return true;
+    }
+
+    /**
+     * Sets whether the inflight repository should allow browsing each inflight exchange.
+     * <p/>
+     * When enabled at runtime, only the exchanges which are added afterwards can be browsed.
+     *
+     * @param inflightBrowseEnabled <tt>true</tt> to enable browsing
+     */
+    default void setInflightBrowseEnabled(boolean inflightBrowseEnabled) {
+        // noop
+    }
+
     /**
      * A <i>read-only</i> browser of the {@link InflightExchange}s that are currently inflight.
      */
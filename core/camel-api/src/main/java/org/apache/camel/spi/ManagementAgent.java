@@ -318,6 +318,23 @@ public interface ManagementAgent extends Service {
      */
     Boolean getLoadStatisticsEnabled();
 
+    /**
+     * Sets whether latency histograms is enabled (records the processing time of each exchange in a histogram
+     * per route and processor, so percentiles such as p99 can be reported).
+     * <p/>
+     * The default value is <tt>false</tt>
+     *
+     * @param flag <tt>true</tt> to enable latency histograms
+     */
+    void setLatencyHistogramEnabled(Boolean flag);
+
+    /**
+     * Gets whether latency histograms is enabled
+     *
+     * @return <tt>true</tt> if enabled
+     */
+    Boolean getLatencyHistogramEnabled();
+
     /**
      * Sets whether endpoint runtime statistics is enabled (gathers runtime usage of each incoming and outgoing endpoints).
      * <p/>
@@ -56,4 +56,18 @@ public interface MessageHistoryFactory extends StaticService, CamelContextAware
      */
     void setNodePattern(String nodePattern);
 
+    /**
+     * Whether the message history should be recorded for the given exchange.
+     * <p/>
+     * This is called once per exchange, before the exchange is processed by the first node, which allows
+     * to only sample a subset of the exchanges. The exchanges which are not sampled do not have any message history.
+     * By default all exchanges are sampled.
+     *
+     * @param exchange  the exchange
+     * @return <tt>true</tt> to record the message history for the exchange
+     */
+    default boolean isSampled(Exchange exchange) {
+        return true;
+    }
+
 }
@@ -0,0 +1,41 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.apache.camel.spi;
+
+import org.apache.camel.CamelContext;
+
+/**
+ * A configurer which sets properties on a target object without using reflection.
+ * <p/>
+ * Configurers are generated by the Camel annotation processor for components and endpoints,
+ * and are used by the property binding before falling back to reflection.
+ */
+public interface PropertyConfigurer {
+
+    /**
+     * Configures the property
+     *
+     * @param camelContext  the camel context
+     * @param target        the target object being configured
+     * @param name          the name of the property
+     * @param value         the value of the property which is type converted to the type of the property if needed
+     * @param ignoreCase    whether to match the name of the property case insensitive
+     * @return <tt>true</tt> if the property was configured, or <tt>false</tt> if the property is unknown to this configurer
+     */
+    boolean configure(CamelContext camelContext, Object target, String name, Object value, boolean ignoreCase);
+
+}
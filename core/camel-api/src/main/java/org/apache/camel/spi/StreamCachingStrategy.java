@@ -17,6 +17,7 @@
 package org.apache.camel.spi;
 
 import java.io.File;
+import java.nio.ByteBuffer;
 
 import org.apache.camel.Exchange;
 import org.apache.camel.StaticService;
@@ -173,6 +174,40 @@ public interface StreamCachingStrategy extends StaticService {
 
     String getSpoolCipher();
 
+    /**
+     * Sets whether to keep the stream caches off the heap.
+     * <p/>
+     * When enabled the in-memory stream caches are held in pooled direct byte buffers, and the stream caches
+     * which has been spooled to disk are written through a pooled direct byte buffer and read back through
+     * memory mapped segments of the spool file. Writing a spooled stream cache to a file is done using zero
+     * copy transfer.
+     * <p/>
+     * The pooled buffers are recycled when the exchange is done, so the stream cache must not be used after
+     * the exchange has completed.
+     * <p/>
+     * This option is default <tt>false</tt>
+     */
+    void setOffHeap(boolean offHeap);
+
+    boolean isOffHeap();
+
+    /**
+     * Acquires a direct byte buffer of {@link #getBufferSize()} bytes, used by the off-heap stream caches.
+     * <p/>
+     * The buffers are pooled by this strategy, and the pool is released when this strategy is stopped.
+     *
+     * @return a cleared direct byte buffer
+     */
+    ByteBuffer acquireDirectBuffer();
+
+    /**
+     * Returns a direct byte buffer acquired from {@link #acquireDirectBuffer()} to the pool.
+     * The buffer must not be used afterwards.
+     *
+     * @param buffer the buffer
+     */
+    void releaseDirectBuffer(ByteBuffer buffer);
+
     /**
      * Whether to remove the temporary directory when stopping.
      * <p/>
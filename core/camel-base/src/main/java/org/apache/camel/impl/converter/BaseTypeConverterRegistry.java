@@ -38,6 +38,7 @@ import org.apache.camel.CamelContextAware;
 import org.apache.camel.CamelExecutionException;
 import org.apache.camel.Exchange;
 import org.apache.camel.ExtendedCamelContext;
+import org.apache.camel.ExtendedStartupListener;
 import org.apache.camel.LoggingLevel;
 import org.apache.camel.NoFactoryAvailableException;
 import org.apache.camel.NoTypeConversionAvailableException;
@@ -70,6 +71,11 @@ public abstract class BaseTypeConverterRegistry extends ServiceSupport implement
 
     public static final String META_INF_SERVICES_TYPE_CONVERTER_LOADER = "META-INF/services/org/apache/camel/TypeConverterLoader";
 
+    /**
+     * Global option to freeze the type converter registry when {@link CamelContext} has been started.
+     */
+    public static final String TYPE_CONVERTER_FREEZE = "CamelTypeConverterFreeze";
+
     protected static final TypeConverter MISS_CONVERTER = new TypeConverterSupport() {
         @Override
         public <T> T convertTo(Class<T> type, Exchange exchange, Object value) throws TypeConversionException {
@@ -78,6 +84,7 @@ public abstract class BaseTypeConverterRegistry extends ServiceSupport implement
     };
 
     protected final DoubleMap<Class<?>, Class<?>, TypeConverter> typeMappings = new DoubleMap<>(200);
+    protected final DoubleMap<Class<?>, Class<?>, Boolean> lookupMisses = new DoubleMap<>(64);
     protected final List<TypeConverterLoader> typeConverterLoaders = new ArrayList<>();
     protected final List<FallbackTypeConverter> fallbackConverters = new CopyOnWriteArrayList<>();
     protected CamelContext camelContext;
@@ -92,6 +99,8 @@ public abstract class BaseTypeConverterRegistry extends ServiceSupport implement
     protected final LongAdder missCounter = new LongAdder();
     protected final LongAdder hitCounter = new LongAdder();
     protected final LongAdder failedCounter = new LongAdder();
+    protected boolean freezeOnStartup;
+    protected volatile boolean frozen;
 
     public BaseTypeConverterRegistry(CamelContext camelContext, PackageScanClassResolver resolver, Injector injector, FactoryFinder factoryFinder) {
         this.camelContext = camelContext;
@@ -275,7 +284,7 @@ public abstract class BaseTypeConverterRegistry extends ServiceSupport implement
                 TypeConverter tc = getOrFindTypeConverter(primitiveType, fromType);
                 if (tc != null) {
                     // add the type as a known type converter as we can convert from primitive to object converter
-                    addTypeConverter(type, fromType, tc);
+                    doAddTypeConverter(type, fromType, tc);
                     Object rc;
                     if (tryConvert) {
                         rc = tc.tryConvertTo(primitiveType, exchange, value);
@@ -317,7 +326,7 @@ public abstract class BaseTypeConverterRegistry extends ServiceSupport implement
                         log.debug("Promoting fallback type converter as a known type converter to convert from: {} to: {} for the fallback converter: {}",
                                 type.getCanonicalName(), value.getClass().getCanonicalName(), fallback.getFallbackTypeConverter());
                     }
-                    addTypeConverter(type, value.getClass(), fallback.getFallbackTypeConverter());
+                    doAddTypeConverter(type, value.getClass(), fallback.getFallbackTypeConverter());
                 }
 
                 if (log.isTraceEnabled()) {
@@ -342,6 +351,11 @@ public abstract class BaseTypeConverterRegistry extends ServiceSupport implement
 
     @Override
     public void addTypeConverter(Class<?> toType, Class<?> fromType, TypeConverter typeConverter) {
+        checkNotFrozen();
+        doAddTypeConverter(toType, fromType, typeConverter);
+    }
+
+    protected void doAddTypeConverter(Class<?> toType, Class<?> fromType, TypeConverter typeConverter) {
         log.trace("Adding type converter: {}", typeConverter);
         TypeConverter converter = typeMappings.get(toType, fromType);
         // only override it if its different
@@ -369,12 +383,15 @@ public abstract class BaseTypeConverterRegistry extends ServiceSupport implement
 
             if (add) {
                 typeMappings.put(toType, fromType, typeConverter);
+                // a previous miss may now be resolved
+                invalidateLookupMisses(toType, fromType);
             }
         }
     }
 
     @Override
     public void addTypeConverters(TypeConverters typeConverters) {
+        checkNotFrozen();
         log.trace("Adding type converters: {}", typeConverters);
         try {
             // scan the class for @Converter and load them into this registry
@@ -387,12 +404,14 @@ public abstract class BaseTypeConverterRegistry extends ServiceSupport implement
 
     @Override
     public boolean removeTypeConverter(Class<?> toType, Class<?> fromType) {
+        checkNotFrozen();
         log.trace("Removing type converter from: {} to: {}", fromType, toType);
         return typeMappings.remove(toType, fromType);
     }
 
     @Override
     public void addFallbackTypeConverter(TypeConverter typeConverter, boolean canPromote) {
+        checkNotFrozen();
         log.trace("Adding fallback type converter: {} which can promote: {}", typeConverter, canPromote);
 
         // add in top of fallback as the toString() fallback will nearly always be able to convert
@@ -452,16 +471,73 @@ public abstract class BaseTypeConverterRegistry extends ServiceSupport implement
 
     protected <T> TypeConverter getOrFindTypeConverter(Class<?> toType, Class<?> fromType) {
         TypeConverter converter = typeMappings.get(toType, fromType);
-        if (converter == null) {
+        if (converter == null && !lookupMisses.containsKey(toType, fromType)) {
             // converter not found, try to lookup then
             converter = lookup(toType, fromType);
             if (converter != null) {
                 typeMappings.put(toType, fromType, converter);
+            } else {
+                // remember the miss so we do not walk the class hierarchy again
+                lookupMisses.put(toType, fromType, Boolean.TRUE);
             }
         }
         return converter;
     }
 
+    /**
+     * Forgets the remembered misses which the added type converter can resolve, which are the lookups to
+     * the same or a super type of the converter, from the same or a sub type of the converter.
+     */
+    private void invalidateLookupMisses(Class<?> toType, Class<?> fromType) {
+        if (lookupMisses.size() == 0) {
+            return;
+        }
+        List<Class<?>[]> resolved = new ArrayList<>();
+        lookupMisses.forEach((missTo, missFrom, v) -> {
+            if (missTo.isAssignableFrom(toType) && (missFrom == null || fromType.isAssignableFrom(missFrom))) {
+                resolved.add(new Class<?>[]{missTo, missFrom});
+            }
+        });
+        for (Class<?>[] miss : resolved) {
+            lookupMisses.remove(miss[0], miss[1]);
+        }
+    }
+
+    /**
+     * Freezes this registry so type converters can no longer be added or removed, and any attempt to do so will
+     * fail with an {@link IllegalStateException}. Type converters resolved by looking up the type hierarchy,
+     * or promoted from fallback converters, are still remembered.
+     */
+    public void freeze() {
+        frozen = true;
+        log.debug("Type converter registry frozen with {} type converters", typeMappings.size());
+    }
+
+    /**
+     * Whether this registry has been frozen.
+     */
+    public boolean isFrozen() {
+        return frozen;
+    }
+
+    public boolean isFreezeOnStartup() {
+        return freezeOnStartup;
+    }
+
+    /**
+     * Whether to {@link #freeze()} this registry when {@link CamelContext} has been started.
+     * This can also be enabled by setting the global option {@link #TYPE_CONVERTER_FREEZE} to true.
+     */
+    public void setFreezeOnStartup(boolean freezeOnStartup) {
+        this.freezeOnStartup = freezeOnStartup;
+    }
+
+    protected void checkNotFrozen() {
+        if (frozen) {
+            throw new IllegalStateException("Cannot add or remove type converters as the type converter registry is frozen");
+        }
+    }
+
     @Override
     public TypeConverter lookup(Class<?> toType, Class<?> fromType) {
         return doLookup(toType, fromType, false);
@@ -685,7 +761,9 @@ public abstract class BaseTypeConverterRegistry extends ServiceSupport implement
 
     @Override
     protected void doStart() throws Exception {
-        // noop
+        if (camelContext != null) {
+            camelContext.addStartupListener(new FreezeStartupListener());
+        }
     }
 
     @Override
@@ -704,6 +782,8 @@ public abstract class BaseTypeConverterRegistry extends ServiceSupport implement
         }
 
         typeMappings.clear();
+        lookupMisses.clear();
+        frozen = false;
         statistics.reset();
     }
 
@@ -765,6 +845,24 @@ public abstract class BaseTypeConverterRegistry extends ServiceSupport implement
         }
     }
 
+    /**
+     * Freezes the registry when {@link CamelContext} has been fully started, if enabled.
+     */
+    private final class FreezeStartupListener implements ExtendedStartupListener {
+
+        @Override
+        public void onCamelContextStarted(CamelContext context, boolean alreadyStarted) throws Exception {
+            // noop as a registry started after the context is not frozen automatically
+        }
+
+        @Override
+        public void onCamelContextFullyStarted(CamelContext context, boolean alreadyStarted) throws Exception {
+            if (freezeOnStartup || "true".equalsIgnoreCase(context.getGlobalOption(TYPE_CONVERTER_FREEZE))) {
+                freeze();
+            }
+        }
+    }
+
     /**
      * Represents a fallback type converter
      */
@@ -40,6 +40,7 @@ import java.util.concurrent.ScheduledExecutorService;
 import java.util.concurrent.TimeUnit;
 import java.util.concurrent.atomic.AtomicBoolean;
 import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAdder;
 import java.util.function.Function;
 import java.util.function.Supplier;
 
@@ -97,6 +98,7 @@ import org.apache.camel.spi.DeferServiceFactory;
 import org.apache.camel.spi.EndpointRegistry;
 import org.apache.camel.spi.EndpointStrategy;
 import org.apache.camel.spi.EventNotifier;
+import org.apache.camel.spi.ExchangeFactory;
 import org.apache.camel.spi.ExecutorServiceManager;
 import org.apache.camel.spi.FactoryFinder;
 import org.apache.camel.spi.FactoryFinderResolver;
@@ -142,6 +144,7 @@ import org.apache.camel.support.CamelContextHelper;
 import org.apache.camel.support.EndpointHelper;
 import org.apache.camel.support.EventHelper;
 import org.apache.camel.support.IntrospectionSupport;
+import org.apache.camel.support.LRUCacheFactory;
 import org.apache.camel.support.OrderedComparator;
 import org.apache.camel.support.ProcessorEndpoint;
 import org.apache.camel.support.ResolverHelper;
@@ -251,6 +254,7 @@ public abstract class AbstractCamelContext extends ServiceSupport implements Ext
     private volatile ExecutorServiceManager executorServiceManager;
     private volatile UuidGenerator uuidGenerator;
     private volatile UnitOfWorkFactory unitOfWorkFactory;
+    private volatile ExchangeFactory exchangeFactory;
     private volatile RouteController routeController;
     private volatile ScheduledExecutorService errorHandlerExecutorService;
     private final DeferServiceFactory deferServiceFactory = new DefaultDeferServiceFactory();
@@ -259,6 +263,10 @@ public abstract class AbstractCamelContext extends ServiceSupport implements Ext
     private TransformerRegistry<TransformerKey> transformerRegistry;
     private ValidatorRegistry<ValidatorKey> validatorRegistry;
     private EndpointRegistry<EndpointKey> endpoints;
+    // cache of the normalized uris of recently looked up endpoints, so dynamic endpoints can skip normalizing
+    private volatile Map<String, String> normalizedEndpointUris;
+    private final LongAdder endpointUriCacheHits = new LongAdder();
+    private final LongAdder endpointUriCacheMisses = new LongAdder();
     private RuntimeEndpointRegistry runtimeEndpointRegistry;
 
     private final List<RouteStartupOrder> routeStartupOrder = new ArrayList<>();
@@ -696,7 +704,7 @@ public abstract class AbstractCamelContext extends ServiceSupport implements Ext
 
         // normalize uri so we can do endpoint hits with minor mistakes and
         // parameters is not in the same order
-        uri = normalizeEndpointUri(uri);
+        uri = normalizeEndpointUriCached(uri);
 
         log.trace("Getting endpoint with raw uri: {}, normalized uri: {}", rawUri, uri);
 
@@ -801,7 +809,7 @@ public abstract class AbstractCamelContext extends ServiceSupport implements Ext
 
         // normalize uri so we can do endpoint hits with minor mistakes and
         // parameters is not in the same order
-        uri = normalizeEndpointUri(uri);
+        uri = normalizeEndpointUriCached(uri);
 
         log.trace("Getting endpoint with raw uri: {}, normalized uri: {}", rawUri, uri);
 
@@ -954,6 +962,53 @@ public abstract class AbstractCamelContext extends ServiceSupport implements Ext
         return uri;
     }
 
+    /**
+     * Normalize uri using the cache of recently normalized uris, so endpoints which are looked up
+     * over and over again, such as dynamic endpoints from toD, recipient list and routing slip,
+     * are only normalized the first time.
+     *
+     * @param uri the uri
+     * @return normalized uri
+     * @throws ResolveEndpointFailedException if uri cannot be normalized
+     */
+    protected String normalizeEndpointUriCached(String uri) {
+        Map<String, String> cache = normalizedEndpointUris;
+        if (cache == null) {
+            return normalizeEndpointUri(uri);
+        }
+        String answer = cache.get(uri);
+        if (answer != null) {
+            endpointUriCacheHits.increment();
+        } else {
+            endpointUriCacheMisses.increment();
+            answer = normalizeEndpointUri(uri);
+            cache.put(uri, answer);
+        }
+        return answer;
+    }
+
+    @Override
+    public long getEndpointUriCacheHits() {
+        return endpointUriCacheHits.sum();
+    }
+
+    @Override
+    public long getEndpointUriCacheMisses() {
+        return endpointUriCacheMisses.sum();
+    }
+
+    @Override
+    public int getEndpointUriCacheSize() {
+        Map<String, String> cache = normalizedEndpointUris;
+        return cache != null ? cache.size() : 0;
+    }
+
+    @Override
+    public void resetEndpointUriCacheStatistics() {
+        endpointUriCacheHits.reset();
+        endpointUriCacheMisses.reset();
+    }
+
     /**
      * Gets the endpoint key to use for lookup or whe adding endpoints to the
      * {@link DefaultEndpointRegistry}
@@ -2101,6 +2156,21 @@ public abstract class AbstractCamelContext extends ServiceSupport implements Ext
         this.unitOfWorkFactory = doAddService(unitOfWorkFactory);
     }
 
+    public ExchangeFactory getExchangeFactory() {
+        if (exchangeFactory == null) {
+            synchronized (lock) {
+                if (exchangeFactory == null) {
+                    setExchangeFactory(createExchangeFactory());
+                }
+            }
+        }
+        return exchangeFactory;
+    }
+
+    public void setExchangeFactory(ExchangeFactory exchangeFactory) {
+        this.exchangeFactory = doAddService(exchangeFactory);
+    }
+
     public RuntimeEndpointRegistry getRuntimeEndpointRegistry() {
         return runtimeEndpointRegistry;
     }
@@ -2512,6 +2582,10 @@ public abstract class AbstractCamelContext extends ServiceSupport implements Ext
         // re-create endpoint registry as the cache size limit may be set after the constructor of this instance was called.
         // and we needed to create endpoints up-front as it may be accessed before this context is started
         endpoints = doAddService(createEndpointRegistry(endpoints));
+        // the uri cache uses the same limit as the endpoint registry
+        int size = CamelContextHelper.getMaximumEndpointCacheSize(this);
+        normalizedEndpointUris = LRUCacheFactory.newLRUCache(size, size, false);
+        resetEndpointUriCacheStatistics();
         // Initialize declarative transformer registry
         transformerRegistry = doAddService(createTransformerRegistry());
         // Initialize declarative validator registry
@@ -3279,6 +3353,7 @@ public abstract class AbstractCamelContext extends ServiceSupport implements Ext
         getModelJAXBContextFactory();
         getUuidGenerator();
         getUnitOfWorkFactory();
+        getExchangeFactory();
         getRouteController();
         getBeanProxyFactory();
         getBeanProcessorFactory();
@@ -4052,6 +4127,8 @@ public abstract class AbstractCamelContext extends ServiceSupport implements Ext
 
     protected abstract UnitOfWorkFactory createUnitOfWorkFactory();
 
+    protected abstract ExchangeFactory createExchangeFactory();
+
     protected abstract CamelContextNameStrategy createCamelContextNameStrategy();
 
     protected abstract ManagementNameStrategy createManagementNameStrategy();
@@ -24,7 +24,7 @@ import java.util.LinkedList;
 import java.util.List;
 import java.util.concurrent.ConcurrentHashMap;
 import java.util.concurrent.ConcurrentMap;
-import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAdder;
 import java.util.stream.Collectors;
 import java.util.stream.Stream;
 
@@ -35,41 +35,68 @@ import org.apache.camel.support.service.ServiceSupport;
 
 /**
  * Default {@link org.apache.camel.spi.InflightRepository}.
+ * <p/>
+ * The number of inflight exchanges is kept in striped counters (total and per route), so concurrent
+ * threads updating the counters do not contend with each other. The individual exchanges are only
+ * tracked when {@link #isInflightBrowseEnabled()} is enabled, which is needed for the browse and
+ * oldest operations.
  */
 public class DefaultInflightRepository extends ServiceSupport implements InflightRepository {
 
+    private final LongAdder size = new LongAdder();
     private final ConcurrentMap<String, Exchange> inflight = new ConcurrentHashMap<>();
-    private final ConcurrentMap<String, AtomicInteger> routeCount = new ConcurrentHashMap<>();
+    private final ConcurrentMap<String, LongAdder> routeCount = new ConcurrentHashMap<>();
+    private volatile boolean inflightBrowseEnabled = true;
 
     public void add(Exchange exchange) {
-        inflight.put(exchange.getExchangeId(), exchange);
+        size.increment();
+        if (inflightBrowseEnabled) {
+            inflight.put(exchange.getExchangeId(), exchange);
+        }
     }
 
     public void remove(Exchange exchange) {
-        inflight.remove(exchange.getExchangeId());
+        size.decrement();
+        // also remove if browsing has just been disabled while the exchange was being added
+        if (inflightBrowseEnabled || !inflight.isEmpty()) {
+            inflight.remove(exchange.getExchangeId());
+        }
     }
 
     public void add(Exchange exchange, String routeId) {
-        AtomicInteger existing = routeCount.get(routeId);
+        LongAdder existing = routeCount.get(routeId);
         if (existing != null) {
-            existing.incrementAndGet();
+            existing.increment();
         }
     }
 
     public void remove(Exchange exchange, String routeId) {
-        AtomicInteger existing = routeCount.get(routeId);
+        LongAdder existing = routeCount.get(routeId);
         if (existing != null) {
-            existing.decrementAndGet();
+            existing.decrement();
         }
     }
 
     public int size() {
-        return inflight.size();
+        return size.intValue();
+    }
+
+    @Override
+    public boolean isInflightBrowseEnabled() {
+        return inflightBrowseEnabled;
+    }
+
+    @Override
+    public void setInflightBrowseEnabled(boolean inflightBrowseEnabled) {
+        this.inflightBrowseEnabled = inflightBrowseEnabled;
+        if (!inflightBrowseEnabled) {
+            inflight.clear();
+        }
     }
 
     @Override
     public void addRoute(String routeId) {
-        routeCount.putIfAbsent(routeId, new AtomicInteger(0));
+        routeCount.putIfAbsent(routeId, new LongAdder());
     }
 
     @Override
@@ -79,8 +106,8 @@ public class DefaultInflightRepository extends ServiceSupport implements Infligh
 
     @Override
     public int size(String routeId) {
-        AtomicInteger existing = routeCount.get(routeId);
-        return existing != null ? existing.get() : 0;
+        LongAdder existing = routeCount.get(routeId);
+        return existing != null ? existing.intValue() : 0;
     }
 
     @Override
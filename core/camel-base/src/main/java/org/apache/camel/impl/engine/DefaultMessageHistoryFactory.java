@@ -16,25 +16,63 @@
  */
 package org.apache.camel.impl.engine;
 
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Date;
+import java.util.List;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+
 import org.apache.camel.CamelContext;
 import org.apache.camel.Exchange;
 import org.apache.camel.Message;
 import org.apache.camel.MessageHistory;
 import org.apache.camel.NamedNode;
+import org.apache.camel.Predicate;
 import org.apache.camel.api.management.ManagedAttribute;
+import org.apache.camel.api.management.ManagedOperation;
 import org.apache.camel.api.management.ManagedResource;
 import org.apache.camel.spi.MessageHistoryFactory;
+import org.apache.camel.spi.Synchronization;
 import org.apache.camel.support.DefaultMessageHistory;
 import org.apache.camel.support.PatternHelper;
+import org.apache.camel.support.SynchronizationAdapter;
 import org.apache.camel.support.service.ServiceSupport;
+import org.apache.camel.util.ObjectHelper;
 
+/**
+ * Default {@link MessageHistoryFactory}.
+ * <p/>
+ * By default the message history is recorded for every exchange. A sampling mode can be configured to only
+ * record the message history for one in every N exchanges ({@link #setSamplingInterval(int)}), a random
+ * percentage of the exchanges ({@link #setSamplingProbability(double)}), or the exchanges matching a predicate
+ * ({@link #setSamplingPredicate(Predicate)}). The exchanges which are not sampled do not have any message history,
+ * and the message histories of the sampled exchanges are kept in a bounded ring buffer when the exchanges complete,
+ * which can be browsed using {@link #getSampledMessageHistories()} or from JMX.
+ */
 @ManagedResource(description = "Managed MessageHistoryFactory")
 public class DefaultMessageHistoryFactory extends ServiceSupport implements MessageHistoryFactory {
 
+    private final AtomicLong samplingCounter = new AtomicLong();
+    private final AtomicLong sampledCounter = new AtomicLong();
+    private final AtomicLong sampledSequence = new AtomicLong();
+    private final Synchronization onSampledDone = new SynchronizationAdapter() {
+        @Override
+        public void onDone(Exchange exchange) {
+            addSampledMessageHistory(exchange);
+        }
+    };
     private CamelContext camelContext;
     private boolean copyMessage;
     private String nodePattern;
     private volatile String[] nodePatternParts;
+    private volatile int samplingInterval;
+    private volatile double samplingProbability = 1.0d;
+    private volatile Predicate samplingPredicate;
+    private String samplingFilter;
+    private int sampledBufferSize = 100;
+    private volatile AtomicReferenceArray<SampledMessageHistory> sampledBuffer = new AtomicReferenceArray<>(sampledBufferSize);
 
     @Override
     public CamelContext getCamelContext() {
@@ -44,6 +82,9 @@ public class DefaultMessageHistoryFactory extends ServiceSupport implements Mess
     @Override
     public void setCamelContext(CamelContext camelContext) {
         this.camelContext = camelContext;
+        if (samplingFilter != null) {
+            resolveSamplingFilter();
+        }
     }
 
     @Override
@@ -66,6 +107,101 @@ public class DefaultMessageHistoryFactory extends ServiceSupport implements Mess
         return new DefaultMessageHistory(routeId, node, timestamp, msg);
     }
 
+    @Override
+    public boolean isSampled(Exchange exchange) {
+        if (!isSampling()) {
+            return true;
+        }
+
+        Predicate predicate = samplingPredicate;
+        if (predicate != null && !predicate.matches(exchange)) {
+            return false;
+        }
+        int interval = samplingInterval;
+        if (interval > 1 && samplingCounter.incrementAndGet() % interval != 0) {
+            return false;
+        }
+        double probability = samplingProbability;
+        if (probability < 1.0d && ThreadLocalRandom.current().nextDouble() >= probability) {
+            return false;
+        }
+
+        sampledCounter.incrementAndGet();
+        exchange.addOnCompletion(onSampledDone);
+        return true;
+    }
+
+    /**
+     * Whether only a sample of the exchanges have message history recorded
+     */
+    public boolean isSampling() {
+        return samplingInterval > 1 || samplingProbability < 1.0d || samplingPredicate != null;
+    }
+
+    @SuppressWarnings("unchecked")
+    private void addSampledMessageHistory(Exchange exchange) {
+        AtomicReferenceArray<SampledMessageHistory> buffer = sampledBuffer;
+        if (buffer.length() == 0) {
+            return;
+        }
+        List<MessageHistory> list = exchange.getProperty(Exchange.MESSAGE_HISTORY, List.class);
+        // the sequence decides the slot so the oldest entry is overwritten when the buffer is full
+        long sequence = sampledSequence.getAndIncrement();
+        SampledMessageHistory history = new SampledMessageHistory(sequence, exchange, list);
+        buffer.set((int) (sequence % buffer.length()), history);
+    }
+
+    /**
+     * Gets the message histories of the latest sampled exchanges that has completed, ordered by oldest first.
+     */
+    public List<SampledMessageHistory> getSampledMessageHistories() {
+        AtomicReferenceArray<SampledMessageHistory> buffer = sampledBuffer;
+        List<SampledMessageHistory> answer = new ArrayList<>(buffer.length());
+        for (int i = 0; i < buffer.length(); i++) {
+            SampledMessageHistory history = buffer.get(i);
+            if (history != null) {
+                answer.add(history);
+            }
+        }
+        answer.sort((h1, h2) -> Long.compare(h1.getSequence(), h2.getSequence()));
+        return answer;
+    }
+
+    @ManagedOperation(description = "Dumps the message histories of the latest sampled exchanges as XML")
+    public String dumpSampledMessageHistoriesAsXml() {
+        StringBuilder sb = new StringBuilder();
+        sb.append("<sampledMessageHistories>");
+        for (SampledMessageHistory history : getSampledMessageHistories()) {
+            sb.append("\n  <sampledMessageHistory");
+            sb.append(" exchangeId=\"").append(history.getExchangeId()).append("\"");
+            sb.append(" fromRouteId=\"").append(history.getFromRouteId() != null ? history.getFromRouteId() : "").append("\"");
+            sb.append(" failed=\"").append(history.isFailed()).append("\"");
+            sb.append(" elapsed=\"").append(history.getElapsed()).append("\">");
+            for (MessageHistory node : history.getMessageHistory()) {
+                sb.append("\n    <node");
+                sb.append(" routeId=\"").append(node.getRouteId() != null ? node.getRouteId() : "").append("\"");
+                sb.append(" id=\"").append(node.getNode().getId()).append("\"");
+                sb.append(" elapsed=\"").append(node.getElapsed()).append("\"/>");
+            }
+            sb.append("\n  </sampledMessageHistory>");
+        }
+        sb.append("\n</sampledMessageHistories>");
+        return sb.toString();
+    }
+
+    @ManagedOperation(description = "Clears the message histories of the sampled exchanges")
+    public void clearSampledMessageHistories() {
+        AtomicReferenceArray<SampledMessageHistory> buffer = sampledBuffer;
+        for (int i = 0; i < buffer.length(); i++) {
+            buffer.set(i, null);
+        }
+    }
+
+    @ManagedAttribute(description = "Number of exchanges which has been sampled")
+    public long getSampledCounter() {
+        return sampledCounter.get();
+    }
+
     @ManagedAttribute(description = "Whether message history is enabled")
     public boolean isEnabled() {
         return camelContext != null ? camelContext.isMessageHistory() : false;
@@ -94,13 +230,138 @@ public class DefaultMessageHistoryFactory extends ServiceSupport implements Mess
         }
     }
 
+    @ManagedAttribute(description = "To only record message history for one in every N exchanges (0 or 1 is every exchange)")
+    public int getSamplingInterval() {
+        return samplingInterval;
+    }
+
+    @ManagedAttribute(description = "To only record message history for one in every N exchanges (0 or 1 is every exchange)")
+    public void setSamplingInterval(int samplingInterval) {
+        this.samplingInterval = samplingInterval;
+    }
+
+    @ManagedAttribute(description = "The probability (between 0 and 1) an exchange has message history recorded")
+    public double getSamplingProbability() {
+        return samplingProbability;
+    }
+
+    @ManagedAttribute(description = "The probability (between 0 and 1) an exchange has message history recorded")
+    public void setSamplingProbability(double samplingProbability) {
+        this.samplingProbability = samplingProbability;
+    }
+
+    public Predicate getSamplingPredicate() {
+        return samplingPredicate;
+    }
+
+    /**
+     * To only record message history for the exchanges matching the predicate
+     */
+    public void setSamplingPredicate(Predicate samplingPredicate) {
+        this.samplingPredicate = samplingPredicate;
+    }
+
+    @ManagedAttribute(description = "To only record message history for the exchanges matching the simple language predicate")
+    public String getSamplingFilter() {
+        return samplingFilter;
+    }
+
+    @ManagedAttribute(description = "To only record message history for the exchanges matching the simple language predicate")
+    public void setSamplingFilter(String samplingFilter) {
+        this.samplingFilter = samplingFilter;
+        if (samplingFilter == null) {
+            this.samplingPredicate = null;
+        } else if (camelContext != null) {
+            resolveSamplingFilter();
+        }
+        // otherwise the filter is resolved when the camel context is set or when starting
+    }
+
+    @ManagedAttribute(description = "Number of message histories of the latest sampled exchanges to keep")
+    public int getSampledBufferSize() {
+        return sampledBufferSize;
+    }
+
+    @ManagedAttribute(description = "Number of message histories of the latest sampled exchanges to keep")
+    public void setSampledBufferSize(int sampledBufferSize) {
+        this.sampledBufferSize = sampledBufferSize;
+        this.sampledBuffer = new AtomicReferenceArray<>(Math.max(0, sampledBufferSize));
+    }
+
     @Override
     protected void doStart() throws Exception {
-        // noop
+        if (samplingFilter != null && samplingPredicate == null) {
+            ObjectHelper.notNull(camelContext, "camelContext", this);
+            resolveSamplingFilter();
+        }
     }
 
     @Override
     protected void doStop() throws Exception {
         // noop
     }
+
+    private void resolveSamplingFilter() {
+        this.samplingPredicate = camelContext.resolveLanguage("simple").createPredicate(samplingFilter);
+    }
+
+    /**
+     * The message history of a sampled exchange which has completed.
+     */
+    public static final class SampledMessageHistory {
+
+        private final long sequence;
+        private final String exchangeId;
+        private final String fromRouteId;
+        private final Date created;
+        private final long elapsed;
+        private final boolean failed;
+        private final List<MessageHistory> messageHistory;
+
+        private SampledMessageHistory(long sequence, Exchange exchange, List<MessageHistory> list) {
+            this.sequence = sequence;
+            this.exchangeId = exchange.getExchangeId();
+            this.fromRouteId = exchange.getFromRouteId();
+            this.created = exchange.getCreated();
+            this.elapsed = created != null ? System.currentTimeMillis() - created.getTime() : 0;
+            this.failed = exchange.isFailed();
+            this.messageHistory = list != null ? Collections.unmodifiableList(new ArrayList<>(list)) : Collections.emptyList();
+        }
+
+        public long getSequence() {
+            return sequence;
+        }
+
+        public String getExchangeId() {
+            return exchangeId;
+        }
+
+        public String getFromRouteId() {
+            return fromRouteId;
+        }
+
+        public Date getCreated() {
+            return created;
+        }
+
+        /**
+         * The time in millis from the exchange was created until it completed
+         */
+        public long getElapsed() {
+            return elapsed;
+        }
+
+        public boolean isFailed() {
+            return failed;
+        }
+
+        public List<MessageHistory> getMessageHistory() {
+            return messageHistory;
+        }
+
+        @Override
+        public String toString() {
+            return "SampledMessageHistory[exchangeId=" + exchangeId + "]";
+        }
+    }
 }
@@ -19,6 +19,7 @@ package org.apache.camel.impl.engine;
 import java.io.File;
 import java.lang.management.ManagementFactory;
 import java.lang.management.MemoryMXBean;
+import java.nio.ByteBuffer;
 import java.util.LinkedHashSet;
 import java.util.Set;
 import java.util.UUID;
@@ -49,6 +50,8 @@ public class DefaultStreamCachingStrategy extends ServiceSupport implements Came
     private String spoolCipher;
     private int bufferSize = IOHelper.DEFAULT_BUFFER_SIZE;
     private boolean removeSpoolDirectoryWhenStopping = true;
+    private boolean offHeap;
+    private volatile DirectBufferPool directBufferPool;
     private final UtilizationStatistics statistics = new UtilizationStatistics();
     private final Set<SpoolRule> spoolRules = new LinkedHashSet<>();
     private boolean anySpoolRules;
@@ -129,6 +132,38 @@ public class DefaultStreamCachingStrategy extends ServiceSupport implements Came
         this.removeSpoolDirectoryWhenStopping = removeSpoolDirectoryWhenStopping;
     }
 
+    public boolean isOffHeap() {
+        return offHeap;
+    }
+
+    public void setOffHeap(boolean offHeap) {
+        this.offHeap = offHeap;
+    }
+
+    public ByteBuffer acquireDirectBuffer() {
+        DirectBufferPool pool = directBufferPool;
+        if (pool != null) {
+            return pool.acquire();
+        }
+        // not started so the buffer is not pooled
+        return ByteBuffer.allocateDirect(bufferSize);
+    }
+
+    public void releaseDirectBuffer(ByteBuffer buffer) {
+        DirectBufferPool pool = directBufferPool;
+        if (pool != null) {
+            pool.release(buffer);
+        }
+    }
+
+    /**
+     * Number of free direct buffers in the pool used by the off-heap stream caches
+     */
+    public int getDirectBufferPoolSize() {
+        DirectBufferPool pool = directBufferPool;
+        return pool != null ? pool.getSize() : 0;
+    }
+
     public boolean isAnySpoolRules() {
         return anySpoolRules;
     }
@@ -227,6 +262,10 @@ public class DefaultStreamCachingStrategy extends ServiceSupport implements Came
             throw new IllegalArgumentException("SpoolHeapMemoryWatermarkThreshold must not be higher than 99, was: " + spoolUsedHeapMemoryThreshold);
         }
 
+        if (offHeap) {
+            directBufferPool = new DirectBufferPool(bufferSize);
+        }
+
         // if we can overflow to disk then make sure directory exists / is created
         if (spoolThreshold > 0 || spoolUsedHeapMemoryThreshold > 0) {
 
@@ -283,6 +322,12 @@ public class DefaultStreamCachingStrategy extends ServiceSupport implements Came
 
     @Override
     protected void doStop() throws Exception {
+        if (directBufferPool != null) {
+            // the buffers still in use by stream caches are left to the garbage collector when they are released
+            directBufferPool.clear();
+            directBufferPool = null;
+        }
+
         if (spoolThreshold > 0 & spoolDirectory != null  && isRemoveSpoolDirectoryWhenStopping()) {
             log.debug("Removing spool directory: {}", spoolDirectory);
             FileUtil.removeDir(spoolDirectory);
@@ -303,6 +348,7 @@ public class DefaultStreamCachingStrategy extends ServiceSupport implements Came
             + ", spoolThreshold=" + spoolThreshold
             + ", spoolUsedHeapMemoryThreshold=" + spoolUsedHeapMemoryThreshold
             + ", bufferSize=" + bufferSize
+            + ", offHeap=" + offHeap
             + ", anySpoolRules=" + anySpoolRules + "]";
     }
 
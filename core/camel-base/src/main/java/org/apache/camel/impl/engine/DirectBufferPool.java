@@ -0,0 +1,84 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.apache.camel.impl.engine;
+
+import java.nio.ByteBuffer;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+
+/**
+ * A pool of direct {@link ByteBuffer}s of the same size used by the off-heap stream caches.
+ * <p/>
+ * Allocating direct buffers is expensive and they are only freed by the garbage collector, so the buffers
+ * are recycled when the stream caches using them are done. The pool keeps at most {@link #MAX_POOLED_BYTES}
+ * bytes of free buffers, any buffers beyond are left to the garbage collector.
+ */
+final class DirectBufferPool {
+
+    static final int MAX_POOLED_BYTES = 16 * 1024 * 1024;
+
+    private final int bufferSize;
+    private final BlockingQueue<ByteBuffer> buffers;
+
+    DirectBufferPool(int bufferSize) {
+        this.bufferSize = bufferSize;
+        this.buffers = new ArrayBlockingQueue<>(Math.max(16, MAX_POOLED_BYTES / bufferSize));
+    }
+
+    int getBufferSize() {
+        return bufferSize;
+    }
+
+    /**
+     * Number of free buffers in the pool
+     */
+    int getSize() {
+        return buffers.size();
+    }
+
+    /**
+     * Acquires a cleared buffer from the pool, or allocates a new buffer if the pool is empty.
+     */
+    ByteBuffer acquire() {
+        ByteBuffer buffer = buffers.poll();
+        if (buffer == null) {
+            buffer = ByteBuffer.allocateDirect(bufferSize);
+        } else {
+            buffer.clear();
+        }
+        return buffer;
+    }
+
+    /**
+     * Returns the buffer to the pool. The buffer must not be used afterwards.
+     */
+    void release(ByteBuffer buffer) {
+        // only keep buffers of the size of this pool
+        if (buffer.isDirect() && buffer.capacity() == bufferSize) {
+            buffer.clear();
+            buffers.offer(buffer);
+        }
+    }
+
+    /**
+     * Removes all the free buffers from the pool, leaving them to the garbage collector.
+     */
+    void clear() {
+        buffers.clear();
+    }
+
+}
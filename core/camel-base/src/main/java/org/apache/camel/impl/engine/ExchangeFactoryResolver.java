@@ -0,0 +1,93 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.apache.camel.impl.engine;
+
+import java.io.IOException;
+
+import org.apache.camel.CamelContext;
+import org.apache.camel.ExtendedCamelContext;
+import org.apache.camel.spi.ExchangeFactory;
+import org.apache.camel.spi.FactoryFinder;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Factory resolver to create the {@link org.apache.camel.spi.ExchangeFactory} to be used.
+ * <p/>
+ * The built-in implementations can be selected by setting the global option {@link #EXCHANGE_FACTORY}
+ * to either <tt>prototype</tt> or <tt>pooled</tt>. Otherwise a custom implementation is
+ * discovered via the factory finder, and if none is found then {@link PrototypeExchangeFactory} is used.
+ */
+public class ExchangeFactoryResolver {
+
+    public static final String RESOURCE_PATH = "META-INF/services/org/apache/camel/";
+
+    /**
+     * Global option to select which built-in {@link ExchangeFactory} to use.
+     */
+    public static final String EXCHANGE_FACTORY = "CamelExchangeFactory";
+
+    private static final Logger LOG = LoggerFactory.getLogger(ExchangeFactoryResolver.class);
+
+    private FactoryFinder factoryFinder;
+
+    public ExchangeFactory resolve(CamelContext context) {
+        String name = context.getGlobalOption(EXCHANGE_FACTORY);
+        if ("pooled".equalsIgnoreCase(name)) {
+            LOG.debug("Creating PooledExchangeFactory");
+            return new PooledExchangeFactory(context);
+        } else if ("prototype".equalsIgnoreCase(name)) {
+            LOG.debug("Creating PrototypeExchangeFactory");
+            return new PrototypeExchangeFactory(context);
+        } else if (name != null) {
+            throw new IllegalArgumentException("Unknown ExchangeFactory: " + name + ". Supported values: prototype, pooled");
+        }
+
+        // use factory finder to find a custom implementations
+        Class<?> type = null;
+        try {
+            type = findFactory("exchange-factory", context);
+        } catch (Exception e) {
+            // ignore
+        }
+
+        if (type != null) {
+            if (LOG.isDebugEnabled()) {
+                LOG.debug("Found ExchangeFactory: {} via: {}{}", type.getName(), factoryFinder.getResourcePath(), "exchange-factory");
+            }
+            if (ExchangeFactory.class.isAssignableFrom(type)) {
+                ExchangeFactory answer = (ExchangeFactory) context.getInjector().newInstance(type, false);
+                LOG.debug("Detected and using ExchangeFactory: {}", answer);
+                return answer;
+            } else {
+                throw new IllegalArgumentException("Type is not a ExchangeFactory implementation. Found: " + type.getName());
+            }
+        }
+
+        // fallback to default
+        LOG.debug("Creating PrototypeExchangeFactory");
+        return new PrototypeExchangeFactory(context);
+    }
+
+    private Class<?> findFactory(String name, CamelContext context) throws ClassNotFoundException, IOException {
+        if (factoryFinder == null) {
+            factoryFinder = context.adapt(ExtendedCamelContext.class).getFactoryFinder(RESOURCE_PATH);
+        }
+        return factoryFinder.findClass(name);
+    }
+
+}
@@ -0,0 +1,215 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.apache.camel.impl.engine;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+
+import org.apache.camel.CamelContext;
+import org.apache.camel.Endpoint;
+import org.apache.camel.Exchange;
+import org.apache.camel.ExchangePattern;
+import org.apache.camel.api.management.ManagedAttribute;
+import org.apache.camel.api.management.ManagedOperation;
+import org.apache.camel.api.management.ManagedResource;
+import org.apache.camel.support.DefaultExchange;
+
+/**
+ * Pooled {@link org.apache.camel.spi.ExchangeFactory} that recycles the exchanges which has been released back
+ * to the factory when they are no longer in use.
+ * <p/>
+ * A released exchange is {@link DefaultExchange#reset() reset} before it is returned to the pool. If the pool is
+ * full then the exchange is discarded and left for garbage collection. When leak detection is enabled then the
+ * exchanges in use are tracked together with the stacktrace of where they was acquired, and any exchange which
+ * was never released is logged as a WARN when this factory is stopped.
+ */
+@ManagedResource(description = "Managed PooledExchangeFactory")
+public class PooledExchangeFactory extends PrototypeExchangeFactory {
+
+    private volatile BlockingQueue<DefaultExchange> pool;
+    private final Map<Exchange, Throwable> inUse = Collections.synchronizedMap(new IdentityHashMap<>());
+    private int capacity = 100;
+    private volatile boolean leakDetectionEnabled;
+
+    public PooledExchangeFactory(CamelContext camelContext) {
+        super(camelContext);
+    }
+
+    @Override
+    public Exchange create(Endpoint fromEndpoint, ExchangePattern exchangePattern) {
+        DefaultExchange answer = null;
+        BlockingQueue<DefaultExchange> queue = pool;
+        // the exchange is bound to the camel context so we can only recycle for the same context
+        if (queue != null && fromEndpoint.getCamelContext() == camelContext) {
+            answer = queue.poll();
+        }
+        if (answer != null) {
+            answer.setFromEndpoint(fromEndpoint);
+            answer.setPattern(exchangePattern);
+            if (statistics.isStatisticsEnabled()) {
+                acquiredCounter.increment();
+            }
+        } else {
+            answer = new DefaultExchange(fromEndpoint, exchangePattern);
+            if (statistics.isStatisticsEnabled()) {
+                createdCounter.increment();
+            }
+        }
+        if (leakDetectionEnabled) {
+            inUse.put(answer, new Throwable("Exchange acquired from ExchangeFactory"));
+        }
+        return answer;
+    }
+
+    @Override
+    public boolean release(Exchange exchange) {
+        if (leakDetectionEnabled) {
+            inUse.remove(exchange);
+        }
+
+        BlockingQueue<DefaultExchange> queue = pool;
+        boolean released = false;
+        if (queue != null && exchange instanceof DefaultExchange && exchange.getContext() == camelContext) {
+            DefaultExchange de = (DefaultExchange) exchange;
+            de.reset();
+            released = queue.offer(de);
+        }
+        if (statistics.isStatisticsEnabled()) {
+            if (released) {
+                releasedCounter.increment();
+            } else {
+                discardedCounter.increment();
+            }
+        }
+        return released;
+    }
+
+    @Override
+    public boolean isPooled() {
+        return true;
+    }
+
+    @Override
+    @ManagedAttribute(description = "Maximum number of exchanges kept in the pool")
+    public int getCapacity() {
+        return capacity;
+    }
+
+    @Override
+    public void setCapacity(int capacity) {
+        this.capacity = capacity;
+    }
+
+    @Override
+    @ManagedAttribute(description = "Current number of exchanges in the pool")
+    public int getSize() {
+        BlockingQueue<DefaultExchange> queue = pool;
+        return queue != null ? queue.size() : 0;
+    }
+
+    @Override
+    @ManagedAttribute(description = "Whether leak detection is enabled")
+    public boolean isLeakDetectionEnabled() {
+        return leakDetectionEnabled;
+    }
+
+    @Override
+    public void setLeakDetectionEnabled(boolean leakDetectionEnabled) {
+        this.leakDetectionEnabled = leakDetectionEnabled;
+    }
+
+    /**
+     * Number of exchanges acquired which has not yet been released, only tracked when leak detection is enabled.
+     */
+    @ManagedAttribute(description = "Number of exchanges in use (only tracked when leak detection is enabled)")
+    public int getInUseSize() {
+        return inUse.size();
+    }
+
+    @ManagedAttribute(description = "Whether statistics is enabled")
+    public boolean isStatisticsEnabled() {
+        return statistics.isStatisticsEnabled();
+    }
+
+    @ManagedAttribute(description = "Whether statistics is enabled")
+    public void setStatisticsEnabled(boolean statisticsEnabled) {
+        statistics.setStatisticsEnabled(statisticsEnabled);
+    }
+
+    @ManagedAttribute(description = "Number of new exchanges created (pool misses)")
+    public long getCreatedCounter() {
+        return statistics.getCreatedCounter();
+    }
+
+    @ManagedAttribute(description = "Number of exchanges acquired from the pool (pool hits)")
+    public long getAcquiredCounter() {
+        return statistics.getAcquiredCounter();
+    }
+
+    @ManagedAttribute(description = "Number of exchanges released back to the pool")
+    public long getReleasedCounter() {
+        return statistics.getReleasedCounter();
+    }
+
+    @ManagedAttribute(description = "Number of released exchanges discarded")
+    public long getDiscardedCounter() {
+        return statistics.getDiscardedCounter();
+    }
+
+    @ManagedOperation(description = "Resets the statistics")
+    public void resetStatistics() {
+        statistics.reset();
+    }
+
+    @Override
+    protected void doStart() throws Exception {
+        if (capacity <= 0) {
+            throw new IllegalArgumentException("Capacity must be positive, was: " + capacity);
+        }
+        pool = new ArrayBlockingQueue<>(capacity);
+    }
+
+    @Override
+    protected void doStop() throws Exception {
+        if (leakDetectionEnabled) {
+            List<Throwable> leaks;
+            synchronized (inUse) {
+                leaks = new ArrayList<>(inUse.values());
+                inUse.clear();
+            }
+            for (Throwable leak : leaks) {
+                log.warn("Leak detected: Exchange was acquired but never released back to the ExchangeFactory", leak);
+            }
+        }
+        if (pool != null) {
+            pool.clear();
+            pool = null;
+        }
+        super.doStop();
+    }
+
+    @Override
+    public String toString() {
+        return "PooledExchangeFactory[capacity=" + capacity + "]";
+    }
+
+}
@@ -0,0 +1,161 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.apache.camel.impl.engine;
+
+import java.util.concurrent.atomic.LongAdder;
+
+import org.apache.camel.CamelContext;
+import org.apache.camel.Endpoint;
+import org.apache.camel.Exchange;
+import org.apache.camel.ExchangePattern;
+import org.apache.camel.StaticService;
+import org.apache.camel.spi.ExchangeFactory;
+import org.apache.camel.support.DefaultExchange;
+import org.apache.camel.support.service.ServiceSupport;
+
+/**
+ * {@link ExchangeFactory} that creates a new {@link Exchange} instance every time, which is the default.
+ */
+public class PrototypeExchangeFactory extends ServiceSupport implements ExchangeFactory, StaticService {
+
+    protected final CamelContext camelContext;
+    protected final LongAdder createdCounter = new LongAdder();
+    protected final LongAdder acquiredCounter = new LongAdder();
+    protected final LongAdder releasedCounter = new LongAdder();
+    protected final LongAdder discardedCounter = new LongAdder();
+    protected final UtilizationStatistics statistics = new UtilizationStatistics();
+
+    public PrototypeExchangeFactory(CamelContext camelContext) {
+        this.camelContext = camelContext;
+    }
+
+    public CamelContext getCamelContext() {
+        return camelContext;
+    }
+
+    @Override
+    public Exchange create(Endpoint fromEndpoint, ExchangePattern exchangePattern) {
+        if (statistics.isStatisticsEnabled()) {
+            createdCounter.increment();
+        }
+        return new DefaultExchange(fromEndpoint, exchangePattern);
+    }
+
+    @Override
+    public boolean release(Exchange exchange) {
+        // not pooled so the exchange is just left for garbage collection
+        return false;
+    }
+
+    @Override
+    public boolean isPooled() {
+        return false;
+    }
+
+    @Override
+    public int getCapacity() {
+        return 0;
+    }
+
+    @Override
+    public void setCapacity(int capacity) {
+        // not in use
+    }
+
+    @Override
+    public int getSize() {
+        return 0;
+    }
+
+    @Override
+    public boolean isLeakDetectionEnabled() {
+        return false;
+    }
+
+    @Override
+    public void setLeakDetectionEnabled(boolean leakDetectionEnabled) {
+        // not in use
+    }
+
+    @Override
+    public Statistics getStatistics() {
+        return statistics;
+    }
+
+    @Override
+    protected void doStart() throws Exception {
+        // noop
+    }
+
+    @Override
+    protected void doStop() throws Exception {
+        statistics.reset();
+    }
+
+    /**
+     * Represents utilization statistics
+     */
+    protected final class UtilizationStatistics implements Statistics {
+
+        private volatile boolean statisticsEnabled;
+
+        @Override
+        public long getCreatedCounter() {
+            return createdCounter.longValue();
+        }
+
+        @Override
+        public long getAcquiredCounter() {
+            return acquiredCounter.longValue();
+        }
+
+        @Override
+        public long getReleasedCounter() {
+            return releasedCounter.longValue();
+        }
+
+        @Override
+        public long getDiscardedCounter() {
+            return discardedCounter.longValue();
+        }
+
+        @Override
+        public void reset() {
+            createdCounter.reset();
+            acquiredCounter.reset();
+            releasedCounter.reset();
+            discardedCounter.reset();
+        }
+
+        @Override
+        public boolean isStatisticsEnabled() {
+            return statisticsEnabled;
+        }
+
+        @Override
+        public void setStatisticsEnabled(boolean statisticsEnabled) {
+            this.statisticsEnabled = statisticsEnabled;
+        }
+
+        @Override
+        public String toString() {
+            return String.format("ExchangeFactory utilization[created=%s, acquired=%s, released=%s, discarded=%s]",
+                    getCreatedCounter(), getAcquiredCounter(), getReleasedCounter(), getDiscardedCounter());
+        }
+    }
+
+}
@@ -27,16 +27,36 @@ import org.slf4j.LoggerFactory;
 
 /**
  * Factory resolver to create the {@link org.apache.camel.spi.ReactiveExecutor} to be used.
+ * <p/>
+ * The built-in implementations can be selected by setting the global option {@link #REACTIVE_EXECUTOR}
+ * to either <tt>default</tt> or <tt>work-stealing</tt>. Otherwise a custom implementation is
+ * discovered via the factory finder, and if none is found then {@link DefaultReactiveExecutor} is used.
  */
 public class ReactiveExecutorResolver {
 
     public static final String RESOURCE_PATH = "META-INF/services/org/apache/camel/";
 
+    /**
+     * Global option to select which built-in {@link ReactiveExecutor} to use.
+     */
+    public static final String REACTIVE_EXECUTOR = "CamelReactiveExecutor";
+
     private static final Logger LOG = LoggerFactory.getLogger(ReactiveExecutorResolver.class);
 
     private FactoryFinder factoryFinder;
 
     public ReactiveExecutor resolve(CamelContext context) {
+        String name = context.getGlobalOption(REACTIVE_EXECUTOR);
+        if ("work-stealing".equalsIgnoreCase(name)) {
+            LOG.debug("Creating WorkStealingReactiveExecutor");
+            return new WorkStealingReactiveExecutor();
+        } else if ("default".equalsIgnoreCase(name)) {
+            LOG.debug("Creating default ReactiveExecutor");
+            return new DefaultReactiveExecutor();
+        } else if (name != null) {
+            throw new IllegalArgumentException("Unknown ReactiveExecutor: " + name + ". Supported values: default, work-stealing");
+        }
+
         // use factory finder to find a custom implementations
         Class<?> type = null;
         try {
@@ -20,6 +20,7 @@ import java.util.Map;
 import java.util.Objects;
 import java.util.concurrent.ConcurrentHashMap;
 import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.atomic.AtomicInteger;
 import java.util.function.Function;
 
 import org.apache.camel.Endpoint;
@@ -40,6 +41,8 @@ import org.slf4j.LoggerFactory;
  * (the capacity) services. The pool can contain an unbounded number of keys.
  * <p/>
  * By default the capacity is set to 100.
+ * <p/>
+ * Acquiring a service which is already in the pool is lock-free.
  */
 public class ServicePool<S extends Service> extends ServiceSupport implements NonManagedService {
 
@@ -101,7 +104,11 @@ public class ServicePool<S extends Service> extends ServiceSupport implements No
         }
         S s = getPool(endpoint).acquire();
         if (s != null && cache != null) {
-            cache.putIfAbsent(new Key<>(s), s);
+            Key<S> key = new Key<>(s);
+            // a lookup is enough to mark the service as recently used, so only add it the first time
+            if (cache.get(key) == null) {
+                cache.putIfAbsent(key, s);
+            }
         }
         return s;
     }
@@ -117,7 +124,12 @@ public class ServicePool<S extends Service> extends ServiceSupport implements No
     }
 
     protected Pool<S> getPool(Endpoint endpoint) {
-        return pool.computeIfAbsent(endpoint, this::createPool);
+        // computeIfAbsent locks even if the pool exists, so do a lookup first
+        Pool<S> answer = pool.get(endpoint);
+        if (answer == null) {
+            answer = pool.computeIfAbsent(endpoint, this::createPool);
+        }
+        return answer;
     }
 
     private Pool<S> createPool(Endpoint endpoint) {
@@ -273,6 +285,8 @@ public class ServicePool<S extends Service> extends ServiceSupport implements No
     private class MultiplePool implements Pool<S> {
         private final Endpoint endpoint;
         private final ConcurrentLinkedQueue<S> queue = new ConcurrentLinkedQueue<>();
+        // the size of the queue is not constant-time so keep track of it separately
+        private final AtomicInteger size = new AtomicInteger();
 
         public MultiplePool(Endpoint endpoint) {
             this.endpoint = endpoint;
@@ -281,7 +295,9 @@ public class ServicePool<S extends Service> extends ServiceSupport implements No
         @Override
         public S acquire() throws Exception {
             S s = queue.poll();
-            if (s == null) {
+            if (s != null) {
+                size.decrementAndGet();
+            } else {
                 s = producer.apply(endpoint);
                 s.start();
             }
@@ -290,27 +306,31 @@ public class ServicePool<S extends Service> extends ServiceSupport implements No
 
         @Override
         public void release(S s) {
-            if (queue.size() < capacity) {
+            if (size.incrementAndGet() <= capacity) {
                 queue.add(s);
             } else {
+                size.decrementAndGet();
                 ServicePool.stop(s);
             }
         }
 
         @Override
         public int size() {
-            return queue.size();
+            return size.get();
         }
 
         @Override
         public void stop() {
             queue.forEach(ServicePool::stop);
             queue.clear();
+            size.set(0);
         }
 
         @Override
         public void evict(S s) {
-            queue.remove(s);
+            if (queue.remove(s)) {
+                size.decrementAndGet();
+            }
             ServicePool.stop(s);
         }
     }
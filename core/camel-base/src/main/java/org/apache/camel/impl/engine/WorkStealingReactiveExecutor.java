@@ -0,0 +1,625 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.apache.camel.impl.engine;
+
+import java.lang.ref.WeakReference;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
+
+import org.apache.camel.AsyncCallback;
+import org.apache.camel.StaticService;
+import org.apache.camel.api.management.ManagedAttribute;
+import org.apache.camel.api.management.ManagedResource;
+import org.apache.camel.spi.ReactiveExecutor;
+import org.apache.camel.support.service.ServiceSupport;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * A multi-core {@link ReactiveExecutor} which keeps an array based deque of tasks per thread,
+ * and allows threads that have run out of work to steal pending tasks from other threads.
+ * <p/>
+ * The scheduling semantics per thread are the same as {@link DefaultReactiveExecutor}, however there are no
+ * global counters updated on the scheduling path. The statistics are kept per worker (written only by its owner thread)
+ * and are summed up when they are read, which means they are a sampled snapshot and not an exact value.
+ * <p/>
+ * Every task belongs to a strand, which is the chain of tasks started by {@link #scheduleMain(Runnable)}, and the
+ * continuations scheduled by the tasks of the strand. A task is only stolen when it is the only pending task of its
+ * strand, and no other task of the strand is running, so the tasks of a strand are never reordered or run in parallel,
+ * and the continuations keep the same ordering guarantees as with {@link DefaultReactiveExecutor}. Tasks of different
+ * strands may run in another order, the same as when exchanges are routed by different threads.
+ * <p/>
+ * Tasks are never stolen from threads which are running in synchronous mode (such as transacted exchanges).
+ * <p/>
+ * This executor can be selected by setting the global option {@link ReactiveExecutorResolver#REACTIVE_EXECUTOR}
+ * to <tt>work-stealing</tt>.
+ */
+@ManagedResource(description = "Managed WorkStealingReactiveExecutor")
+public class WorkStealingReactiveExecutor extends ServiceSupport implements ReactiveExecutor, StaticService {
+
+    private static final Logger LOG = LoggerFactory.getLogger(WorkStealingReactiveExecutor.class);
+
+    private final ThreadLocal<Worker> workers = ThreadLocal.withInitial(this::createWorker);
+    private final Object registryLock = new Object();
+    // copy-on-write array of all the workers which tasks can be stolen from
+    private volatile Worker[] registry = new Worker[0];
+
+    // statistics from workers which threads are no longer alive
+    private final AtomicLong retiredScheduled = new AtomicLong();
+    private final AtomicLong retiredExecuted = new AtomicLong();
+    private final AtomicLong retiredStolen = new AtomicLong();
+    private final AtomicLong createdWorkers = new AtomicLong();
+
+    private int initialCapacity = 16;
+    private boolean stealingEnabled = true;
+    private int stealThreshold = 2;
+    private int maxStealsPerDrain = 16;
+
+    public int getInitialCapacity() {
+        return initialCapacity;
+    }
+
+    /**
+     * Initial capacity of the per thread task queue. The queue grows on demand. Default is 16.
+     */
+    public void setInitialCapacity(int initialCapacity) {
+        this.initialCapacity = initialCapacity;
+    }
+
+    @ManagedAttribute(description = "Whether work stealing is enabled")
+    public boolean isStealingEnabled() {
+        return stealingEnabled;
+    }
+
+    /**
+     * Whether threads which have no more tasks can steal tasks from other threads. Default is true.
+     */
+    @ManagedAttribute(description = "Whether work stealing is enabled")
+    public void setStealingEnabled(boolean stealingEnabled) {
+        this.stealingEnabled = stealingEnabled;
+    }
+
+    @ManagedAttribute(description = "Minimum number of pending tasks a worker must have before tasks can be stolen from it")
+    public int getStealThreshold() {
+        return stealThreshold;
+    }
+
+    /**
+     * Minimum number of pending tasks a worker must have before tasks can be stolen from it. Default is 2.
+     */
+    @ManagedAttribute(description = "Minimum number of pending tasks a worker must have before tasks can be stolen from it")
+    public void setStealThreshold(int stealThreshold) {
+        this.stealThreshold = stealThreshold;
+    }
+
+    @ManagedAttribute(description = "Maximum number of tasks a thread steals after it has drained its own queue")
+    public int getMaxStealsPerDrain() {
+        return maxStealsPerDrain;
+    }
+
+    /**
+     * Maximum number of tasks a thread steals from other threads after it has drained its own queue,
+     * before it returns to its caller. Default is 16.
+     */
+    @ManagedAttribute(description = "Maximum number of tasks a thread steals after it has drained its own queue")
+    public void setMaxStealsPerDrain(int maxStealsPerDrain) {
+        this.maxStealsPerDrain = maxStealsPerDrain;
+    }
+
+    @Override
+    public void scheduleMain(Runnable runnable, String description) {
+        if (description != null) {
+            runnable = describe(runnable, description);
+        }
+        workers.get().schedule(runnable, true, true, false);
+    }
+
+    @Override
+    public void schedule(Runnable runnable, String description) {
+        if (description != null) {
+            runnable = describe(runnable, description);
+        }
+        workers.get().schedule(runnable, true, false, false);
+    }
+
+    @Override
+    public void scheduleSync(Runnable runnable, String description) {
+        if (description != null) {
+            runnable = describe(runnable, description);
+        }
+        workers.get().schedule(runnable, false, true, true);
+    }
+
+    @Override
+    public boolean executeFromQueue() {
+        return workers.get().executeFromQueue();
+    }
+
+    @Override
+    public void callback(AsyncCallback callback) {
+        schedule(new Runnable() {
+            @Override
+            public void run() {
+                callback.done(false);
+            }
+            @Override
+            public String toString() {
+                return "Callback[" + callback + "]";
+            }
+        });
+    }
+
+    @ManagedAttribute(description = "Number of created workers")
+    public long getCreatedWorkers() {
+        return createdWorkers.get();
+    }
+
+    @ManagedAttribute(description = "Number of workers registered for work stealing")
+    public int getRegisteredWorkers() {
+        return registry.length;
+    }
+
+    @ManagedAttribute(description = "Number of running workers")
+    public int getRunningWorkers() {
+        int answer = 0;
+        for (Worker worker : registry) {
+            if (worker.running) {
+                answer++;
+            }
+        }
+        return answer;
+    }
+
+    @ManagedAttribute(description = "Number of pending tasks")
+    public long getPendingTasks() {
+        long answer = 0;
+        for (Worker worker : registry) {
+            answer += worker.pending();
+        }
+        return answer;
+    }
+
+    @ManagedAttribute(description = "Total number of scheduled tasks")
+    public long getScheduledTasks() {
+        long answer = retiredScheduled.get();
+        for (Worker worker : registry) {
+            answer += worker.scheduled;
+        }
+        return answer;
+    }
+
+    @ManagedAttribute(description = "Total number of executed tasks")
+    public long getExecutedTasks() {
+        long answer = retiredExecuted.get();
+        for (Worker worker : registry) {
+            answer += worker.executed;
+        }
+        return answer;
+    }
+
+    @ManagedAttribute(description = "Total number of tasks stolen from other workers")
+    public long getStolenTasks() {
+        long answer = retiredStolen.get();
+        for (Worker worker : registry) {
+            answer += worker.stolen;
+        }
+        return answer;
+    }
+
+    @Override
+    protected void doStart() throws Exception {
+        // noop
+    }
+
+    @Override
+    protected void doStop() throws Exception {
+        // noop
+    }
+
+    @Override
+    public String toString() {
+        return "WorkStealingReactiveExecutor";
+    }
+
+    private Worker createWorker() {
+        Worker worker = new Worker(this, Thread.currentThread(), initialCapacity);
+        createdWorkers.incrementAndGet();
+        synchronized (registryLock) {
+            // prune workers from threads that are no longer alive, as we are registering a new worker
+            // anyway this is a good time to do so without having a background task
+            List<Worker> alive = new ArrayList<>(registry.length + 1);
+            for (Worker w : registry) {
+                Thread thread = w.owner.get();
+                if (thread != null && thread.isAlive()) {
+                    alive.add(w);
+                } else {
+                    retiredScheduled.addAndGet(w.scheduled);
+                    retiredExecuted.addAndGet(w.executed);
+                    retiredStolen.addAndGet(w.stolen);
+                }
+            }
+            alive.add(worker);
+            registry = alive.toArray(new Worker[0]);
+        }
+        return worker;
+    }
+
+    private Runnable steal(Worker thief) {
+        Worker[] victims = registry;
+        int len = victims.length;
+        if (len <= 1) {
+            return null;
+        }
+        int start = ThreadLocalRandom.current().nextInt(len);
+        for (int i = 0; i < len; i++) {
+            Worker victim = victims[(start + i) % len];
+            if (victim != thief) {
+                Runnable task = victim.steal(thief, stealThreshold);
+                if (task != null) {
+                    return task;
+                }
+            }
+        }
+        return null;
+    }
+
+    private static Runnable describe(Runnable runnable, String description) {
+        return new Runnable() {
+            @Override
+            public void run() {
+                runnable.run();
+            }
+            @Override
+            public String toString() {
+                return description;
+            }
+        };
+    }
+
+    /**
+     * A chain of tasks which must run in the order they are scheduled, and never in parallel.
+     * The counter is only updated by the thread of the worker which owns the pending tasks of the strand.
+     */
+    private static final class Strand {
+        // number of tasks of the strand which are pending or running
+        private volatile int pending;
+    }
+
+    private static final class Worker {
+
+        private final WorkStealingReactiveExecutor executor;
+        private final WeakReference<Thread> owner;
+        private final int initialCapacity;
+        // guards the queues and sync depth, which is uncontended unless another thread is stealing at the same time
+        private final AtomicBoolean lock = new AtomicBoolean();
+        private volatile TaskDeque queue;
+        private TaskDeque[] back;
+        private int backSize;
+        private volatile int syncDepth;
+        private volatile boolean running;
+        // the strand of the task which is currently running
+        private Strand current;
+        // the strand of the task which was last polled or stolen by this worker
+        private Strand polledStrand;
+
+        // statistics which are only written by the owner thread, and read (racy) when summing up
+        private long scheduled;
+        private long executed;
+        private long stolen;
+
+        Worker(WorkStealingReactiveExecutor executor, Thread owner, int initialCapacity) {
+            this.executor = executor;
+            this.owner = new WeakReference<>(owner);
+            this.initialCapacity = initialCapacity;
+            this.queue = new TaskDeque(initialCapacity);
+        }
+
+        long pending() {
+            long answer = queue.size;
+            TaskDeque[] b = back;
+            for (int i = 0; b != null && i < backSize && i < b.length; i++) {
+                TaskDeque d = b[i];
+                if (d != null) {
+                    answer += d.size;
+                }
+            }
+            return answer;
+        }
+
+        void schedule(Runnable runnable, boolean first, boolean main, boolean sync) {
+            if (LOG.isTraceEnabled()) {
+                LOG.trace("Schedule [first={}, main={}, sync={}]: {}", first, main, sync, runnable);
+            }
+            // a main task starts a new strand, while other tasks continue the strand of the running task
+            Strand strand = main || current == null ? new Strand() : current;
+            lock();
+            try {
+                if (main && queue.size > 0) {
+                    pushBack();
+                }
+                if (first) {
+                    queue.addFirst(runnable, strand);
+                } else {
+                    queue.addLast(runnable, strand);
+                }
+                strand.pending++;
+            } finally {
+                unlock();
+            }
+            scheduled++;
+            if (!running || sync) {
+                boolean wasRunning = running;
+                running = true;
+                if (sync) {
+                    enterSync();
+                }
+                int steals = 0;
+                try {
+                    for (;;) {
+                        Runnable polled = poll();
+                        if (polled == null) {
+                            // only steal a limited number of tasks so the thread returns to its caller in due time
+                            if (syncDepth == 0 && executor.stealingEnabled && steals < executor.maxStealsPerDrain) {
+                                polled = executor.steal(this);
+                                if (polled != null) {
+                                    steals++;
+                                    stolen++;
+                                }
+                            }
+                            if (polled == null) {
+                                break;
+                            }
+                        }
+                        run(polled, polledStrand);
+                    }
+                } finally {
+                    if (sync) {
+                        exitSync();
+                    }
+                    running = wasRunning;
+                }
+            } else {
+                if (LOG.isDebugEnabled()) {
+                    LOG.debug("Queuing reactive work: {}", runnable);
+                }
+            }
+        }
+
+        boolean executeFromQueue() {
+            Runnable polled = poll();
+            if (polled != null) {
+                run(polled, polledStrand);
+                return true;
+            }
+            if (syncDepth > 0 || !executor.stealingEnabled) {
+                return false;
+            }
+            polled = executor.steal(this);
+            if (polled == null) {
+                return false;
+            }
+            stolen++;
+            // run the stolen task as running worker so its continuations are queued and run after it, and not nested
+            boolean wasRunning = running;
+            running = true;
+            try {
+                do {
+                    run(polled, polledStrand);
+                    polled = poll();
+                } while (polled != null);
+            } finally {
+                running = wasRunning;
+            }
+            return true;
+        }
+
+        /**
+         * Polls the next task from the current queue, or from the queues suspended by scheduleMain
+         * when the current queue is empty.
+         */
+        private Runnable poll() {
+            lock();
+            try {
+                for (;;) {
+                    Runnable polled = queue.pollFirst(this);
+                    if (polled != null || backSize == 0) {
+                        return polled;
+                    }
+                    popBack();
+                }
+            } finally {
+                unlock();
+            }
+        }
+
+        /**
+         * Steals the task which the owner would otherwise run last, if it is the only pending task of its strand.
+         */
+        Runnable steal(Worker thief, int threshold) {
+            if (syncDepth > 0 || queue.size + backSize < threshold || !lock.compareAndSet(false, true)) {
+                return null;
+            }
+            try {
+                if (syncDepth > 0 || pending() < threshold) {
+                    return null;
+                }
+                for (int i = 0; i < backSize; i++) {
+                    Runnable task = back[i].stealLast(thief);
+                    if (task != null) {
+                        return task;
+                    }
+                }
+                return queue.stealLast(thief);
+            } finally {
+                unlock();
+            }
+        }
+
+        private void run(Runnable task, Strand strand) {
+            Strand previous = current;
+            current = strand;
+            try {
+                executed++;
+                if (LOG.isTraceEnabled()) {
+                    LOG.trace("Running: {}", task);
+                }
+                task.run();
+            } catch (Throwable t) {
+                LOG.warn("Error executing reactive work due to " + t.getMessage() + ". This exception is ignored.", t);
+            } finally {
+                current = previous;
+                strand.pending--;
+            }
+        }
+
+        private void enterSync() {
+            lock();
+            try {
+                syncDepth++;
+            } finally {
+                unlock();
+            }
+        }
+
+        private void exitSync() {
+            lock();
+            try {
+                syncDepth--;
+            } finally {
+                unlock();
+            }
+        }
+
+        private void pushBack() {
+            if (back == null) {
+                back = new TaskDeque[4];
+            } else if (backSize == back.length) {
+                TaskDeque[] grown = new TaskDeque[back.length * 2];
+                System.arraycopy(back, 0, grown, 0, backSize);
+                back = grown;
+            }
+            back[backSize++] = queue;
+            queue = new TaskDeque(initialCapacity);
+        }
+
+        private void popBack() {
+            TaskDeque previous = back[--backSize];
+            back[backSize] = null;
+            queue = previous;
+        }
+
+        private void lock() {
+            while (!lock.compareAndSet(false, true)) {
+                // only a thief can hold the lock and it does so very briefly
+                Thread.yield();
+            }
+        }
+
+        private void unlock() {
+            lock.set(false);
+        }
+    }
+
+    /**
+     * An array based deque of tasks and their strands. The owner adds and polls tasks at the head,
+     * while other threads may steal the oldest task from the tail. The deque is guarded by the lock of its worker.
+     */
+    static final class TaskDeque {
+
+        private Runnable[] elements;
+        private Strand[] strands;
+        private int head;
+        // size is read without the lock for statistics and as a fast check
+        volatile int size;
+
+        TaskDeque(int initialCapacity) {
+            int capacity = 1;
+            while (capacity < initialCapacity) {
+                capacity <<= 1;
+            }
+            this.elements = new Runnable[capacity];
+            this.strands = new Strand[capacity];
+        }
+
+        void addFirst(Runnable task, Strand strand) {
+            ensureCapacity();
+            head = (head - 1) & (elements.length - 1);
+            elements[head] = task;
+            strands[head] = strand;
+            size = size + 1;
+        }
+
+        void addLast(Runnable task, Strand strand) {
+            ensureCapacity();
+            int index = (head + size) & (elements.length - 1);
+            elements[index] = task;
+            strands[index] = strand;
+            size = size + 1;
+        }
+
+        Runnable pollFirst(Worker worker) {
+            if (size == 0) {
+                return null;
+            }
+            Runnable task = elements[head];
+            worker.polledStrand = strands[head];
+            elements[head] = null;
+            strands[head] = null;
+            head = (head + 1) & (elements.length - 1);
+            size = size - 1;
+            return task;
+        }
+
+        Runnable stealLast(Worker thief) {
+            int s = size;
+            if (s == 0) {
+                return null;
+            }
+            int index = (head + s - 1) & (elements.length - 1);
+            Strand strand = strands[index];
+            if (strand.pending != 1) {
+                // another task of the strand is pending or running, so the task must stay in order with it
+                return null;
+            }
+            Runnable task = elements[index];
+            thief.polledStrand = strand;
+            elements[index] = null;
+            strands[index] = null;
+            size = s - 1;
+            return task;
+        }
+
+        private void ensureCapacity() {
+            if (size == elements.length) {
+                Runnable[] grown = new Runnable[elements.length << 1];
+                Strand[] grownStrands = new Strand[elements.length << 1];
+                for (int i = 0; i < size; i++) {
+                    int index = (head + i) & (elements.length - 1);
+                    grown[i] = elements[index];
+                    grownStrands[i] = strands[index];
+                }
+                elements = grown;
+                strands = grownStrands;
+                head = 0;
+            }
+        }
+    }
+
+}
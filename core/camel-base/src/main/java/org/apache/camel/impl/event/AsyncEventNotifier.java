@@ -0,0 +1,419 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.apache.camel.impl.event;
+
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+
+import javax.management.NotificationBroadcasterSupport;
+
+import org.apache.camel.CamelContext;
+import org.apache.camel.CamelContextAware;
+import org.apache.camel.ExtendedCamelContext;
+import org.apache.camel.api.management.JmxNotificationBroadcasterAware;
+import org.apache.camel.spi.CamelEvent;
+import org.apache.camel.spi.EventNotifier;
+import org.apache.camel.support.service.ServiceHelper;
+import org.apache.camel.support.service.ServiceSupport;
+import org.apache.camel.util.ObjectHelper;
+
+/**
+ * An {@link EventNotifier} which notifies the events to another {@link EventNotifier} asynchronously.
+ * <p/>
+ * The events are published into a bounded queue which is drained by a single dedicated thread,
+ * so slow notifiers do not add to the latency of the routing threads. The routing threads only
+ * call {@link EventNotifier#isEnabled(CamelEvent)} on the delegate, and therefore this method
+ * should be fast.
+ * <p/>
+ * When the queue is full the {@link QueueFullPolicy} decides whether to block the routing thread
+ * until there is room, or to discard the event. The delegate notifier is started and stopped
+ * together with this notifier, and the pending events are notified when stopping.
+ * <p/>
+ * Notice the exchange events are notified after the routing thread has continued, so the exchange
+ * may have been changed when the delegate notifier receives the event. When the exchanges are pooled
+ * by the {@link org.apache.camel.spi.ExchangeFactory} the exchange events are notified directly on the
+ * routing thread, as the exchange could otherwise be released and reused before the event is notified.
+ */
+public class AsyncEventNotifier extends ServiceSupport implements EventNotifier, CamelContextAware, JmxNotificationBroadcasterAware {
+
+    /**
+     * What to do with an event when the queue is full.
+     */
+    public enum QueueFullPolicy {
+        Block, Discard, DiscardOldest
+    }
+
+    private final EventNotifier delegate;
+    private CamelContext camelContext;
+    private int queueSize = 1000;
+    private QueueFullPolicy queueFullPolicy = QueueFullPolicy.Block;
+    private volatile BlockingQueue<PendingEvent> queue;
+    private ExecutorService executorService;
+    private boolean pooledExchanges;
+    private final LongAdder dispatched = new LongAdder();
+    private final LongAdder discarded = new LongAdder();
+    private final LongAdder totalLag = new LongAdder();
+    private volatile long lastLag;
+    private volatile long maxLag;
+
+    public AsyncEventNotifier(EventNotifier delegate) {
+        ObjectHelper.notNull(delegate, "delegate");
+        this.delegate = delegate;
+    }
+
+    public EventNotifier getDelegate() {
+        return delegate;
+    }
+
+    @Override
+    public CamelContext getCamelContext() {
+        return camelContext;
+    }
+
+    @Override
+    public void setCamelContext(CamelContext camelContext) {
+        this.camelContext = camelContext;
+    }
+
+    public int getQueueSize() {
+        return queueSize;
+    }
+
+    /**
+     * Maximum number of events which can be pending to be notified.
+     * <p/>
+     * The default size is 1000.
+     */
+    public void setQueueSize(int queueSize) {
+        this.queueSize = queueSize;
+    }
+
+    public QueueFullPolicy getQueueFullPolicy() {
+        return queueFullPolicy;
+    }
+
+    /**
+     * What to do when the queue is full. By default the routing thread is blocked until there is room in the queue.
+     */
+    public void setQueueFullPolicy(QueueFullPolicy queueFullPolicy) {
+        this.queueFullPolicy = queueFullPolicy;
+    }
+
+    /**
+     * Number of events which are pending to be notified
+     */
+    public int getPendingEvents() {
+        BlockingQueue<PendingEvent> q = queue;
+        return q != null ? q.size() : 0;
+    }
+
+    /**
+     * Number of events which has been notified to the delegate
+     */
+    public long getDispatchedCounter() {
+        return dispatched.sum();
+    }
+
+    /**
+     * Number of events which has been discarded because the queue was full
+     */
+    public long getDiscardedCounter() {
+        return discarded.sum();
+    }
+
+    /**
+     * Time in millis the last notified event was pending in the queue
+     */
+    public long getLastLag() {
+        return lastLag;
+    }
+
+    /**
+     * Maximum time in millis an event was pending in the queue
+     */
+    public long getMaxLag() {
+        return maxLag;
+    }
+
+    /**
+     * Mean time in millis the events were pending in the queue
+     */
+    public long getMeanLag() {
+        long count = dispatched.sum();
+        return count > 0 ? totalLag.sum() / count : 0;
+    }
+
+    /**
+     * Resets the counters and lag metrics
+     */
+    public void resetStatistics() {
+        dispatched.reset();
+        discarded.reset();
+        totalLag.reset();
+        lastLag = 0;
+        maxLag = 0;
+    }
+
+    @Override
+    public void notify(CamelEvent event) throws Exception {
+        BlockingQueue<PendingEvent> q = queue;
+        if (q == null || !isRunAllowed() || (pooledExchanges && event instanceof CamelEvent.ExchangeEvent)) {
+            // not running, or the exchange may be released before the event is dispatched, so notify the event directly
+            delegate.notify(event);
+            return;
+        }
+
+        PendingEvent pending = new PendingEvent(event, System.nanoTime());
+        switch (queueFullPolicy) {
+        case Discard:
+            if (!q.offer(pending)) {
+                discarded.increment();
+            }
+            break;
+        case DiscardOldest:
+            while (!q.offer(pending)) {
+                if (q.poll() != null) {
+                    discarded.increment();
+                }
+            }
+            break;
+        default:
+            q.put(pending);
+            break;
+        }
+    }
+
+    private void dispatch() {
+        BlockingQueue<PendingEvent> q = queue;
+        while (isRunAllowed() || !q.isEmpty()) {
+            PendingEvent pending;
+            try {
+                pending = q.poll(100, TimeUnit.MILLISECONDS);
+            } catch (InterruptedException e) {
+                log.debug("Interrupted while waiting for events. Notifying {} pending events.", q.size());
+                Thread.currentThread().interrupt();
+                drain(q);
+                return;
+            }
+            if (pending != null) {
+                doDispatch(pending);
+            }
+        }
+    }
+
+    private void drain(BlockingQueue<PendingEvent> q) {
+        PendingEvent pending;
+        while ((pending = q.poll()) != null) {
+            doDispatch(pending);
+        }
+    }
+
+    private void doDispatch(PendingEvent pending) {
+        long lag = TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - pending.created);
+        lastLag = lag;
+        if (lag > maxLag) {
+            maxLag = lag;
+        }
+        totalLag.add(lag);
+        dispatched.increment();
+        try {
+            delegate.notify(pending.event);
+        } catch (Throwable e) {
+            log.warn("Error notifying event " + pending.event + ". This exception will be ignored. ", e);
+        }
+    }
+
+    @Override
+    public boolean isEnabled(CamelEvent event) {
+        return delegate.isEnabled(event);
+    }
+
+    @Override
+    public boolean isDisabled() {
+        return delegate.isDisabled();
+    }
+
+    @Override
+    public void setNotificationBroadcaster(NotificationBroadcasterSupport broadcaster) {
+        if (delegate instanceof JmxNotificationBroadcasterAware) {
+            ((JmxNotificationBroadcasterAware) delegate).setNotificationBroadcaster(broadcaster);
+        }
+    }
+
+    @Override
+    public boolean isIgnoreCamelContextEvents() {
+        return delegate.isIgnoreCamelContextEvents();
+    }
+
+    @Override
+    public void setIgnoreCamelContextEvents(boolean ignoreCamelContextEvents) {
+        delegate.setIgnoreCamelContextEvents(ignoreCamelContextEvents);
+    }
+
+    @Override
+    public boolean isIgnoreRouteEvents() {
+        return delegate.isIgnoreRouteEvents();
+    }
+
+    @Override
+    public void setIgnoreRouteEvents(boolean ignoreRouteEvents) {
+        delegate.setIgnoreRouteEvents(ignoreRouteEvents);
+    }
+
+    @Override
+    public boolean isIgnoreServiceEvents() {
+        return delegate.isIgnoreServiceEvents();
+    }
+
+    @Override
+    public void setIgnoreServiceEvents(boolean ignoreServiceEvents) {
+        delegate.setIgnoreServiceEvents(ignoreServiceEvents);
+    }
+
+    @Override
+    public boolean isIgnoreExchangeEvents() {
+        return delegate.isIgnoreExchangeEvents();
+    }
+
+    @Override
+    public void setIgnoreExchangeEvents(boolean ignoreExchangeEvents) {
+        delegate.setIgnoreExchangeEvents(ignoreExchangeEvents);
+    }
+
+    @Override
+    public boolean isIgnoreExchangeCreatedEvent() {
+        return delegate.isIgnoreExchangeCreatedEvent();
+    }
+
+    @Override
+    public void setIgnoreExchangeCreatedEvent(boolean ignoreExchangeCreatedEvent) {
+        delegate.setIgnoreExchangeCreatedEvent(ignoreExchangeCreatedEvent);
+    }
+
+    @Override
+    public boolean isIgnoreExchangeCompletedEvent() {
+        return delegate.isIgnoreExchangeCompletedEvent();
+    }
+
+    @Override
+    public void setIgnoreExchangeCompletedEvent(boolean ignoreExchangeCompletedEvent) {
+        delegate.setIgnoreExchangeCompletedEvent(ignoreExchangeCompletedEvent);
+    }
+
+    @Override
+    public boolean isIgnoreExchangeFailedEvents() {
+        return delegate.isIgnoreExchangeFailedEvents();
+    }
+
+    @Override
+    public void setIgnoreExchangeFailedEvents(boolean ignoreExchangeFailureEvents) {
+        delegate.setIgnoreExchangeFailedEvents(ignoreExchangeFailureEvents);
+    }
+
+    @Override
+    public boolean isIgnoreExchangeRedeliveryEvents() {
+        return delegate.isIgnoreExchangeRedeliveryEvents();
+    }
+
+    @Override
+    public void setIgnoreExchangeRedeliveryEvents(boolean ignoreExchangeRedeliveryEvents) {
+        delegate.setIgnoreExchangeRedeliveryEvents(ignoreExchangeRedeliveryEvents);
+    }
+
+    @Override
+    public boolean isIgnoreExchangeSentEvents() {
+        return delegate.isIgnoreExchangeSentEvents();
+    }
+
+    @Override
+    public void setIgnoreExchangeSentEvents(boolean ignoreExchangeSentEvents) {
+        delegate.setIgnoreExchangeSentEvents(ignoreExchangeSentEvents);
+    }
+
+    @Override
+    public boolean isIgnoreExchangeSendingEvents() {
+        return delegate.isIgnoreExchangeSendingEvents();
+    }
+
+    @Override
+    public void setIgnoreExchangeSendingEvents(boolean ignoreExchangeSendingEvents) {
+        delegate.setIgnoreExchangeSendingEvents(ignoreExchangeSendingEvents);
+    }
+
+    @Override
+    public boolean isIgnoreStepEvents() {
+        return delegate.isIgnoreStepEvents();
+    }
+
+    @Override
+    public void setIgnoreStepEvents(boolean ignoreStepEvents) {
+        delegate.setIgnoreStepEvents(ignoreStepEvents);
+    }
+
+    @Override
+    protected void doStart() throws Exception {
+        ObjectHelper.notNull(camelContext, "CamelContext", this);
+        if (queueSize <= 0) {
+            throw new IllegalArgumentException("QueueSize must be a positive number, was: " + queueSize);
+        }
+
+        if (delegate instanceof CamelContextAware) {
+            ((CamelContextAware) delegate).setCamelContext(camelContext);
+        }
+        ServiceHelper.startService(delegate);
+
+        pooledExchanges = camelContext.adapt(ExtendedCamelContext.class).getExchangeFactory().isPooled();
+        queue = new ArrayBlockingQueue<>(queueSize);
+        executorService = camelContext.getExecutorServiceManager().newSingleThreadExecutor(this, "AsyncEventNotifier");
+        executorService.submit(this::dispatch);
+    }
+
+    @Override
+    protected void doStop() throws Exception {
+        if (executorService != null) {
+            // the dispatcher notifies the pending events before it terminates
+            camelContext.getExecutorServiceManager().shutdownGraceful(executorService);
+            executorService = null;
+        }
+        BlockingQueue<PendingEvent> q = queue;
+        if (q != null) {
+            // in case the dispatcher was terminated before the queue was empty
+            drain(q);
+        }
+        queue = null;
+        ServiceHelper.stopService(delegate);
+    }
+
+    @Override
+    public String toString() {
+        return "AsyncEventNotifier[" + delegate + "]";
+    }
+
+    private static final class PendingEvent {
+        private final CamelEvent event;
+        private final long created;
+
+        private PendingEvent(CamelEvent event, long created) {
+            this.event = event;
+            this.created = created;
+        }
+    }
+
+}
@@ -0,0 +1,649 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.apache.camel.language.simple;
+
+import java.lang.reflect.Method;
+import java.lang.reflect.Modifier;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+import org.apache.camel.Exchange;
+import org.apache.camel.Expression;
+import org.apache.camel.Predicate;
+import org.apache.camel.TypeConverter;
+import org.apache.camel.language.simple.ast.BinaryExpression;
+import org.apache.camel.language.simple.ast.CompositeNodes;
+import org.apache.camel.language.simple.ast.DoubleQuoteStart;
+import org.apache.camel.language.simple.ast.LiteralNode;
+import org.apache.camel.language.simple.ast.LogicalExpression;
+import org.apache.camel.language.simple.ast.SimpleFunctionExpression;
+import org.apache.camel.language.simple.ast.SimpleFunctionStart;
+import org.apache.camel.language.simple.ast.SimpleNode;
+import org.apache.camel.language.simple.ast.SingleQuoteStart;
+import org.apache.camel.language.simple.types.BinaryOperatorType;
+import org.apache.camel.language.simple.types.LogicalOperatorType;
+import org.apache.camel.support.ExpressionAdapter;
+import org.apache.camel.support.ExpressionToPredicateAdapter;
+import org.apache.camel.support.ObjectHelper;
+import org.apache.camel.util.StringHelper;
+
+/**
+ * Compiles the AST nodes of the <a href="http://camel.apache.org/simple.html">simple language</a> into composed
+ * {@link Expression}s, which is used when the simple language is in compiled mode.
+ * <p/>
+ * The most common functions (body, header, exchange property, and body OGNL property paths such as
+ * <tt>${body.address.city}</tt>) and the binary operators comparing with a constant value (such as
+ * <tt>${header.foo} == 'bar'</tt>, <tt>${header.amount} &gt; 100</tt>, <tt>${header.num} range '1..10'</tt> or
+ * <tt>${body} contains 'World'</tt>) are compiled into expressions with the header names, constant values and
+ * getter methods resolved up front. The constant values converted to the type of the left hand side are cached
+ * per type, so the type converter is not consulted on every evaluation.
+ * <p/>
+ * All other nodes are created as the regular expressions, and a compiled expression falls back to evaluate
+ * using the regular expression whenever it encounters a value it does not support, so the outcome is the same
+ * as when not compiled.
+ */
+public final class SimpleCompiler {
+
+    private static final Pattern HEADER_PATTERN = Pattern.compile("^(?:in\\.)?headers?(?:[.:]([\\w\\-]+)|\\[([\\w\\-]+)\\])$");
+    private static final Pattern PROPERTY_PATTERN = Pattern.compile("^exchangeProperty(?:\\.([\\w\\-]+)|\\[([\\w\\-]+)\\])$");
+    private static final Pattern BODY_OGNL_PATTERN = Pattern.compile("^(?:in\\.)?body((?:\\.[A-Za-z_]\\w*)+)$");
+    private static final Pattern RANGE_PATTERN = Pattern.compile("^(\\d+)(\\.\\.)(\\d+)$");
+
+    private SimpleCompiler() {
+    }
+
+    /**
+     * Creates the {@link Expression} for the given node, which is compiled if the node is supported.
+     *
+     * @param node       the node
+     * @param expression the entire simple expression (used for error reporting)
+     * @return the expression, is never <tt>null</tt> unless the node creates a <tt>null</tt> expression
+     */
+    public static Expression createExpression(SimpleNode node, String expression) {
+        Expression answer = compile(node, expression);
+        return answer != null ? answer : node.createExpression(expression);
+    }
+
+    /**
+     * Creates an {@link Expression} which concats the result of the given expressions as a String.
+     */
+    public static Expression concatExpression(List<Expression> expressions, String expression) {
+        return new ConcatExpression(expressions, expression);
+    }
+
+    private static Expression compile(SimpleNode node, String expression) {
+        if (node instanceof SimpleFunctionStart) {
+            String function = literalText(((SimpleFunctionStart) node).getBlock());
+            if (function != null && !function.isEmpty()) {
+                return compileFunction(node, function, expression);
+            }
+        } else if (node instanceof BinaryExpression) {
+            return compileBinary((BinaryExpression) node, expression);
+        } else if (node instanceof LogicalExpression) {
+            return compileLogical((LogicalExpression) node, expression);
+        } else if (isLiteral(node)) {
+            return new ConstantExpression(((LiteralNode) node).getText());
+        }
+        return null;
+    }
+
+    private static Expression compileFunction(SimpleNode node, String function, String expression) {
+        if ("body".equals(function) || "in.body".equals(function)) {
+            return new BodyExpression();
+        }
+        Matcher matcher = HEADER_PATTERN.matcher(function);
+        if (matcher.matches()) {
+            return new HeaderExpression(matcher.group(1) != null ? matcher.group(1) : matcher.group(2));
+        }
+        matcher = PROPERTY_PATTERN.matcher(function);
+        if (matcher.matches()) {
+            return new PropertyExpression(matcher.group(1) != null ? matcher.group(1) : matcher.group(2));
+        }
+        matcher = BODY_OGNL_PATTERN.matcher(function);
+        if (matcher.matches()) {
+            // the regular expression is used as fallback for values which are not simple java beans
+            Expression fallback = node.createExpression(expression);
+            String[] names = matcher.group(1).substring(1).split("\\.");
+            return new BodyPropertyExpression(function, names, fallback);
+        }
+        return null;
+    }
+
+    private static Expression compileBinary(BinaryExpression node, String expression) {
+        String constant = constantText(node.getRight());
+        if (constant == null) {
+            return null;
+        }
+
+        BinaryOperatorType operator = node.getOperator();
+        String text = node.toString();
+        if (operator == BinaryOperatorType.EQ || operator == BinaryOperatorType.NOT_EQ) {
+            Expression left = createExpression(node.getLeft(), expression);
+            return new EqualExpression(text, left, new Constant(constant), operator == BinaryOperatorType.NOT_EQ);
+        } else if (operator == BinaryOperatorType.GT || operator == BinaryOperatorType.GTE
+                || operator == BinaryOperatorType.LT || operator == BinaryOperatorType.LTE) {
+            Expression left = createExpression(node.getLeft(), expression);
+            return new CompareExpression(text, left, new Constant(constant), operator);
+        } else if (operator == BinaryOperatorType.CONTAINS || operator == BinaryOperatorType.NOT_CONTAINS) {
+            Expression left = createExpression(node.getLeft(), expression);
+            return new ContainsExpression(text, left, constant, operator == BinaryOperatorType.NOT_CONTAINS);
+        } else if (operator == BinaryOperatorType.RANGE || operator == BinaryOperatorType.NOT_RANGE) {
+            Matcher matcher = RANGE_PATTERN.matcher(constant);
+            if (!matcher.matches()) {
+                // let the regular expression report the invalid syntax
+                return null;
+            }
+            Expression left = createExpression(node.getLeft(), expression);
+            return new RangeExpression(text, left, new Constant(matcher.group(1)), new Constant(matcher.group(3)),
+                    operator == BinaryOperatorType.NOT_RANGE);
+        }
+        return null;
+    }
+
+    private static Expression compileLogical(LogicalExpression node, String expression) {
+        if (node.getLeft() == null || node.getRight() == null) {
+            return null;
+        }
+        Predicate left = ExpressionToPredicateAdapter.toPredicate(createExpression(node.getLeft(), expression));
+        Predicate right = ExpressionToPredicateAdapter.toPredicate(createExpression(node.getRight(), expression));
+        return new LogicalPredicate(node.toString(), left, right, node.getOperator() == LogicalOperatorType.AND);
+    }
+
+    private static boolean isLiteral(SimpleNode node) {
+        return node instanceof LiteralNode && !(node instanceof SimpleFunctionExpression);
+    }
+
+    /**
+     * The text of the block if it only contains literals, otherwise <tt>null</tt>
+     */
+    private static String literalText(CompositeNodes block) {
+        StringBuilder sb = new StringBuilder();
+        for (SimpleNode child : block.getChildren()) {
+            if (!isLiteral(child)) {
+                return null;
+            }
+            sb.append(((LiteralNode) child).getText());
+        }
+        return sb.toString();
+    }
+
+    /**
+     * The constant text if the node is a literal or a quoted literal, otherwise <tt>null</tt>
+     */
+    private static String constantText(SimpleNode node) {
+        if (isLiteral(node)) {
+            return ((LiteralNode) node).getText();
+        } else if (node instanceof SingleQuoteStart) {
+            return literalText(((SingleQuoteStart) node).getBlock());
+        } else if (node instanceof DoubleQuoteStart) {
+            return literalText(((DoubleQuoteStart) node).getBlock());
+        }
+        return null;
+    }
+
+    /**
+     * Base class for the compiled expressions.
+     */
+    abstract static class CompiledExpression extends ExpressionAdapter {
+
+        private final String text;
+
+        CompiledExpression(String text) {
+            this.text = text;
+        }
+
+        @Override
+        public abstract Object evaluate(Exchange exchange);
+
+        @Override
+        @SuppressWarnings("unchecked")
+        public <T> T evaluate(Exchange exchange, Class<T> type) {
+            Object value = evaluate(exchange);
+            if (Object.class == type || type.isInstance(value)) {
+                // do not use type converter if the value is already of the given type (optimize)
+                return (T) value;
+            }
+            return exchange.getContext().getTypeConverter().convertTo(type, exchange, value);
+        }
+
+        @Override
+        public String toString() {
+            return text;
+        }
+    }
+
+    /**
+     * Base class for the compiled predicates.
+     */
+    abstract static class CompiledPredicate extends CompiledExpression {
+
+        CompiledPredicate(String text) {
+            super(text);
+        }
+
+        @Override
+        public abstract boolean matches(Exchange exchange);
+
+        @Override
+        public Object evaluate(Exchange exchange) {
+            return matches(exchange);
+        }
+    }
+
+    /**
+     * A constant value which caches the value converted to the types it is compared with.
+     */
+    static final class Constant {
+
+        private final String value;
+        private volatile Converted converted;
+        private volatile Converted number;
+
+        Constant(String value) {
+            this.value = value;
+        }
+
+        String getValue() {
+            return value;
+        }
+
+        /**
+         * The constant converted to the given type, or <tt>null</tt> if not possible to convert.
+         */
+        Object convertTo(TypeConverter converter, Class<?> type) {
+            Converted answer = converted;
+            if (answer == null || answer.type != type || answer.converter != converter) {
+                answer = new Converted(converter, type, converter.tryConvertTo(type, value));
+                converted = answer;
+            }
+            return answer.value;
+        }
+
+        /**
+         * The constant converted to a {@link Long}, or <tt>null</tt> if not numeric.
+         */
+        Long toLong(TypeConverter converter) {
+            Converted answer = number;
+            if (answer == null || answer.converter != converter) {
+                answer = new Converted(converter, Long.class, converter.tryConvertTo(Long.class, value));
+                number = answer;
+            }
+            return (Long) answer.value;
+        }
+    }
+
+    private static final class Converted {
+
+        private final TypeConverter converter;
+        private final Class<?> type;
+        private final Object value;
+
+        Converted(TypeConverter converter, Class<?> type, Object value) {
+            this.converter = converter;
+            this.type = type;
+            this.value = value;
+        }
+    }
+
+    private static final class ConstantExpression extends CompiledExpression {
+
+        private final String value;
+
+        ConstantExpression(String value) {
+            super(value);
+            this.value = value;
+        }
+
+        @Override
+        public Object evaluate(Exchange exchange) {
+            return value;
+        }
+    }
+
+    private static final class BodyExpression extends CompiledExpression {
+
+        BodyExpression() {
+            super("body");
+        }
+
+        @Override
+        public Object evaluate(Exchange exchange) {
+            return exchange.getIn().getBody();
+        }
+    }
+
+    private static final class HeaderExpression extends CompiledExpression {
+
+        private final String name;
+
+        HeaderExpression(String name) {
+            super("header(" + name + ")");
+            this.name = name;
+        }
+
+        @Override
+        public Object evaluate(Exchange exchange) {
+            Object header = exchange.getIn().getHeader(name);
+            if (header == null) {
+                // fall back on a property
+                header = exchange.getProperty(name);
+            }
+            return header;
+        }
+    }
+
+    private static final class PropertyExpression extends CompiledExpression {
+
+        private final String name;
+
+        PropertyExpression(String name) {
+            super("exchangeProperty(" + name + ")");
+            this.name = name;
+        }
+
+        @Override
+        public Object evaluate(Exchange exchange) {
+            return exchange.getProperty(name);
+        }
+    }
+
+    /**
+     * Evaluates a property path such as <tt>body.address.city</tt> by invoking the getter methods directly,
+     * which are resolved once per type.
+     */
+    private static final class BodyPropertyExpression extends CompiledExpression {
+
+        private final Getter[] getters;
+        private final Expression fallback;
+
+        BodyPropertyExpression(String function, String[] names, Expression fallback) {
+            super(function);
+            this.getters = new Getter[names.length];
+            for (int i = 0; i < names.length; i++) {
+                getters[i] = new Getter(names[i]);
+            }
+            this.fallback = fallback;
+        }
+
+        @Override
+        public Object evaluate(Exchange exchange) {
+            Object value = exchange.getIn().getBody();
+            if (value == null) {
+                return null;
+            }
+            for (Getter getter : getters) {
+                Method method = value != null ? getter.resolve(value.getClass()) : null;
+                if (method == null) {
+                    // not a simple getter so let the regular expression evaluate
+                    return fallback.evaluate(exchange, Object.class);
+                }
+                try {
+                    value = method.invoke(value);
+                } catch (Exception e) {
+                    // let the regular expression evaluate and report the failure
+                    return fallback.evaluate(exchange, Object.class);
+                }
+            }
+            return value;
+        }
+    }
+
+    /**
+     * Resolves the getter method for a property name, and caches the last resolved type.
+     */
+    private static final class Getter {
+
+        private final String name;
+        private volatile Resolved resolved;
+
+        Getter(String name) {
+            this.name = name;
+        }
+
+        Method resolve(Class<?> type) {
+            Resolved answer = resolved;
+            if (answer == null || answer.type != type) {
+                answer = new Resolved(type, findMethod(type));
+                resolved = answer;
+            }
+            return answer.method;
+        }
+
+        private Method findMethod(Class<?> type) {
+            // maps, collections and arrays have special meaning in OGNL
+            if (Map.class.isAssignableFrom(type) || Collection.class.isAssignableFrom(type) || type.isArray()
+                    || !Modifier.isPublic(type.getModifiers())) {
+                return null;
+            }
+            String suffix = StringHelper.capitalize(name);
+            List<Method> candidates = new ArrayList<>(1);
+            for (String candidate : new String[]{name, "get" + suffix, "is" + suffix}) {
+                try {
+                    Method method = type.getMethod(candidate);
+                    if (method.getReturnType() != void.class && !Modifier.isStatic(method.getModifiers())
+                            && Modifier.isPublic(method.getDeclaringClass().getModifiers())) {
+                        candidates.add(method);
+                    }
+                } catch (NoSuchMethodException e) {
+                    // ignore
+                }
+            }
+            // only use the method if its unambiguous
+            return candidates.size() == 1 ? candidates.get(0) : null;
+        }
+    }
+
+    private static final class Resolved {
+
+        private final Class<?> type;
+        private final Method method;
+
+        Resolved(Class<?> type, Method method) {
+            this.type = type;
+            this.method = method;
+        }
+    }
+
+    private static final class EqualExpression extends CompiledPredicate {
+
+        private final Expression left;
+        private final Constant right;
+        private final boolean not;
+
+        EqualExpression(String text, Expression left, Constant right, boolean not) {
+            super(text);
+            this.left = left;
+            this.right = right;
+            this.not = not;
+        }
+
+        @Override
+        public boolean matches(Exchange exchange) {
+            Object leftValue = left.evaluate(exchange, Object.class);
+            return not != isEqual(exchange, leftValue);
+        }
+
+        private boolean isEqual(Exchange exchange, Object leftValue) {
+            String rightValue = right.getValue();
+            if (leftValue == null) {
+                return false;
+            }
+            if (org.apache.camel.util.ObjectHelper.equal(leftValue, rightValue)) {
+                return true;
+            }
+            if (leftValue.getClass().isInstance(rightValue)) {
+                // same type so they are not equal
+                return false;
+            }
+            // same type coercion as ObjectHelper.typeCoerceEquals but the converted constant is cached
+            TypeConverter converter = exchange.getContext().getTypeConverter();
+            Object value = right.convertTo(converter, leftValue.getClass());
+            if (value != null && org.apache.camel.util.ObjectHelper.equal(leftValue, value)) {
+                return true;
+            }
+            value = converter.tryConvertTo(String.class, leftValue);
+            return org.apache.camel.util.ObjectHelper.equal(value, rightValue);
+        }
+    }
+
+    private static final class CompareExpression extends CompiledPredicate {
+
+        private final Expression left;
+        private final Constant right;
+        private final BinaryOperatorType operator;
+
+        CompareExpression(String text, Expression left, Constant right, BinaryOperatorType operator) {
+            super(text);
+            this.left = left;
+            this.right = right;
+            this.operator = operator;
+        }
+
+        @Override
+        public boolean matches(Exchange exchange) {
+            Object leftValue = left.evaluate(exchange, Object.class);
+            if (leftValue == null) {
+                return false;
+            }
+            int num = compare(exchange, leftValue, right);
+            if (operator == BinaryOperatorType.GT) {
+                return num > 0;
+            } else if (operator == BinaryOperatorType.GTE) {
+                return num >= 0;
+            } else if (operator == BinaryOperatorType.LT) {
+                return num < 0;
+            } else {
+                return num <= 0;
+            }
+        }
+    }
+
+    private static final class RangeExpression extends CompiledPredicate {
+
+        private final Expression left;
+        private final Constant from;
+        private final Constant to;
+        private final boolean not;
+
+        RangeExpression(String text, Expression left, Constant from, Constant to, boolean not) {
+            super(text);
+            this.left = left;
+            this.from = from;
+            this.to = to;
+            this.not = not;
+        }
+
+        @Override
+        public boolean matches(Exchange exchange) {
+            Object leftValue = left.evaluate(exchange, Object.class);
+            boolean answer = leftValue != null
+                    && compare(exchange, leftValue, from) >= 0 && compare(exchange, leftValue, to) <= 0;
+            return not != answer;
+        }
+    }
+
+    private static final class ContainsExpression extends CompiledPredicate {
+
+        private final Expression left;
+        private final String right;
+        private final boolean not;
+
+        ContainsExpression(String text, Expression left, String right, boolean not) {
+            super(text);
+            this.left = left;
+            this.right = right;
+            this.not = not;
+        }
+
+        @Override
+        public boolean matches(Exchange exchange) {
+            Object leftValue = left.evaluate(exchange, Object.class);
+            boolean answer = leftValue != null && ObjectHelper.contains(leftValue, right);
+            return not != answer;
+        }
+    }
+
+    private static final class LogicalPredicate extends CompiledPredicate {
+
+        private final Predicate left;
+        private final Predicate right;
+        private final boolean and;
+
+        LogicalPredicate(String text, Predicate left, Predicate right, boolean and) {
+            super(text);
+            this.left = left;
+            this.right = right;
+            this.and = and;
+        }
+
+        @Override
+        public boolean matches(Exchange exchange) {
+            if (and) {
+                return left.matches(exchange) && right.matches(exchange);
+            } else {
+                return left.matches(exchange) || right.matches(exchange);
+            }
+        }
+    }
+
+    private static final class ConcatExpression extends CompiledExpression {
+
+        private final Expression[] expressions;
+
+        ConcatExpression(List<Expression> expressions, String expression) {
+            super(expression);
+            this.expressions = expressions.toArray(new Expression[expressions.size()]);
+        }
+
+        @Override
+        public Object evaluate(Exchange exchange) {
+            StringBuilder buffer = new StringBuilder();
+            for (Expression expression : expressions) {
+                String text = expression.evaluate(exchange, String.class);
+                if (text != null) {
+                    buffer.append(text);
+                }
+            }
+            return buffer.toString();
+        }
+    }
+
+    /**
+     * Same as ObjectHelper.typeCoerceCompare but uses the cached numeric value of the constant.
+     */
+    private static int compare(Exchange exchange, Object leftValue, Constant right) {
+        TypeConverter converter = exchange.getContext().getTypeConverter();
+        Long rightNum = right.toLong(converter);
+        if (rightNum != null) {
+            Long leftNum;
+            if (leftValue instanceof Long || leftValue instanceof Integer || leftValue instanceof Short || leftValue instanceof Byte) {
+                leftNum = ((Number) leftValue).longValue();
+            } else {
+                leftNum = converter.tryConvertTo(Long.class, leftValue);
+            }
+            if (leftNum != null) {
+                return leftNum.compareTo(rightNum);
+            }
+        }
+        return ObjectHelper.typeCoerceCompare(converter, leftValue, right.getValue());
+    }
+
+}
@@ -41,11 +41,18 @@ public class SimpleExpressionParser extends BaseSimpleParser {
 
     // use caches to avoid re-parsing the same expressions over and over again
     private Map<String, Expression> cacheExpression;
+    private final boolean compiled;
 
     public SimpleExpressionParser(String expression, boolean allowEscape,
                                   Map<String, Expression> cacheExpression) {
+        this(expression, allowEscape, cacheExpression, false);
+    }
+
+    public SimpleExpressionParser(String expression, boolean allowEscape,
+                                  Map<String, Expression> cacheExpression, boolean compiled) {
         super(expression, allowEscape);
         this.cacheExpression = cacheExpression;
+        this.compiled = compiled;
     }
 
     public Expression parseExpression() {
@@ -90,6 +97,8 @@ public class SimpleExpressionParser extends BaseSimpleParser {
             return ExpressionBuilder.constantExpression("");
         } else if (expressions.size() == 1) {
             return expressions.get(0);
+        } else if (compiled) {
+            return SimpleCompiler.concatExpression(expressions, expression);
         } else {
             // concat expressions as evaluating an expression is like a template language
             return ExpressionBuilder.concatExpression(expressions, expression);
@@ -161,7 +170,7 @@ public class SimpleExpressionParser extends BaseSimpleParser {
     private List<Expression> createExpressions() {
         List<Expression> answer = new ArrayList<>();
         for (SimpleNode token : nodes) {
-            Expression exp = token.createExpression(expression);
+            Expression exp = compiled ? SimpleCompiler.createExpression(token, expression) : token.createExpression(expression);
             if (exp != null) {
                 answer.add(exp);
             }
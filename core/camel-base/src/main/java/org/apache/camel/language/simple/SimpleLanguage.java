@@ -100,12 +100,18 @@ import org.slf4j.LoggerFactory;
 @Language("simple")
 public class SimpleLanguage extends LanguageSupport implements StaticService {
 
+    /**
+     * Global option to enable compiled mode, see {@link #setCompiled(boolean)}.
+     */
+    public static final String SIMPLE_COMPILED = "CamelSimpleCompiled";
+
     private static final Logger LOG = LoggerFactory.getLogger(SimpleLanguage.class);
 
     // singleton for expressions without a result type
     private static final SimpleLanguage SIMPLE = new SimpleLanguage();
 
     boolean allowEscape = true;
+    private boolean compiled;
 
     // use caches to avoid re-parsing the same expressions over and over again
     private Map<String, Expression> cacheExpression;
@@ -117,8 +123,30 @@ public class SimpleLanguage extends LanguageSupport implements StaticService {
     public SimpleLanguage() {
     }
 
+    /**
+     * Whether the expressions and predicates are compiled.
+     */
+    public boolean isCompiled() {
+        return compiled;
+    }
+
+    /**
+     * Whether to compile the expressions and predicates into composed expressions, with the header names,
+     * constant values and getter methods resolved up front, instead of resolving these on each evaluation.
+     * The outcome of the expressions is the same. This option must be configured before any expressions is created.
+     *
+     * @see SimpleCompiler
+     */
+    public void setCompiled(boolean compiled) {
+        this.compiled = compiled;
+    }
+
     @Override
     public void init() {
+        if (getCamelContext() != null && "true".equalsIgnoreCase(getCamelContext().getGlobalOption(SIMPLE_COMPILED))) {
+            compiled = true;
+        }
+
         // setup cache which requires CamelContext to be set first
         if (cacheExpression == null && cachePredicate == null && getCamelContext() != null) {
             int maxSize = CamelContextHelper.getMaximumSimpleCacheSize(getCamelContext());
@@ -134,7 +162,8 @@ public class SimpleLanguage extends LanguageSupport implements StaticService {
 
     @Override
     public void start() {
-        // noop
+        // the language is started when resolved from CamelContext, so ensure the caches are initialized
+        init();
     }
 
     @Override
@@ -163,7 +192,7 @@ public class SimpleLanguage extends LanguageSupport implements StaticService {
 
             expression = loadResource(expression);
 
-            SimplePredicateParser parser = new SimplePredicateParser(expression, allowEscape, cacheExpression);
+            SimplePredicateParser parser = new SimplePredicateParser(expression, allowEscape, cacheExpression, compiled);
             answer = parser.parsePredicate();
 
             if (cachePredicate != null && answer != null) {
@@ -182,7 +211,7 @@ public class SimpleLanguage extends LanguageSupport implements StaticService {
 
             expression = loadResource(expression);
 
-            SimpleExpressionParser parser = new SimpleExpressionParser(expression, allowEscape, cacheExpression);
+            SimpleExpressionParser parser = new SimpleExpressionParser(expression, allowEscape, cacheExpression, compiled);
             answer = parser.parseExpression();
 
             if (cacheExpression != null && answer != null) {
@@ -56,10 +56,16 @@ public class SimplePredicateParser extends BaseSimpleParser {
 
     // use caches to avoid re-parsing the same expressions over and over again
     private Map<String, Expression> cacheExpression;
+    private final boolean compiled;
 
     public SimplePredicateParser(String expression, boolean allowEscape, Map<String, Expression> cacheExpression) {
+        this(expression, allowEscape, cacheExpression, false);
+    }
+
+    public SimplePredicateParser(String expression, boolean allowEscape, Map<String, Expression> cacheExpression, boolean compiled) {
         super(expression, allowEscape);
         this.cacheExpression = cacheExpression;
+        this.compiled = compiled;
     }
 
     public Predicate parsePredicate() {
@@ -441,7 +447,7 @@ public class SimplePredicateParser extends BaseSimpleParser {
     private List<Predicate> createPredicates() {
         List<Predicate> answer = new ArrayList<>();
         for (SimpleNode node : nodes) {
-            Expression exp = node.createExpression(expression);
+            Expression exp = compiled ? SimpleCompiler.createExpression(node, expression) : node.createExpression(expression);
             if (exp != null) {
                 Predicate predicate = ExpressionToPredicateAdapter.toPredicate(exp);
                 answer.add(predicate);
@@ -52,6 +52,10 @@ public class SimpleFunctionStart extends BaseSimpleNode implements BlockStart {
         return "${" + block + "}";
     }
 
+    public CompositeNodes getBlock() {
+        return block;
+    }
+
     @Override
     public Expression createExpression(String expression) {
         // a function can either be a simple literal function, or contain nested functions
@@ -627,6 +627,14 @@ public class CamelInternalProcessor extends DelegateAsyncProcessor {
         public MessageHistory before(Exchange exchange) throws Exception {
             List<MessageHistory> list = exchange.getProperty(Exchange.MESSAGE_HISTORY, List.class);
             if (list == null) {
+                // only decide once per exchange whether it should be sampled
+                if (exchange.getProperty(Exchange.MESSAGE_HISTORY_SAMPLED) != null) {
+                    return null;
+                }
+                if (!factory.isSampled(exchange)) {
+                    exchange.setProperty(Exchange.MESSAGE_HISTORY_SAMPLED, Boolean.FALSE);
+                    return null;
+                }
                 list = new LinkedList<>();
                 exchange.setProperty(Exchange.MESSAGE_HISTORY, list);
             }
@@ -17,18 +17,24 @@
 package org.apache.camel.processor;
 
 import java.util.ArrayList;
-import java.util.Iterator;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
+import java.util.Objects;
 
 import org.apache.camel.AsyncCallback;
 import org.apache.camel.AsyncProcessor;
+import org.apache.camel.BinaryPredicate;
 import org.apache.camel.Exchange;
+import org.apache.camel.Expression;
 import org.apache.camel.Navigate;
 import org.apache.camel.Processor;
 import org.apache.camel.Traceable;
 import org.apache.camel.spi.IdAware;
 import org.apache.camel.support.AsyncProcessorConverterHelper;
 import org.apache.camel.support.AsyncProcessorSupport;
+import org.apache.camel.support.ConstantExpressionAdapter;
+import org.apache.camel.support.LookupExpression;
 import org.apache.camel.support.service.ServiceHelper;
 
 import static org.apache.camel.processor.PipelineHelper.continueProcessing;
@@ -37,22 +43,27 @@ import static org.apache.camel.processor.PipelineHelper.continueProcessing;
  * Implements a Choice structure where one or more predicates are used which if
  * they are true their processors are used, with a default otherwise clause used
  * if none match.
+ * <p/>
+ * Consecutive predicates which tests the same message header or exchange property for equality with
+ * constant values are indexed, so the matching predicate is found by a single lookup.
  */
 public class ChoiceProcessor extends AsyncProcessorSupport implements Navigate<Processor>, Traceable, IdAware {
 
+    private static final int MIN_INDEXED_FILTERS = 2;
+
     private String id;
     private final List<FilterProcessor> filters;
     private final Processor otherwise;
+    private final IndexedFilters[] indexes;
     private transient long notFiltered;
 
     public ChoiceProcessor(List<FilterProcessor> filters, Processor otherwise) {
         this.filters = filters;
         this.otherwise = otherwise;
+        this.indexes = createIndexes(filters);
     }
 
     public boolean process(final Exchange exchange, final AsyncCallback callback) {
-        Iterator<Processor> processors = next().iterator();
-
         // callback to restore existing FILTER_MATCHED property on the Exchange
         final Object existing = exchange.getProperty(Exchange.FILTER_MATCHED);
         final AsyncCallback choiceCallback = new AsyncCallback() {
@@ -70,39 +81,71 @@ public class ChoiceProcessor extends AsyncProcessorSupport implements Navigate<P
         // as we only pick one processor to process, then no need to have async callback that has a while loop as well
         // as this should not happen, eg we pick the first filter processor that matches, or the otherwise (if present)
         // and if not, we just continue without using any processor
-        while (processors.hasNext()) {
-            // get the next processor
-            Processor processor = processors.next();
+        Processor processor = null;
+        boolean breakOut = false;
+        int size = filters != null ? filters.size() : 0;
+        int i = 0;
+        while (i < size) {
+            IndexedFilters index = indexes[i];
+            if (index != null) {
+                // evaluate the expression once and lookup the matching filter
+                Object value = null;
+                try {
+                    value = index.expression.evaluate(exchange, Object.class);
+                } catch (Throwable e) {
+                    exchange.setException(e);
+                }
+                if (!continueProcessing(exchange, "so breaking out of choice", log)) {
+                    breakOut = true;
+                    break;
+                }
+                // a null value does not equal any of the constants
+                if (value == null || value.getClass() == index.type) {
+                    FilterProcessor filter = index.filters.get(value);
+                    if (filter != null) {
+                        filter.matched(exchange);
+                        processor = filter.getProcessor();
+                        break;
+                    }
+                    // none of the indexed filters matches so skip them
+                    exchange.setProperty(Exchange.FILTER_MATCHED, false);
+                    i = index.end;
+                    continue;
+                }
+                // the value may be type coerced so evaluate the indexed filters one by one
+            }
 
             // evaluate the predicate on filter predicate early to be faster
             // and avoid issues when having nested choices
             // as we should only pick one processor
+            FilterProcessor filter = filters.get(i++);
             boolean matches = false;
-            if (processor instanceof FilterProcessor) {
-                FilterProcessor filter = (FilterProcessor) processor;
-                try {
-                    matches = filter.matches(exchange);
-                    // as we have pre evaluated the predicate then use its processor directly when routing
-                    processor = filter.getProcessor();
-                } catch (Throwable e) {
-                    exchange.setException(e);
-                }
-            } else {
-                // its the otherwise processor, so its a match
-                notFiltered++;
-                matches = true;
+            try {
+                matches = filter.matches(exchange);
+            } catch (Throwable e) {
+                exchange.setException(e);
             }
 
             // check for error if so we should break out
             if (!continueProcessing(exchange, "so breaking out of choice", log)) {
+                breakOut = true;
                 break;
             }
 
-            // if we did not match then continue to next filter
-            if (!matches) {
-                continue;
+            if (matches) {
+                // as we have pre evaluated the predicate then use its processor directly when routing
+                processor = filter.getProcessor();
+                break;
             }
+        }
+
+        if (processor == null && !breakOut && otherwise != null) {
+            // its the otherwise processor, so its a match
+            notFiltered++;
+            processor = otherwise;
+        }
 
+        if (processor != null) {
             // okay we found a filter or its the otherwise we are processing
             AsyncProcessor async = AsyncProcessorConverterHelper.convert(processor);
             return async.process(exchange, choiceCallback);
@@ -146,6 +189,32 @@ public class ChoiceProcessor extends AsyncProcessorSupport implements Navigate<P
         return otherwise;
     }
 
+    /**
+     * Whether the predicate of the given filter is evaluated by a lookup in an index
+     * instead of being evaluated one by one
+     */
+    public boolean isIndexed(FilterProcessor filter) {
+        for (IndexedFilters index : indexes) {
+            if (index != null && index.filters.containsValue(filter)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Gets the number of filters which predicates are evaluated by a lookup in an index
+     */
+    public int getIndexedFiltersCount() {
+        int answer = 0;
+        for (IndexedFilters index : indexes) {
+            if (index != null) {
+                answer += index.filters.size();
+            }
+        }
+        return answer;
+    }
+
     /**
      * Gets the number of Exchanges that did not match any predicate and are routed using otherwise
      */
@@ -197,4 +266,95 @@ public class ChoiceProcessor extends AsyncProcessorSupport implements Navigate<P
         ServiceHelper.stopService(otherwise, filters);
     }
 
+    /**
+     * Groups consecutive filters which tests the same header or exchange property for equality with
+     * constant values of the same type, so the matching filter can be found by a single lookup,
+     * instead of evaluating the predicates one by one.
+     */
+    private static IndexedFilters[] createIndexes(List<FilterProcessor> filters) {
+        int size = filters != null ? filters.size() : 0;
+        IndexedFilters[] answer = new IndexedFilters[size];
+        int i = 0;
+        while (i < size) {
+            BinaryPredicate first = indexablePredicate(filters.get(i));
+            int end = i + 1;
+            if (first != null) {
+                Class<?> type = constantValue(first).getClass();
+                while (end < size) {
+                    BinaryPredicate next = indexablePredicate(filters.get(end));
+                    if (next == null || !isSameLookup(first.getLeft(), next.getLeft())
+                            || constantValue(next).getClass() != type) {
+                        break;
+                    }
+                    end++;
+                }
+                if (end - i >= MIN_INDEXED_FILTERS) {
+                    Map<Object, FilterProcessor> map = new HashMap<>();
+                    for (int j = i; j < end; j++) {
+                        Object value = constantValue((BinaryPredicate) filters.get(j).getPredicate());
+                        // the first filter wins as when evaluating the predicates one by one
+                        map.putIfAbsent(value, filters.get(j));
+                    }
+                    answer[i] = new IndexedFilters(first.getLeft(), type, map, end);
+                } else {
+                    end = i + 1;
+                }
+            }
+            i = end;
+        }
+        return answer;
+    }
+
+    private static BinaryPredicate indexablePredicate(FilterProcessor filter) {
+        if (!(filter.getPredicate() instanceof BinaryPredicate)) {
+            return null;
+        }
+        BinaryPredicate predicate = (BinaryPredicate) filter.getPredicate();
+        if (!"==".equals(predicate.getOperator())
+                || !(predicate.getLeft() instanceof LookupExpression)
+                || !(predicate.getRight() instanceof ConstantExpressionAdapter)) {
+            return null;
+        }
+        // only values where equals is the same as type coerced equals when the types are the same
+        Object value = constantValue(predicate);
+        if (value == null) {
+            return null;
+        }
+        Class<?> type = value.getClass();
+        if (type == String.class || type == Integer.class || type == Long.class || type == Short.class
+                || type == Byte.class || type == Character.class || type == Boolean.class || type.isEnum()) {
+            return predicate;
+        }
+        return null;
+    }
+
+    private static Object constantValue(BinaryPredicate predicate) {
+        return ((ConstantExpressionAdapter) predicate.getRight()).getValue();
+    }
+
+    private static boolean isSameLookup(Expression left, Expression right) {
+        LookupExpression l1 = (LookupExpression) left;
+        LookupExpression l2 = (LookupExpression) right;
+        return l1.getClass() == l2.getClass()
+                && Objects.equals(l1.getLanguage(), l2.getLanguage())
+                && Objects.equals(l1.getExpression(), l2.getExpression());
+    }
+
+    /**
+     * Consecutive filters which tests the same expression for equality with constant values of the same type.
+     */
+    private static final class IndexedFilters {
+        private final Expression expression;
+        private final Class<?> type;
+        private final Map<Object, FilterProcessor> filters;
+        private final int end;
+
+        private IndexedFilters(Expression expression, Class<?> type, Map<Object, FilterProcessor> filters, int end) {
+            this.expression = expression;
+            this.type = type;
+            this.filters = filters;
+            this.end = end;
+        }
+    }
+
 }
@@ -73,6 +73,17 @@ public class FilterProcessor extends DelegateAsyncProcessor implements Traceable
         return matches;
     }
 
+    /**
+     * Marks the exchange as matched by this filter, when the predicate has been evaluated
+     * by other means, such as an indexed content based router.
+     */
+    void matched(Exchange exchange) {
+        log.debug("Filter matches: true for exchange: {}", exchange);
+
+        exchange.setProperty(Exchange.FILTER_MATCHED, true);
+        filtered++;
+    }
+
     @Override
     public String toString() {
         return "Filter[if: " + predicate + " do: " + getProcessor() + "]";
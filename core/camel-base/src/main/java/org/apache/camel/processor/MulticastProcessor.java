@@ -22,6 +22,7 @@ import java.util.Collection;
 import java.util.Iterator;
 import java.util.List;
 import java.util.Map;
+import java.util.Set;
 import java.util.concurrent.ConcurrentHashMap;
 import java.util.concurrent.ConcurrentMap;
 import java.util.concurrent.Executor;
@@ -31,6 +32,8 @@ import java.util.concurrent.TimeUnit;
 import java.util.concurrent.atomic.AtomicBoolean;
 import java.util.concurrent.atomic.AtomicInteger;
 import java.util.concurrent.atomic.AtomicReference;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+import java.util.concurrent.atomic.LongAdder;
 import java.util.concurrent.locks.Lock;
 import java.util.concurrent.locks.ReentrantLock;
 
@@ -147,6 +150,11 @@ public class MulticastProcessor extends AsyncProcessorSupport implements Navigat
     private final long timeout;
     private final ConcurrentMap<PreparedErrorHandler, Processor> errorHandlers = new ConcurrentHashMap<>();
     private final boolean shareUnitOfWork;
+    private int maxInFlight;
+    private boolean aggregateInOrder;
+    // the states in progress are only tracked for the in-flight metrics when maxInFlight or aggregateInOrder is enabled
+    private final Set<MulticastState> states = ConcurrentHashMap.newKeySet();
+    private final LongAdder subExchangesCompleted = new LongAdder();
 
     public MulticastProcessor(CamelContext camelContext, Collection<Processor> processors) {
         this(camelContext, processors, null);
@@ -218,6 +226,9 @@ public class MulticastProcessor extends AsyncProcessorSupport implements Navigat
         }
 
         MulticastState state = new MulticastState(exchange, pairs, callback);
+        if (state.tracked) {
+            states.add(state);
+        }
         if (isParallelProcessing()) {
             executorService.submit(() -> exchange.getContext().getReactiveExecutor().schedule(state));
         } else {
@@ -255,15 +266,34 @@ public class MulticastProcessor extends AsyncProcessorSupport implements Navigat
         final AtomicInteger nbAggregated = new AtomicInteger();
         final AtomicBoolean allSent = new AtomicBoolean();
         final AtomicBoolean done = new AtomicBoolean();
+        // whether the next pair is scheduled to be sent, which is initially done by process
+        final AtomicBoolean nextScheduled = new AtomicBoolean(true);
+        // the completed exchanges by their index, which are aggregated in order as soon as the previous ones are aggregated
+        final AtomicReferenceArray<Exchange> slots;
+        final AtomicInteger remaining;
+        final boolean tracked;
 
         MulticastState(Exchange original, Iterable<ProcessorExchangePair> pairs, AsyncCallback callback) {
             this.original = original;
+            this.tracked = maxInFlight > 0 || aggregateInOrder;
             this.pairs = pairs;
             this.callback = callback;
             this.iterator = pairs.iterator();
             this.lock = new ReentrantLock();
-            this.completion = new AsyncCompletionService<>(MulticastProcessor.this::schedule, !isStreaming(), lock);
+            this.completion = new AsyncCompletionService<>(MulticastProcessor.this::schedule, !isStreaming() || isAggregateInOrder(), lock);
             this.result = new AtomicReference<>();
+            // when the number of exchanges is known up front, and they must be aggregated in order, then each
+            // completed exchange is stored in its own slot, and the contiguous completed exchanges are aggregated
+            // in order by whoever owns the lock, which avoids blocking on the lock for every completed exchange
+            if (isParallelProcessing() && !isStreaming() && !isParallelAggregate() && timeout <= 0 && maxInFlight <= 0
+                    && pairs instanceof Collection) {
+                int size = ((Collection<?>) pairs).size();
+                this.slots = new AtomicReferenceArray<>(size);
+                this.remaining = new AtomicInteger(size);
+            } else {
+                this.slots = null;
+                this.remaining = null;
+            }
             if (timeout > 0) {
                 schedule(aggregateExecutorService, this::timeout, timeout, TimeUnit.MILLISECONDS);
             }
@@ -300,9 +330,9 @@ public class MulticastProcessor extends AsyncProcessorSupport implements Navigat
                 int index = nbExchangeSent.getAndIncrement();
                 updateNewExchange(exchange, index, pairs, hasNext);
 
-                // Schedule the processing of the next pair
+                // Schedule the processing of the next pair, unless there is an in-flight window
                 if (hasNext) {
-                    if (isParallelProcessing()) {
+                    if (isParallelProcessing() && maxInFlight <= 0) {
                         schedule(this);
                     }
                 } else {
@@ -335,6 +365,13 @@ public class MulticastProcessor extends AsyncProcessorSupport implements Navigat
                             return;
                         }
 
+                        if (slots != null) {
+                            slots.set(index, exchange);
+                            remaining.decrementAndGet();
+                            aggregateSlots();
+                            return;
+                        }
+
                         exchangeResult.accept(exchange);
 
                         // aggregate exchanges if any
@@ -346,6 +383,13 @@ public class MulticastProcessor extends AsyncProcessorSupport implements Navigat
                         }
                     });
                 });
+
+                // Schedule the processing of the next pair within the in-flight window, after the pair
+                // has been submitted so the pairs are completed in the same order as they are sent
+                if (hasNext && isParallelProcessing() && maxInFlight > 0) {
+                    nextScheduled.set(false);
+                    scheduleNext();
+                }
             } catch (Exception e) {
                 original.setException(e);
                 doDone(null, false);
@@ -359,6 +403,7 @@ public class MulticastProcessor extends AsyncProcessorSupport implements Navigat
                     Exchange exchange;
                     while (!done.get() && (exchange = completion.poll()) != null) {
                         doAggregate(result, exchange);
+                        subExchangesCompleted.increment();
                         if (nbAggregated.incrementAndGet() >= nbExchangeSent.get() && allSent.get()) {
                             doDone(result.get(), true);
                         }
@@ -370,6 +415,78 @@ public class MulticastProcessor extends AsyncProcessorSupport implements Navigat
                 } finally {
                     lock.unlock();
                 }
+                // resume sending pairs if it was paused due the in-flight window was full
+                if (maxInFlight > 0 && isParallelProcessing() && !allSent.get()) {
+                    scheduleNext();
+                }
+            }
+        }
+
+        /**
+         * Schedules sending the next pair, unless its already scheduled or the in-flight window is full,
+         * in which case the next pair is scheduled when an in-flight exchange has been aggregated.
+         */
+        protected void scheduleNext() {
+            // the number of sent exchanges cannot change while we own the scheduling
+            while (!done.get() && nextScheduled.compareAndSet(false, true)) {
+                if (maxInFlight <= 0 || nbExchangeSent.get() - nbAggregated.get() < maxInFlight) {
+                    schedule(this);
+                    return;
+                }
+                // the window is full so release the scheduling, and check again in case
+                // an exchange has been aggregated in the meantime
+                nextScheduled.set(false);
+                if (nbExchangeSent.get() - nbAggregated.get() >= maxInFlight) {
+                    return;
+                }
+            }
+        }
+
+        /**
+         * Aggregates the completed exchanges in the slots in order, up to the first exchange which is not yet completed.
+         * If another thread is already aggregating then it takes care of the newly completed exchange.
+         */
+        protected void aggregateSlots() {
+            Lock lock = this.lock;
+            while (lock.tryLock()) {
+                try {
+                    Exchange exchange;
+                    int next;
+                    while (!done.get() && (next = nbAggregated.get()) < slots.length()
+                            && (exchange = slots.getAndSet(next, null)) != null) {
+                        doAggregate(result, exchange);
+                        subExchangesCompleted.increment();
+                        if (nbAggregated.incrementAndGet() == slots.length()) {
+                            doDone(result.get(), true);
+                        }
+                    }
+                } catch (Throwable e) {
+                    original.setException(e);
+                    // and do the done work
+                    doDone(null, false);
+                } finally {
+                    lock.unlock();
+                }
+                // an exchange may have been completed while we owned the lock, and as its thread
+                // could not aggregate it, then we must check again after releasing the lock
+                int next = nbAggregated.get();
+                if (done.get() || next >= slots.length() || slots.get(next) == null) {
+                    return;
+                }
+            }
+        }
+
+        int getInFlight() {
+            return done.get() ? 0 : Math.max(0, nbExchangeSent.get() - nbAggregated.get());
+        }
+
+        int getPendingAggregation() {
+            if (done.get()) {
+                return 0;
+            } else if (slots != null) {
+                return Math.max(0, slots.length() - remaining.get() - nbAggregated.get());
+            } else {
+                return completion.size();
             }
         }
 
@@ -403,6 +520,9 @@ public class MulticastProcessor extends AsyncProcessorSupport implements Navigat
 
         protected void doDone(Exchange exchange, boolean forceExhaust) {
             if (done.compareAndSet(false, true)) {
+                if (tracked) {
+                    states.remove(this);
+                }
                 MulticastProcessor.this.doDone(original, exchange, pairs, callback, false, forceExhaust);
             }
         }
@@ -929,6 +1049,80 @@ public class MulticastProcessor extends AsyncProcessorSupport implements Navigat
         return stopOnAggregateException;
     }
 
+    /**
+     * The maximum number of exchanges which are sent and not yet aggregated when using parallel processing,
+     * where 0 is unbounded.
+     */
+    public int getMaxInFlight() {
+        return maxInFlight;
+    }
+
+    /**
+     * Sets the maximum number of exchanges which are sent and not yet aggregated when using parallel processing.
+     * When the limit is reached then sending the next exchange waits until an exchange has been aggregated,
+     * which applies backpressure to the iterator in streaming mode.
+     */
+    public void setMaxInFlight(int maxInFlight) {
+        this.maxInFlight = maxInFlight;
+    }
+
+    /**
+     * Whether the replies are aggregated in the same order as the exchanges was sent, also in streaming mode.
+     */
+    public boolean isAggregateInOrder() {
+        return aggregateInOrder;
+    }
+
+    /**
+     * Sets whether to aggregate the replies in the same order as the exchanges was sent, also in streaming mode.
+     * The replies which complete out of order are kept in a reorder buffer until the previous replies are aggregated.
+     */
+    public void setAggregateInOrder(boolean aggregateInOrder) {
+        this.aggregateInOrder = aggregateInOrder;
+    }
+
+    /**
+     * Gets the number of exchanges which has been sent and are not yet aggregated.
+     * <p/>
+     * This is only tracked when {@link #getMaxInFlight() maxInFlight} or {@link #isAggregateInOrder() aggregateInOrder}
+     * is enabled, otherwise 0 is returned.
+     */
+    public int getSubExchangesInflight() {
+        int answer = 0;
+        for (MulticastState state : states) {
+            answer += state.getInFlight();
+        }
+        return answer;
+    }
+
+    /**
+     * Gets the number of exchanges which are completed and waiting in the reorder buffer to be aggregated.
+     * <p/>
+     * This is only tracked when {@link #getMaxInFlight() maxInFlight} or {@link #isAggregateInOrder() aggregateInOrder}
+     * is enabled, otherwise 0 is returned.
+     */
+    public int getSubExchangesPendingAggregation() {
+        int answer = 0;
+        for (MulticastState state : states) {
+            answer += state.getPendingAggregation();
+        }
+        return answer;
+    }
+
+    /**
+     * Gets the number of exchanges which has been completed and aggregated
+     */
+    public long getSubExchangesCompleted() {
+        return subExchangesCompleted.sum();
+    }
+
+    /**
+     * Reset counters.
+     */
+    public void reset() {
+        subExchangesCompleted.reset();
+    }
+
     public boolean isShareUnitOfWork() {
         return shareUnitOfWork;
     }
@@ -256,6 +256,9 @@ public class RecipientListProcessor extends MulticastProcessor {
         // trim strings as end users might have added spaces between separators
         if (recipient instanceof String) {
             String s = ((String) recipient).trim();
+            if (!s.contains("exchangePattern")) {
+                return null;
+            }
             // see if exchangePattern is a parameter in the url
             s = URISupport.normalizeUri(s);
             return EndpointHelper.resolveExchangePatternFromUrl(s);
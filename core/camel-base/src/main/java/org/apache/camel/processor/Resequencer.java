@@ -19,11 +19,13 @@ package org.apache.camel.processor;
 import java.util.ArrayList;
 import java.util.Collection;
 import java.util.Comparator;
+import java.util.Deque;
 import java.util.Iterator;
 import java.util.LinkedList;
 import java.util.List;
 import java.util.Queue;
 import java.util.Set;
+import java.util.SortedSet;
 import java.util.TreeSet;
 import java.util.concurrent.ConcurrentLinkedQueue;
 import java.util.concurrent.TimeUnit;
@@ -277,6 +279,19 @@ public class Resequencer extends AsyncProcessorSupport implements Navigate<Proce
         return num >= batchSize;
     }
 
+    /**
+     * Creates the collection which the exchanges of an "in" batch are added to as they arrive. When the "out"
+     * collection is sorted the "in" batch is sorted the same way, so the exchanges are sorted incrementally
+     * instead of all at once when the batch completes.
+     */
+    @SuppressWarnings("unchecked")
+    private Collection<Exchange> createInBatch() {
+        if (collection instanceof SortedSet) {
+            return new TreeSet<>(((SortedSet<Exchange>) collection).comparator());
+        }
+        return new ArrayList<>();
+    }
+
     /**
      * A strategy method to decide if the "out" batch is completed. That is, whether the resulting exchange in
      * the out collection should be sent.
@@ -368,7 +383,7 @@ public class Resequencer extends AsyncProcessorSupport implements Navigate<Proce
      */
     private class BatchSender extends Thread {
 
-        private Queue<Exchange> queue;
+        private Deque<InBatch> queue;
         private Lock queueLock = new ReentrantLock();
         private final AtomicBoolean exchangeEnqueued = new AtomicBoolean();
         private final Queue<String> completionPredicateMatched = new ConcurrentLinkedQueue<>();
@@ -424,13 +439,13 @@ public class Resequencer extends AsyncProcessorSupport implements Navigate<Proce
                             } else {
                                 log.trace("Collecting exchanges to be aggregated triggered by batch timeout");
                             }
-                            drainQueueTo(collection, batchSize, id);
+                            drainQueueTo(collection);
                         } else {
                             exchangeEnqueued.set(false);
                             boolean drained = false;
-                            while (isInBatchCompleted(queue.size())) {
+                            while (!queue.isEmpty() && isInBatchCompleted(queue.peek().size)) {
                                 drained = true;
-                                drainQueueTo(collection, batchSize, id);
+                                drainQueueTo(collection);
                             }
                             if (drained) {
                                 log.trace("Collecting exchanges to be aggregated triggered by new exchanges received");
@@ -467,23 +482,14 @@ public class Resequencer extends AsyncProcessorSupport implements Navigate<Proce
         /**
          * This method should be called with queueLock held
          */
-        private void drainQueueTo(Collection<Exchange> collection, int batchSize, String exchangeId) {
-            for (int i = 0; i < batchSize; ++i) {
-                Exchange e = queue.poll();
-                if (e != null) {
-                    try {
-                        collection.add(e);
-                    } catch (Exception t) {
-                        e.setException(t);
-                    } catch (Throwable t) {
-                        getExceptionHandler().handleException(t);
-                    }
-                    if (exchangeId != null && exchangeId.equals(e.getExchangeId())) {
-                        // this batch is complete so stop draining
-                        break;
-                    }
-                } else {
-                    break;
+        private void drainQueueTo(Collection<Exchange> collection) {
+            InBatch batch = queue.poll();
+            if (batch != null) {
+                try {
+                    // the in batch is already sorted, which a tree set can add in linear time when it's empty
+                    collection.addAll(batch.exchanges);
+                } catch (Throwable t) {
+                    getExceptionHandler().handleException(t);
                 }
             }
         }
@@ -497,15 +503,26 @@ public class Resequencer extends AsyncProcessorSupport implements Navigate<Proce
             queueLock.lock();
             try {
                 // pre test whether the completion predicate matched
+                boolean matches = false;
                 if (completionPredicate != null) {
-                    boolean matches = completionPredicate.matches(exchange);
+                    matches = completionPredicate.matches(exchange);
                     if (matches) {
                         log.trace("Exchange matched completion predicate: {}", exchange);
                         // add this exchange to the list of exchanges which marks the batch as complete
                         completionPredicateMatched.add(exchange.getExchangeId());
                     }
                 }
-                queue.add(exchange);
+                // add the exchange to the current in batch, so the batch is sorted as the exchanges arrive
+                InBatch batch = queue.peekLast();
+                if (batch == null || batch.completed || isInBatchCompleted(batch.size)) {
+                    batch = new InBatch();
+                    queue.add(batch);
+                }
+                batch.add(exchange);
+                if (matches) {
+                    // this batch is complete so the next exchange is added to a new batch
+                    batch.completed = true;
+                }
                 exchangeEnqueued.set(true);
                 exchangeEnqueuedCondition.signal();
             } finally {
@@ -524,4 +541,26 @@ public class Resequencer extends AsyncProcessorSupport implements Navigate<Proce
         }
     }
 
-}
\ No newline at end of file
+    /**
+     * The exchanges of an "in" batch, which are sorted as they arrive.
+     */
+    private final class InBatch {
+
+        private final Collection<Exchange> exchanges = createInBatch();
+        private int size;
+        private boolean completed;
+
+        private void add(Exchange exchange) {
+            try {
+                exchanges.add(exchange);
+            } catch (Exception e) {
+                exchange.setException(e);
+            } catch (Throwable t) {
+                getExceptionHandler().handleException(t);
+            }
+            // count the exchange even if it was a duplicate so the batch completes by the number of exchanges
+            size++;
+        }
+    }
+
+}
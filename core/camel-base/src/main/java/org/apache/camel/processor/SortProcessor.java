@@ -16,24 +16,58 @@
  */
 package org.apache.camel.processor;
 
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.Closeable;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.ObjectInputStream;
+import java.io.ObjectOutputStream;
+import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.Comparator;
+import java.util.Iterator;
 import java.util.List;
+import java.util.NoSuchElementException;
+import java.util.PriorityQueue;
 
 import org.apache.camel.AsyncCallback;
 import org.apache.camel.Exchange;
 import org.apache.camel.Expression;
 import org.apache.camel.Message;
+import org.apache.camel.RuntimeCamelException;
 import org.apache.camel.spi.IdAware;
+import org.apache.camel.spi.StreamCachingStrategy;
 import org.apache.camel.support.AsyncProcessorSupport;
+import org.apache.camel.support.ObjectHelper;
+import org.apache.camel.support.SynchronizationAdapter;
+import org.apache.camel.util.FileUtil;
+import org.apache.camel.util.IOHelper;
 
 /**
  * A processor that sorts the expression using a comparator
+ * <p/>
+ * When a chunk size is configured the expression is consumed as an {@link Iterator}, and sorted using an external
+ * merge sort. The elements are sorted in chunks of the given size, and each sorted chunk is spooled to a temporary
+ * file in the stream caching spool directory. The message body is then set to a lazy {@link Iterator} which merges
+ * the sorted chunks, so a streaming splitter can process the sorted elements without loading them all into memory.
+ * The elements must be {@link java.io.Serializable} to be spooled. If all the elements fit into a single chunk
+ * they are sorted in memory, and the message body is a {@link List} as usual.
+ * <p/>
+ * At most {@link #getMergeFanIn()} chunks are merged at the same time, as each chunk being merged keeps its file open.
+ * When there are more chunks, then they are first merged into larger chunks in multiple passes.
+ * The sort is stable, as equal elements are merged in the order of their chunks.
  */
 public class SortProcessor<T> extends AsyncProcessorSupport implements IdAware, org.apache.camel.Traceable {
 
     private String id;
     private final Expression expression;
     private final Comparator<? super T> comparator;
+    private int chunkSize;
+    private int mergeFanIn = 64;
+    private boolean parallelSorting;
 
     public SortProcessor(Expression expression, Comparator<? super T> comparator) {
         this.expression = expression;
@@ -45,15 +79,21 @@ public class SortProcessor<T> extends AsyncProcessorSupport implements IdAware,
         try {
             Message in = exchange.getIn();
 
-            @SuppressWarnings("unchecked")
-            List<T> list = expression.evaluate(exchange, List.class);
-            list.sort(comparator);
+            Object answer;
+            if (chunkSize > 0) {
+                answer = externalSort(exchange);
+            } else {
+                @SuppressWarnings("unchecked")
+                List<T> list = expression.evaluate(exchange, List.class);
+                list.sort(comparator);
+                answer = list;
+            }
 
             if (exchange.getPattern().isOutCapable()) {
                 Message out = exchange.getOut();
-                out.copyFromWithNewBody(in, list);
+                out.copyFromWithNewBody(in, answer);
             } else {
-                in.setBody(list);
+                in.setBody(answer);
             }
         } catch (Exception e) {
             exchange.setException(e);
@@ -63,6 +103,118 @@ public class SortProcessor<T> extends AsyncProcessorSupport implements IdAware,
         return true;
     }
 
+    @SuppressWarnings("unchecked")
+    private Object externalSort(Exchange exchange) throws Exception {
+        Object value = expression.evaluate(exchange, Object.class);
+        Iterator<T> it = (Iterator<T>) ObjectHelper.createIterator(value);
+
+        List<File> runs = new ArrayList<>();
+        try {
+            T[] chunk = (T[]) new Object[chunkSize];
+            while (true) {
+                int size = 0;
+                while (size < chunkSize && it.hasNext()) {
+                    chunk[size++] = it.next();
+                }
+                if (parallelSorting) {
+                    Arrays.parallelSort(chunk, 0, size, comparator);
+                } else {
+                    Arrays.sort(chunk, 0, size, comparator);
+                }
+
+                if (runs.isEmpty() && !it.hasNext()) {
+                    // everything fits into a single chunk so no need to spool
+                    return new ArrayList<>(Arrays.asList(chunk).subList(0, size));
+                }
+                if (size > 0) {
+                    runs.add(spoolRun(exchange, Arrays.asList(chunk).subList(0, size).iterator(), size));
+                    Arrays.fill(chunk, 0, size, null);
+                }
+                if (!it.hasNext()) {
+                    break;
+                }
+            }
+            // merge the chunks in multiple passes to not open too many files at the same time
+            while (runs.size() > mergeFanIn) {
+                runs = mergePass(exchange, runs);
+            }
+        } catch (Exception e) {
+            for (File run : runs) {
+                FileUtil.deleteFile(run);
+            }
+            throw e;
+        } finally {
+            IOHelper.closeIterator(it);
+        }
+
+        final MergeIterator<T> answer;
+        try {
+            answer = new MergeIterator<>(runs, comparator);
+        } catch (IOException e) {
+            for (File run : runs) {
+                FileUtil.deleteFile(run);
+            }
+            throw e;
+        }
+        // ensure the spooled files are deleted even if the iterator is not fully consumed
+        exchange.addOnCompletion(new SynchronizationAdapter() {
+            @Override
+            public void onDone(Exchange exchange) {
+                IOHelper.close(answer);
+            }
+        });
+        return answer;
+    }
+
+    private List<File> mergePass(Exchange exchange, List<File> runs) throws IOException {
+        List<File> answer = new ArrayList<>();
+        try {
+            // merge consecutive chunks so equal elements are kept in the same order
+            for (int i = 0; i < runs.size(); i += mergeFanIn) {
+                List<File> group = runs.subList(i, Math.min(i + mergeFanIn, runs.size()));
+                if (group.size() == 1) {
+                    answer.add(group.get(0));
+                } else {
+                    MergeIterator<T> merge = new MergeIterator<>(group, comparator);
+                    try {
+                        answer.add(spoolRun(exchange, merge, merge.size()));
+                    } finally {
+                        // deletes the merged chunks
+                        merge.close();
+                    }
+                }
+            }
+        } catch (IOException | RuntimeException e) {
+            for (File run : answer) {
+                FileUtil.deleteFile(run);
+            }
+            throw e;
+        }
+        return answer;
+    }
+
+    private File spoolRun(Exchange exchange, Iterator<T> elements, int size) throws IOException {
+        File dir = null;
+        StreamCachingStrategy strategy = exchange.getContext().getStreamCachingStrategy();
+        if (strategy != null && strategy.getSpoolDirectory() != null) {
+            dir = strategy.getSpoolDirectory();
+            dir.mkdirs();
+        }
+        File file = File.createTempFile("camel-sort-", ".tmp", dir);
+        try (ObjectOutputStream out = new ObjectOutputStream(new BufferedOutputStream(new FileOutputStream(file)))) {
+            out.writeInt(size);
+            for (int i = 0; i < size; i++) {
+                out.writeObject(elements.next());
+                // do not keep references to the written elements
+                out.reset();
+            }
+        } catch (IOException | RuntimeException e) {
+            FileUtil.deleteFile(file);
+            throw e;
+        }
+        return file;
+    }
+
     public String toString() {
         return "Sort[" + expression + "]";
     }
@@ -88,15 +240,168 @@ public class SortProcessor<T> extends AsyncProcessorSupport implements IdAware,
         return comparator;
     }
 
+    public int getChunkSize() {
+        return chunkSize;
+    }
+
+    /**
+     * Sets the maximum number of elements to sort in memory. When set then an external merge sort is used
+     * which spools the sorted chunks to disk. The default is 0 which sorts all the elements in memory.
+     */
+    public void setChunkSize(int chunkSize) {
+        this.chunkSize = chunkSize;
+    }
+
+    public int getMergeFanIn() {
+        return mergeFanIn;
+    }
+
+    /**
+     * Sets the maximum number of sorted chunks to merge at the same time, when using a chunk size.
+     * Each chunk being merged keeps a file open, so more chunks are merged in multiple passes.
+     * The default is 64.
+     */
+    public void setMergeFanIn(int mergeFanIn) {
+        this.mergeFanIn = mergeFanIn;
+    }
+
+    public boolean isParallelSorting() {
+        return parallelSorting;
+    }
+
+    /**
+     * Whether each chunk is sorted in parallel using the fork/join common pool, when using a chunk size.
+     */
+    public void setParallelSorting(boolean parallelSorting) {
+        this.parallelSorting = parallelSorting;
+    }
+
     @Override
     protected void doStart() throws Exception {
-        // noop
+        if (mergeFanIn < 2) {
+            throw new IllegalArgumentException("MergeFanIn must be at least 2, was: " + mergeFanIn);
+        }
     }
 
     @Override
     protected void doStop() throws Exception {
         // noop
     }
-}
 
+    /**
+     * Lazy iterator which merges the sorted chunks spooled to disk.
+     */
+    private static final class MergeIterator<T> implements Iterator<T>, Closeable {
+
+        private final PriorityQueue<Run<T>> queue;
+        private final List<Run<T>> runs = new ArrayList<>();
+
+        MergeIterator(List<File> files, Comparator<? super T> comparator) throws IOException {
+            // equal elements are taken from the earlier chunk first, so the merge is stable
+            this.queue = new PriorityQueue<>(files.size(), (r1, r2) -> {
+                int answer = comparator.compare(r1.head, r2.head);
+                return answer != 0 ? answer : Integer.compare(r1.index, r2.index);
+            });
+            try {
+                for (File file : files) {
+                    Run<T> run = new Run<>(file, runs.size());
+                    runs.add(run);
+                    if (run.advance()) {
+                        queue.add(run);
+                    }
+                }
+            } catch (IOException e) {
+                close();
+                throw e;
+            }
+        }
+
+        /**
+         * Number of elements left to merge
+         */
+        int size() {
+            int answer = queue.size();
+            for (Run<T> run : runs) {
+                answer += run.remaining;
+            }
+            return answer;
+        }
+
+        @Override
+        public boolean hasNext() {
+            return !queue.isEmpty();
+        }
+
+        @Override
+        public T next() {
+            Run<T> run = queue.poll();
+            if (run == null) {
+                throw new NoSuchElementException();
+            }
+            T answer = run.head;
+            try {
+                if (run.advance()) {
+                    queue.add(run);
+                }
+            } catch (IOException e) {
+                close();
+                throw new RuntimeCamelException("Error reading sorted chunk from " + run.file, e);
+            }
+            if (queue.isEmpty()) {
+                close();
+            }
+            return answer;
+        }
+
+        @Override
+        public void close() {
+            queue.clear();
+            for (Run<T> run : runs) {
+                run.close();
+            }
+        }
+    }
+
+    /**
+     * A sorted chunk spooled to disk.
+     */
+    private static final class Run<T> {
+
+        private final File file;
+        private final int index;
+        private ObjectInputStream in;
+        private int remaining;
+        private T head;
+
+        Run(File file, int index) throws IOException {
+            this.file = file;
+            this.index = index;
+            this.in = new ObjectInputStream(new BufferedInputStream(new FileInputStream(file)));
+            this.remaining = in.readInt();
+        }
+
+        @SuppressWarnings("unchecked")
+        boolean advance() throws IOException {
+            if (remaining <= 0) {
+                head = null;
+                close();
+                return false;
+            }
+            try {
+                head = (T) in.readObject();
+            } catch (ClassNotFoundException e) {
+                throw new IOException("Cannot read element from sorted chunk", e);
+            }
+            remaining--;
+            return true;
+        }
 
+        void close() {
+            if (in != null) {
+                IOHelper.close(in);
+                in = null;
+                FileUtil.deleteFile(file);
+            }
+        }
+    }
+}
@@ -37,6 +37,7 @@ import org.apache.camel.processor.resequencer.SequenceSender;
 import org.apache.camel.spi.ExceptionHandler;
 import org.apache.camel.spi.IdAware;
 import org.apache.camel.support.AsyncProcessorSupport;
+import org.apache.camel.support.HashedWheelTimer;
 import org.apache.camel.support.LoggingExceptionHandler;
 import org.apache.camel.support.service.ServiceHelper;
 import org.apache.camel.util.ObjectHelper;
@@ -189,6 +190,8 @@ public class StreamResequencer extends AsyncProcessorSupport implements Sequence
     protected void doStart() throws Exception {
         ServiceHelper.startService(processor);
         delivery = new Delivery();
+        // use the timer shared by all the stream resequencers
+        engine.setTimer(HashedWheelTimer.getTimer(camelContext));
         engine.start();
         delivery.start();
     }
@@ -24,6 +24,7 @@ import java.util.concurrent.RejectedExecutionException;
 import java.util.concurrent.ScheduledExecutorService;
 import java.util.concurrent.ScheduledFuture;
 import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLongFieldUpdater;
 import java.util.concurrent.atomic.AtomicReference;
 
 import org.apache.camel.AsyncCallback;
@@ -55,11 +56,20 @@ import org.apache.camel.util.ObjectHelper;
  * block if necessary. The end result is a rolling window of time. Where from the
  * callers point of view in the last timePeriodMillis no more than
  * maxRequestsPerPeriod have been allowed to be acquired.
+ *
+ * Alternatively the throttler can use a lock-free token bucket (see {@link #setTokenBucket(boolean)})
+ * which keeps the state of each correlation key in a single long (the theoretical arrival time of the
+ * next request), that is updated by compare-and-set. Each exchange reserves its slot up front, which means
+ * a delayed exchange is either scheduled on the asyncExecutor without blocking (when asyncDelayed is enabled),
+ * or the caller thread sleeps until its slot. The bucket allows bursts of maxRequestsPerPeriod and is refilled
+ * continuously, instead of using a rolling window of permits.
  */
 public class Throttler extends AsyncProcessorSupport implements Traceable, IdAware {
 
     private static final String DEFAULT_KEY = "CamelThrottlerDefaultKey";
 
+    private static final AtomicLongFieldUpdater<TokenBucket> TAT_UPDATER = AtomicLongFieldUpdater.newUpdater(TokenBucket.class, "tat");
+
     private static final String PROPERTY_EXCHANGE_QUEUED_TIMESTAMP = "CamelThrottlerExchangeQueuedTimestamp";
     private static final String PROPERTY_EXCHANGE_STATE = "CamelThrottlerExchangeState";
 
@@ -78,6 +88,9 @@ public class Throttler extends AsyncProcessorSupport implements Traceable, IdAwa
     private boolean callerRunsWhenRejected = true;
     private Expression correlationExpression;
     private Map<String, ThrottlingState> states = new ConcurrentHashMap<>();
+    private boolean tokenBucket;
+    private final Map<String, TokenBucket> buckets = new ConcurrentHashMap<>();
+    private volatile ScheduledFuture<?> bucketCleaner;
 
     public Throttler(final CamelContext camelContext, final Expression maxRequestsPerPeriodExpression, final long timePeriodMillis,
                      final ScheduledExecutorService asyncExecutor, final boolean shutdownAsyncExecutor, final boolean rejectExecution, Expression correlation) {
@@ -99,6 +112,10 @@ public class Throttler extends AsyncProcessorSupport implements Traceable, IdAwa
 
     @Override
     public boolean process(final Exchange exchange, final AsyncCallback callback) {
+        if (tokenBucket) {
+            return processTokenBucket(exchange, callback);
+        }
+
         long queuedStart = 0;
         if (log.isTraceEnabled()) {
             queuedStart = exchange.getProperty(PROPERTY_EXCHANGE_QUEUED_TIMESTAMP, 0L, Long.class);
@@ -213,15 +230,105 @@ public class Throttler extends AsyncProcessorSupport implements Traceable, IdAwa
         }
     }
 
+    /**
+     * Throttles the exchange using the token bucket of its correlation key.
+     */
+    protected boolean processTokenBucket(final Exchange exchange, final AsyncCallback callback) {
+        try {
+            if (!isRunAllowed()) {
+                throw new RejectedExecutionException("Run is not allowed");
+            }
+
+            String key = DEFAULT_KEY;
+            if (correlationExpression != null) {
+                key = correlationExpression.evaluate(exchange, String.class);
+            }
+            long now = System.nanoTime();
+            TokenBucket bucket = buckets.computeIfAbsent(key, k -> new TokenBucket(now));
+            int rate = calculateRate(bucket, exchange);
+
+            long delay;
+            while ((delay = bucket.acquire(rate, TimeUnit.MILLISECONDS.toNanos(timePeriodMillis), now, !isRejectExecution())) == TokenBucket.RETIRED) {
+                // the bucket was removed as idle in the meantime, so acquire from a new bucket with the same rate
+                buckets.remove(key, bucket);
+                bucket = buckets.computeIfAbsent(key, k -> new TokenBucket(now));
+                if (bucket.throttleRate == 0) {
+                    bucket.throttleRate = rate;
+                }
+            }
+            if (delay < 0) {
+                throw new ThrottlerRejectedExecutionException("Exceeded the max throttle rate of " + rate + " within " + timePeriodMillis + "ms");
+            } else if (delay == 0) {
+                log.trace("No throttling applied to exchangeId: {}", exchange.getExchangeId());
+                callback.done(true);
+                return true;
+            }
+
+            // the slot has been reserved so we only need to wait until its time
+            if (isAsyncDelayed() && !exchange.isTransacted()) {
+                try {
+                    log.debug("Throttle rate exceeded but AsyncDelayed enabled, so scheduling for async processing in {}ns, exchangeId: {}", delay, exchange.getExchangeId());
+                    asyncExecutor.schedule(() -> callback.done(false), delay, TimeUnit.NANOSECONDS);
+                    return false;
+                } catch (RejectedExecutionException e) {
+                    if (!isCallerRunsWhenRejected()) {
+                        throw e;
+                    }
+                    log.debug("AsyncExecutor is full, rejected exchange will run in the current thread, exchangeId: {}", exchange.getExchangeId());
+                }
+            }
+
+            TimeUnit.NANOSECONDS.sleep(delay);
+            log.trace("Throttled for {}ns, exchangeId: {}", delay, exchange.getExchangeId());
+            callback.done(true);
+            return true;
+
+        } catch (final InterruptedException e) {
+            // determine if we can still run, or the camel context is forcing a shutdown
+            boolean forceShutdown = exchange.getContext().getShutdownStrategy().forceShutdown(this);
+            if (forceShutdown) {
+                String msg = "Run not allowed as ShutdownStrategy is forcing shutting down, will reject executing exchange: " + exchange;
+                log.debug(msg);
+                exchange.setException(new RejectedExecutionException(msg, e));
+            } else {
+                exchange.setException(e);
+            }
+            callback.done(true);
+            return true;
+        } catch (final Throwable t) {
+            exchange.setException(t);
+            callback.done(true);
+            return true;
+        }
+    }
+
     @Override
     protected void doStart() throws Exception {
-        if (isAsyncDelayed()) {
+        if (isAsyncDelayed() || isTokenBucket()) {
             ObjectHelper.notNull(asyncExecutor, "executorService", this);
         }
+        if (isTokenBucket()) {
+            // remove idle buckets periodically, an idle bucket is full and thus the same as a new bucket
+            bucketCleaner = asyncExecutor.scheduleWithFixedDelay(() -> {
+                long now = System.nanoTime();
+                for (Map.Entry<String, TokenBucket> entry : buckets.entrySet()) {
+                    TokenBucket bucket = entry.getValue();
+                    // retire the bucket before removing it, so an exchange acquiring from it at the same time
+                    // retries with a new bucket instead of acquiring from a bucket which is no longer in use
+                    if (bucket.retireIfIdle(now)) {
+                        buckets.remove(entry.getKey(), bucket);
+                    }
+                }
+            }, cleanPeriodMillis, cleanPeriodMillis, TimeUnit.MILLISECONDS);
+        }
     }
 
     @Override
     protected void doStop() throws Exception {
+        if (bucketCleaner != null) {
+            bucketCleaner.cancel(false);
+            bucketCleaner = null;
+        }
     }
 
     @Override
@@ -230,9 +337,96 @@ public class Throttler extends AsyncProcessorSupport implements Traceable, IdAwa
             camelContext.getExecutorServiceManager().shutdownNow(asyncExecutor);
         }
         states.clear();
+        buckets.clear();
         super.doShutdown();
     }
 
+    /**
+     * Evaluates the maxRequestsPerPeriodExpression for the token bucket, and keeps the current rate if evaluated as null.
+     */
+    private int calculateRate(final TokenBucket bucket, final Exchange exchange) {
+        Integer newThrottle = maxRequestsPerPeriodExpression.evaluate(exchange, Integer.class);
+        if (newThrottle != null && newThrottle <= 0) {
+            throw new IllegalStateException("The maximumRequestsPerPeriod must be a positive number, was: " + newThrottle);
+        }
+        int throttleRate = bucket.throttleRate;
+        if (newThrottle == null) {
+            if (throttleRate == 0) {
+                throw new RuntimeExchangeException("The maxRequestsPerPeriodExpression was evaluated as null: " + maxRequestsPerPeriodExpression, exchange);
+            }
+            return throttleRate;
+        }
+        if (newThrottle != throttleRate) {
+            log.debug("Throttle rate changed from {} to {}, triggered by ExchangeId: {}", throttleRate, newThrottle, exchange.getExchangeId());
+            bucket.throttleRate = newThrottle;
+        }
+        return newThrottle;
+    }
+
+    /**
+     * A lock-free token bucket implemented as the generic cell rate algorithm, where the entire state
+     * is the theoretical arrival time of the next request, so the per key footprint is kept small.
+     */
+    private static final class TokenBucket {
+        // the theoretical arrival time of a bucket which has been removed as idle
+        static final long RETIRED = Long.MIN_VALUE;
+
+        // not private as its accessed by the field updater
+        volatile long tat;
+        volatile int throttleRate;
+
+        TokenBucket(long now) {
+            // a new bucket is full
+            this.tat = now;
+        }
+
+        int getThrottleRate() {
+            return throttleRate;
+        }
+
+        /**
+         * Retires the bucket if it is idle, which means it is full and thus the same as a new bucket.
+         *
+         * @return <tt>true</tt> if the bucket was retired and can be removed
+         */
+        boolean retireIfIdle(long now) {
+            long current = tat;
+            // compare the difference as the nano time may wrap
+            return current != RETIRED && now - current >= 0 && TAT_UPDATER.compareAndSet(this, current, RETIRED);
+        }
+
+        /**
+         * Reserves the next slot in the bucket.
+         *
+         * @return the delay in nanos until the slot is due, <tt>-1</tt> if the rate is exceeded and delaying is not allowed,
+         *         or {@link #RETIRED} if the bucket has been retired and the slot must be reserved in a new bucket
+         */
+        long acquire(int rate, long periodNanos, long now, boolean allowDelay) {
+            long interval = Math.max(1, periodNanos / rate);
+            // allow a burst of rate requests
+            long tolerance = periodNanos - interval;
+            for (;;) {
+                long current = tat;
+                if (current == RETIRED) {
+                    return RETIRED;
+                }
+                // compare the difference as the nano time may wrap
+                long next = current - now > 0 ? current : now;
+                long delay = next - tolerance - now;
+                if (delay > 0 && !allowDelay) {
+                    return -1;
+                }
+                long update = next + interval;
+                if (update == RETIRED) {
+                    update++;
+                }
+                if (TAT_UPDATER.compareAndSet(this, current, update)) {
+                    return Math.max(delay, 0);
+                }
+            }
+        }
+    }
+
     private class ThrottlingState {
         private final String key;
         private final DelayQueue<ThrottlePermit> delayQueue = new DelayQueue<>();
@@ -375,6 +569,17 @@ public class Throttler extends AsyncProcessorSupport implements Traceable, IdAwa
         this.asyncDelayed = asyncDelayed;
     }
 
+    public boolean isTokenBucket() {
+        return tokenBucket;
+    }
+
+    /**
+     * Whether to use the lock-free token bucket throttling engine instead of the rolling window of permits.
+     */
+    public void setTokenBucket(boolean tokenBucket) {
+        this.tokenBucket = tokenBucket;
+    }
+
     public boolean isCallerRunsWhenRejected() {
         return callerRunsWhenRejected;
     }
@@ -408,6 +613,9 @@ public class Throttler extends AsyncProcessorSupport implements Traceable, IdAwa
      * than the max per period within the group will return
      */
     public int getCurrentMaximumRequestsPerPeriod() {
+        if (tokenBucket) {
+            return buckets.values().stream().mapToInt(TokenBucket::getThrottleRate).max().orElse(0);
+        }
         return states.values().stream().mapToInt(ThrottlingState::getThrottleRate).max().orElse(0);
     }
 
@@ -30,6 +30,7 @@ import java.util.concurrent.TimeUnit;
 import java.util.concurrent.atomic.AtomicBoolean;
 import java.util.concurrent.atomic.AtomicInteger;
 import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
 import java.util.concurrent.locks.Lock;
 import java.util.concurrent.locks.ReentrantLock;
 
@@ -98,6 +99,8 @@ public class AggregateProcessor extends AsyncProcessorSupport implements Navigat
     public static final String COMPLETED_BY_FORCE = "force";
 
     private volatile Lock lock;
+    private volatile Lock[] stripedLocks;
+    private final AtomicBoolean forceCompletionOfAllGroupsRequested = new AtomicBoolean();
     private final AtomicBoolean aggregateRepositoryWarned = new AtomicBoolean();
     private final CamelContext camelContext;
     private final AsyncProcessor processor;
@@ -133,6 +136,9 @@ public class AggregateProcessor extends AsyncProcessorSupport implements Navigat
     private final AtomicLong completedByPredicate = new AtomicLong();
     private final AtomicLong completedByBatchConsumer = new AtomicLong();
     private final AtomicLong completedByForce = new AtomicLong();
+    // use striped counters for the lock statistics as these are updated while contending for the locks
+    private final LongAdder lockContended = new LongAdder();
+    private final LongAdder lockWaitTime = new LongAdder();
 
     // keep booking about redelivery
     private class RedeliveryData {
@@ -179,6 +185,14 @@ public class AggregateProcessor extends AsyncProcessorSupport implements Navigat
             return completedByForce.get();
         }
 
+        public long getLockContended() {
+            return lockContended.sum();
+        }
+
+        public long getLockWaitTime() {
+            return TimeUnit.NANOSECONDS.toMillis(lockWaitTime.sum());
+        }
+
         public void reset() {
             totalIn.set(0);
             totalCompleted.set(0);
@@ -188,6 +202,8 @@ public class AggregateProcessor extends AsyncProcessorSupport implements Navigat
             completedByPredicate.set(0);
             completedByBatchConsumer.set(0);
             completedByForce.set(0);
+            lockContended.reset();
+            lockWaitTime.reset();
         }
 
         public boolean isStatisticsEnabled() {
@@ -204,6 +220,7 @@ public class AggregateProcessor extends AsyncProcessorSupport implements Navigat
     private Integer closeCorrelationKeyOnCompletion;
     private boolean parallelProcessing;
     private boolean optimisticLocking;
+    private int lockStripes;
 
     // different ways to have completion triggered
     private boolean eagerCheckCompletion;
@@ -356,13 +373,19 @@ public class AggregateProcessor extends AsyncProcessorSupport implements Navigat
         copy.getIn().removeHeader(Exchange.AGGREGATION_COMPLETE_ALL_GROUPS_INCLUSIVE);
 
         List<Exchange> aggregated = null;
-        lock.lock();
+        Lock keyLock = acquireLock(key);
         try {
             aggregated = doAggregation(key, copy);
         } catch (CamelExchangeException e) {
             exchange.setException(e);
         } finally {
-            lock.unlock();
+            keyLock.unlock();
+        }
+
+        // force completion of all groups requested during aggregation, which must be done outside the lock
+        // when using lock striping as we cannot acquire the lock of other correlation keys while holding one
+        if (forceCompletionOfAllGroupsRequested.compareAndSet(true, false)) {
+            forceCompletionOfAllGroups();
         }
 
         // we are completed so do that work outside the lock
@@ -379,6 +402,35 @@ public class AggregateProcessor extends AsyncProcessorSupport implements Navigat
         callback.done(false);
     }
 
+    /**
+     * Acquires the lock to use for aggregating the given correlation key, which is the shared lock,
+     * or one of the lock stripes if {@link #getLockStripes()} is in use.
+     *
+     * @param key the correlation key
+     * @return the acquired lock, which must be unlocked by the caller
+     */
+    protected Lock acquireLock(String key) {
+        Lock answer = lock;
+        Lock[] stripes = stripedLocks;
+        if (stripes != null) {
+            int hash = key.hashCode();
+            // spread the hash as the number of stripes is a power of two
+            hash ^= hash >>> 16;
+            answer = stripes[hash & (stripes.length - 1)];
+        }
+        if (!answer.tryLock()) {
+            if (getStatistics().isStatisticsEnabled()) {
+                lockContended.increment();
+                long start = System.nanoTime();
+                answer.lock();
+                lockWaitTime.add(System.nanoTime() - start);
+            } else {
+                answer.lock();
+            }
+        }
+        return answer;
+    }
+
     protected boolean getBooleanProperty(Exchange exchange, String key) {
         return camelContext.getTypeConverter().convertTo(boolean.class, exchange, exchange.getProperty(key));
     }
@@ -484,7 +536,12 @@ public class AggregateProcessor extends AsyncProcessorSupport implements Navigat
 
         // check for the special exchange property to force completion of all groups
         if (getAndRemoveBooleanProperty(answer, Exchange.AGGREGATION_COMPLETE_ALL_GROUPS)) {
-            forceCompletionOfAllGroups();
+            if (stripedLocks != null) {
+                // defer until the lock of this correlation key has been released
+                forceCompletionOfAllGroupsRequested.set(true);
+            } else {
+                forceCompletionOfAllGroups();
+            }
         } else if (isCompletionOnNewCorrelationGroup() && originalExchange == null) {
             // its a new group so force complete of all existing groups
             forceCompletionOfAllGroups();
@@ -968,6 +1025,22 @@ public class AggregateProcessor extends AsyncProcessorSupport implements Navigat
         this.parallelProcessing = parallelProcessing;
     }
 
+    public int getLockStripes() {
+        return lockStripes;
+    }
+
+    /**
+     * Sets the number of locks used for aggregating, where exchanges with different correlation keys
+     * which maps to different locks are aggregated concurrently. The default is a single lock shared
+     * by all correlation keys. The value is rounded up to a power of two.
+     * <p/>
+     * Notice the {@link AggregationStrategy} is then invoked concurrently for different correlation keys,
+     * and must therefore be thread-safe. This option cannot be used with the {@link SpillingAggregationRepository}.
+     */
+    public void setLockStripes(int lockStripes) {
+        this.lockStripes = lockStripes;
+    }
+
     public boolean isOptimisticLocking() {
         return optimisticLocking;
     }
@@ -1109,15 +1182,19 @@ public class AggregateProcessor extends AsyncProcessorSupport implements Navigat
     private final class AggregationTimeoutMap extends DefaultTimeoutMap<String, String> {
 
         private AggregationTimeoutMap(ScheduledExecutorService executor, long requestMapPollTimeMillis) {
-            // do NOT use locking on the timeout map as this aggregator has its own shared lock we will use instead
-            super(executor, requestMapPollTimeMillis, optimisticLocking);
+            // do NOT use locking on the timeout map as this aggregator has its own shared lock we will use instead,
+            // however when using lock striping then correlation keys are tracked concurrently so the map must be locked
+            super(executor, requestMapPollTimeMillis, optimisticLocking || lockStripes > 1);
             addListener(this::onEviction);
         }
 
         @Override
         protected void purge() {
-            // wait for lock to be created
-            if (lock != null) {
+            if (stripedLocks != null) {
+                // the lock of each correlation key is acquired when evicted
+                super.purge();
+            } else if (lock != null) {
+                // wait for lock to be created
                 // must acquire the shared aggregation lock to be able to purge
                 lock.lock();
                 try {
@@ -1134,6 +1211,25 @@ public class AggregateProcessor extends AsyncProcessorSupport implements Navigat
             }
             log.debug("Completion timeout triggered for correlation key: {}", key);
 
+            if (stripedLocks != null) {
+                Lock keyLock = acquireLock(key);
+                try {
+                    // the entry was removed from the timeout map before the lock was acquired, so an exchange with
+                    // the same correlation key may have been aggregated in the meantime, which put a new timeout
+                    if (containsKey(key)) {
+                        log.trace("Completion timeout for correlation key: {} is stale as a new timeout has been put", key);
+                        return;
+                    }
+                    doEviction(key, exchangeId);
+                } finally {
+                    keyLock.unlock();
+                }
+            } else {
+                doEviction(key, exchangeId);
+            }
+        }
+
+        private void doEviction(String key, String exchangeId) {
             boolean inProgress = inProgressCompleteExchanges.contains(exchangeId);
             if (inProgress) {
                 log.trace("Aggregated exchange with id: {} is already in progress.", exchangeId);
@@ -1184,37 +1280,54 @@ public class AggregateProcessor extends AsyncProcessorSupport implements Navigat
 
             if (keys != null && !keys.isEmpty()) {
                 // must acquire the shared aggregation lock to be able to trigger interval completion
-                lock.lock();
+                Lock[] stripes = stripedLocks;
+                if (stripes == null) {
+                    lock.lock();
+                }
                 try {
                     for (String key : keys) {
-                        boolean stolenInterval = false;
-                        Exchange exchange = aggregationRepository.get(camelContext, key);
-                        if (exchange == null) {
-                            stolenInterval = true;
-                        } else {
-                            log.trace("Completion interval triggered for correlation key: {}", key);
-                            // indicate it was completed by interval
-                            exchange.setProperty(Exchange.AGGREGATED_COMPLETED_BY, COMPLETED_BY_INTERVAL);
-                            try {
-                                Exchange answer = onCompletion(key, exchange, exchange, false);
-                                if (answer != null) {
-                                    onSubmitCompletion(key, answer);
-                                }
-                            } catch (OptimisticLockingAggregationRepository.OptimisticLockingException e) {
-                                stolenInterval = true;
+                        // when using lock striping then acquire the lock per correlation key
+                        Lock keyLock = stripes != null ? acquireLock(key) : null;
+                        try {
+                            doIntervalCompletion(key);
+                        } finally {
+                            if (keyLock != null) {
+                                keyLock.unlock();
                             }
                         }
-                        if (optimisticLocking && stolenInterval) {
-                            log.debug("Another Camel instance has already processed this interval aggregation for exchange with correlation id: {}", key);
-                        }
                     }
                 } finally {
-                    lock.unlock();
+                    if (stripes == null) {
+                        lock.unlock();
+                    }
                 }
             }
 
             log.trace("Completion interval task complete");
         }
+
+        private void doIntervalCompletion(String key) {
+            boolean stolenInterval = false;
+            Exchange exchange = aggregationRepository.get(camelContext, key);
+            if (exchange == null) {
+                stolenInterval = true;
+            } else {
+                log.trace("Completion interval triggered for correlation key: {}", key);
+                // indicate it was completed by interval
+                exchange.setProperty(Exchange.AGGREGATED_COMPLETED_BY, COMPLETED_BY_INTERVAL);
+                try {
+                    Exchange answer = onCompletion(key, exchange, exchange, false);
+                    if (answer != null) {
+                        onSubmitCompletion(key, answer);
+                    }
+                } catch (OptimisticLockingAggregationRepository.OptimisticLockingException e) {
+                    stolenInterval = true;
+                }
+            }
+            if (optimisticLocking && stolenInterval) {
+                log.debug("Another Camel instance has already processed this interval aggregation for exchange with correlation id: {}", key);
+            }
+        }
     }
 
     /**
@@ -1247,7 +1360,7 @@ public class AggregateProcessor extends AsyncProcessorSupport implements Navigat
                     log.info("We are shutting down so stop recovering");
                     return;
                 }
-                lock.lock();
+                lockAll();
                 try {
                     // consider in progress if it was in progress before we did the scan, or currently after we did the scan
                     // its safer to consider it in progress than risk duplicates due both in progress + recovered
@@ -1311,7 +1424,7 @@ public class AggregateProcessor extends AsyncProcessorSupport implements Navigat
                         }
                     }
                 } finally {
-                    lock.unlock();
+                    unlockAll();
                 }
             }
 
@@ -1319,6 +1432,32 @@ public class AggregateProcessor extends AsyncProcessorSupport implements Navigat
         }
     }
 
+    /**
+     * Acquires the shared aggregation lock, or all the lock stripes in order if lock striping is in use.
+     */
+    private void lockAll() {
+        Lock[] stripes = stripedLocks;
+        if (stripes != null) {
+            // always acquire the stripes in the same order and never while holding a stripe to avoid deadlocks
+            for (Lock stripe : stripes) {
+                stripe.lock();
+            }
+        } else {
+            lock.lock();
+        }
+    }
+
+    private void unlockAll() {
+        Lock[] stripes = stripedLocks;
+        if (stripes != null) {
+            for (int i = stripes.length - 1; i >= 0; i--) {
+                stripes[i].unlock();
+            }
+        } else {
+            lock.unlock();
+        }
+    }
+
     @Override
     @SuppressWarnings("unchecked")
     protected void doStart() throws Exception {
@@ -1355,6 +1494,17 @@ public class AggregateProcessor extends AsyncProcessorSupport implements Navigat
             log.info("Defaulting to MemoryAggregationRepository");
         }
 
+        if (lockStripes > 1 && !optimisticLocking) {
+            if (isCompletionFromBatchConsumer() || isCompletionOnNewCorrelationGroup()) {
+                throw new IllegalArgumentException("Option lockStripes cannot be used together with completionFromBatchConsumer or completionOnNewCorrelationGroup"
+                        + " as these completions spans across all correlation groups");
+            }
+            if (aggregationRepository instanceof SpillingAggregationRepository) {
+                throw new IllegalArgumentException("Option lockStripes cannot be used together with SpillingAggregationRepository"
+                        + " as it spills the groups of other correlation keys, which are then aggregated concurrently");
+            }
+        }
+
         if (optimisticLocking) {
             if (!(aggregationRepository instanceof OptimisticLockingAggregationRepository)) {
                 throw new IllegalArgumentException("Optimistic locking cannot be enabled without using an AggregationRepository that implements OptimisticLockingAggregationRepository");
@@ -1438,6 +1588,16 @@ public class AggregateProcessor extends AsyncProcessorSupport implements Navigat
             }
         } else {
             lock = new ReentrantLock();
+            if (lockStripes > 1) {
+                // round up to a power of two so the stripe can be selected by masking the hash
+                int size = Integer.highestOneBit(lockStripes - 1) << 1;
+                Lock[] stripes = new Lock[size];
+                for (int i = 0; i < size; i++) {
+                    stripes[i] = new ReentrantLock();
+                }
+                log.info("Using {} lock stripes to aggregate different correlation groups concurrently", size);
+                stripedLocks = stripes;
+            }
         }
     }
 
@@ -1547,7 +1707,7 @@ public class AggregateProcessor extends AsyncProcessorSupport implements Navigat
         // must acquire the shared aggregation lock to be able to trigger force completion
         int total = 0;
 
-        lock.lock();
+        Lock keyLock = acquireLock(key);
         try {
             Exchange exchange = aggregationRepository.get(camelContext, key);
             if (exchange != null) {
@@ -1561,7 +1721,7 @@ public class AggregateProcessor extends AsyncProcessorSupport implements Navigat
                 }
             }
         } finally {
-            lock.unlock();
+            keyLock.unlock();
         }
         log.trace("Completed force completion of group {}", key);
 
@@ -1588,23 +1748,36 @@ public class AggregateProcessor extends AsyncProcessorSupport implements Navigat
         int total = 0;
         if (keys != null && !keys.isEmpty()) {
             // must acquire the shared aggregation lock to be able to trigger force completion
-            lock.lock();
+            Lock[] stripes = stripedLocks;
+            if (stripes == null) {
+                lock.lock();
+            }
             total = keys.size();
             try {
                 for (String key : keys) {
-                    Exchange exchange = aggregationRepository.get(camelContext, key);
-                    if (exchange != null) {
-                        log.trace("Force completion triggered for correlation key: {}", key);
-                        // indicate it was completed by a force completion request
-                        exchange.setProperty(Exchange.AGGREGATED_COMPLETED_BY, COMPLETED_BY_FORCE);
-                        Exchange answer = onCompletion(key, exchange, exchange, false);
-                        if (answer != null) {
-                            onSubmitCompletion(key, answer);
+                    // when using lock striping then acquire the lock per correlation key
+                    Lock keyLock = stripes != null ? acquireLock(key) : null;
+                    try {
+                        Exchange exchange = aggregationRepository.get(camelContext, key);
+                        if (exchange != null) {
+                            log.trace("Force completion triggered for correlation key: {}", key);
+                            // indicate it was completed by a force completion request
+                            exchange.setProperty(Exchange.AGGREGATED_COMPLETED_BY, COMPLETED_BY_FORCE);
+                            Exchange answer = onCompletion(key, exchange, exchange, false);
+                            if (answer != null) {
+                                onSubmitCompletion(key, answer);
+                            }
+                        }
+                    } finally {
+                        if (keyLock != null) {
+                            keyLock.unlock();
                         }
                     }
                 }
             } finally {
-                lock.unlock();
+                if (stripes == null) {
+                    lock.unlock();
+                }
             }
         }
         log.trace("Completed force completion of all groups task");
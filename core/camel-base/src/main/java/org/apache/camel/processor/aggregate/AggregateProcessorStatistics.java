@@ -66,6 +66,16 @@ public interface AggregateProcessorStatistics {
      */
     long getCompletedByForce();
 
+    /**
+     * Total number of times an exchange had to wait for the aggregation lock held by another exchange
+     */
+    long getLockContended();
+
+    /**
+     * Total time in millis exchanges have been waiting for the aggregation lock held by another exchange
+     */
+    long getLockWaitTime();
+
     /**
      * Reset the counters
      */
@@ -0,0 +1,285 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.apache.camel.processor.aggregate;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.NotSerializableException;
+import java.io.ObjectInputStream;
+import java.io.ObjectOutputStream;
+import java.io.Serializable;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Date;
+import java.util.List;
+import java.util.Map;
+
+import org.apache.camel.CamelContext;
+import org.apache.camel.Endpoint;
+import org.apache.camel.Exchange;
+import org.apache.camel.ExchangePattern;
+import org.apache.camel.Message;
+import org.apache.camel.support.DefaultExchange;
+
+/**
+ * A compact binary encoding of aggregated {@link Exchange}s used by the {@link SpillingAggregationRepository}.
+ * <p/>
+ * Common value types are written with a type tag, and nested exchanges such as the exchanges
+ * grouped by the {@link GroupedExchangeAggregationStrategy} are encoded recursively. Other values
+ * fall back to Java serialization. A body, header or exchange property which cannot be encoded causes a
+ * {@link NotSerializableException}. The {@link Exchange#MESSAGE_HISTORY} property is not encoded,
+ * as it is the routing state of the exchange. The grouped exchanges which are spilled in segments
+ * are encoded by referencing the segments, so they are not loaded.
+ */
+final class SpillExchangeCodec {
+
+    private static final int TYPE_NULL = 0;
+    private static final int TYPE_STRING = 1;
+    private static final int TYPE_INTEGER = 2;
+    private static final int TYPE_LONG = 3;
+    private static final int TYPE_BOOLEAN = 4;
+    private static final int TYPE_DOUBLE = 5;
+    private static final int TYPE_BYTES = 6;
+    private static final int TYPE_DATE = 7;
+    private static final int TYPE_LIST = 8;
+    private static final int TYPE_EXCHANGE = 9;
+    private static final int TYPE_SERIALIZED = 10;
+    private static final int TYPE_SEGMENTED_LIST = 11;
+
+    private SpillExchangeCodec() {
+    }
+
+    static byte[] encode(Exchange exchange) throws IOException {
+        ByteArrayOutputStream bos = new ByteArrayOutputStream();
+        DataOutputStream out = new DataOutputStream(bos);
+        writeExchange(out, exchange);
+        out.flush();
+        return bos.toByteArray();
+    }
+
+    static Exchange decode(CamelContext camelContext, SpillingAggregationRepository repository, byte[] data) throws IOException {
+        DataInputStream in = new DataInputStream(new ByteArrayInputStream(data));
+        return readExchange(camelContext, repository, in);
+    }
+
+    static byte[] encodeValue(Object value) throws IOException {
+        ByteArrayOutputStream bos = new ByteArrayOutputStream();
+        DataOutputStream out = new DataOutputStream(bos);
+        writeValue(out, value);
+        out.flush();
+        return bos.toByteArray();
+    }
+
+    static Object decodeValue(CamelContext camelContext, byte[] data) throws IOException {
+        DataInputStream in = new DataInputStream(new ByteArrayInputStream(data));
+        return readValue(camelContext, null, in);
+    }
+
+    private static void writeExchange(DataOutputStream out, Exchange exchange) throws IOException {
+        writeString(out, exchange.getExchangeId());
+        out.writeByte(exchange.getPattern().ordinal());
+        Endpoint from = exchange.getFromEndpoint();
+        writeString(out, from != null ? from.getEndpointUri() : null);
+        writeString(out, exchange.getFromRouteId());
+
+        Message message = exchange.getIn();
+        writeValue(out, message.getBody());
+        Map<String, Object> headers = message.getHeaders();
+        out.writeInt(headers.size());
+        for (Map.Entry<String, Object> entry : headers.entrySet()) {
+            writeString(out, entry.getKey());
+            writeValue(out, entry.getValue());
+        }
+
+        Map<String, Object> properties = exchange.getProperties();
+        boolean history = properties.containsKey(Exchange.MESSAGE_HISTORY);
+        out.writeInt(history ? properties.size() - 1 : properties.size());
+        for (Map.Entry<String, Object> entry : properties.entrySet()) {
+            if (!Exchange.MESSAGE_HISTORY.equals(entry.getKey())) {
+                writeString(out, entry.getKey());
+                writeValue(out, entry.getValue());
+            }
+        }
+    }
+
+    private static Exchange readExchange(CamelContext camelContext, SpillingAggregationRepository repository, DataInputStream in) throws IOException {
+        Exchange answer = new DefaultExchange(camelContext);
+        answer.setExchangeId(readString(in));
+        answer.setPattern(ExchangePattern.values()[in.readByte()]);
+        String fromEndpointUri = readString(in);
+        if (fromEndpointUri != null) {
+            Endpoint from = camelContext.hasEndpoint(fromEndpointUri);
+            if (from != null) {
+                answer.setFromEndpoint(from);
+            }
+        }
+        answer.setFromRouteId(readString(in));
+
+        Message message = answer.getIn();
+        message.setBody(readValue(camelContext, repository, in));
+        int headers = in.readInt();
+        for (int i = 0; i < headers; i++) {
+            String name = readString(in);
+            message.setHeader(name, readValue(camelContext, repository, in));
+        }
+        int properties = in.readInt();
+        for (int i = 0; i < properties; i++) {
+            String name = readString(in);
+            answer.setProperty(name, readValue(camelContext, repository, in));
+        }
+        return answer;
+    }
+
+    private static void writeValue(DataOutputStream out, Object value) throws IOException {
+        if (value == null) {
+            out.writeByte(TYPE_NULL);
+        } else if (value instanceof String) {
+            out.writeByte(TYPE_STRING);
+            writeString(out, (String) value);
+        } else if (value instanceof Integer) {
+            out.writeByte(TYPE_INTEGER);
+            out.writeInt((Integer) value);
+        } else if (value instanceof Long) {
+            out.writeByte(TYPE_LONG);
+            out.writeLong((Long) value);
+        } else if (value instanceof Boolean) {
+            out.writeByte(TYPE_BOOLEAN);
+            out.writeBoolean((Boolean) value);
+        } else if (value instanceof Double) {
+            out.writeByte(TYPE_DOUBLE);
+            out.writeDouble((Double) value);
+        } else if (value instanceof byte[]) {
+            byte[] bytes = (byte[]) value;
+            out.writeByte(TYPE_BYTES);
+            out.writeInt(bytes.length);
+            out.write(bytes);
+        } else if (value instanceof Date) {
+            out.writeByte(TYPE_DATE);
+            out.writeLong(((Date) value).getTime());
+        } else if (value instanceof Exchange) {
+            out.writeByte(TYPE_EXCHANGE);
+            writeExchange(out, (Exchange) value);
+        } else if (value instanceof SpillingAggregationRepository.SegmentedList) {
+            SpillingAggregationRepository.SegmentedList list = (SpillingAggregationRepository.SegmentedList) value;
+            out.writeByte(TYPE_SEGMENTED_LIST);
+            out.writeInt(list.spilledSize);
+            out.writeInt(list.segmentIds.size());
+            for (Long id : list.segmentIds) {
+                out.writeLong(id);
+            }
+            writeValue(out, list.tail);
+        } else if (value instanceof List) {
+            List<?> list = (List<?>) value;
+            out.writeByte(TYPE_LIST);
+            out.writeInt(list.size());
+            for (Object element : list) {
+                writeValue(out, element);
+            }
+        } else if (value instanceof Serializable) {
+            ByteArrayOutputStream bos = new ByteArrayOutputStream();
+            try (ObjectOutputStream oos = new ObjectOutputStream(bos)) {
+                oos.writeObject(value);
+            }
+            byte[] bytes = bos.toByteArray();
+            out.writeByte(TYPE_SERIALIZED);
+            out.writeInt(bytes.length);
+            out.write(bytes);
+        } else {
+            throw new NotSerializableException(value.getClass().getName());
+        }
+    }
+
+    private static Object readValue(CamelContext camelContext, SpillingAggregationRepository repository, DataInputStream in) throws IOException {
+        int type = in.readByte();
+        switch (type) {
+        case TYPE_NULL:
+            return null;
+        case TYPE_STRING:
+            return readString(in);
+        case TYPE_INTEGER:
+            return in.readInt();
+        case TYPE_LONG:
+            return in.readLong();
+        case TYPE_BOOLEAN:
+            return in.readBoolean();
+        case TYPE_DOUBLE:
+            return in.readDouble();
+        case TYPE_BYTES:
+            byte[] bytes = new byte[in.readInt()];
+            in.readFully(bytes);
+            return bytes;
+        case TYPE_DATE:
+            return new Date(in.readLong());
+        case TYPE_EXCHANGE:
+            return readExchange(camelContext, repository, in);
+        case TYPE_LIST:
+            int size = in.readInt();
+            List<Object> list = new ArrayList<>(size);
+            for (int i = 0; i < size; i++) {
+                list.add(readValue(camelContext, repository, in));
+            }
+            return list;
+        case TYPE_SEGMENTED_LIST:
+            if (repository == null) {
+                throw new IOException("Cannot decode segmented list without repository");
+            }
+            int spilledSize = in.readInt();
+            int segments = in.readInt();
+            List<Long> segmentIds = new ArrayList<>(segments);
+            for (int i = 0; i < segments; i++) {
+                segmentIds.add(in.readLong());
+            }
+            @SuppressWarnings("unchecked")
+            List<Object> tail = (List<Object>) readValue(camelContext, repository, in);
+            return repository.newSegmentedList(camelContext, segmentIds, spilledSize, tail);
+        case TYPE_SERIALIZED:
+            byte[] data = new byte[in.readInt()];
+            in.readFully(data);
+            try (ObjectInputStream ois = new ObjectInputStream(new ByteArrayInputStream(data))) {
+                return ois.readObject();
+            } catch (ClassNotFoundException e) {
+                throw new IOException("Cannot deserialize value", e);
+            }
+        default:
+            throw new IOException("Unknown value type: " + type);
+        }
+    }
+
+    private static void writeString(DataOutputStream out, String value) throws IOException {
+        if (value == null) {
+            out.writeInt(-1);
+        } else {
+            byte[] bytes = value.getBytes(StandardCharsets.UTF_8);
+            out.writeInt(bytes.length);
+            out.write(bytes);
+        }
+    }
+
+    private static String readString(DataInputStream in) throws IOException {
+        int length = in.readInt();
+        if (length < 0) {
+            return null;
+        }
+        byte[] bytes = new byte[length];
+        in.readFully(bytes);
+        return new String(bytes, StandardCharsets.UTF_8);
+    }
+
+}
@@ -0,0 +1,656 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.apache.camel.processor.aggregate;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.RandomAccessFile;
+import java.util.AbstractList;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+import org.apache.camel.CamelContext;
+import org.apache.camel.Exchange;
+import org.apache.camel.RuntimeCamelException;
+import org.apache.camel.spi.AggregationRepository;
+import org.apache.camel.support.service.ServiceSupport;
+import org.apache.camel.util.FileUtil;
+
+/**
+ * A {@link AggregationRepository} which keeps the hot aggregated {@link Exchange}s in memory,
+ * and spills the cold groups to a local file when the memory budget is exceeded.
+ * <p/>
+ * The memory budget is the number of exchanges which has been aggregated into the groups kept in memory
+ * (the {@link Exchange#AGGREGATED_SIZE} property), and optionally a maximum number of groups in memory.
+ * When a budget is exceeded the least recently used groups are spilled until the usage is at the low water mark,
+ * which means large groups which are not currently receiving messages are spilled first. A spilled group is loaded
+ * back into memory when it is accessed again. The group currently receiving messages is not spilled, instead its
+ * grouped exchanges (the {@link Exchange#GROUPED_EXCHANGE} list) are appended to the file in segments, which are
+ * only loaded back into memory when the list is read, such as when the group is completed. When such a group is
+ * spilled, or loaded back into memory, its segments are kept in the file and only referenced by the group.
+ * <p/>
+ * The spilled groups are appended to a log structured file using a compact binary encoding, where the
+ * common value types are written with a type tag, and nested exchanges such as the exchanges grouped
+ * by the {@link GroupedExchangeAggregationStrategy} are encoded as well. Other body, header and exchange
+ * property values must be {@link java.io.Serializable} for the group to be spilled, otherwise the group is
+ * kept in memory. The file is compacted when it contains more stale than live data, and is deleted when the
+ * repository is stopped.
+ * <p/>
+ * This repository does not support optimistic locking, and is not persistent. It cannot be used by an aggregator
+ * with lock stripes, as the groups of other correlation keys are spilled while they may be aggregated concurrently.
+ */
+public class SpillingAggregationRepository extends ServiceSupport implements AggregationRepository {
+
+    private final Map<String, Entry> memory = new LinkedHashMap<>(16, 0.75f, true);
+    private final Map<String, Location> spilled = new HashMap<>();
+    private final Map<Long, Location> segments = new HashMap<>();
+    private long segmentCounter;
+    private File directory;
+    private int memoryBudget = 10000;
+    private int maxInMemoryGroups;
+    private int lowWaterMark = 80;
+    private long compactionThreshold = 16 * 1024 * 1024;
+    private File file;
+    private RandomAccessFile store;
+    private long inMemoryExchanges;
+    private long liveBytes;
+    private long staleBytes;
+    private long spilledCounter;
+    private long loadedCounter;
+    private long spillFailedCounter;
+    private long compactionCounter;
+    private boolean spillFailedLogged;
+
+    public File getDirectory() {
+        return directory;
+    }
+
+    /**
+     * The directory to create the spill file in. By default the temporary directory is used.
+     */
+    public void setDirectory(File directory) {
+        this.directory = directory;
+    }
+
+    public int getMemoryBudget() {
+        return memoryBudget;
+    }
+
+    /**
+     * Maximum number of aggregated exchanges to keep in memory, before groups are spilled to disk.
+     * <p/>
+     * The default budget is 10000.
+     */
+    public void setMemoryBudget(int memoryBudget) {
+        this.memoryBudget = memoryBudget;
+    }
+
+    public int getMaxInMemoryGroups() {
+        return maxInMemoryGroups;
+    }
+
+    /**
+     * Maximum number of groups to keep in memory, before groups are spilled to disk.
+     * <p/>
+     * The default is 0 which means there is no limit on the number of groups.
+     */
+    public void setMaxInMemoryGroups(int maxInMemoryGroups) {
+        this.maxInMemoryGroups = maxInMemoryGroups;
+    }
+
+    public int getLowWaterMark() {
+        return lowWaterMark;
+    }
+
+    /**
+     * Sets at which percentage of the memory budget (and the maximum number of groups) to stop spilling groups,
+     * when a budget has been exceeded. This avoids spilling a group on every message when the budget is full.
+     * <p/>
+     * Will by default use 80%.
+     *
+     * @param lowWaterMark the percentage must be between 0 and 100
+     */
+    public void setLowWaterMark(int lowWaterMark) {
+        if (lowWaterMark < 0 || lowWaterMark > 100) {
+            throw new IllegalArgumentException("Must be a percentage between 0 and 100, was: " + lowWaterMark);
+        }
+        this.lowWaterMark = lowWaterMark;
+    }
+
+    public long getCompactionThreshold() {
+        return compactionThreshold;
+    }
+
+    /**
+     * Number of bytes of stale data the spill file must contain before it can be compacted.
+     * <p/>
+     * The default is 16mb.
+     */
+    public void setCompactionThreshold(long compactionThreshold) {
+        this.compactionThreshold = compactionThreshold;
+    }
+
+    @Override
+    public synchronized Exchange add(CamelContext camelContext, String key, Exchange exchange) {
+        Exchange answer = doRemove(camelContext, key, true);
+        Entry entry = new Entry(exchange);
+        memory.put(key, entry);
+        inMemoryExchanges += entry.size;
+        spillIfNeeded(key);
+        return answer;
+    }
+
+    @Override
+    public synchronized Exchange get(CamelContext camelContext, String key) {
+        Entry entry = memory.get(key);
+        if (entry != null) {
+            return entry.exchange;
+        }
+        Exchange answer = doRemove(camelContext, key, true);
+        if (answer != null) {
+            // the group is hot again so keep it in memory
+            entry = new Entry(answer);
+            memory.put(key, entry);
+            inMemoryExchanges += entry.size;
+            spillIfNeeded(key);
+        }
+        return answer;
+    }
+
+    @Override
+    public synchronized void remove(CamelContext camelContext, String key, Exchange exchange) {
+        Exchange removed = doRemove(camelContext, key, false);
+        // the group is completed so the spilled segments of its grouped exchanges must be loaded
+        loadSegments(removed);
+        loadSegments(exchange);
+    }
+
+    @Override
+    public void confirm(CamelContext camelContext, String exchangeId) {
+        // noop
+    }
+
+    @Override
+    public synchronized Set<String> getKeys() {
+        Set<String> answer = new LinkedHashSet<>(memory.keySet());
+        answer.addAll(spilled.keySet());
+        return Collections.unmodifiableSet(answer);
+    }
+
+    /**
+     * Number of groups which are kept in memory
+     */
+    public synchronized int getInMemoryGroups() {
+        return memory.size();
+    }
+
+    /**
+     * Number of aggregated exchanges in the groups which are kept in memory
+     */
+    public synchronized long getInMemoryExchanges() {
+        return inMemoryExchanges;
+    }
+
+    /**
+     * Number of groups which are spilled to disk
+     */
+    public synchronized int getSpilledGroups() {
+        return spilled.size();
+    }
+
+    /**
+     * Size in bytes of the spill file
+     */
+    public synchronized long getSpillFileSize() {
+        return liveBytes + staleBytes;
+    }
+
+    /**
+     * Number of times a group, or a segment of the grouped exchanges of a group, has been spilled to disk
+     */
+    public synchronized long getSpilledCounter() {
+        return spilledCounter;
+    }
+
+    /**
+     * Number of times a spilled group, or the spilled segments of the grouped exchanges of a group, has been loaded from disk
+     */
+    public synchronized long getLoadedCounter() {
+        return loadedCounter;
+    }
+
+    /**
+     * Number of times a group could not be spilled, and was kept in memory
+     */
+    public synchronized long getSpillFailedCounter() {
+        return spillFailedCounter;
+    }
+
+    /**
+     * Number of times the spill file has been compacted
+     */
+    public synchronized long getCompactionCounter() {
+        return compactionCounter;
+    }
+
+    /**
+     * Resets the counters
+     */
+    public synchronized void resetStatistics() {
+        spilledCounter = 0;
+        loadedCounter = 0;
+        spillFailedCounter = 0;
+        compactionCounter = 0;
+    }
+
+    private Exchange doRemove(CamelContext camelContext, String key, boolean load) {
+        Entry entry = memory.remove(key);
+        if (entry != null) {
+            entry.inMemory = false;
+            inMemoryExchanges -= entry.size;
+            return entry.exchange;
+        }
+        Location location = spilled.remove(key);
+        if (location == null) {
+            return null;
+        }
+        liveBytes -= location.length;
+        staleBytes += location.length;
+
+        Exchange answer = null;
+        try {
+            if (load) {
+                // the segments of the grouped exchanges are now referenced by the loaded group
+                answer = SpillExchangeCodec.decode(camelContext, this, read(location));
+                loadedCounter++;
+            } else {
+                releaseSegments(location.segmentIds);
+            }
+            compactIfNeeded();
+        } catch (IOException e) {
+            throw new RuntimeCamelException("Error loading aggregated exchange with key " + key + " from spill file " + file, e);
+        }
+        return answer;
+    }
+
+    private void spillIfNeeded(String currentKey) {
+        if (!isBudgetExceeded()) {
+            return;
+        }
+        // spill the least recently used groups first, until we are at the low water mark
+        List<String> keys = new ArrayList<>(memory.keySet());
+        for (String key : keys) {
+            if (isAtLowWaterMark()) {
+                return;
+            }
+            if (!key.equals(currentKey)) {
+                spill(key);
+            }
+        }
+        // the group currently in use would be loaded again on the next message, so spill its grouped exchanges instead
+        if (inMemoryExchanges > lowWaterMark(memoryBudget)) {
+            spillSegment(currentKey);
+        }
+    }
+
+    private boolean isBudgetExceeded() {
+        return inMemoryExchanges > memoryBudget || (maxInMemoryGroups > 0 && memory.size() > maxInMemoryGroups);
+    }
+
+    private boolean isAtLowWaterMark() {
+        return inMemoryExchanges <= lowWaterMark(memoryBudget) && (maxInMemoryGroups <= 0 || memory.size() <= lowWaterMark(maxInMemoryGroups));
+    }
+
+    private int lowWaterMark(int budget) {
+        return (int) ((long) budget * lowWaterMark / 100);
+    }
+
+    private void spill(String key) {
+        Entry entry = memory.get(key);
+        byte[] data;
+        try {
+            data = SpillExchangeCodec.encode(entry.exchange);
+        } catch (IOException e) {
+            onSpillFailed(key, e);
+            return;
+        }
+
+        // the segments of the grouped exchanges are encoded by reference, and are now referenced by the spilled group
+        Object value = entry.exchange.getProperty(Exchange.GROUPED_EXCHANGE);
+        List<Long> segmentIds = value instanceof SegmentedList ? new ArrayList<>(((SegmentedList) value).segmentIds) : null;
+        try {
+            Location location = write(data);
+            spilled.put(key, new Location(location.offset, location.length, segmentIds));
+        } catch (IOException e) {
+            throw new RuntimeCamelException("Error spilling aggregated exchange with key " + key + " to spill file " + file, e);
+        }
+        memory.remove(key);
+        entry.inMemory = false;
+        inMemoryExchanges -= entry.size;
+        spilledCounter++;
+    }
+
+    @SuppressWarnings("unchecked")
+    private void spillSegment(String key) {
+        Entry entry = memory.get(key);
+        Object value = entry.exchange.getProperty(Exchange.GROUPED_EXCHANGE);
+        if (!(value instanceof List) || ((List<?>) value).isEmpty()) {
+            // only the grouped exchanges can be spilled in segments
+            return;
+        }
+
+        SegmentedList list;
+        if (value instanceof SegmentedList) {
+            list = (SegmentedList) value;
+        } else {
+            list = new SegmentedList(entry.exchange.getContext(), (List<Object>) value);
+            list.owner = entry;
+            entry.exchange.setProperty(Exchange.GROUPED_EXCHANGE, list);
+        }
+        if (list.tail.isEmpty()) {
+            return;
+        }
+
+        byte[] data;
+        try {
+            data = SpillExchangeCodec.encodeValue(list.tail);
+        } catch (IOException e) {
+            onSpillFailed(key, e);
+            return;
+        }
+
+        try {
+            long id = segmentCounter++;
+            segments.put(id, write(data));
+            list.segmentIds.add(id);
+        } catch (IOException e) {
+            throw new RuntimeCamelException("Error spilling grouped exchanges with key " + key + " to spill file " + file, e);
+        }
+        int size = Math.min(list.tail.size(), entry.size);
+        list.spilledSize += list.tail.size();
+        list.tail = new ArrayList<>();
+        entry.size -= size;
+        inMemoryExchanges -= size;
+        spilledCounter++;
+    }
+
+    private void loadSegments(Exchange exchange) {
+        Object value = exchange != null ? exchange.getProperty(Exchange.GROUPED_EXCHANGE) : null;
+        if (value instanceof SegmentedList) {
+            loadSegments((SegmentedList) value);
+        }
+    }
+
+    private synchronized void loadSegments(SegmentedList list) {
+        if (list.segmentIds.isEmpty()) {
+            return;
+        }
+        if (store == null) {
+            throw new IllegalStateException("Cannot load the spilled grouped exchanges as the repository is stopped");
+        }
+
+        List<Object> answer = new ArrayList<>(list.size());
+        try {
+            for (Long id : list.segmentIds) {
+                answer.addAll((List<?>) SpillExchangeCodec.decodeValue(list.camelContext, read(segments.get(id))));
+            }
+        } catch (IOException e) {
+            throw new RuntimeCamelException("Error loading grouped exchanges from spill file " + file, e);
+        }
+        answer.addAll(list.tail);
+        int size = list.spilledSize;
+        releaseSegments(list.segmentIds);
+        list.segmentIds.clear();
+        list.spilledSize = 0;
+        list.tail = answer;
+        loadedCounter++;
+
+        // the group is using more memory now if its still kept in memory
+        Entry owner = list.owner;
+        if (owner != null && owner.inMemory) {
+            owner.size += size;
+            inMemoryExchanges += size;
+        }
+
+        try {
+            compactIfNeeded();
+        } catch (IOException e) {
+            throw new RuntimeCamelException("Error compacting spill file " + file, e);
+        }
+    }
+
+    private void releaseSegments(List<Long> segmentIds) {
+        if (segmentIds != null) {
+            for (Long id : segmentIds) {
+                Location location = segments.remove(id);
+                if (location != null) {
+                    liveBytes -= location.length;
+                    staleBytes += location.length;
+                }
+            }
+        }
+    }
+
+    /**
+     * Creates the grouped exchanges of a group which is loaded, and which references the spilled segments
+     */
+    SegmentedList newSegmentedList(CamelContext camelContext, List<Long> segmentIds, int spilledSize, List<Object> tail) {
+        SegmentedList list = new SegmentedList(camelContext, tail);
+        list.segmentIds.addAll(segmentIds);
+        list.spilledSize = spilledSize;
+        return list;
+    }
+
+    private void onSpillFailed(String key, IOException cause) {
+        spillFailedCounter++;
+        if (!spillFailedLogged) {
+            spillFailedLogged = true;
+            log.warn("Cannot spill aggregated exchange with key {}, keeping it in memory due {}."
+                    + " Exchanges which cannot be spilled will use memory beyond the memory budget. This is only logged once.", key, cause.getMessage());
+        } else {
+            log.debug("Cannot spill aggregated exchange with key {}, keeping it in memory due {}", key, cause.getMessage());
+        }
+    }
+
+    private Location write(byte[] data) throws IOException {
+        long offset = liveBytes + staleBytes;
+        store.seek(offset);
+        store.write(data);
+        liveBytes += data.length;
+        return new Location(offset, data.length);
+    }
+
+    private byte[] read(Location location) throws IOException {
+        byte[] data = new byte[location.length];
+        store.seek(location.offset);
+        store.readFully(data);
+        return data;
+    }
+
+    private void compactIfNeeded() throws IOException {
+        if (staleBytes < compactionThreshold || staleBytes < liveBytes) {
+            return;
+        }
+
+        File compacted = new File(file.getPath() + ".compact");
+        RandomAccessFile target = new RandomAccessFile(compacted, "rw");
+        try {
+            long offset = 0;
+            for (Map.Entry<String, Location> entry : spilled.entrySet()) {
+                byte[] data = read(entry.getValue());
+                target.write(data);
+                entry.setValue(new Location(offset, data.length, entry.getValue().segmentIds));
+                offset += data.length;
+            }
+            for (Map.Entry<Long, Location> entry : segments.entrySet()) {
+                byte[] data = read(entry.getValue());
+                target.write(data);
+                entry.setValue(new Location(offset, data.length));
+                offset += data.length;
+            }
+        } catch (IOException e) {
+            target.close();
+            FileUtil.deleteFile(compacted);
+            throw e;
+        }
+        store.close();
+        target.close();
+        if (!FileUtil.renameFile(compacted, file, true)) {
+            throw new IOException("Cannot rename compacted spill file " + compacted + " to " + file);
+        }
+        store = new RandomAccessFile(file, "rw");
+        staleBytes = 0;
+        compactionCounter++;
+        log.debug("Compacted spill file {} to {} bytes", file, liveBytes);
+    }
+
+    @Override
+    protected void doStart() throws Exception {
+        if (memoryBudget < 0) {
+            throw new IllegalArgumentException("MemoryBudget must not be a negative number, was: " + memoryBudget);
+        }
+        if (directory != null) {
+            directory.mkdirs();
+        }
+        file = File.createTempFile("camel-aggregation-", ".spill", directory);
+        store = new RandomAccessFile(file, "rw");
+        log.debug("Using spill file {}", file);
+    }
+
+    @Override
+    protected synchronized void doStop() throws Exception {
+        memory.clear();
+        spilled.clear();
+        segments.clear();
+        inMemoryExchanges = 0;
+        liveBytes = 0;
+        staleBytes = 0;
+        if (store != null) {
+            store.close();
+            store = null;
+        }
+        if (file != null) {
+            FileUtil.deleteFile(file);
+            file = null;
+        }
+    }
+
+    private static final class Entry {
+        private final Exchange exchange;
+        private int size;
+        private boolean inMemory = true;
+
+        private Entry(Exchange exchange) {
+            this.exchange = exchange;
+            this.size = exchange.getProperty(Exchange.AGGREGATED_SIZE, 1, Integer.class);
+            Object value = exchange.getProperty(Exchange.GROUPED_EXCHANGE);
+            if (value instanceof SegmentedList) {
+                // the spilled grouped exchanges are not in memory
+                SegmentedList list = (SegmentedList) value;
+                list.owner = this;
+                this.size = Math.max(0, size - list.spilledSize);
+            }
+        }
+    }
+
+    /**
+     * The grouped exchanges of a group, where the exchanges which has been spilled in segments are loaded
+     * when the list is read or modified, and new exchanges are added in memory.
+     */
+    final class SegmentedList extends AbstractList<Object> {
+        final List<Long> segmentIds = new ArrayList<>();
+        List<Object> tail;
+        int spilledSize;
+        private final CamelContext camelContext;
+        private Entry owner;
+
+        private SegmentedList(CamelContext camelContext, List<Object> tail) {
+            this.camelContext = camelContext;
+            this.tail = tail;
+        }
+
+        @Override
+        public Object get(int index) {
+            load();
+            return tail.get(index);
+        }
+
+        @Override
+        public int size() {
+            return spilledSize + tail.size();
+        }
+
+        @Override
+        public void add(int index, Object element) {
+            // appending does not need the spilled segments
+            if (index != size()) {
+                load();
+            }
+            tail.add(index - spilledSize, element);
+            modCount++;
+        }
+
+        @Override
+        public Object set(int index, Object element) {
+            load();
+            return tail.set(index, element);
+        }
+
+        @Override
+        public Object remove(int index) {
+            load();
+            modCount++;
+            return tail.remove(index);
+        }
+
+        @Override
+        public String toString() {
+            // do not load the spilled segments
+            return "List<Exchange>(" + size() + " elements)";
+        }
+
+        private void load() {
+            if (!segmentIds.isEmpty()) {
+                loadSegments(this);
+            }
+        }
+    }
+
+    private static final class Location {
+        private final long offset;
+        private final int length;
+        // the segments of the grouped exchanges which are referenced by a spilled group
+        private final List<Long> segmentIds;
+
+        private Location(long offset, int length) {
+            this(offset, length, null);
+        }
+
+        private Location(long offset, int length, List<Long> segmentIds) {
+            this.offset = offset;
+            this.length = length;
+            this.segmentIds = segmentIds;
+        }
+    }
+
+}
@@ -18,12 +18,15 @@ package org.apache.camel.processor.errorhandler;
 
 import java.util.ArrayList;
 import java.util.List;
+import java.util.Set;
 import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
 import java.util.concurrent.RejectedExecutionException;
 import java.util.concurrent.ScheduledExecutorService;
 import java.util.concurrent.ThreadPoolExecutor;
 import java.util.concurrent.TimeUnit;
 import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
 
 import org.apache.camel.AsyncCallback;
 import org.apache.camel.AsyncProcessor;
@@ -47,6 +50,7 @@ import org.apache.camel.support.AsyncProcessorConverterHelper;
 import org.apache.camel.support.CamelContextHelper;
 import org.apache.camel.support.EventHelper;
 import org.apache.camel.support.ExchangeHelper;
+import org.apache.camel.support.HashedWheelTimer;
 import org.apache.camel.support.MessageHelper;
 import org.apache.camel.support.processor.DefaultExchangeFormatter;
 import org.apache.camel.support.service.ServiceHelper;
@@ -64,7 +68,12 @@ import org.apache.camel.util.URISupport;
 public abstract class RedeliveryErrorHandler extends ErrorHandlerSupport implements AsyncProcessor, ShutdownPrepared, Navigate<Processor> {
 
     protected final AtomicInteger redeliverySleepCounter = new AtomicInteger();
+    protected final AtomicInteger redeliveryScheduledCounter = new AtomicInteger();
+    protected final AtomicLong redeliveryBackpressureCounter = new AtomicLong();
+    protected final Set<RedeliveryState> scheduledRedeliveries = ConcurrentHashMap.newKeySet();
     protected ScheduledExecutorService executorService;
+    protected HashedWheelTimer redeliveryTimer;
+    protected int maximumPendingRedeliveries;
     protected final CamelContext camelContext;
     protected final AsyncProcessorAwaitManager awaitManager;
     protected final Processor deadLetter;
@@ -344,6 +353,8 @@ public abstract class RedeliveryErrorHandler extends ErrorHandlerSupport impleme
         long redeliveryDelay;
         Predicate retryWhilePredicate;
         boolean redeliverFromSync;
+        long redeliveryScheduledTime;
+        volatile HashedWheelTimer.TimerTask redeliveryTask;
 
         // default behavior which can be overloaded on a per exception basis
         RedeliveryPolicy currentRedeliveryPolicy;
@@ -432,16 +443,19 @@ public abstract class RedeliveryErrorHandler extends ErrorHandlerSupport impleme
                 if (redeliveryDelay > 0) {
                     // okay there is a delay so create a scheduled task to have it executed in the future
 
-                    if (currentRedeliveryPolicy.isAsyncDelayedRedelivery() && !exchange.isTransacted()) {
+                    if (currentRedeliveryPolicy.isAsyncDelayedRedelivery() && !exchange.isTransacted() && tryScheduleRedelivery()) {
 
                         // we are doing a redelivery then a thread pool must be configured (see the doStart method)
                         ObjectHelper.notNull(executorService, "Redelivery is enabled but ExecutorService has not been configured.", this);
 
-                        // schedule the redelivery task
+                        // schedule the redelivery task in the timer, which hands it over to the thread pool when the delay is over,
+                        // so the delayed redeliveries do not occupy the work queue of the thread pool
                         if (log.isTraceEnabled()) {
                             log.trace("Scheduling redelivery task to run in {} millis for exchangeId: {}", redeliveryDelay, exchange.getExchangeId());
                         }
-                        executorService.schedule(() -> camelContext.getReactiveExecutor().schedule(this::redeliver), redeliveryDelay, TimeUnit.MILLISECONDS);
+                        redeliveryScheduledTime = System.currentTimeMillis();
+                        scheduledRedeliveries.add(this);
+                        redeliveryTask = redeliveryTimer.schedule(this::onRedeliveryDelayDone, redeliveryDelay, TimeUnit.MILLISECONDS);
 
                     } else {
                         // async delayed redelivery was disabled or we are transacted so we must be synchronous
@@ -490,6 +504,67 @@ public abstract class RedeliveryErrorHandler extends ErrorHandlerSupport impleme
             }
         }
 
+        /**
+         * Reserves a slot for a scheduled redelivery, which is not possible if the maximum number
+         * of pending redeliveries has been reached.
+         */
+        protected boolean tryScheduleRedelivery() {
+            int max = maximumPendingRedeliveries;
+            if (max <= 0) {
+                redeliveryScheduledCounter.incrementAndGet();
+                return true;
+            }
+            while (true) {
+                int current = redeliveryScheduledCounter.get();
+                if (current >= max) {
+                    // apply backpressure by letting the current thread perform the redelivery synchronously
+                    redeliveryBackpressureCounter.incrementAndGet();
+                    log.debug("Maximum pending redeliveries {} reached, will redeliver synchronously for exchangeId: {}", max, exchange.getExchangeId());
+                    return false;
+                }
+                if (redeliveryScheduledCounter.compareAndSet(current, current + 1)) {
+                    return true;
+                }
+            }
+        }
+
+        /**
+         * Called by the timer thread when the redelivery delay is over
+         */
+        protected void onRedeliveryDelayDone() {
+            if (scheduledRedeliveries.remove(this)) {
+                redeliveryScheduledCounter.decrementAndGet();
+            }
+            redeliveryTask = null;
+            try {
+                executorService.execute(() -> camelContext.getReactiveExecutor().schedule(this::redeliver));
+            } catch (RejectedExecutionException e) {
+                // the thread pool has been shutdown
+                exchange.setException(e);
+                exchange.setProperty(Exchange.REDELIVERY_EXHAUSTED, Boolean.TRUE);
+                camelContext.getReactiveExecutor().schedule(this);
+            }
+        }
+
+        /**
+         * Called when stopping to cancel the scheduled redelivery, if it has not already been executed
+         */
+        protected void cancelScheduledRedelivery() {
+            HashedWheelTimer.TimerTask task = redeliveryTask;
+            if (task == null || !task.cancel()) {
+                // the task is being executed by the timer
+                return;
+            }
+            redeliveryTask = null;
+            if (scheduledRedeliveries.remove(this)) {
+                redeliveryScheduledCounter.decrementAndGet();
+            }
+            // the exchange is failed and exhausted so the failure processor / dead letter channel can process the exchange
+            exchange.setException(new RejectedExecutionException("Redelivery not allowed while stopping"));
+            exchange.setProperty(Exchange.REDELIVERY_EXHAUSTED, Boolean.TRUE);
+            camelContext.getReactiveExecutor().schedule(this);
+        }
+
         protected boolean isRunAllowed() {
             // if camel context is forcing a shutdown then do not allow running
             boolean forceShutdown = camelContext.getShutdownStrategy().forceShutdown(RedeliveryErrorHandler.this);
@@ -1256,7 +1331,7 @@ public abstract class RedeliveryErrorHandler extends ErrorHandlerSupport impleme
      * Gets the number of exchanges that are pending for redelivery
      */
     public int getPendingRedeliveryCount() {
-        int answer = redeliverySleepCounter.get();
+        int answer = redeliverySleepCounter.get() + redeliveryScheduledCounter.get();
         if (executorService instanceof ThreadPoolExecutor) {
             answer += ((ThreadPoolExecutor) executorService).getQueue().size();
         }
@@ -1264,6 +1339,51 @@ public abstract class RedeliveryErrorHandler extends ErrorHandlerSupport impleme
         return answer;
     }
 
+    /**
+     * Gets the number of exchanges that are waiting in the timer for an asynchronous delayed redelivery
+     */
+    public int getScheduledRedeliveryCount() {
+        return redeliveryScheduledCounter.get();
+    }
+
+    /**
+     * Gets the time in millis the oldest exchange has been waiting for an asynchronous delayed redelivery,
+     * or 0 if no exchanges are waiting.
+     */
+    public long getOldestScheduledRedeliveryAge() {
+        long oldest = 0;
+        for (RedeliveryState state : scheduledRedeliveries) {
+            long time = state.redeliveryScheduledTime;
+            if (time > 0 && (oldest == 0 || time < oldest)) {
+                oldest = time;
+            }
+        }
+        return oldest > 0 ? System.currentTimeMillis() - oldest : 0;
+    }
+
+    /**
+     * Gets the number of times the maximum pending redeliveries was reached, and a redelivery
+     * was performed synchronously instead.
+     */
+    public long getRedeliveryBackpressureCount() {
+        return redeliveryBackpressureCounter.get();
+    }
+
+    public int getMaximumPendingRedeliveries() {
+        return maximumPendingRedeliveries;
+    }
+
+    /**
+     * Sets the maximum number of exchanges which can be waiting for an asynchronous delayed redelivery at the same time.
+     * <p/>
+     * When the maximum is reached, further redeliveries are performed synchronously by the current thread
+     * (just as when asynchronous delayed redelivery is disabled), which applies backpressure on the consumer.
+     * The default is 0, which is unbounded.
+     */
+    public void setMaximumPendingRedeliveries(int maximumPendingRedeliveries) {
+        this.maximumPendingRedeliveries = maximumPendingRedeliveries;
+    }
+
     @Override
     protected void doStart() throws Exception {
         ServiceHelper.startService(output, outputAsync, deadLetter);
@@ -1283,6 +1403,8 @@ public abstract class RedeliveryErrorHandler extends ErrorHandlerSupport impleme
             if (log.isDebugEnabled()) {
                 log.debug("Using ExecutorService: {} for redeliveries on error handler: {}", executorService, this);
             }
+            // the shared timer is used for the asynchronous delayed redeliveries
+            redeliveryTimer = HashedWheelTimer.getTimer(camelContext);
         }
 
         // reset flag when starting
@@ -1292,9 +1414,14 @@ public abstract class RedeliveryErrorHandler extends ErrorHandlerSupport impleme
 
     @Override
     protected void doStop() throws Exception {
-        // noop, do not stop any services which we only do when shutting down
+        // do not stop any services which we only do when shutting down
         // as the error handler can be context scoped, and should not stop in case
         // a route stops
+
+        // cancel the redeliveries still waiting in the shared timer, which keeps running while we are stopped
+        for (RedeliveryState state : scheduledRedeliveries) {
+            state.cancelScheduledRedelivery();
+        }
     }
 
     @Override
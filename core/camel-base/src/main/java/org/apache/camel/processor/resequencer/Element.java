@@ -16,23 +16,33 @@
  */
 package org.apache.camel.processor.resequencer;
 
+import java.util.concurrent.TimeUnit;
+
+import org.apache.camel.support.HashedWheelTimer;
+
 /**
  * A container for objects to be resequenced. This container can be scheduled
  * for timing out. Non-scheduled objects or already timed-out objects are ready
  * for being released by the {@link ResequencerEngine}.
  */
-class Element<E> implements TimeoutHandler {
+class Element<E> implements Runnable {
 
     /**
      * The contained object.
      */
     private E object;
 
+    /**
+     * The sequence number of the contained object when the resequencer uses
+     * a {@link SequenceNumberComparator}.
+     */
+    private long sequenceNumber;
+
     /**
      * Not <code>null</code> if this element is currently beeing scheduled for
      * timing out.
      */
-    private Timeout timeout;
+    private HashedWheelTimer.TimerTask timeout;
     
     /**
      * Creates a new container instance.
@@ -52,6 +62,24 @@ class Element<E> implements TimeoutHandler {
         return object;
     }
 
+    /**
+     * Returns the sequence number of the contained object.
+     *
+     * @return the sequence number.
+     */
+    long getSequenceNumber() {
+        return sequenceNumber;
+    }
+
+    /**
+     * Sets the sequence number of the contained object.
+     *
+     * @param sequenceNumber the sequence number.
+     */
+    void setSequenceNumber(long sequenceNumber) {
+        this.sequenceNumber = sequenceNumber;
+    }
+
     /**
      * Returns <code>true</code> if this element is currently scheduled for
      * timing out.
@@ -64,16 +92,13 @@ class Element<E> implements TimeoutHandler {
     }
     
     /**
-     * Schedules the given timeout task. Before this methods calls the
-     * {@link Timeout#schedule()} method it sets this element as timeout
-     * listener.
+     * Schedules this element for timing out after the given timeout.
      * 
-     * @param t a timeout task.
+     * @param timer the timer to schedule the timeout with.
+     * @param timeout the timeout in milliseconds.
      */
-    public synchronized void schedule(Timeout t) {
-        this.timeout = t;
-        this.timeout.setTimeoutHandler(this);
-        this.timeout.schedule();
+    public synchronized void schedule(HashedWheelTimer timer, long timeout) {
+        this.timeout = timer.schedule(this, timeout, TimeUnit.MILLISECONDS);
     }
     
     /**
@@ -84,15 +109,14 @@ class Element<E> implements TimeoutHandler {
         if (timeout != null) {
             timeout.cancel();
         }
-        timeout(null);
+        timeout = null;
     }
 
     /**
      * Marks this element as timed-out.
-     * 
-     * @param t timeout task that caused the notification.
      */
-    public synchronized void timeout(Timeout t) {
+    @Override
+    public synchronized void run() {
         this.timeout = null;
     }
     
@@ -27,6 +27,11 @@ class ElementComparator<E> implements SequenceElementComparator<Element<E>> {
      * A sequence element comparator this comparator delegates to.
      */
     private final SequenceElementComparator<E> comparator;
+
+    /**
+     * Whether the elements are compared by their sequence numbers.
+     */
+    private final boolean sequenceNumbers;
     
     /**
      * Creates a new element comparator instance.
@@ -35,20 +40,55 @@ class ElementComparator<E> implements SequenceElementComparator<Element<E>> {
      */
     ElementComparator(SequenceElementComparator<E> comparator) {
         this.comparator = comparator;
+        this.sequenceNumbers = comparator instanceof SequenceNumberComparator;
+    }
+
+    /**
+     * Creates a new element for the given object, with the sequence number
+     * of the object if the elements are compared by sequence numbers.
+     *
+     * @param o an object.
+     * @return the element.
+     */
+    Element<E> createElement(E o) {
+        Element<E> element = new Element<>(o);
+        assignSequenceNumber(element);
+        return element;
+    }
+
+    /**
+     * Obtains the sequence number of the object contained by the given
+     * element, if the elements are compared by sequence numbers.
+     *
+     * @param element an element.
+     */
+    void assignSequenceNumber(Element<E> element) {
+        if (sequenceNumbers) {
+            element.setSequenceNumber(((SequenceNumberComparator<E>) comparator).getSequenceNumber(element.getObject()));
+        }
     }
     
     @Override
     public boolean predecessor(Element<E> o1, Element<E> o2) {
+        if (sequenceNumbers) {
+            return o1.getSequenceNumber() == o2.getSequenceNumber() - 1L;
+        }
         return comparator.predecessor(o1.getObject(), o2.getObject());
     }
 
     @Override
     public boolean successor(Element<E> o1, Element<E> o2) {
+        if (sequenceNumbers) {
+            return o2.getSequenceNumber() == o1.getSequenceNumber() - 1L;
+        }
         return comparator.successor(o1.getObject(), o2.getObject());
     }
 
     @Override
     public int compare(Element<E> o1, Element<E> o2) {
+        if (sequenceNumbers) {
+            return Long.compare(o1.getSequenceNumber(), o2.getSequenceNumber());
+        }
         return comparator.compare(o1.getObject(), o2.getObject());
     }
 
@@ -16,8 +16,8 @@
  */
 package org.apache.camel.processor.resequencer;
 
-import java.util.Timer;
-
+import org.apache.camel.support.HashedWheelTimer;
+import org.apache.camel.support.service.ServiceHelper;
 import org.apache.camel.util.concurrent.ThreadHelper;
 
 /**
@@ -55,6 +55,9 @@ import org.apache.camel.util.concurrent.ThreadHelper;
  * element needs <code>timeout</code> milliseconds in any case for becoming
  * <i>ready-for-delivery</i>.
  * <p>
+ * The timeouts are scheduled with a {@link HashedWheelTimer} which can be
+ * shared by many resequencers. If no timer is set then the resequencer
+ * creates its own timer when started.
  */
 public class ResequencerEngine<E> {
 
@@ -74,10 +77,21 @@ public class ResequencerEngine<E> {
      */
     private Sequence<Element<E>> sequence;
 
+    /**
+     * A comparator for the elements of the sequence.
+     */
+    private ElementComparator<E> comparator;
+
     /**
      * A timer for scheduling timeout notifications.
      */
-    private Timer timer;
+    private HashedWheelTimer timer;
+
+    /**
+     * Whether the timer is created by this resequencer and should be stopped
+     * together with this resequencer.
+     */
+    private boolean shutdownTimer;
 
     /**
      * A strategy for sending sequence elements.
@@ -96,20 +110,53 @@ public class ResequencerEngine<E> {
      * @param comparator a sequence element comparator.
      */
     public ResequencerEngine(SequenceElementComparator<E> comparator) {
-        this.sequence = createSequence(comparator);
+        this.comparator = new ElementComparator<>(comparator);
+        this.sequence = new Sequence<>(this.comparator);
         this.timeout = 2000L;
         this.lastDelivered = null;
     }
 
     public void start() {
-        timer = new Timer(ThreadHelper.resolveThreadName("Camel Thread ${counter} - ${name}", "Stream Resequencer Timer"), true);
+        if (timer == null) {
+            timer = new HashedWheelTimer(ThreadHelper.resolveThreadName("Camel Thread ${counter} - ${name}", "Stream Resequencer Timer"));
+            shutdownTimer = true;
+        }
+        ServiceHelper.startService(timer);
     }
 
     /**
-     * Stops this resequencer (i.e. this resequencer's {@link Timer} instance).
+     * Stops this resequencer, and cancels the timeouts of the elements
+     * maintained by this resequencer.
      */
     public void stop() {
-        timer.cancel();
+        synchronized (this) {
+            for (Element<E> element : sequence) {
+                element.cancel();
+            }
+        }
+        if (shutdownTimer) {
+            ServiceHelper.stopService(timer);
+        }
+    }
+
+    /**
+     * Returns the timer used for scheduling timeouts.
+     *
+     * @return the timer.
+     */
+    public HashedWheelTimer getTimer() {
+        return timer;
+    }
+
+    /**
+     * Sets the timer to use for scheduling timeouts. The timer is not stopped
+     * when this resequencer is stopped.
+     *
+     * @param timer the timer.
+     */
+    public void setTimer(HashedWheelTimer timer) {
+        this.timer = timer;
+        this.shutdownTimer = false;
     }
 
     /**
@@ -184,7 +231,7 @@ public class ResequencerEngine<E> {
      * @param o an element.
      */
     void setLastDelivered(E o) {
-        lastDelivered = new Element<>(o);
+        lastDelivered = comparator.createElement(o);
     }
 
     /**
@@ -200,10 +247,13 @@ public class ResequencerEngine<E> {
         Element<E> element = new Element<>(o);
 
         // validate the exchange has no problem
-        if (!sequence.comparator().isValid(element)) {
-            throw new IllegalArgumentException("Element cannot be used in comparator: " + sequence.comparator());
+        if (!comparator.isValid(element)) {
+            throw new IllegalArgumentException("Element cannot be used in comparator: " + comparator);
         }
 
+        // obtain the sequence number of the valid element
+        comparator.assignSequenceNumber(element);
+
         // validate the exchange shouldn't be 'rejected' (if applicable)
         if (rejectOld != null && rejectOld.booleanValue() && beforeLastDelivered(element)) {
             throw new MessageRejectedException("rejecting message [" + element.getObject()
@@ -227,7 +277,7 @@ public class ResequencerEngine<E> {
         } else if (sequence.predecessor(element) != null) {
             // nothing to schedule
         } else {
-            element.schedule(defineTimeout());
+            element.schedule(timer, timeout);
         }
     }
 
@@ -293,7 +343,7 @@ public class ResequencerEngine<E> {
         if (lastDelivered == null) {
             return false;
         }
-        if (sequence.comparator().successor(element, lastDelivered)) {
+        if (comparator.successor(element, lastDelivered)) {
             return true;
         }
         return false;
@@ -309,23 +359,10 @@ public class ResequencerEngine<E> {
         if (lastDelivered == null) {
             return false;
         }
-        if (sequence.comparator().compare(element, lastDelivered) < 0) {
+        if (comparator.compare(element, lastDelivered) < 0) {
             return true;
         }
         return false;
     }
 
-    /**
-     * Creates a timeout task based on the timeout setting of this resequencer.
-     *
-     * @return a new timeout task.
-     */
-    private Timeout defineTimeout() {
-        return new Timeout(timer, timeout);
-    }
-
-    private static <E> Sequence<Element<E>> createSequence(SequenceElementComparator<E> comparator) {
-        return new Sequence<>(new ElementComparator<>(comparator));
-    }
-
 }
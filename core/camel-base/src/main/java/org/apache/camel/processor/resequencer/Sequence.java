@@ -85,50 +85,4 @@ public class Sequence<E> extends TreeSet<E> {
         return comparator;
     }
 
-    /**
-     * Returns the next higher element in the sequence to the given element. If
-     * the given element doesn't exist or if it is the last element in the
-     * sequence <code>null</code> is returned. <strong>Please note that this
-     * method is provided for compatibility with Java 5 SE. On a Java 6 SE
-     * platform the same method implemented by the {@link TreeSet}
-     * class should be used for better performance.</strong>
-     * 
-     * @param e an element which is compared to elements of this sequence.
-     * @return an element of this sequence or <code>null</code>.
-     */
-    public E higher(E e) {
-        boolean found = false;
-        for (E current : this) {
-            if (found) {
-                return current;
-            }
-            if (comparator.compare(e, current) == 0) {
-                found = true;
-            }
-        }
-        return null;
-    }
-
-    /**
-     * Returns the next lower element in the sequence to the given element. If
-     * the given element doesn't exist or if it is the first element in the
-     * sequence <code>null</code> is returned. <strong>Please note that this
-     * method is provided for compatibility with Java 5 SE. On a Java 6 SE
-     * platform the same method implemented by the {@link TreeSet}
-     * class should be used for better performance.</strong>
-     * 
-     * @param e an element which is compared to elements of this sequence.
-     * @return an element of this sequence or <code>null</code>.
-     */
-    public E lower(E e) {
-        E last = null;
-        for (E current : this) {
-            if (comparator.compare(e, current) == 0) {
-                return last;
-            }
-            last = current;
-        }
-        return last;
-    }
-    
 }
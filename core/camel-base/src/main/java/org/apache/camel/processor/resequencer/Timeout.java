@@ -24,7 +24,10 @@ import java.util.TimerTask;
  * 
  * @see Timer
  * @see TimerTask
+ * @deprecated the stream resequencer no longer uses this class as the elements schedule their timeouts
+ * on a {@link org.apache.camel.support.HashedWheelTimer}
  */
+@Deprecated
 public class Timeout extends TimerTask {
     
     private TimeoutHandler timeoutHandler;
@@ -18,7 +18,11 @@ package org.apache.camel.processor.resequencer;
 
 /**
  * Implemented by classes that handle timeout notifications.
+ *
+ * @deprecated the stream resequencer no longer uses this interface as the elements schedule their timeouts
+ * on a {@link org.apache.camel.support.HashedWheelTimer}
  */
+@Deprecated
 public interface TimeoutHandler {
 
     /**
@@ -57,6 +57,7 @@ public class DeadLetterChannelBuilder extends DefaultErrorHandlerBuilder {
                 getRedeliveryPolicy(), getExceptionPolicyStrategy(), getFailureProcessor(), getDeadLetterUri(), isDeadLetterHandleNewException(),
                 isUseOriginalMessage(), getRetryWhilePolicy(routeContext.getCamelContext()), getExecutorService(routeContext.getCamelContext()),
                 getOnPrepareFailure(), getOnExceptionOccurred());
+        answer.setMaximumPendingRedeliveries(getMaximumPendingRedeliveries());
         // configure error handler before we can use it
         configure(routeContext, answer);
         return answer;
@@ -52,6 +52,7 @@ public class DefaultErrorHandlerBuilder extends ErrorHandlerBuilderSupport {
     protected boolean asyncDelayedRedelivery;
     protected String executorServiceRef;
     protected ScheduledExecutorService executorService;
+    protected int maximumPendingRedeliveries;
     protected Processor onPrepareFailure;
     protected Processor onExceptionOccurred;
 
@@ -62,6 +63,7 @@ public class DefaultErrorHandlerBuilder extends ErrorHandlerBuilderSupport {
         DefaultErrorHandler answer = new DefaultErrorHandler(routeContext.getCamelContext(), processor, getLogger(), getOnRedelivery(), 
             getRedeliveryPolicy(), getExceptionPolicyStrategy(), getRetryWhilePolicy(routeContext.getCamelContext()),
                 getExecutorService(routeContext.getCamelContext()), getOnPrepareFailure(), getOnExceptionOccurred());
+        answer.setMaximumPendingRedeliveries(getMaximumPendingRedeliveries());
         // configure error handler before we can use it
         configure(routeContext, answer);
         return answer;
@@ -115,6 +117,7 @@ public class DefaultErrorHandlerBuilder extends ErrorHandlerBuilderSupport {
         other.setUseOriginalMessage(useOriginalMessage);
         other.setAsyncDelayedRedelivery(asyncDelayedRedelivery);
         other.setExecutorServiceRef(executorServiceRef);
+        other.setMaximumPendingRedeliveries(maximumPendingRedeliveries);
     }
 
     // Builder methods
@@ -258,6 +261,19 @@ public class DefaultErrorHandlerBuilder extends ErrorHandlerBuilderSupport {
         return this;
     }
 
+    /**
+     * Sets the maximum number of exchanges which can be waiting for an asynchronous delayed redelivery at the same time.
+     * When the maximum is reached, the redeliveries are performed synchronously by the current thread,
+     * which applies backpressure on the consumer. The default is 0, which is unbounded.
+     *
+     * @param maximumPendingRedeliveries the maximum number of pending redeliveries
+     * @return the builder
+     */
+    public DefaultErrorHandlerBuilder maximumPendingRedeliveries(int maximumPendingRedeliveries) {
+        setMaximumPendingRedeliveries(maximumPendingRedeliveries);
+        return this;
+    }
+
     /**
      * Sets the logger used for caught exceptions
      *
@@ -537,6 +553,14 @@ public class DefaultErrorHandlerBuilder extends ErrorHandlerBuilderSupport {
         this.executorServiceRef = executorServiceRef;
     }
 
+    public int getMaximumPendingRedeliveries() {
+        return maximumPendingRedeliveries;
+    }
+
+    public void setMaximumPendingRedeliveries(int maximumPendingRedeliveries) {
+        this.maximumPendingRedeliveries = maximumPendingRedeliveries;
+    }
+
     public Processor getOnPrepareFailure() {
         return onPrepareFailure;
     }
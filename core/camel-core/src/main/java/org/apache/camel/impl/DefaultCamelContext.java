@@ -52,6 +52,7 @@ import org.apache.camel.impl.engine.DefaultStreamCachingStrategy;
 import org.apache.camel.impl.engine.DefaultUnitOfWorkFactory;
 import org.apache.camel.impl.engine.DefaultUuidGenerator;
 import org.apache.camel.impl.engine.EndpointKey;
+import org.apache.camel.impl.engine.ExchangeFactoryResolver;
 import org.apache.camel.impl.engine.HeadersMapFactoryResolver;
 import org.apache.camel.impl.engine.ReactiveExecutorResolver;
 import org.apache.camel.impl.engine.RestRegistryFactoryResolver;
@@ -70,6 +71,7 @@ import org.apache.camel.spi.ClassResolver;
 import org.apache.camel.spi.ComponentResolver;
 import org.apache.camel.spi.DataFormatResolver;
 import org.apache.camel.spi.EndpointRegistry;
+import org.apache.camel.spi.ExchangeFactory;
 import org.apache.camel.spi.ExecutorServiceManager;
 import org.apache.camel.spi.FactoryFinder;
 import org.apache.camel.spi.FactoryFinderResolver;
@@ -268,6 +270,10 @@ public class DefaultCamelContext extends AbstractModelCamelContext {
         return new DefaultUnitOfWorkFactory();
     }
 
+    protected ExchangeFactory createExchangeFactory() {
+        return new ExchangeFactoryResolver().resolve(this);
+    }
+
     protected RuntimeCamelCatalog createRuntimeCamelCatalog() {
         return new DefaultRuntimeCamelCatalog(this, true);
     }
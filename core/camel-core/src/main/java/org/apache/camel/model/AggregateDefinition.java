@@ -77,6 +77,8 @@ public class AggregateDefinition extends ProcessorDefinition<AggregateDefinition
     @XmlAttribute
     private Boolean optimisticLocking;
     @XmlAttribute
+    private Integer lockStripes;
+    @XmlAttribute
     private String executorServiceRef;
     @XmlAttribute
     private String timeoutCheckerExecutorServiceRef;
@@ -383,6 +385,14 @@ public class AggregateDefinition extends ProcessorDefinition<AggregateDefinition
         this.optimisticLocking = optimisticLocking;
     }
 
+    public Integer getLockStripes() {
+        return lockStripes;
+    }
+
+    public void setLockStripes(Integer lockStripes) {
+        this.lockStripes = lockStripes;
+    }
+
     public Boolean getParallelProcessing() {
         return parallelProcessing;
     }
@@ -858,6 +868,21 @@ public class AggregateDefinition extends ProcessorDefinition<AggregateDefinition
         return this;
     }
 
+    /**
+     * Number of locks used for aggregating, which allows exchanges with different correlation keys
+     * to be aggregated concurrently. By default a single lock is shared by all correlation keys.
+     * <p/>
+     * This option cannot be used together with completionFromBatchConsumer or completionOnNewCorrelationGroup,
+     * and is not in use when optimistic locking is enabled. The aggregation strategy is invoked concurrently
+     * for different correlation keys, and must therefore be thread-safe.
+     *
+     * @param lockStripes the number of locks, which is rounded up to a power of two
+     */
+    public AggregateDefinition lockStripes(int lockStripes) {
+        setLockStripes(lockStripes);
+        return this;
+    }
+
     /**
      * Allows to configure retry settings when using optimistic locking.
      */
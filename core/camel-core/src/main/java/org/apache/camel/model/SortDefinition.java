@@ -39,6 +39,10 @@ public class SortDefinition<T> extends ExpressionNode {
     private Comparator<? super T> comparator;
     @XmlAttribute
     private String comparatorRef;
+    @XmlAttribute @Metadata(defaultValue = "0")
+    private Integer chunkSize;
+    @XmlAttribute
+    private Boolean parallelSorting;
 
     public SortDefinition() {
     }
@@ -92,6 +96,22 @@ public class SortDefinition<T> extends ExpressionNode {
         this.comparatorRef = comparatorRef;
     }
 
+    public Integer getChunkSize() {
+        return chunkSize;
+    }
+
+    public void setChunkSize(Integer chunkSize) {
+        this.chunkSize = chunkSize;
+    }
+
+    public Boolean getParallelSorting() {
+        return parallelSorting;
+    }
+
+    public void setParallelSorting(Boolean parallelSorting) {
+        this.parallelSorting = parallelSorting;
+    }
+
     /**
      * Sets the comparator to use for sorting
      *
@@ -113,4 +133,31 @@ public class SortDefinition<T> extends ExpressionNode {
         setComparatorRef(ref);
         return this;
     }
+
+    /**
+     * Sets the maximum number of elements to sort in memory, which enables sorting large bodies using an external
+     * merge sort. The elements are sorted in chunks of this size, and each sorted chunk is spooled to a temporary
+     * file in the stream caching spool directory. The message body is then set to an iterator which merges the
+     * sorted chunks on demand, which can be used together with a streaming splitter. The elements must be
+     * serializable.
+     * <p/>
+     * The default value is 0 which sorts all the elements in memory.
+     *
+     * @param chunkSize the maximum number of elements to sort in memory
+     * @return the builder
+     */
+    public SortDefinition<T> chunkSize(int chunkSize) {
+        setChunkSize(chunkSize);
+        return this;
+    }
+
+    /**
+     * If enabled then each chunk is sorted in parallel using the fork/join common pool, when a chunk size is in use.
+     *
+     * @return the builder
+     */
+    public SortDefinition<T> parallelSorting() {
+        setParallelSorting(true);
+        return this;
+    }
 }
@@ -67,6 +67,10 @@ public class SplitDefinition extends OutputExpressionNode implements ExecutorSer
     private Boolean parallelAggregate;
     @XmlAttribute
     private Boolean stopOnAggregateException;
+    @XmlAttribute @Metadata(defaultValue = "0")
+    private Integer maxInFlight;
+    @XmlAttribute
+    private Boolean aggregateInOrder;
 
     public SplitDefinition() {
     }
@@ -207,6 +211,35 @@ public class SplitDefinition extends OutputExpressionNode implements ExecutorSer
         setStreaming(true);
         return this;
     }
+
+    /**
+     * Sets the maximum number of splitted messages which are processed concurrently and not yet aggregated,
+     * when parallel processing is enabled. When the limit is reached then the splitter waits with splitting the
+     * next message until a splitted message has been aggregated. In streaming mode this applies backpressure
+     * to the splitting, so only a bounded number of splitted messages are kept in memory.
+     * <p/>
+     * The default value is 0 which is unbounded.
+     *
+     * @param maxInFlight the maximum number of splitted messages in flight
+     * @return the builder
+     */
+    public SplitDefinition maxInFlight(int maxInFlight) {
+        setMaxInFlight(maxInFlight);
+        return this;
+    }
+
+    /**
+     * If enabled then Camel will aggregate the replies in the same order as the messages was splitted, also
+     * in streaming mode. Replies which come back out-of-order are kept in a reorder buffer until the previous
+     * replies have been aggregated, which allows to use streaming and parallel processing with ordered aggregation.
+     * Use this together with maxInFlight to bound the size of the reorder buffer.
+     *
+     * @return the builder
+     */
+    public SplitDefinition aggregateInOrder() {
+        setAggregateInOrder(true);
+        return this;
+    }
     
     /**
      * Will now stop further processing if an exception or failure occurred during processing of an
@@ -355,6 +388,22 @@ public class SplitDefinition extends OutputExpressionNode implements ExecutorSer
         this.stopOnAggregateException = stopOnAggregateException;
     }
 
+    public Integer getMaxInFlight() {
+        return maxInFlight;
+    }
+
+    public void setMaxInFlight(Integer maxInFlight) {
+        this.maxInFlight = maxInFlight;
+    }
+
+    public Boolean getAggregateInOrder() {
+        return aggregateInOrder;
+    }
+
+    public void setAggregateInOrder(Boolean aggregateInOrder) {
+        this.aggregateInOrder = aggregateInOrder;
+    }
+
     public Boolean getStopOnException() {
         return stopOnException;
     }
@@ -54,6 +54,8 @@ public class ThrottleDefinition extends ExpressionNode implements ExecutorServic
     private Boolean callerRunsWhenRejected;
     @XmlAttribute
     private Boolean rejectExecution;
+    @XmlAttribute
+    private Boolean tokenBucket;
 
     public ThrottleDefinition() {
     }
@@ -153,6 +155,21 @@ public class ThrottleDefinition extends ExpressionNode implements ExecutorServic
         return this;
     }
 
+    /**
+     * Whether to use a lock-free token bucket per correlation key, instead of a rolling window of permits.
+     * The token bucket allows a burst of the maximum request count and is then refilled continuously,
+     * and keeps a compact state per correlation key, which is suitable for throttling many correlation keys.
+     * <p/>
+     * Is by default <tt>false</tt>
+     *
+     * @param tokenBucket whether to use a token bucket
+     * @return the builder
+     */
+    public ThrottleDefinition tokenBucket(boolean tokenBucket) {
+        setTokenBucket(tokenBucket);
+        return this;
+    }
+
     /**
      * To use a custom thread pool (ScheduledExecutorService) by the throttler.
      *
@@ -235,6 +252,14 @@ public class ThrottleDefinition extends ExpressionNode implements ExecutorServic
         this.rejectExecution = rejectExecution;
     }
 
+    public Boolean getTokenBucket() {
+        return tokenBucket;
+    }
+
+    public void setTokenBucket(Boolean tokenBucket) {
+        this.tokenBucket = tokenBucket;
+    }
+
     /**
      * The expression used to calculate the correlation key to use for throttle grouping.
      * The Exchange which has the same correlation key is throttled together.
@@ -21,6 +21,7 @@ import javax.xml.bind.annotation.XmlAccessorType;
 import javax.xml.bind.annotation.XmlRootElement;
 
 import org.apache.camel.spi.Metadata;
+import org.apache.camel.support.LookupExpression;
 
 /**
  * To use a Camel Exchange property in expressions or predicates.
@@ -28,7 +29,7 @@ import org.apache.camel.spi.Metadata;
 @Metadata(firstVersion = "2.0.0", label = "language,core", title = "ExchangeProperty")
 @XmlRootElement(name = "exchangeProperty")
 @XmlAccessorType(XmlAccessType.FIELD)
-public class ExchangePropertyExpression extends ExpressionDefinition {
+public class ExchangePropertyExpression extends ExpressionDefinition implements LookupExpression {
 
     public ExchangePropertyExpression() {
     }
@@ -21,6 +21,7 @@ import javax.xml.bind.annotation.XmlAccessorType;
 import javax.xml.bind.annotation.XmlRootElement;
 
 import org.apache.camel.spi.Metadata;
+import org.apache.camel.support.LookupExpression;
 
 /**
  * To use a Camel Message header in expressions or predicates.
@@ -28,7 +29,7 @@ import org.apache.camel.spi.Metadata;
 @Metadata(firstVersion = "1.5.0", label = "language,core", title = "Header")
 @XmlRootElement(name = "header")
 @XmlAccessorType(XmlAccessType.FIELD)
-public class HeaderExpression extends ExpressionDefinition {
+public class HeaderExpression extends ExpressionDefinition implements LookupExpression {
 
     public HeaderExpression() {
     }
@@ -105,6 +105,9 @@ class AggregateReifier extends ProcessorReifier<AggregateDefinition> {
         if (definition.getOptimisticLocking() != null) {
             answer.setOptimisticLocking(definition.getOptimisticLocking());
         }
+        if (definition.getLockStripes() != null) {
+            answer.setLockStripes(definition.getLockStripes());
+        }
         if (definition.getCompletionPredicate() != null) {
             Predicate predicate = definition.getCompletionPredicate().createPredicate(routeContext);
             answer.setCompletionPredicate(predicate);
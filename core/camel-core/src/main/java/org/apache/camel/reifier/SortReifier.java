@@ -60,7 +60,14 @@ class SortReifier<T, U extends SortDefinition<T>> extends ExpressionReifier<U> {
         } else {
             exp = definition.getExpression().createExpression(routeContext);
         }
-        return new SortProcessor<T>(exp, definition.getComparator());
+        SortProcessor<T> answer = new SortProcessor<T>(exp, definition.getComparator());
+        if (definition.getChunkSize() != null) {
+            answer.setChunkSize(definition.getChunkSize());
+        }
+        if (definition.getParallelSorting() != null) {
+            answer.setParallelSorting(definition.getParallelSorting());
+        }
+        return answer;
     }
 
 }
@@ -63,6 +63,10 @@ class SplitReifier extends ExpressionReifier<SplitDefinition> {
         Splitter answer = new Splitter(routeContext.getCamelContext(), exp, childProcessor, definition.getAggregationStrategy(),
                 isParallelProcessing, threadPool, shutdownThreadPool, isStreaming, definition.isStopOnException(),
                 timeout, definition.getOnPrepare(), isShareUnitOfWork, isParallelAggregate, isStopOnAggregateException);
+        if (definition.getMaxInFlight() != null) {
+            answer.setMaxInFlight(definition.getMaxInFlight());
+        }
+        answer.setAggregateInOrder(definition.getAggregateInOrder() != null && definition.getAggregateInOrder());
         return answer;
     }
 
@@ -57,6 +57,9 @@ class ThrottleReifier extends ExpressionReifier<ThrottleDefinition> {
         Throttler answer = new Throttler(routeContext.getCamelContext(), maxRequestsExpression, period, threadPool, shutdownThreadPool, reject, correlation);
 
         answer.setAsyncDelayed(async);
+        if (definition.getTokenBucket() != null) {
+            answer.setTokenBucket(definition.getTokenBucket());
+        }
         if (definition.getCallerRunsWhenRejected() == null) {
             // should be true by default
             answer.setCallerRunsWhenRejected(true);
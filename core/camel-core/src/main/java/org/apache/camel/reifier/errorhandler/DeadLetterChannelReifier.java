@@ -42,6 +42,7 @@ public class DeadLetterChannelReifier extends DefaultErrorHandlerReifier<DeadLet
                 definition.getRetryWhilePolicy(routeContext.getCamelContext()),
                 getExecutorService(routeContext.getCamelContext()),
                 definition.getOnPrepareFailure(), definition.getOnExceptionOccurred());
+        answer.setMaximumPendingRedeliveries(definition.getMaximumPendingRedeliveries());
         // configure error handler before we can use it
         configure(routeContext, answer);
         return answer;
@@ -45,6 +45,7 @@ public class DefaultErrorHandlerReifier<T extends DefaultErrorHandlerBuilder> ex
                 getExecutorService(routeContext.getCamelContext()),
                 definition.getOnPrepareFailure(),
                 definition.getOnExceptionOccurred());
+        answer.setMaximumPendingRedeliveries(definition.getMaximumPendingRedeliveries());
         // configure error handler before we can use it
         configure(routeContext, answer);
         return answer;
@@ -0,0 +1,85 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.apache.camel.component.seda;
+
+import java.util.concurrent.TimeUnit;
+
+import org.apache.camel.ContextTestSupport;
+import org.apache.camel.builder.RouteBuilder;
+import org.apache.camel.component.mock.MockEndpoint;
+import org.junit.Test;
+
+import static org.awaitility.Awaitility.await;
+
+public class SedaPollBatchSizeTest extends ContextTestSupport {
+
+    private volatile int pendingInBatch = -1;
+    private volatile int queueSizeInBatch = -1;
+
+    @Test
+    public void testSuspendDuringBatch() throws Exception {
+        for (int i = 0; i < 5; i++) {
+            template.sendBody("seda:batch?pollBatchSize=10", "Message " + i);
+        }
+
+        MockEndpoint mock = getMockEndpoint("mock:result");
+        mock.expectedBodiesReceived("Message 0");
+
+        context.getRouteController().startRoute("batch");
+        assertMockEndpointsSatisfied();
+
+        // the exchanges drained from the queue are pending while the batch is processed
+        assertEquals(0, queueSizeInBatch);
+        assertEquals(4, pendingInBatch);
+
+        // and as the consumer was suspended the rest of the batch is put back on the queue
+        SedaConsumer consumer = (SedaConsumer) context.getRoute("batch").getConsumer();
+        SedaEndpoint endpoint = (SedaEndpoint) consumer.getEndpoint();
+        assertTrue(consumer.isSuspended());
+        // the batch is put back after the message has been routed
+        await().atMost(5, TimeUnit.SECONDS).untilAsserted(() -> assertEquals(4, endpoint.getQueue().size()));
+        assertEquals(4, consumer.getPendingExchangesSize());
+
+        mock.reset();
+        mock.expectedBodiesReceived("Message 1", "Message 2", "Message 3", "Message 4");
+
+        consumer.resume();
+        assertMockEndpointsSatisfied();
+        assertEquals(0, consumer.getPendingExchangesSize());
+    }
+
+    @Override
+    protected RouteBuilder createRouteBuilder() throws Exception {
+        return new RouteBuilder() {
+            @Override
+            public void configure() throws Exception {
+                from("seda:batch?pollBatchSize=10").routeId("batch").noAutoStartup()
+                    .process(exchange -> {
+                        if (pendingInBatch < 0) {
+                            SedaConsumer consumer = (SedaConsumer) context.getRoute("batch").getConsumer();
+                            SedaEndpoint endpoint = (SedaEndpoint) consumer.getEndpoint();
+                            queueSizeInBatch = endpoint.getQueue().size();
+                            pendingInBatch = consumer.getPendingExchangesSize();
+                            // suspend the consumer while it processes the batch
+                            consumer.suspend();
+                        }
+                    })
+                    .to("mock:result");
+            }
+        };
+    }
+}
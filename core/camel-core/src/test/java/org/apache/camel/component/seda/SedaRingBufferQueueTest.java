@@ -0,0 +1,150 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.apache.camel.component.seda;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+
+import org.apache.camel.CamelContext;
+import org.apache.camel.ContextTestSupport;
+import org.apache.camel.Exchange;
+import org.apache.camel.ExchangeTimedOutException;
+import org.apache.camel.builder.RouteBuilder;
+import org.apache.camel.component.mock.MockEndpoint;
+import org.junit.Test;
+
+public class SedaRingBufferQueueTest extends ContextTestSupport {
+    private final RingBufferBlockingQueueFactory<Exchange> ringQueueFactory = new RingBufferBlockingQueueFactory<>();
+
+    @Override
+    protected CamelContext createCamelContext() throws Exception {
+        CamelContext context = super.createCamelContext();
+        context.getRegistry().bind("ringQueueFactory", ringQueueFactory);
+        return context;
+    }
+
+    @Test
+    public void testRingBufferQueueFactoryAndSize() throws Exception {
+        SedaEndpoint endpoint = resolveMandatoryEndpoint("seda:ring100?queueFactory=#ringQueueFactory&size=100", SedaEndpoint.class);
+
+        BlockingQueue<Exchange> queue = endpoint.getQueue();
+        RingBufferBlockingQueue<?> ring = assertIsInstanceOf(RingBufferBlockingQueue.class, queue);
+        // the ring is sized as a power of two but the capacity is kept as configured
+        assertEquals(100, ring.getCapacity());
+        assertEquals(100, ring.remainingCapacity());
+    }
+
+    @Test
+    public void testRingBufferQueue() throws Exception {
+        RingBufferBlockingQueue<String> queue = new RingBufferBlockingQueue<>(3);
+        assertTrue(queue.offer("A"));
+        assertTrue(queue.offer("B"));
+        assertTrue(queue.offer("C"));
+        assertFalse("Should be full", queue.offer("D"));
+        assertFalse(queue.offer("D", 10, TimeUnit.MILLISECONDS));
+        assertEquals(3, queue.size());
+        assertEquals(0, queue.remainingCapacity());
+        assertEquals("A", queue.peek());
+
+        // remove from the middle of the queue
+        assertTrue(queue.remove("B"));
+        assertFalse(queue.remove("B"));
+
+        List<String> drained = new ArrayList<>();
+        assertEquals(2, queue.drainTo(drained));
+        assertEquals("[A, C]", drained.toString());
+        assertTrue(queue.isEmpty());
+        assertNull(queue.poll(10, TimeUnit.MILLISECONDS));
+
+        // wrap around the ring a few times
+        for (int i = 0; i < 20; i++) {
+            queue.put("X" + i);
+            assertEquals("X" + i, queue.take());
+        }
+    }
+
+    @Test
+    public void testRingBufferQueueConcurrent() throws Exception {
+        final RingBufferBlockingQueue<Integer> queue = new RingBufferBlockingQueue<>(16);
+        final int producers = 4;
+        final int messages = 10000;
+        final CountDownLatch latch = new CountDownLatch(producers);
+        ExecutorService executor = Executors.newFixedThreadPool(producers);
+        try {
+            for (int p = 0; p < producers; p++) {
+                executor.submit(() -> {
+                    for (int i = 0; i < messages; i++) {
+                        queue.put(i);
+                    }
+                    latch.countDown();
+                    return null;
+                });
+            }
+            long sum = 0;
+            for (int i = 0; i < producers * messages; i++) {
+                Integer n = queue.poll(5, TimeUnit.SECONDS);
+                assertNotNull("Should not time out", n);
+                sum += n;
+            }
+            assertTrue(latch.await(5, TimeUnit.SECONDS));
+            assertEquals((long) producers * messages * (messages - 1) / 2, sum);
+            assertTrue(queue.isEmpty());
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+    @Test
+    public void testPollBatchSize() throws Exception {
+        MockEndpoint mock = getMockEndpoint("mock:result");
+        mock.expectedMessageCount(1000);
+
+        for (int i = 0; i < 1000; i++) {
+            template.sendBody("seda:batch?queueFactory=#ringQueueFactory&pollBatchSize=10", "Message " + i);
+        }
+
+        assertMockEndpointsSatisfied();
+    }
+
+    @Test
+    public void testInOutTimeout() throws Exception {
+        try {
+            template.requestBody("seda:slow?queueFactory=#ringQueueFactory&timeout=100", "Hello World");
+            fail("Should have thrown an exception");
+        } catch (Exception e) {
+            assertIsInstanceOf(ExchangeTimedOutException.class, e.getCause());
+        }
+    }
+
+    @Override
+    protected RouteBuilder createRouteBuilder() throws Exception {
+        return new RouteBuilder() {
+            @Override
+            public void configure() throws Exception {
+                from("seda:batch?queueFactory=#ringQueueFactory&pollBatchSize=10&concurrentConsumers=2")
+                    .to("mock:result");
+
+                from("seda:slow?queueFactory=#ringQueueFactory").delay(500).to("mock:slow");
+            }
+        };
+    }
+}
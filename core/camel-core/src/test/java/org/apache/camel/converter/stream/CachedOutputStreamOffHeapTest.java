@@ -0,0 +1,216 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.apache.camel.converter.stream;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.file.Files;
+import java.util.Arrays;
+
+import org.apache.camel.CamelContext;
+import org.apache.camel.ContextTestSupport;
+import org.apache.camel.Exchange;
+import org.apache.camel.StreamCache;
+import org.apache.camel.builder.RouteBuilder;
+import org.apache.camel.converter.IOConverter;
+import org.apache.camel.impl.engine.DefaultStreamCachingStrategy;
+import org.apache.camel.impl.engine.DefaultUnitOfWork;
+import org.apache.camel.support.DefaultExchange;
+import org.apache.camel.util.IOHelper;
+import org.junit.Before;
+import org.junit.Test;
+
+public class CachedOutputStreamOffHeapTest extends ContextTestSupport {
+    private static final String TEST_STRING = "This is a test string and it has enough"
+        + " aaaaaaaaaaaaaaaaaaaaaaaaaaaaaaaaaaaaaaaaaaaaaaaaaaaaaaaaaaaaaaaaaaaaaaaaaa ";
+
+    private Exchange exchange;
+
+    @Override
+    protected CamelContext createCamelContext() throws Exception {
+        CamelContext context = super.createCamelContext();
+        context.setStreamCaching(true);
+        context.getStreamCachingStrategy().setSpoolDirectory("target/data/offheapcache");
+        context.getStreamCachingStrategy().setSpoolThreshold(16);
+        context.getStreamCachingStrategy().setBufferSize(32);
+        context.getStreamCachingStrategy().setOffHeap(true);
+        return context;
+    }
+
+    @Override
+    @Before
+    public void setUp() throws Exception {
+        deleteDirectory("target/data/offheapcache");
+        deleteDirectory("target/data/offheap");
+        createDirectory("target/data/offheapcache");
+        createDirectory("target/data/offheap");
+        super.setUp();
+
+        exchange = new DefaultExchange(context);
+        exchange.setUnitOfWork(new DefaultUnitOfWork(exchange));
+    }
+
+    @Override
+    public boolean isUseRouteBuilder() {
+        return false;
+    }
+
+    @Test
+    public void testCacheStreamToDirectBuffers() throws Exception {
+        context.getStreamCachingStrategy().setSpoolThreshold(1024);
+        context.start();
+
+        CachedOutputStream cos = new CachedOutputStream(exchange);
+        cos.write(TEST_STRING.getBytes("UTF-8"));
+        assertEquals("we should have no temp file", 0, new File("target/data/offheapcache").list().length);
+
+        StreamCache cache = cos.newStreamCache();
+        assertTrue("Should get the DirectBufferInputStreamCache", cache instanceof DirectBufferInputStreamCache);
+        assertTrue(cache.inMemory());
+        assertEquals(TEST_STRING.length(), cache.length());
+        assertEquals(TEST_STRING, IOConverter.toString((InputStream) cache, null));
+
+        cache.reset();
+        assertEquals(TEST_STRING, IOConverter.toString((InputStream) cache, null));
+
+        ByteArrayOutputStream bos = new ByteArrayOutputStream();
+        StreamCache copy = cache.copy(exchange);
+        copy.writeTo(bos);
+        assertEquals(TEST_STRING, bos.toString("UTF-8"));
+        assertEquals(TEST_STRING, IOConverter.toString((InputStream) copy, null));
+
+        exchange.getUnitOfWork().done(exchange);
+
+        try {
+            copy.reset();
+            ((InputStream) copy).read();
+            fail("Should have thrown exception");
+        } catch (IOException e) {
+            // expected as the buffers has been released
+        }
+
+        IOHelper.close(cos);
+    }
+
+    @Test
+    public void testCacheStreamToMappedFile() throws Exception {
+        context.start();
+
+        CachedOutputStream cos = new CachedOutputStream(exchange);
+        cos.write(TEST_STRING.getBytes("UTF-8"));
+
+        File dir = new File("target/data/offheapcache");
+        assertEquals("we should have a temp file", 1, dir.list().length);
+
+        StreamCache cache = cos.newStreamCache();
+        assertTrue("Should get the FileInputStreamCache", cache instanceof FileInputStreamCache);
+        assertEquals(TEST_STRING, IOConverter.toString((InputStream) cache, null));
+        cache.reset();
+        assertEquals(TEST_STRING, IOConverter.toString((InputStream) cache, null));
+        cache.reset();
+
+        File target = new File("target/data/offheap/copy.txt");
+        try (FileOutputStream fos = new FileOutputStream(target)) {
+            cache.writeTo(fos);
+        }
+        assertEquals(TEST_STRING, new String(Files.readAllBytes(target.toPath()), "UTF-8"));
+        target.delete();
+
+        ((InputStream) cache).close();
+        exchange.getUnitOfWork().done(exchange);
+        assertEquals("we should have no temp file", 0, dir.list().length);
+
+        // the direct buffers used for writing the spool file are returned to the pool
+        DefaultStreamCachingStrategy strategy = (DefaultStreamCachingStrategy) context.getStreamCachingStrategy();
+        assertTrue(strategy.getDirectBufferPoolSize() > 0);
+
+        IOHelper.close(cos);
+    }
+
+    @Test
+    public void testDirectBufferPoolReleasedOnStop() throws Exception {
+        context.getStreamCachingStrategy().setSpoolThreshold(1024);
+        context.start();
+
+        DefaultStreamCachingStrategy strategy = (DefaultStreamCachingStrategy) context.getStreamCachingStrategy();
+        assertEquals(0, strategy.getDirectBufferPoolSize());
+
+        CachedOutputStream cos = new CachedOutputStream(exchange);
+        cos.write(TEST_STRING.getBytes("UTF-8"));
+        StreamCache cache = cos.newStreamCache();
+        assertEquals(TEST_STRING, IOConverter.toString((InputStream) cache, null));
+        IOHelper.close(cos);
+
+        // the buffers are returned to the pool of the strategy when done
+        exchange.getUnitOfWork().done(exchange);
+        int buffers = (TEST_STRING.length() + 31) / 32;
+        assertEquals(buffers, strategy.getDirectBufferPoolSize());
+
+        // and the pool is released when the strategy is stopped
+        context.stop();
+        assertEquals(0, strategy.getDirectBufferPoolSize());
+    }
+
+    @Test
+    public void testMappedFileInputStreamSegments() throws Exception {
+        byte[] data = new byte[10000];
+        for (int i = 0; i < data.length; i++) {
+            data[i] = (byte) i;
+        }
+        File file = new File("target/data/offheap/mapped.bin");
+        Files.write(file.toPath(), data);
+
+        try (InputStream is = new MappedFileInputStream(file, 1000)) {
+            assertEquals(10000, is.available());
+            byte[] read = new byte[1500];
+            // a read does not cross a segment
+            assertEquals(1000, is.read(read));
+            assertEquals(500, is.read(read, 0, 500));
+            assertEquals(data[1500] & 0xff, is.read());
+            assertEquals(7000, is.skip(7000));
+            ByteArrayOutputStream bos = new ByteArrayOutputStream();
+            IOHelper.copy(is, bos);
+            assertTrue(Arrays.equals(Arrays.copyOfRange(data, 8501, 10000), bos.toByteArray()));
+            assertEquals(-1, is.read());
+        }
+    }
+
+    @Test
+    public void testWriteStreamCacheToFile() throws Exception {
+        byte[] data = new byte[256 * 1024];
+        Arrays.fill(data, (byte) 'a');
+
+        context.addRoutes(new RouteBuilder() {
+            @Override
+            public void configure() throws Exception {
+                from("direct:start").to("file:target/data/offheap?fileName=big.txt");
+            }
+        });
+        context.start();
+
+        template.sendBody("direct:start", new ByteArrayInputStream(data));
+
+        File big = new File("target/data/offheap/big.txt");
+        assertTrue(Arrays.equals(data, Files.readAllBytes(big.toPath())));
+        assertEquals("we should have no temp file", 0, new File("target/data/offheapcache").list().length);
+    }
+
+}
@@ -45,4 +45,40 @@ public class DefaultInflightRepositoryTest extends ContextTestSupport {
         repo.remove(e1);
         assertEquals(0, repo.size());
     }
+
+    @Test
+    public void testDefaultInflightRepositoryBrowseDisabled() throws Exception {
+        InflightRepository repo = new DefaultInflightRepository();
+        repo.addRoute("foo");
+        repo.setInflightBrowseEnabled(false);
+        assertFalse(repo.isInflightBrowseEnabled());
+
+        Exchange e1 = new DefaultExchange(context);
+        repo.add(e1);
+        repo.add(e1, "foo");
+        Exchange e2 = new DefaultExchange(context);
+        repo.add(e2);
+        assertEquals(2, repo.size());
+        assertEquals(1, repo.size("foo"));
+
+        // the exchanges are only counted
+        assertEquals(0, repo.browse().size());
+        assertNull(repo.oldest(null));
+
+        // enable browsing on demand, which tracks the exchanges added from now on
+        repo.setInflightBrowseEnabled(true);
+        Exchange e3 = new DefaultExchange(context);
+        repo.add(e3);
+        assertEquals(3, repo.size());
+        assertEquals(1, repo.browse().size());
+        assertSame(e3, repo.browse().iterator().next().getExchange());
+
+        repo.remove(e1, "foo");
+        repo.remove(e1);
+        repo.remove(e2);
+        repo.remove(e3);
+        assertEquals(0, repo.size());
+        assertEquals(0, repo.size("foo"));
+        assertEquals(0, repo.browse().size());
+    }
 }
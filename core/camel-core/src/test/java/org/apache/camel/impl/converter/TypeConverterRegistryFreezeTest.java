@@ -0,0 +1,105 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.apache.camel.impl.converter;
+
+import java.io.InputStream;
+
+import org.apache.camel.CamelContext;
+import org.apache.camel.ContextTestSupport;
+import org.apache.camel.ExtendedCamelContext;
+import org.apache.camel.converter.MyCoolBean;
+import org.junit.Test;
+
+public class TypeConverterRegistryFreezeTest extends ContextTestSupport {
+
+    @Override
+    protected CamelContext createCamelContext() throws Exception {
+        CamelContext context = super.createCamelContext();
+        context.getGlobalOptions().put(BaseTypeConverterRegistry.TYPE_CONVERTER_FREEZE, "true");
+        return context;
+    }
+
+    @Test
+    public void testFrozen() throws Exception {
+        BaseTypeConverterRegistry registry = (BaseTypeConverterRegistry) context.getTypeConverterRegistry();
+        assertTrue(registry.isFrozen());
+
+        assertEquals(Integer.valueOf(123), context.getTypeConverter().convertTo(Integer.class, "123"));
+        assertEquals("123", context.getTypeConverter().convertTo(String.class, 123));
+        assertEquals(456, context.getTypeConverter().convertTo(int.class, "456").intValue());
+        assertNotNull(context.getTypeConverter().convertTo(InputStream.class, "Hello World"));
+
+        // resolved by the fallback to string converter which is not promoted
+        MyCoolBean cool = new MyCoolBean();
+        assertNotNull(context.getTypeConverter().convertTo(String.class, cool));
+        assertNotNull(context.getTypeConverter().convertTo(String.class, cool));
+
+        // misses
+        assertNull(context.getTypeConverter().convertTo(Country.class, "en"));
+        assertNull(context.getTypeConverter().convertTo(Country.class, "en"));
+        assertNull(context.getTypeConverter().tryConvertTo(Country.class, "en"));
+    }
+
+    @Test
+    public void testRejectLateRegistrations() throws Exception {
+        try {
+            context.getTypeConverterRegistry().addTypeConverters(new MyConverters());
+            fail("Should have thrown exception");
+        } catch (IllegalStateException e) {
+            assertTrue(e.getMessage().contains("frozen"));
+        }
+
+        try {
+            context.getTypeConverterRegistry().removeTypeConverter(Integer.class, String.class);
+            fail("Should have thrown exception");
+        } catch (IllegalStateException e) {
+            assertTrue(e.getMessage().contains("frozen"));
+        }
+
+        // still works
+        assertEquals(Integer.valueOf(123), context.getTypeConverter().convertTo(Integer.class, "123"));
+    }
+
+    @Test
+    public void testMissResolvedAfterRegistration() throws Exception {
+        DefaultTypeConverter registry = new DefaultTypeConverter(context, context.adapt(ExtendedCamelContext.class).getPackageScanClassResolver(),
+                context.getInjector(), null, false);
+        registry.start();
+        assertFalse(registry.isFrozen());
+
+        assertNull(registry.convertTo(Country.class, "en"));
+        assertNull(registry.tryConvertTo(Country.class, "en"));
+        assertNull(registry.tryConvertTo(Country.class, 123));
+        assertTrue(registry.lookupMisses.containsKey(Country.class, String.class));
+        assertTrue(registry.lookupMisses.containsKey(Country.class, Integer.class));
+
+        // the registry is not frozen so we can register after a miss
+        registry.removeTypeConverter(Country.class, String.class);
+        registry.addTypeConverters(new MyConverters());
+        // only the miss which the added converter can resolve is forgotten
+        assertFalse(registry.lookupMisses.containsKey(Country.class, String.class));
+        assertTrue(registry.lookupMisses.containsKey(Country.class, Integer.class));
+        Country country = registry.convertTo(Country.class, "en");
+        assertNotNull(country);
+        assertEquals("England", country.getName());
+
+        registry.freeze();
+        assertTrue(registry.isFrozen());
+        assertEquals("England", registry.convertTo(Country.class, "en").getName());
+        registry.stop();
+    }
+}
@@ -0,0 +1,189 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.apache.camel.impl.engine;
+
+import java.util.HashMap;
+import java.util.Map;
+
+import org.apache.camel.CamelContext;
+import org.apache.camel.ContextTestSupport;
+import org.apache.camel.Endpoint;
+import org.apache.camel.Exchange;
+import org.apache.camel.ExchangePattern;
+import org.apache.camel.ExtendedCamelContext;
+import org.apache.camel.builder.RouteBuilder;
+import org.apache.camel.component.mock.MockEndpoint;
+import org.apache.camel.spi.ExceptionHandler;
+import org.apache.camel.spi.ExchangeFactory;
+import org.apache.camel.support.DefaultConsumer;
+import org.apache.camel.support.DefaultExchange;
+import org.junit.Test;
+
+public class PooledExchangeFactoryTest extends ContextTestSupport {
+
+    @Override
+    protected CamelContext createCamelContext() throws Exception {
+        CamelContext context = super.createCamelContext();
+        context.getGlobalOptions().put(ExchangeFactoryResolver.EXCHANGE_FACTORY, "pooled");
+        context.adapt(ExtendedCamelContext.class).getExchangeFactory().getStatistics().setStatisticsEnabled(true);
+        return context;
+    }
+
+    @Test
+    public void testPooledTimer() throws Exception {
+        ExchangeFactory factory = context.adapt(ExtendedCamelContext.class).getExchangeFactory();
+        assertIsInstanceOf(PooledExchangeFactory.class, factory);
+        assertTrue(factory.isPooled());
+
+        MockEndpoint mock = getMockEndpoint("mock:result");
+        mock.expectedBodiesReceived("Hello 1", "Hello 2", "Hello 3", "Hello 4", "Hello 5");
+
+        context.getRouteController().startRoute("timer");
+
+        assertMockEndpointsSatisfied();
+
+        ExchangeFactory.Statistics statistics = factory.getStatistics();
+        assertTrue(statistics.getAcquiredCounter() > 0);
+        assertTrue(statistics.getReleasedCounter() > 0);
+    }
+
+    @Test
+    public void testReset() throws Exception {
+        ExchangeFactory factory = context.adapt(ExtendedCamelContext.class).getExchangeFactory();
+        Endpoint endpoint = context.getEndpoint("direct:start");
+
+        Exchange exchange = endpoint.createExchange(ExchangePattern.InOut);
+        String id = exchange.getExchangeId();
+        exchange.setProperty("foo", "bar");
+        exchange.getIn().setHeader("beer", "Carlsberg");
+        exchange.getIn().setBody("Hello World");
+        exchange.getOut().setBody("Bye World");
+        exchange.setException(new IllegalArgumentException("Forced"));
+        assertTrue(factory.release(exchange));
+
+        Exchange recycled = endpoint.createExchange(ExchangePattern.InOnly);
+        assertSame(exchange, recycled);
+        assertFalse(id.equals(recycled.getExchangeId()));
+        assertEquals(ExchangePattern.InOnly, recycled.getPattern());
+        assertSame(endpoint, recycled.getFromEndpoint());
+        assertNull(recycled.getProperty("foo"));
+        assertNull(recycled.getIn().getHeader("beer"));
+        assertNull(recycled.getIn().getBody());
+        assertFalse(recycled.hasOut());
+        assertNull(recycled.getException());
+    }
+
+    @Test
+    public void testResetClearsMapsInPlace() throws Exception {
+        ExchangeFactory factory = context.adapt(ExtendedCamelContext.class).getExchangeFactory();
+        Endpoint endpoint = context.getEndpoint("direct:start");
+
+        Exchange exchange = endpoint.createExchange();
+        exchange.setProperty("foo", "bar");
+        exchange.getIn().setHeader("beer", "Carlsberg");
+        Map<String, Object> properties = exchange.getProperties();
+        Map<String, Object> headers = exchange.getIn().getHeaders();
+        assertTrue(factory.release(exchange));
+
+        // the maps owned by the exchange are reused
+        Exchange recycled = endpoint.createExchange();
+        assertSame(exchange, recycled);
+        assertSame(properties, recycled.getProperties());
+        assertSame(headers, recycled.getIn().getHeaders());
+        assertTrue(properties.isEmpty());
+        assertTrue(headers.isEmpty());
+
+        // but a map which may be shared with others is left untouched
+        Map<String, Object> shared = new HashMap<>();
+        shared.put("foo", "bar");
+        ((DefaultExchange) recycled).setProperties(shared);
+        assertTrue(factory.release(recycled));
+
+        recycled = endpoint.createExchange();
+        assertNotSame(shared, recycled.getProperties());
+        assertEquals("bar", shared.get("foo"));
+    }
+
+    @Test
+    public void testAutoReleaseOnDone() throws Exception {
+        ExchangeFactory factory = context.adapt(ExtendedCamelContext.class).getExchangeFactory();
+        Endpoint endpoint = context.getEndpoint("direct:start");
+
+        final Exception[] handled = new Exception[1];
+        DefaultConsumer consumer = new DefaultConsumer(endpoint, e -> { });
+        consumer.setExceptionHandler(new ExceptionHandler() {
+            public void handleException(Throwable exception) {
+            }
+
+            public void handleException(String message, Throwable exception) {
+            }
+
+            public void handleException(String message, Exchange exchange, Throwable exception) {
+                handled[0] = (Exception) exception;
+            }
+        });
+
+        // not released unless auto release is enabled
+        Exchange exchange = consumer.createExchange(false);
+        consumer.createUoW(exchange);
+        consumer.doneUoW(exchange);
+        assertEquals(0, factory.getStatistics().getReleasedCounter());
+
+        exchange = consumer.createExchange(true);
+        consumer.createUoW(exchange);
+        IllegalArgumentException cause = new IllegalArgumentException("Forced");
+        exchange.setException(cause);
+        consumer.doneUoW(exchange);
+
+        // the failure is handled by the consumer before the exchange is released
+        assertSame(cause, handled[0]);
+        assertEquals(1, factory.getStatistics().getReleasedCounter());
+        assertNull(exchange.getException());
+        assertSame(exchange, consumer.createExchange(false));
+    }
+
+    @Test
+    public void testLeakDetection() throws Exception {
+        PooledExchangeFactory factory = (PooledExchangeFactory) context.adapt(ExtendedCamelContext.class).getExchangeFactory();
+        factory.setLeakDetectionEnabled(true);
+        Endpoint endpoint = context.getEndpoint("direct:start");
+
+        Exchange leaked = endpoint.createExchange();
+        Exchange exchange = endpoint.createExchange();
+        assertEquals(2, factory.getInUseSize());
+
+        factory.release(exchange);
+        assertEquals(1, factory.getInUseSize());
+        assertNotNull(leaked);
+
+        // the leak is logged when stopping
+        factory.stop();
+        assertEquals(0, factory.getInUseSize());
+    }
+
+    @Override
+    protected RouteBuilder createRouteBuilder() throws Exception {
+        return new RouteBuilder() {
+            @Override
+            public void configure() throws Exception {
+                from("timer:foo?period=10&repeatCount=5").routeId("timer").noAutoStartup()
+                    .setBody(simple("Hello ${exchangeProperty.CamelTimerCounter}"))
+                    .to("mock:result");
+            }
+        };
+    }
+}
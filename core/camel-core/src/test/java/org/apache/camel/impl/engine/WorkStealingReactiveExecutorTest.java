@@ -0,0 +1,201 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.apache.camel.impl.engine;
+
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.apache.camel.CamelContext;
+import org.apache.camel.ContextTestSupport;
+import org.apache.camel.builder.RouteBuilder;
+import org.apache.camel.component.mock.MockEndpoint;
+import org.junit.Test;
+
+public class WorkStealingReactiveExecutorTest extends ContextTestSupport {
+
+    @Override
+    protected CamelContext createCamelContext() throws Exception {
+        CamelContext context = super.createCamelContext();
+        context.getGlobalOptions().put(ReactiveExecutorResolver.REACTIVE_EXECUTOR, "work-stealing");
+        return context;
+    }
+
+    @Test
+    public void testWorkStealing() throws Exception {
+        assertIsInstanceOf(WorkStealingReactiveExecutor.class, context.getReactiveExecutor());
+
+        MockEndpoint mock = getMockEndpoint("mock:result");
+        mock.expectedMessageCount(200);
+
+        for (int i = 0; i < 200; i++) {
+            template.sendBody("seda:start", "Hello " + i);
+        }
+
+        assertMockEndpointsSatisfied();
+
+        WorkStealingReactiveExecutor executor = (WorkStealingReactiveExecutor) context.getReactiveExecutor();
+        assertTrue(executor.getCreatedWorkers() > 0);
+        assertTrue(executor.getExecutedTasks() > 0);
+    }
+
+    @Test
+    public void testSynchronous() throws Exception {
+        getMockEndpoint("mock:result").expectedBodiesReceived("Bye World");
+
+        template.sendBody("direct:sync", "Hello World");
+
+        assertMockEndpointsSatisfied();
+    }
+
+    @Test
+    public void testStealing() throws Exception {
+        WorkStealingReactiveExecutor executor = new WorkStealingReactiveExecutor();
+        CountDownLatch done = new CountDownLatch(10);
+        Set<Thread> threads = ConcurrentHashMap.newKeySet();
+        Thread thief = startThief(executor, done);
+
+        // the owner is busy running its tasks, so the idle thief should steal some of them
+        executor.scheduleMain(() -> {
+            for (int i = 0; i < 10; i++) {
+                executor.scheduleMain(() -> {
+                    threads.add(Thread.currentThread());
+                    sleep(20);
+                    done.countDown();
+                });
+            }
+        });
+
+        assertTrue(done.await(10, TimeUnit.SECONDS));
+        thief.join(5000);
+
+        assertTrue("Should run tasks in the thief thread", threads.contains(thief));
+        assertTrue("Should steal tasks", executor.getStolenTasks() > 0);
+        assertEquals(10 + 1, executor.getExecutedTasks());
+    }
+
+    @Test
+    public void testStealingKeepsContinuationsInOrder() throws Exception {
+        WorkStealingReactiveExecutor executor = new WorkStealingReactiveExecutor();
+        int strands = 8;
+        int steps = 5;
+        CountDownLatch done = new CountDownLatch(strands);
+        AtomicBoolean parallel = new AtomicBoolean();
+        List<List<Integer>> orders = new CopyOnWriteArrayList<>();
+        Thread thief1 = startThief(executor, done);
+        Thread thief2 = startThief(executor, done);
+
+        executor.scheduleMain(() -> {
+            for (int k = 0; k < strands; k++) {
+                List<Integer> order = new CopyOnWriteArrayList<>();
+                orders.add(order);
+                executor.scheduleMain(new Step(executor, order, new AtomicInteger(), parallel, done, steps, 1));
+            }
+        });
+
+        assertTrue(done.await(10, TimeUnit.SECONDS));
+        thief1.join(5000);
+        thief2.join(5000);
+
+        assertFalse("Continuations should not run in parallel with the task which scheduled them", parallel.get());
+        for (List<Integer> order : orders) {
+            assertEquals("[1, 2, 3, 4, 5]", order.toString());
+        }
+        assertTrue("Should steal tasks", executor.getStolenTasks() > 0);
+    }
+
+    private static Thread startThief(WorkStealingReactiveExecutor executor, CountDownLatch done) {
+        Thread thief = new Thread(() -> {
+            while (done.getCount() > 0) {
+                if (!executor.executeFromQueue()) {
+                    Thread.yield();
+                }
+            }
+        }, "thief");
+        thief.start();
+        return thief;
+    }
+
+    private static void sleep(long millis) {
+        try {
+            Thread.sleep(millis);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    private static final class Step implements Runnable {
+        private final WorkStealingReactiveExecutor executor;
+        private final List<Integer> order;
+        private final AtomicInteger active;
+        private final AtomicBoolean parallel;
+        private final CountDownLatch done;
+        private final int steps;
+        private final int step;
+
+        Step(WorkStealingReactiveExecutor executor, List<Integer> order, AtomicInteger active, AtomicBoolean parallel,
+             CountDownLatch done, int steps, int step) {
+            this.executor = executor;
+            this.order = order;
+            this.active = active;
+            this.parallel = parallel;
+            this.done = done;
+            this.steps = steps;
+            this.step = step;
+        }
+
+        @Override
+        public void run() {
+            if (active.incrementAndGet() != 1) {
+                parallel.set(true);
+            }
+            order.add(step);
+            if (step < steps) {
+                executor.schedule(new Step(executor, order, active, parallel, done, steps, step + 1));
+            }
+            // keep running after the continuation is scheduled, which must not start until this task is done
+            sleep(5);
+            active.decrementAndGet();
+            if (step == steps) {
+                done.countDown();
+            }
+        }
+    }
+
+    @Override
+    protected RouteBuilder createRouteBuilder() throws Exception {
+        return new RouteBuilder() {
+            @Override
+            public void configure() throws Exception {
+                from("seda:start?concurrentConsumers=4")
+                    .multicast().parallelProcessing()
+                        .to("log:a?level=OFF", "log:b?level=OFF")
+                    .end()
+                    .to("mock:result");
+
+                from("direct:sync")
+                    .transform(constant("Bye World"))
+                    .to("mock:result");
+            }
+        };
+    }
+}
@@ -0,0 +1,115 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.apache.camel.impl.event;
+
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import org.apache.camel.CamelContext;
+import org.apache.camel.ContextTestSupport;
+import org.apache.camel.builder.RouteBuilder;
+import org.apache.camel.impl.DefaultCamelContext;
+import org.apache.camel.spi.CamelEvent;
+import org.apache.camel.support.EventNotifierSupport;
+import org.junit.Test;
+
+public class AsyncEventNotifierTest extends ContextTestSupport {
+
+    private final List<CamelEvent> events = new CopyOnWriteArrayList<>();
+    private final List<String> threads = new CopyOnWriteArrayList<>();
+    private final CountDownLatch latch = new CountDownLatch(1);
+    private AsyncEventNotifier notifier;
+
+    @Override
+    protected CamelContext createCamelContext() throws Exception {
+        DefaultCamelContext context = new DefaultCamelContext(createRegistry());
+        notifier = new AsyncEventNotifier(new EventNotifierSupport() {
+            public void notify(CamelEvent event) throws Exception {
+                threads.add(Thread.currentThread().getName());
+                // simulate a slow notifier
+                latch.await(10, TimeUnit.SECONDS);
+                events.add(event);
+            }
+
+            public boolean isEnabled(CamelEvent event) {
+                return event instanceof ExchangeCompletedEvent;
+            }
+        });
+        notifier.setQueueSize(2);
+        notifier.setQueueFullPolicy(AsyncEventNotifier.QueueFullPolicy.Discard);
+        context.getManagementStrategy().addEventNotifier(notifier);
+        return context;
+    }
+
+    @Test
+    public void testAsyncEventNotifier() throws Exception {
+        getMockEndpoint("mock:result").expectedMessageCount(5);
+
+        // the first event is taken by the dispatcher which is blocked by the slow notifier
+        template.sendBody("direct:start", "A");
+        for (int i = 0; i < 100 && notifier.getDispatchedCounter() < 1; i++) {
+            Thread.sleep(10);
+        }
+        assertEquals(1, notifier.getDispatchedCounter());
+
+        // the routing thread is not blocked, and only 2 events fit in the queue
+        template.sendBody("direct:start", "B");
+        template.sendBody("direct:start", "C");
+        template.sendBody("direct:start", "D");
+        template.sendBody("direct:start", "E");
+        assertMockEndpointsSatisfied();
+
+        assertEquals(0, events.size());
+        assertEquals(2, notifier.getPendingEvents());
+        assertEquals(2, notifier.getDiscardedCounter());
+
+        Thread.sleep(50);
+        latch.countDown();
+
+        for (int i = 0; i < 100 && events.size() < 3; i++) {
+            Thread.sleep(10);
+        }
+        assertEquals(3, events.size());
+        assertEquals("B", ((ExchangeCompletedEvent) events.get(1)).getExchange().getIn().getBody());
+        assertEquals("C", ((ExchangeCompletedEvent) events.get(2)).getExchange().getIn().getBody());
+        assertEquals(0, notifier.getPendingEvents());
+        assertEquals(3, notifier.getDispatchedCounter());
+        assertTrue("Max lag was " + notifier.getMaxLag(), notifier.getMaxLag() >= 50);
+
+        for (String name : threads) {
+            assertTrue(name, name.contains("AsyncEventNotifier"));
+        }
+
+        notifier.resetStatistics();
+        assertEquals(0, notifier.getDispatchedCounter());
+        assertEquals(0, notifier.getDiscardedCounter());
+        assertEquals(0, notifier.getMaxLag());
+    }
+
+    @Override
+    protected RouteBuilder createRouteBuilder() throws Exception {
+        return new RouteBuilder() {
+            @Override
+            public void configure() throws Exception {
+                from("direct:start").to("mock:result");
+            }
+        };
+    }
+
+}
@@ -0,0 +1,135 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.apache.camel.language.simple;
+
+import org.apache.camel.ExchangeTestSupport;
+import org.apache.camel.Expression;
+import org.apache.camel.Predicate;
+import org.apache.camel.language.simple.SimpleTest.OrderLine;
+import org.junit.Test;
+
+public class SimpleCompilerTest extends ExchangeTestSupport {
+
+    @Test
+    public void testCompiledFunctions() throws Exception {
+        exchange.getIn().setBody("World");
+        exchange.getIn().setHeader("foo", "abc");
+        exchange.setProperty("bar", 123);
+
+        Expression exp = createExpression("${header.foo}");
+        assertIsInstanceOf(SimpleCompiler.CompiledExpression.class, exp);
+        assertEquals("abc", exp.evaluate(exchange, String.class));
+
+        exp = createExpression("${exchangeProperty.bar}");
+        assertIsInstanceOf(SimpleCompiler.CompiledExpression.class, exp);
+        assertEquals(Integer.valueOf(123), exp.evaluate(exchange, Integer.class));
+        assertEquals("123", exp.evaluate(exchange, String.class));
+
+        // header falls back to exchange property
+        assertEquals("123", createExpression("${header[bar]}").evaluate(exchange, String.class));
+
+        exp = createExpression("Hello ${body} ${in.header:foo}");
+        assertIsInstanceOf(SimpleCompiler.CompiledExpression.class, exp);
+        assertEquals("Hello World abc", exp.evaluate(exchange, String.class));
+
+        // not compiled
+        exp = createExpression("${header.foo.toUpperCase()}");
+        assertEquals("ABC", exp.evaluate(exchange, String.class));
+    }
+
+    @Test
+    public void testCompiledBodyProperty() throws Exception {
+        exchange.getIn().setBody(new OrderLine(123, "Camel"));
+
+        Expression exp = createExpression("${body.name}");
+        assertIsInstanceOf(SimpleCompiler.CompiledExpression.class, exp);
+        assertEquals("Camel", exp.evaluate(exchange, String.class));
+        assertEquals(Integer.valueOf(123), createExpression("${body.id}").evaluate(exchange, Integer.class));
+
+        // another type of body
+        exchange.getIn().setBody("Hello");
+        assertEquals(Integer.valueOf(5), createExpression("${body.length}").evaluate(exchange, Integer.class));
+
+        // no body
+        exchange.getIn().setBody(null);
+        assertNull(exp.evaluate(exchange, String.class));
+    }
+
+    @Test
+    public void testCompiledPredicates() throws Exception {
+        exchange.getIn().setBody(new OrderLine(123, "Camel"));
+        exchange.getIn().setHeader("num", 10);
+        exchange.getIn().setHeader("text", "Hello World");
+
+        assertPredicate("${header.num} == 10", true);
+        assertPredicate("${header.num} == '10'", true);
+        assertPredicate("${header.num} != 10", false);
+        assertPredicate("${header.num} == 11", false);
+        assertPredicate("${header.num} > 5", true);
+        assertPredicate("${header.num} >= 10", true);
+        assertPredicate("${header.num} < 10", false);
+        assertPredicate("${header.num} <= 10", true);
+        assertPredicate("${header.num} range '1..10'", true);
+        assertPredicate("${header.num} range '11..20'", false);
+        assertPredicate("${header.num} !range '11..20'", true);
+        assertPredicate("${header.text} contains 'World'", true);
+        assertPredicate("${header.text} not contains 'World'", false);
+        assertPredicate("${body.id} > 100 && ${body.name} == 'Camel'", true);
+        assertPredicate("${body.id} < 100 || ${body.name} == 'Donkey'", false);
+        assertPredicate("${header.unknown} == 'foo'", false);
+        assertPredicate("${header.unknown} != 'foo'", true);
+        assertPredicate("${header.unknown} > 5", false);
+
+        // the converted constant is cached per type so change the type
+        exchange.getIn().setHeader("num", "10");
+        assertPredicate("${header.num} == 10", true);
+        assertPredicate("${header.num} > 5", true);
+        exchange.getIn().setHeader("num", 10.0d);
+        assertPredicate("${header.num} == 10", true);
+        assertPredicate("${header.num} < 11", true);
+    }
+
+    @Test
+    public void testCompiledPredicateReuse() throws Exception {
+        Predicate predicate = new SimplePredicateParser("${header.num} == 10 && ${body} contains 'World'", true, null, true).parsePredicate();
+
+        exchange.getIn().setBody("Hello World");
+        exchange.getIn().setHeader("num", 10);
+        assertTrue(predicate.matches(exchange));
+
+        exchange.getIn().setHeader("num", "10");
+        assertTrue(predicate.matches(exchange));
+
+        exchange.getIn().setHeader("num", 11L);
+        assertFalse(predicate.matches(exchange));
+
+        exchange.getIn().setHeader("num", 10L);
+        exchange.getIn().setBody("Bye");
+        assertFalse(predicate.matches(exchange));
+    }
+
+    private Expression createExpression(String expression) {
+        return new SimpleExpressionParser(expression, true, null, true).parseExpression();
+    }
+
+    private void assertPredicate(String expression, boolean expected) {
+        Predicate compiled = new SimplePredicateParser(expression, true, null, true).parsePredicate();
+        Predicate interpreted = new SimplePredicateParser(expression, true, null).parsePredicate();
+        assertEquals("Interpreted: " + expression, expected, interpreted.matches(exchange));
+        assertEquals("Compiled: " + expression, expected, compiled.matches(exchange));
+    }
+}
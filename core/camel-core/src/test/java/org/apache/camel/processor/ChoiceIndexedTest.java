@@ -0,0 +1,137 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.apache.camel.processor;
+
+import java.util.List;
+
+import org.apache.camel.ContextTestSupport;
+import org.apache.camel.Exchange;
+import org.apache.camel.Navigate;
+import org.apache.camel.Processor;
+import org.apache.camel.builder.PredicateBuilder;
+import org.apache.camel.builder.RouteBuilder;
+import org.apache.camel.model.ChoiceDefinition;
+import org.junit.Test;
+
+public class ChoiceIndexedTest extends ContextTestSupport {
+
+    @Test
+    public void testIndexed() throws Exception {
+        getMockEndpoint("mock:type7").expectedBodiesReceived("Hello 7", "Property 7");
+        getMockEndpoint("mock:type42").expectedBodiesReceived("Hello 42");
+        getMockEndpoint("mock:other").expectedBodiesReceived("Hello Unknown", "Hello Null");
+        getMockEndpoint("mock:result").expectedMessageCount(5);
+        // the property is restored after the choice
+        getMockEndpoint("mock:result").message(0).exchangeProperty(Exchange.FILTER_MATCHED).isNull();
+
+        template.sendBodyAndHeader("direct:start", "Hello 7", "type", "7");
+        template.sendBodyAndHeader("direct:start", "Hello 42", "type", "42");
+        template.sendBodyAndHeader("direct:start", "Hello Unknown", "type", "1000");
+        template.sendBody("direct:start", "Hello Null");
+        // the header falls back to the exchange property
+        template.sendBodyAndProperty("direct:start", "Property 7", "type", "7");
+
+        assertMockEndpointsSatisfied();
+
+        ChoiceProcessor choice = getChoiceProcessor("start");
+        assertEquals(50, choice.getIndexedFiltersCount());
+        assertEquals(2, choice.getFilters().get(7).getFilteredCount());
+        assertEquals(1, choice.getFilters().get(42).getFilteredCount());
+        assertEquals(2, choice.getNotFilteredCount());
+    }
+
+    @Test
+    public void testTypeCoerced() throws Exception {
+        getMockEndpoint("mock:type7").expectedBodiesReceived("Hello 7");
+        getMockEndpoint("mock:other").expectedBodiesReceived("Hello 100");
+
+        // an integer header cannot be looked up in the index so the predicates are evaluated one by one
+        template.sendBodyAndHeader("direct:start", "Hello 7", "type", 7);
+        template.sendBodyAndHeader("direct:start", "Hello 100", "type", 100);
+
+        assertMockEndpointsSatisfied();
+    }
+
+    @Test
+    public void testMixed() throws Exception {
+        getMockEndpoint("mock:a").expectedBodiesReceived("A", "A2");
+        getMockEndpoint("mock:b").expectedBodiesReceived("B");
+        // the first matching predicate wins
+        getMockEndpoint("mock:c").expectedBodiesReceived("C", "D");
+        getMockEndpoint("mock:d").expectedMessageCount(0);
+        getMockEndpoint("mock:e").expectedBodiesReceived("E");
+        getMockEndpoint("mock:urgent").expectedBodiesReceived("Urgent");
+        getMockEndpoint("mock:other").expectedBodiesReceived("Other");
+
+        template.sendBodyAndHeader("direct:mixed", "A", "type", "A");
+        template.sendBodyAndHeader("direct:mixed", "B", "type", "B");
+        template.sendBodyAndHeader("direct:mixed", "C", "type", "C");
+        template.sendBodyAndHeader("direct:mixed", "D", "type", "D");
+        template.sendBodyAndHeader("direct:mixed", "E", "type", "E");
+        template.sendBodyAndHeader("direct:mixed", "Other", "type", "F");
+        // the predicate before the second group must be evaluated before the indexed filters
+        template.sendBodyAndHeader("direct:mixed", "Urgent", "urgent", true);
+        template.sendBodyAndHeader("direct:mixed", "A2", "type", "A");
+
+        assertMockEndpointsSatisfied();
+
+        ChoiceProcessor choice = getChoiceProcessor("mixed");
+        List<FilterProcessor> filters = choice.getFilters();
+        assertTrue(choice.isIndexed(filters.get(0)));
+        assertTrue(choice.isIndexed(filters.get(1)));
+        assertFalse(choice.isIndexed(filters.get(2)));
+        assertFalse(choice.isIndexed(filters.get(3)));
+        assertTrue(choice.isIndexed(filters.get(4)));
+        assertTrue(choice.isIndexed(filters.get(5)));
+        // a different header so not indexed
+        assertFalse(choice.isIndexed(filters.get(6)));
+        assertEquals(4, choice.getIndexedFiltersCount());
+    }
+
+    private ChoiceProcessor getChoiceProcessor(String routeId) {
+        Navigate<Processor> nav = context.getRoute(routeId).navigate();
+        return assertIsInstanceOf(ChoiceProcessor.class, unwrapChannel(nav.next().get(0)).getNextProcessor());
+    }
+
+    @Override
+    protected RouteBuilder createRouteBuilder() throws Exception {
+        return new RouteBuilder() {
+            @Override
+            public void configure() throws Exception {
+                ChoiceDefinition choice = from("direct:start").routeId("start").choice();
+                for (int i = 0; i < 50; i++) {
+                    choice.when(header("type").isEqualTo("" + i)).to("mock:type" + i);
+                }
+                choice.otherwise().to("mock:other").end()
+                    .to("mock:result");
+
+                from("direct:mixed").routeId("mixed")
+                    .choice()
+                        .when(header("type").isEqualTo("A")).to("mock:a")
+                        .when(header("type").isEqualTo("B")).to("mock:b")
+                        .when(PredicateBuilder.or(header("type").isEqualTo("C"), header("type").isEqualTo("D"))).to("mock:c")
+                        .when(header("urgent")).to("mock:urgent")
+                        .when(header("type").isEqualTo("D")).to("mock:d")
+                        .when(header("type").isEqualTo("E")).to("mock:e")
+                        .when(header("kind").isEqualTo("E")).to("mock:e")
+                        .otherwise().to("mock:other")
+                    .end()
+                    .to("mock:result");
+            }
+        };
+    }
+}
@@ -0,0 +1,165 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.apache.camel.processor;
+
+import java.util.List;
+
+import org.apache.camel.ContextTestSupport;
+import org.apache.camel.Exchange;
+import org.apache.camel.MessageHistory;
+import org.apache.camel.builder.RouteBuilder;
+import org.apache.camel.impl.engine.DefaultMessageHistoryFactory;
+import org.apache.camel.impl.engine.DefaultMessageHistoryFactory.SampledMessageHistory;
+import org.junit.Test;
+
+public class MessageHistorySamplingTest extends ContextTestSupport {
+
+    private DefaultMessageHistoryFactory factory;
+
+    @Override
+    public void setUp() throws Exception {
+        super.setUp();
+        factory = (DefaultMessageHistoryFactory) context.getMessageHistoryFactory();
+    }
+
+    @Test
+    public void testSamplingInterval() throws Exception {
+        factory.setSamplingInterval(5);
+        factory.setSampledBufferSize(3);
+
+        getMockEndpoint("mock:result").expectedMessageCount(20);
+        for (int i = 0; i < 20; i++) {
+            template.sendBody("direct:start", "Hello " + i);
+        }
+        assertMockEndpointsSatisfied();
+
+        int sampled = 0;
+        for (Exchange exchange : getMockEndpoint("mock:result").getReceivedExchanges()) {
+            List<MessageHistory> history = exchange.getProperty(Exchange.MESSAGE_HISTORY, List.class);
+            if (history != null) {
+                sampled++;
+                assertEquals(2, history.size());
+            } else {
+                assertEquals(Boolean.FALSE, exchange.getProperty(Exchange.MESSAGE_HISTORY_SAMPLED));
+            }
+        }
+        assertEquals(4, sampled);
+        assertEquals(4, factory.getSampledCounter());
+
+        // only the latest 3 is kept, oldest first
+        List<SampledMessageHistory> histories = factory.getSampledMessageHistories();
+        assertEquals(3, histories.size());
+        assertEquals("Hello 9", bodyOf(histories.get(0)));
+        assertEquals("Hello 14", bodyOf(histories.get(1)));
+        assertEquals("Hello 19", bodyOf(histories.get(2)));
+        assertEquals("route1", histories.get(2).getFromRouteId());
+        assertEquals("foo", histories.get(2).getMessageHistory().get(0).getNode().getId());
+        assertEquals("result", histories.get(2).getMessageHistory().get(1).getNode().getId());
+
+        String xml = factory.dumpSampledMessageHistoriesAsXml();
+        assertTrue(xml, xml.contains("exchangeId=\"" + histories.get(0).getExchangeId() + "\""));
+        assertTrue(xml, xml.contains("<node routeId=\"route1\" id=\"foo\""));
+
+        factory.clearSampledMessageHistories();
+        assertEquals(0, factory.getSampledMessageHistories().size());
+    }
+
+    @Test
+    public void testSamplingFilter() throws Exception {
+        factory.setSamplingFilter("${header.trace} == 'true'");
+
+        getMockEndpoint("mock:result").expectedMessageCount(3);
+        template.sendBodyAndHeader("direct:start", "A", "trace", "false");
+        template.sendBodyAndHeader("direct:start", "B", "trace", "true");
+        template.sendBody("direct:start", "C");
+        assertMockEndpointsSatisfied();
+
+        List<SampledMessageHistory> histories = factory.getSampledMessageHistories();
+        assertEquals(1, histories.size());
+        assertEquals("B", bodyOf(histories.get(0)));
+    }
+
+    @Test
+    public void testSamplingFilterBeforeCamelContext() throws Exception {
+        DefaultMessageHistoryFactory other = new DefaultMessageHistoryFactory();
+        other.setSamplingFilter("${header.trace} == 'true'");
+        assertNull(other.getSamplingPredicate());
+
+        other.setCamelContext(context);
+        assertNotNull(other.getSamplingPredicate());
+        assertTrue(other.isSampling());
+
+        // and without a camel context it fails when starting
+        DefaultMessageHistoryFactory noContext = new DefaultMessageHistoryFactory();
+        noContext.setSamplingFilter("${header.trace} == 'true'");
+        try {
+            noContext.start();
+            fail("Should have thrown exception");
+        } catch (IllegalArgumentException e) {
+            // expected
+        }
+    }
+
+    @Test
+    public void testSamplingProbability() throws Exception {
+        factory.setSamplingProbability(0);
+
+        getMockEndpoint("mock:result").expectedMessageCount(5);
+        for (int i = 0; i < 5; i++) {
+            template.sendBody("direct:start", "Hello " + i);
+        }
+        assertMockEndpointsSatisfied();
+
+        assertEquals(0, factory.getSampledCounter());
+        assertEquals(0, factory.getSampledMessageHistories().size());
+    }
+
+    @Test
+    public void testNoSampling() throws Exception {
+        assertFalse(factory.isSampling());
+
+        getMockEndpoint("mock:result").expectedMessageCount(1);
+        template.sendBody("direct:start", "Hello World");
+        assertMockEndpointsSatisfied();
+
+        Exchange exchange = getMockEndpoint("mock:result").getReceivedExchanges().get(0);
+        assertNotNull(exchange.getProperty(Exchange.MESSAGE_HISTORY, List.class));
+        // all exchanges has message history but they are not kept when not sampling
+        assertEquals(0, factory.getSampledMessageHistories().size());
+    }
+
+    private String bodyOf(SampledMessageHistory history) {
+        return getMockEndpoint("mock:result").getReceivedExchanges().stream()
+            .filter(e -> e.getExchangeId().equals(history.getExchangeId()))
+            .map(e -> e.getIn().getBody(String.class))
+            .findFirst().orElse(null);
+    }
+
+    @Override
+    protected RouteBuilder createRouteBuilder() throws Exception {
+        return new RouteBuilder() {
+            @Override
+            public void configure() throws Exception {
+                context.setMessageHistory(true);
+
+                from("direct:start")
+                    .to("log:foo").id("foo")
+                    .to("mock:result").id("result");
+            }
+        };
+    }
+}
@@ -0,0 +1,84 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.apache.camel.processor;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import org.apache.camel.AggregationStrategy;
+import org.apache.camel.ContextTestSupport;
+import org.apache.camel.builder.RouteBuilder;
+import org.apache.camel.model.MulticastDefinition;
+import org.junit.Test;
+
+public class MulticastParallelFanOutTest extends ContextTestSupport {
+
+    private static final int RECIPIENTS = 50;
+
+    @Test
+    public void testFanOutAggregatesInOrder() throws Exception {
+        StringBuilder expected = new StringBuilder();
+        for (int i = 0; i < RECIPIENTS; i++) {
+            expected.append(i);
+        }
+
+        ExecutorService executor = Executors.newFixedThreadPool(5);
+        try {
+            List<Future<Object>> futures = new ArrayList<>();
+            for (int i = 0; i < 50; i++) {
+                futures.add(executor.submit(() -> template.requestBody("direct:start", "")));
+            }
+            for (Future<Object> future : futures) {
+                assertEquals(expected.toString(), future.get());
+            }
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+    @Override
+    protected RouteBuilder createRouteBuilder() throws Exception {
+        final Random random = new Random();
+        final AggregationStrategy concat = (oldExchange, newExchange) -> {
+            if (oldExchange == null) {
+                return newExchange;
+            }
+            oldExchange.getIn().setBody(oldExchange.getIn().getBody(String.class) + newExchange.getIn().getBody(String.class));
+            return oldExchange;
+        };
+
+        return new RouteBuilder() {
+            @Override
+            public void configure() throws Exception {
+                MulticastDefinition multicast = from("direct:start").multicast(concat).parallelProcessing();
+                for (int i = 0; i < RECIPIENTS; i++) {
+                    multicast.to("direct:" + i);
+                }
+
+                for (int i = 0; i < RECIPIENTS; i++) {
+                    // the later recipients tends to reply before the earlier
+                    final int delay = random.nextInt(3) + (RECIPIENTS - i) / 10;
+                    from("direct:" + i).delay(delay).setBody(constant("" + i));
+                }
+            }
+        };
+    }
+}
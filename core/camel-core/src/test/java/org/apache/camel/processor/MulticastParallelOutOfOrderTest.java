@@ -0,0 +1,103 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.apache.camel.processor;
+
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import org.apache.camel.AggregationStrategy;
+import org.apache.camel.ContextTestSupport;
+import org.apache.camel.builder.RouteBuilder;
+import org.junit.Test;
+
+public class MulticastParallelOutOfOrderTest extends ContextTestSupport {
+
+    private static final int RECIPIENTS = 5;
+
+    private final CountDownLatch[] replied = new CountDownLatch[RECIPIENTS];
+    private final CountDownLatch firstAggregated = new CountDownLatch(1);
+
+    @Override
+    public void setUp() throws Exception {
+        for (int i = 0; i < RECIPIENTS; i++) {
+            replied[i] = new CountDownLatch(1);
+        }
+        super.setUp();
+    }
+
+    @Test
+    public void testRepliesInReverseOrder() throws Exception {
+        assertEquals("01234", template.requestBody("direct:start", ""));
+    }
+
+    @Test
+    public void testRepliesInReverseOrderParallelAggregate() throws Exception {
+        assertEquals("01234", template.requestBody("direct:parallelAggregate", ""));
+    }
+
+    @Test
+    public void testAggregateBeforeLastReply() throws Exception {
+        // the last recipient only replies after the first reply has been aggregated
+        assertEquals("0ok", template.requestBody("direct:incremental", ""));
+    }
+
+    @Override
+    protected RouteBuilder createRouteBuilder() throws Exception {
+        final AggregationStrategy concat = (oldExchange, newExchange) -> {
+            if ("0".equals(newExchange.getIn().getBody(String.class))) {
+                firstAggregated.countDown();
+            }
+            if (oldExchange == null) {
+                return newExchange;
+            }
+            oldExchange.getIn().setBody(oldExchange.getIn().getBody(String.class) + newExchange.getIn().getBody(String.class));
+            return oldExchange;
+        };
+
+        return new RouteBuilder() {
+            @Override
+            public void configure() throws Exception {
+                from("direct:start").multicast(concat).parallelProcessing()
+                    .to("direct:0", "direct:1", "direct:2", "direct:3", "direct:4");
+
+                from("direct:parallelAggregate").multicast(concat).parallelProcessing().parallelAggregate()
+                    .to("direct:0", "direct:1", "direct:2", "direct:3", "direct:4");
+
+                from("direct:incremental").multicast(concat).parallelProcessing()
+                    .to("direct:first", "direct:last");
+
+                for (int i = 0; i < RECIPIENTS; i++) {
+                    // each recipient waits for the next recipient to reply so they reply in reverse order
+                    final int index = i;
+                    from("direct:" + i)
+                        .process(e -> {
+                            if (index < RECIPIENTS - 1) {
+                                replied[index + 1].await(5, TimeUnit.SECONDS);
+                            }
+                        })
+                        .setBody(constant("" + i))
+                        .process(e -> replied[index].countDown());
+                }
+
+                from("direct:first").setBody(constant("0"));
+
+                from("direct:last")
+                    .process(e -> e.getIn().setBody(firstAggregated.await(5, TimeUnit.SECONDS) ? "ok" : "timeout"));
+            }
+        };
+    }
+}
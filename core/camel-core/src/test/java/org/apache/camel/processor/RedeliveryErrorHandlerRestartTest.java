@@ -0,0 +1,88 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.apache.camel.processor;
+
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+import org.apache.camel.Channel;
+import org.apache.camel.ContextTestSupport;
+import org.apache.camel.Processor;
+import org.apache.camel.Route;
+import org.apache.camel.builder.RouteBuilder;
+import org.apache.camel.impl.engine.EventDrivenConsumerRoute;
+import org.apache.camel.processor.errorhandler.RedeliveryErrorHandler;
+import org.apache.camel.support.service.ServiceHelper;
+import org.junit.Test;
+
+import static org.awaitility.Awaitility.await;
+
+public class RedeliveryErrorHandlerRestartTest extends ContextTestSupport {
+
+    @Test
+    public void testCancelScheduledRedeliveriesOnStop() throws Exception {
+        RedeliveryErrorHandler errorHandler = getErrorHandler();
+
+        getMockEndpoint("mock:dead").expectedBodiesReceived("A");
+
+        Future<Object> future = template.asyncSendBody("direct:start", "A");
+        await().atMost(5, TimeUnit.SECONDS).until(() -> errorHandler.getScheduledRedeliveryCount() == 1);
+
+        // the redelivery is cancelled when stopping, and the exchange is moved to the dead letter channel
+        ServiceHelper.stopService(errorHandler);
+        future.get(5, TimeUnit.SECONDS);
+        assertMockEndpointsSatisfied();
+        assertEquals(0, errorHandler.getScheduledRedeliveryCount());
+
+        // and the maximum pending redeliveries is still honoured after restarting
+        ServiceHelper.startService(errorHandler);
+        template.asyncSendBody("direct:start", "B");
+        await().atMost(5, TimeUnit.SECONDS).until(() -> errorHandler.getScheduledRedeliveryCount() == 1);
+        assertEquals(0, errorHandler.getRedeliveryBackpressureCount());
+
+        // cancel the redelivery so we do not wait for it when shutting down
+        ServiceHelper.stopService(errorHandler);
+        assertEquals(0, errorHandler.getScheduledRedeliveryCount());
+    }
+
+    private RedeliveryErrorHandler getErrorHandler() {
+        Route route = context.getRoutes().get(0);
+        EventDrivenConsumerRoute consumerRoute = assertIsInstanceOf(EventDrivenConsumerRoute.class, route);
+        Processor processor = unwrap(consumerRoute.getProcessor());
+        Pipeline pipeline = assertIsInstanceOf(Pipeline.class, processor);
+        Channel channel = assertIsInstanceOf(Channel.class, pipeline.getProcessors().get(0));
+        return assertIsInstanceOf(RedeliveryErrorHandler.class, channel.getErrorHandler());
+    }
+
+    @Override
+    protected RouteBuilder createRouteBuilder() throws Exception {
+        return new RouteBuilder() {
+            @Override
+            public void configure() throws Exception {
+                errorHandler(deadLetterChannel("mock:dead")
+                    .maximumRedeliveries(1).redeliveryDelay(60000)
+                    .asyncDelayedRedelivery().maximumPendingRedeliveries(1));
+
+                from("direct:start")
+                    .process(e -> {
+                        throw new IllegalArgumentException("Forced");
+                    })
+                    .to("mock:result");
+            }
+        };
+    }
+}
@@ -0,0 +1,148 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.apache.camel.processor;
+
+import java.io.File;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+
+import org.apache.camel.CamelContext;
+import org.apache.camel.ContextTestSupport;
+import org.apache.camel.builder.RouteBuilder;
+import org.apache.camel.component.mock.MockEndpoint;
+import org.apache.camel.support.builder.ExpressionBuilder;
+import org.junit.Test;
+
+public class SortChunkSizeTest extends ContextTestSupport {
+
+    private final File spoolDir = new File("target/data/sort");
+
+    @Override
+    public void setUp() throws Exception {
+        deleteDirectory(spoolDir);
+        super.setUp();
+    }
+
+    @Override
+    protected CamelContext createCamelContext() throws Exception {
+        CamelContext context = super.createCamelContext();
+        context.getStreamCachingStrategy().setSpoolDirectory(spoolDir);
+        return context;
+    }
+
+    @Test
+    public void testExternalSort() throws Exception {
+        MockEndpoint mock = getMockEndpoint("mock:result");
+        mock.expectedBodiesReceived("A", "B", "C", "D", "E", "F", "G", "H", "I", "J");
+        mock.whenExchangeReceived(1, e -> {
+            // the sorted chunks are spooled while splitting
+            String[] files = spoolDir.list();
+            assertNotNull(files);
+            assertTrue("Should spool sorted chunks", files.length > 0);
+        });
+
+        template.sendBody("direct:start", "H\nC\nJ\nA\nF\nD\nI\nB\nG\nE");
+
+        assertMockEndpointsSatisfied();
+
+        // and the spooled files are deleted when done
+        assertEquals(0, spoolDir.list().length);
+    }
+
+    @Test
+    public void testSingleChunk() throws Exception {
+        MockEndpoint mock = getMockEndpoint("mock:sorted");
+        mock.expectedMessageCount(1);
+
+        template.sendBody("direct:small", "William\nHadrian\nClaus");
+
+        assertMockEndpointsSatisfied();
+
+        List<?> list = mock.getExchanges().get(0).getIn().getBody(List.class);
+        assertEquals(3, list.size());
+        assertEquals("Claus", list.get(0));
+        assertEquals("Hadrian", list.get(1));
+        assertEquals("William", list.get(2));
+        assertFalse(spoolDir.exists() && spoolDir.list().length > 0);
+    }
+
+    @Test
+    public void testStableMultiPassMerge() throws Exception {
+        // 20 chunks of 2 elements are merged in multiple passes of at most 3 chunks
+        StringBuilder body = new StringBuilder();
+        List<String> expected = new ArrayList<>();
+        for (int i = 0; i < 40; i++) {
+            if (i > 0) {
+                body.append("\n");
+            }
+            body.append(i % 4).append("-").append(i);
+        }
+        for (int key = 0; key < 4; key++) {
+            for (int i = key; i < 40; i += 4) {
+                expected.add(key + "-" + i);
+            }
+        }
+
+        MockEndpoint mock = getMockEndpoint("mock:stable");
+        mock.expectedBodiesReceived(expected);
+
+        template.sendBody("direct:stable", body.toString());
+
+        assertMockEndpointsSatisfied();
+        assertEquals(0, spoolDir.list().length);
+    }
+
+    @Test
+    public void testInvalidMergeFanIn() throws Exception {
+        SortProcessor<String> sort = new SortProcessor<>(body(), Comparator.naturalOrder());
+        sort.setMergeFanIn(1);
+        try {
+            sort.start();
+            fail("Should have thrown exception");
+        } catch (IllegalArgumentException e) {
+            assertEquals("MergeFanIn must be at least 2, was: 1", e.getMessage());
+        }
+    }
+
+    @Override
+    protected RouteBuilder createRouteBuilder() throws Exception {
+        return new RouteBuilder() {
+            @Override
+            public void configure() throws Exception {
+                from("direct:start")
+                    .sort().tokenize("\n").chunkSize(3).parallelSorting().end()
+                    .split(body()).streaming()
+                        .to("mock:result");
+
+                // only compare the key before the dash, so the sort must be stable to keep the order
+                SortProcessor<String> stable = new SortProcessor<>(ExpressionBuilder.tokenizeExpression(body(), "\n"),
+                    Comparator.comparing(s -> s.substring(0, s.indexOf('-'))));
+                stable.setChunkSize(2);
+                stable.setMergeFanIn(3);
+                from("direct:stable")
+                    .process(stable)
+                    .split(body()).streaming()
+                        .to("mock:stable");
+
+                from("direct:small")
+                    .sort().tokenize("\n").chunkSize(3).end()
+                    .to("mock:sorted");
+            }
+        };
+    }
+}
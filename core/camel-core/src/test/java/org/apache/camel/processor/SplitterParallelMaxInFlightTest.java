@@ -0,0 +1,123 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.apache.camel.processor;
+
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.apache.camel.AggregationStrategy;
+import org.apache.camel.ContextTestSupport;
+import org.apache.camel.builder.RouteBuilder;
+import org.junit.Test;
+
+public class SplitterParallelMaxInFlightTest extends ContextTestSupport {
+
+    private static final int SIZE = 200;
+
+    private final AtomicInteger produced = new AtomicInteger();
+    private final AtomicInteger aggregated = new AtomicInteger();
+    private final AtomicInteger maxInFlight = new AtomicInteger();
+
+    @Test
+    public void testMaxInFlight() throws Exception {
+        getMockEndpoint("mock:result").expectedMessageCount(1);
+
+        template.sendBody("direct:window", "Hello");
+
+        assertMockEndpointsSatisfied();
+
+        assertEquals(SIZE, produced.get());
+        assertEquals(SIZE, aggregated.get());
+        assertTrue("The splitter should not have more than 5 messages in flight, was: " + maxInFlight.get(), maxInFlight.get() <= 5);
+
+        Splitter splitter = (Splitter) context.getProcessor("window");
+        assertEquals(SIZE, splitter.getSubExchangesCompleted());
+        assertEquals(0, splitter.getSubExchangesInflight());
+        assertEquals(0, splitter.getSubExchangesPendingAggregation());
+    }
+
+    @Test
+    public void testAggregateInOrder() throws Exception {
+        List<Integer> expected = new ArrayList<>();
+        for (int i = 0; i < SIZE; i++) {
+            expected.add(i);
+        }
+        getMockEndpoint("mock:result").expectedMessageCount(1);
+        getMockEndpoint("mock:result").message(0).body().isEqualTo(expected);
+
+        template.sendBody("direct:ordered", "Hello");
+
+        assertMockEndpointsSatisfied();
+        assertTrue("The splitter should not have more than 10 messages in flight, was: " + maxInFlight.get(), maxInFlight.get() <= 10);
+    }
+
+    public Iterator<Integer> iterator() {
+        return new Iterator<Integer>() {
+            @Override
+            public boolean hasNext() {
+                return produced.get() < SIZE;
+            }
+
+            @Override
+            public Integer next() {
+                int n = produced.getAndIncrement();
+                int inFlight = n + 1 - aggregated.get();
+                maxInFlight.accumulateAndGet(inFlight, Math::max);
+                return n;
+            }
+        };
+    }
+
+    @Override
+    protected RouteBuilder createRouteBuilder() throws Exception {
+        final Random random = new Random();
+        final AggregationStrategy collect = (oldExchange, newExchange) -> {
+            aggregated.incrementAndGet();
+            Integer body = newExchange.getIn().getBody(Integer.class);
+            if (oldExchange == null) {
+                List<Integer> list = new ArrayList<>();
+                list.add(body);
+                newExchange.getIn().setBody(list);
+                return newExchange;
+            }
+            oldExchange.getIn().getBody(List.class).add(body);
+            return oldExchange;
+        };
+
+        return new RouteBuilder() {
+            @Override
+            public void configure() throws Exception {
+                from("direct:window")
+                    .split(method(SplitterParallelMaxInFlightTest.this, "iterator"), collect)
+                        .streaming().parallelProcessing().maxInFlight(5).id("window")
+                        .process(e -> Thread.sleep(1))
+                    .end()
+                    .to("mock:result");
+
+                from("direct:ordered")
+                    .split(method(SplitterParallelMaxInFlightTest.this, "iterator"), collect)
+                        .streaming().parallelProcessing().maxInFlight(10).aggregateInOrder()
+                        .process(e -> Thread.sleep(random.nextInt(5)))
+                    .end()
+                    .to("mock:result");
+            }
+        };
+    }
+}
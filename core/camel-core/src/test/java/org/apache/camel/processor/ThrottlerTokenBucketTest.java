@@ -0,0 +1,103 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.apache.camel.processor;
+
+import org.apache.camel.CamelExecutionException;
+import org.apache.camel.ContextTestSupport;
+import org.apache.camel.builder.RouteBuilder;
+import org.apache.camel.component.mock.MockEndpoint;
+import org.junit.Test;
+
+public class ThrottlerTokenBucketTest extends ContextTestSupport {
+    private static final int INTERVAL = 500;
+
+    @Test
+    public void testBurstThenDelay() throws Exception {
+        MockEndpoint resultEndpoint = getMockEndpoint("mock:result");
+        resultEndpoint.expectedMessageCount(9);
+
+        long start = System.currentTimeMillis();
+        for (int i = 0; i < 9; i++) {
+            template.sendBody("direct:a", "<message>" + i + "</message>");
+        }
+        long elapsed = System.currentTimeMillis() - start;
+
+        resultEndpoint.assertIsSatisfied();
+
+        // the first 3 is a burst, and then the bucket refills with 1 per 166 millis
+        assertTrue("Should take at least 900 millis, was: " + elapsed, elapsed >= 900);
+    }
+
+    @Test
+    public void testAsyncDelayed() throws Exception {
+        MockEndpoint resultEndpoint = getMockEndpoint("mock:result");
+        resultEndpoint.expectedMessageCount(9);
+
+        for (int i = 0; i < 9; i++) {
+            template.sendBody("seda:a", "<message>" + i + "</message>");
+        }
+
+        resultEndpoint.assertIsSatisfied();
+    }
+
+    @Test
+    public void testRejectExecution() throws Exception {
+        MockEndpoint resultEndpoint = getMockEndpoint("mock:result");
+        resultEndpoint.expectedMessageCount(3);
+
+        for (int i = 0; i < 3; i++) {
+            template.sendBody("direct:reject", "<message>" + i + "</message>");
+        }
+        try {
+            template.sendBody("direct:reject", "<message>4</message>");
+            fail("Should have thrown exception");
+        } catch (CamelExecutionException e) {
+            assertIsInstanceOf(ThrottlerRejectedExecutionException.class, e.getCause());
+        }
+
+        resultEndpoint.assertIsSatisfied();
+    }
+
+    @Test
+    public void testCorrelationKeys() throws Exception {
+        MockEndpoint resultEndpoint = getMockEndpoint("mock:result");
+        resultEndpoint.expectedMessageCount(6);
+
+        // each correlation key has its own bucket
+        for (int i = 0; i < 3; i++) {
+            template.sendBodyAndHeader("direct:group", "<message>" + i + "</message>", "key", "A");
+            template.sendBodyAndHeader("direct:group", "<message>" + i + "</message>", "key", "B");
+        }
+
+        resultEndpoint.assertIsSatisfied();
+    }
+
+    protected RouteBuilder createRouteBuilder() {
+        return new RouteBuilder() {
+            public void configure() {
+                from("direct:a").throttle(3).timePeriodMillis(INTERVAL).tokenBucket(true).to("log:result", "mock:result");
+
+                from("seda:a").throttle(3).timePeriodMillis(INTERVAL).tokenBucket(true).asyncDelayed().to("log:result", "mock:result");
+
+                from("direct:reject").throttle(3).timePeriodMillis(10000).tokenBucket(true).rejectExecution(true).to("log:result", "mock:result");
+
+                from("direct:group").throttle(constant(3), header("key")).timePeriodMillis(10000).tokenBucket(true).rejectExecution(true)
+                    .to("log:result", "mock:result");
+            }
+        };
+    }
+}
@@ -0,0 +1,71 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.apache.camel.processor;
+
+import org.apache.camel.ContextTestSupport;
+import org.apache.camel.Endpoint;
+import org.apache.camel.ExtendedCamelContext;
+import org.apache.camel.builder.RouteBuilder;
+import org.junit.Test;
+
+public class ToDynamicEndpointUriCacheTest extends ContextTestSupport {
+
+    @Test
+    public void testEndpointUriCache() throws Exception {
+        ExtendedCamelContext ecc = context.adapt(ExtendedCamelContext.class);
+        Endpoint start = context.getEndpoint("direct:start");
+
+        ecc.resetEndpointUriCacheStatistics();
+        int size = ecc.getEndpointUriCacheSize();
+
+        // the first lookup of each uri normalizes the uri
+        getMockEndpoint("mock:foo?retainFirst=10").expectedMessageCount(5);
+        getMockEndpoint("mock:bar?retainFirst=10").expectedMessageCount(5);
+        assertEquals(2, ecc.getEndpointUriCacheMisses());
+        assertEquals(0, ecc.getEndpointUriCacheHits());
+        assertEquals(size + 2, ecc.getEndpointUriCacheSize());
+
+        for (int i = 0; i < 10; i++) {
+            template.sendBodyAndHeader(start, "Hello " + i, "foo", i % 2 == 0 ? "foo" : "bar");
+        }
+
+        // and the dynamic uris computed by toD are then found in the cache
+        assertEquals(2, ecc.getEndpointUriCacheMisses());
+        assertEquals(10, ecc.getEndpointUriCacheHits());
+        assertEquals(size + 2, ecc.getEndpointUriCacheSize());
+
+        assertMockEndpointsSatisfied();
+
+        // the same endpoint is used even though the uris are not normalized
+        assertSame(getMockEndpoint("mock:foo?retainFirst=10"), context.getEndpoint("mock://foo?retainFirst=10"));
+
+        ecc.resetEndpointUriCacheStatistics();
+        assertEquals(0, ecc.getEndpointUriCacheHits());
+        assertEquals(0, ecc.getEndpointUriCacheMisses());
+    }
+
+    @Override
+    protected RouteBuilder createRouteBuilder() throws Exception {
+        return new RouteBuilder() {
+            @Override
+            public void configure() throws Exception {
+                from("direct:start")
+                    .toD("mock:${header.foo}?retainFirst=10");
+            }
+        };
+    }
+}
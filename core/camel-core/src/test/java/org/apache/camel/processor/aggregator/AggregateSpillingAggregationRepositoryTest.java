@@ -0,0 +1,282 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.apache.camel.processor.aggregator;
+
+import java.io.File;
+import java.util.ArrayList;
+import java.util.List;
+
+import org.apache.camel.ContextTestSupport;
+import org.apache.camel.Exchange;
+import org.apache.camel.builder.RouteBuilder;
+import org.apache.camel.component.mock.MockEndpoint;
+import org.apache.camel.processor.aggregate.GroupedExchangeAggregationStrategy;
+import org.apache.camel.processor.aggregate.SpillingAggregationRepository;
+import org.apache.camel.support.DefaultExchange;
+import org.junit.Test;
+
+public class AggregateSpillingAggregationRepositoryTest extends ContextTestSupport {
+
+    private SpillingAggregationRepository repo = new SpillingAggregationRepository();
+
+    @Override
+    public void setUp() throws Exception {
+        deleteDirectory("target/data/spill");
+        repo.setDirectory(new File("target/data/spill"));
+        repo.setMemoryBudget(5);
+        repo.setCompactionThreshold(1);
+        super.setUp();
+    }
+
+    @SuppressWarnings("unchecked")
+    @Test
+    public void testSpilling() throws Exception {
+        MockEndpoint result = getMockEndpoint("mock:result");
+        result.expectedMessageCount(4);
+
+        String[] groups = {"A", "B", "C", "D"};
+        for (int i = 0; i < 10; i++) {
+            for (String group : groups) {
+                template.sendBodyAndHeader("direct:start", group + i, "group", group);
+            }
+        }
+
+        assertMockEndpointsSatisfied();
+
+        for (int i = 0; i < groups.length; i++) {
+            Exchange out = result.getExchanges().get(i);
+            List<Exchange> grouped = out.getIn().getBody(List.class);
+            assertEquals(10, grouped.size());
+            for (int j = 0; j < 10; j++) {
+                assertEquals(groups[i] + j, grouped.get(j).getIn().getBody(String.class));
+                assertEquals(groups[i], grouped.get(j).getIn().getHeader("group"));
+            }
+        }
+
+        assertTrue("Should spill", repo.getSpilledCounter() > 0);
+        assertTrue("Should load", repo.getLoadedCounter() > 0);
+        assertTrue("Should compact", repo.getCompactionCounter() > 0);
+        assertEquals(0, repo.getSpillFailedCounter());
+        assertEquals(0, repo.getInMemoryGroups());
+        assertEquals(0, repo.getInMemoryExchanges());
+        assertEquals(0, repo.getSpilledGroups());
+        assertEquals(0, repo.getSpillFileSize());
+    }
+
+    @SuppressWarnings("unchecked")
+    @Test
+    public void testSpillSegments() throws Exception {
+        MockEndpoint result = getMockEndpoint("mock:result");
+        result.expectedMessageCount(1);
+
+        for (int i = 0; i < 7; i++) {
+            template.sendBodyAndHeader("direct:start", "S" + i, "group", "S");
+        }
+
+        // the group in use is kept in memory, but its grouped exchanges are spilled in segments
+        assertEquals(1, repo.getInMemoryGroups());
+        assertEquals(0, repo.getSpilledGroups());
+        assertTrue("Should spill", repo.getSpilledCounter() > 0);
+        assertTrue(repo.getInMemoryExchanges() < 7);
+        assertTrue(repo.getSpillFileSize() > 0);
+        assertEquals(0, repo.getLoadedCounter());
+
+        for (int i = 7; i < 10; i++) {
+            template.sendBodyAndHeader("direct:start", "S" + i, "group", "S");
+        }
+
+        assertMockEndpointsSatisfied();
+
+        List<Exchange> grouped = result.getExchanges().get(0).getIn().getBody(List.class);
+        assertEquals(10, grouped.size());
+        for (int i = 0; i < 10; i++) {
+            assertEquals("S" + i, grouped.get(i).getIn().getBody(String.class));
+        }
+        assertEquals(1, repo.getLoadedCounter());
+        assertEquals(0, repo.getSpillFailedCounter());
+        assertEquals(0, repo.getInMemoryExchanges());
+        assertEquals(0, repo.getKeys().size());
+    }
+
+    @SuppressWarnings("unchecked")
+    @Test
+    public void testSpillSegmentedGroupByReference() throws Exception {
+        List<Exchange> grouped = new ArrayList<>();
+        for (int i = 0; i < 7; i++) {
+            Exchange exchange = new DefaultExchange(context);
+            exchange.getIn().setBody("G" + i);
+            grouped.add(exchange);
+        }
+        Exchange g = new DefaultExchange(context);
+        g.setProperty(Exchange.GROUPED_EXCHANGE, grouped);
+        g.setProperty(Exchange.AGGREGATED_SIZE, 7);
+        repo.add(context, "g", g);
+
+        // the grouped exchanges are spilled in a segment
+        assertEquals(1, repo.getSpilledCounter());
+        assertEquals(0, repo.getInMemoryExchanges());
+
+        Exchange h = new DefaultExchange(context);
+        h.setProperty(Exchange.AGGREGATED_SIZE, 6);
+        repo.add(context, "h", h);
+
+        // the group is spilled without loading its segment
+        assertEquals(1, repo.getSpilledGroups());
+        assertEquals(2, repo.getSpilledCounter());
+        assertEquals(0, repo.getLoadedCounter());
+
+        // and loaded without loading its segment
+        Exchange loaded = repo.get(context, "g");
+        assertEquals(1, repo.getLoadedCounter());
+        List<Exchange> list = loaded.getProperty(Exchange.GROUPED_EXCHANGE, List.class);
+        assertEquals(7, list.size());
+        assertEquals(1, repo.getLoadedCounter());
+
+        // until the grouped exchanges are read
+        for (int i = 0; i < 7; i++) {
+            assertEquals("G" + i, list.get(i).getIn().getBody());
+        }
+        assertEquals(2, repo.getLoadedCounter());
+
+        repo.remove(context, "g", loaded);
+        repo.remove(context, "h", repo.get(context, "h"));
+        assertEquals(0, repo.getKeys().size());
+        assertEquals(0, repo.getInMemoryExchanges());
+    }
+
+    @Test
+    public void testLockStripesNotSupported() throws Exception {
+        try {
+            context.addRoutes(new RouteBuilder() {
+                @Override
+                public void configure() throws Exception {
+                    from("direct:stripes")
+                        .aggregate(header("group"), new GroupedExchangeAggregationStrategy())
+                            .aggregationRepository(repo)
+                            .lockStripes(4)
+                            .completionSize(10)
+                        .to("mock:result");
+                }
+            });
+            fail("Should have thrown exception");
+        } catch (Exception e) {
+            Throwable cause = e;
+            while (cause != null && !(cause instanceof IllegalArgumentException)) {
+                cause = cause.getCause();
+            }
+            assertNotNull("Should be IllegalArgumentException", cause);
+            assertTrue(cause.getMessage(), cause.getMessage().startsWith("Option lockStripes cannot be used together with SpillingAggregationRepository"));
+        }
+    }
+
+    @Test
+    public void testLowWaterMark() throws Exception {
+        for (int i = 1; i <= 5; i++) {
+            Exchange exchange = new DefaultExchange(context);
+            exchange.getIn().setBody("Hello " + i);
+            repo.add(context, "group" + i, exchange);
+        }
+        assertEquals(0, repo.getSpilledGroups());
+        assertEquals(5, repo.getInMemoryExchanges());
+
+        Exchange exchange = new DefaultExchange(context);
+        exchange.getIn().setBody("Hello 6");
+        repo.add(context, "group6", exchange);
+
+        // spill until we are at 80% of the budget
+        assertEquals(2, repo.getSpilledGroups());
+        assertEquals(4, repo.getInMemoryExchanges());
+
+        exchange = new DefaultExchange(context);
+        exchange.getIn().setBody("Hello 7");
+        repo.add(context, "group7", exchange);
+
+        // which leaves room for a new group
+        assertEquals(2, repo.getSpilledGroups());
+        assertEquals(5, repo.getInMemoryExchanges());
+        assertEquals("Hello 1", repo.get(context, "group1").getIn().getBody());
+    }
+
+    @Test
+    public void testNotSerializableKeptInMemory() throws Exception {
+        Exchange foo = new DefaultExchange(context);
+        foo.getIn().setBody(new Object());
+        foo.setProperty(Exchange.AGGREGATED_SIZE, 10);
+        repo.add(context, "foo", foo);
+
+        Exchange bar = new DefaultExchange(context);
+        bar.getIn().setBody("Bar");
+        bar.setProperty(Exchange.AGGREGATED_SIZE, 10);
+        bar.setProperty("notSerializable", new Object());
+        repo.add(context, "bar", bar);
+
+        // foo cannot be spilled
+        assertEquals(1, repo.getSpillFailedCounter());
+        assertEquals(0, repo.getSpilledCounter());
+        assertEquals(2, repo.getInMemoryGroups());
+
+        Exchange baz = new DefaultExchange(context);
+        baz.getIn().setBody("Baz");
+        baz.getIn().setHeader("size", 123L);
+        baz.setProperty(Exchange.AGGREGATED_SIZE, 10);
+        repo.add(context, "baz", baz);
+
+        // and neither can bar as its property cannot be spilled
+        assertEquals(3, repo.getSpillFailedCounter());
+        assertEquals(0, repo.getSpilledCounter());
+        assertEquals(3, repo.getInMemoryGroups());
+
+        Exchange qux = new DefaultExchange(context);
+        qux.getIn().setBody("Qux");
+        repo.add(context, "qux", qux);
+
+        // but baz can
+        assertEquals(3, repo.getInMemoryGroups());
+        assertEquals(1, repo.getSpilledGroups());
+        assertEquals(4, repo.getKeys().size());
+
+        assertSame(bar, repo.get(context, "bar"));
+        assertNotNull(bar.getProperty("notSerializable"));
+
+        Exchange loaded = repo.get(context, "baz");
+        assertNotSame(baz, loaded);
+        assertEquals(baz.getExchangeId(), loaded.getExchangeId());
+        assertEquals("Baz", loaded.getIn().getBody());
+        assertEquals(123L, loaded.getIn().getHeader("size"));
+        assertEquals(10, loaded.getProperty(Exchange.AGGREGATED_SIZE));
+        assertEquals(1, repo.getLoadedCounter());
+
+        repo.remove(context, "foo", foo);
+        repo.remove(context, "bar", bar);
+        repo.remove(context, "baz", loaded);
+        repo.remove(context, "qux", qux);
+        assertEquals(0, repo.getKeys().size());
+    }
+
+    @Override
+    protected RouteBuilder createRouteBuilder() throws Exception {
+        return new RouteBuilder() {
+            public void configure() throws Exception {
+                from("direct:start")
+                    .aggregate(header("group"), new GroupedExchangeAggregationStrategy())
+                        .aggregationRepository(repo)
+                        .completionSize(10)
+                    .to("mock:result");
+            }
+        };
+    }
+}
@@ -0,0 +1,175 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.apache.camel.support;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+import org.apache.camel.TimeoutMap;
+import org.junit.After;
+import org.junit.Assert;
+import org.junit.Test;
+
+import static org.awaitility.Awaitility.await;
+
+public class HashedWheelTimeoutMapTest extends Assert {
+
+    private ScheduledExecutorService executor = new ScheduledThreadPoolExecutor(1);
+
+    @After
+    public void tearDown() {
+        executor.shutdownNow();
+    }
+
+    @Test
+    public void testPurge() throws Exception {
+        HashedWheelTimeoutMap<String, Integer> map = new HashedWheelTimeoutMap<>(executor, 50);
+        map.start();
+        assertEquals(512, map.getWheelSize());
+
+        map.put("A", 123, 50);
+        assertEquals(1, map.size());
+
+        await().atMost(2, TimeUnit.SECONDS).untilAsserted(() -> assertEquals(0, map.size()));
+
+        map.stop();
+    }
+
+    @Test
+    public void testGetRemove() throws Exception {
+        HashedWheelTimeoutMap<String, Integer> map = new HashedWheelTimeoutMap<>(executor, 100);
+        map.start();
+
+        map.put("A", 123, 50);
+        assertEquals(1, map.size());
+        assertEquals(123, (int) map.get("A"));
+
+        assertEquals(123, (int) map.putIfAbsent("A", 456, 50));
+        assertEquals(123, (int) map.get("A"));
+
+        assertEquals(123, (int) map.remove("A"));
+        assertNull(map.get("A"));
+        assertNull(map.remove("A"));
+        assertEquals(0, map.size());
+
+        map.stop();
+    }
+
+    @Test
+    public void testForcePurge() throws Exception {
+        final AtomicLong now = new AtomicLong(1000);
+        HashedWheelTimeoutMap<String, Integer> map = new HashedWheelTimeoutMap<String, Integer>(executor, 10, 8) {
+            @Override
+            protected long currentTime() {
+                return now.get();
+            }
+        };
+        final List<String> evicted = Collections.synchronizedList(new ArrayList<>());
+        map.addListener((type, key, value) -> {
+            if (type == TimeoutMap.Listener.Type.Evict) {
+                evicted.add(key);
+            }
+        });
+
+        map.put("A", 1, 50);
+        map.put("B", 2, 20);
+        map.put("C", 3, 500);
+        map.put("D", 4, 20);
+        map.remove("D");
+
+        now.addAndGet(30);
+        map.purge();
+        assertEquals("[B]", evicted.toString());
+
+        // accessing the entry extends its timeout
+        now.addAndGet(15);
+        assertEquals(1, (int) map.get("A"));
+        now.addAndGet(15);
+        map.purge();
+        assertEquals("[B]", evicted.toString());
+
+        now.addAndGet(50);
+        map.purge();
+        assertEquals("[B, A]", evicted.toString());
+
+        // the timeout of C is longer than a round of the wheel, and some ticks are skipped
+        now.addAndGet(300);
+        map.purge();
+        assertEquals("[B, A]", evicted.toString());
+        assertEquals(1, map.size());
+
+        now.addAndGet(200);
+        map.purge();
+        assertEquals("[B, A, C]", evicted.toString());
+        assertEquals(0, map.size());
+    }
+
+    @Test
+    public void testManyEntries() throws Exception {
+        final AtomicLong now = new AtomicLong(1000);
+        HashedWheelTimeoutMap<Integer, Integer> map = new HashedWheelTimeoutMap<Integer, Integer>(executor, 10) {
+            @Override
+            protected long currentTime() {
+                return now.get();
+            }
+        };
+        for (int i = 0; i < 10000; i++) {
+            map.put(i, i, 10 + i % 1000);
+        }
+        // remove every other entry as if the reply was received
+        for (int i = 0; i < 10000; i += 2) {
+            assertEquals(i, (int) map.remove(i));
+        }
+        assertEquals(5000, map.size());
+
+        now.addAndGet(510);
+        map.purge();
+        assertEquals(2500, map.size());
+
+        now.addAndGet(500);
+        map.purge();
+        assertEquals(0, map.size());
+    }
+
+    @Test
+    public void testStopStart() throws Exception {
+        HashedWheelTimeoutMap<String, Integer> map = new HashedWheelTimeoutMap<>(executor, 50);
+        map.start();
+        map.put("A", 1, 500);
+
+        assertEquals(1, map.size());
+        map.stop();
+
+        assertEquals(0, map.size());
+        map.put("A", 1, 50);
+
+        // should not timeout as the scheduler doesn't run
+        Thread.sleep(250);
+        assertEquals(1, map.size());
+
+        map.start();
+
+        await().atMost(2, TimeUnit.SECONDS).untilAsserted(() -> assertEquals(0, map.size()));
+
+        map.stop();
+    }
+}
@@ -0,0 +1,111 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.apache.camel.support;
+
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.apache.camel.CamelContext;
+import org.apache.camel.impl.DefaultCamelContext;
+import org.junit.After;
+import org.junit.Assert;
+import org.junit.Test;
+
+import static org.awaitility.Awaitility.await;
+
+public class HashedWheelTimerTest extends Assert {
+
+    private HashedWheelTimer timer = new HashedWheelTimer("TestTimer", 10, TimeUnit.MILLISECONDS, 8);
+
+    @After
+    public void tearDown() throws Exception {
+        timer.stop();
+    }
+
+    @Test
+    public void testSchedule() throws Exception {
+        timer.start();
+        final CountDownLatch latch = new CountDownLatch(1);
+        long start = System.nanoTime();
+        HashedWheelTimer.TimerTask task = timer.schedule(latch::countDown, 50, TimeUnit.MILLISECONDS);
+        assertEquals(1, timer.getPendingTasks());
+
+        assertTrue(latch.await(2, TimeUnit.SECONDS));
+        assertTrue("Should not run before the delay", System.nanoTime() - start >= TimeUnit.MILLISECONDS.toNanos(50));
+        await().atMost(1, TimeUnit.SECONDS).until(task::isExpired);
+        assertFalse(task.cancel());
+        assertEquals(0, timer.getPendingTasks());
+    }
+
+    @Test
+    public void testCancel() throws Exception {
+        timer.start();
+        final AtomicInteger counter = new AtomicInteger();
+        HashedWheelTimer.TimerTask task = timer.schedule(counter::incrementAndGet, 50, TimeUnit.MILLISECONDS);
+        assertTrue(task.cancel());
+        assertFalse(task.cancel());
+        assertTrue(task.isCancelled());
+
+        // a delay longer than a round of the wheel
+        final CountDownLatch latch = new CountDownLatch(1);
+        timer.schedule(latch::countDown, 150, TimeUnit.MILLISECONDS);
+
+        assertTrue(latch.await(2, TimeUnit.SECONDS));
+        assertEquals(0, counter.get());
+        assertEquals(0, timer.getPendingTasks());
+    }
+
+    @Test
+    public void testManyTasks() throws Exception {
+        timer.start();
+        final AtomicInteger counter = new AtomicInteger();
+        for (int i = 0; i < 10000; i++) {
+            HashedWheelTimer.TimerTask task = timer.schedule(counter::incrementAndGet, i % 100, TimeUnit.MILLISECONDS);
+            if (i % 2 == 0) {
+                task.cancel();
+            }
+        }
+        await().atMost(5, TimeUnit.SECONDS).untilAsserted(() -> assertEquals(5000, counter.get()));
+        assertEquals(0, timer.getPendingTasks());
+    }
+
+    @Test
+    public void testStop() throws Exception {
+        timer.start();
+        final AtomicInteger counter = new AtomicInteger();
+        HashedWheelTimer.TimerTask task = timer.schedule(counter::incrementAndGet, 100, TimeUnit.MILLISECONDS);
+        timer.stop();
+        assertTrue(task.isCancelled());
+
+        Thread.sleep(200);
+        assertEquals(0, counter.get());
+    }
+
+    @Test
+    public void testSharedTimer() throws Exception {
+        CamelContext context = new DefaultCamelContext();
+        context.start();
+
+        HashedWheelTimer shared = HashedWheelTimer.getTimer(context);
+        assertSame(shared, HashedWheelTimer.getTimer(context));
+        assertTrue(shared.isStarted());
+
+        context.stop();
+        assertTrue(shared.isStopped());
+    }
+}
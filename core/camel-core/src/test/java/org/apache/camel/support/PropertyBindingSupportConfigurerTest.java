@@ -0,0 +1,159 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.apache.camel.support;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.apache.camel.ContextTestSupport;
+import org.apache.camel.PropertyBindingException;
+import org.apache.camel.ResolveEndpointFailedException;
+import org.apache.camel.component.timer.TimerEndpoint;
+import org.apache.camel.spi.PropertyConfigurer;
+import org.apache.camel.support.PropertyBindingSupportTest.Foo;
+import org.junit.Test;
+
+/**
+ * Unit test for PropertyBindingSupport using a {@link PropertyConfigurer}
+ */
+public class PropertyBindingSupportConfigurerTest extends ContextTestSupport {
+
+    @Test
+    public void testConfigurer() throws Exception {
+        AtomicInteger counter = new AtomicInteger();
+        PropertyConfigurer configurer = (camelContext, target, name, value, ignoreCase) -> {
+            if ("name".equals(name)) {
+                counter.incrementAndGet();
+                ((Foo) target).setName(PropertyConfigurerSupport.property(camelContext, String.class, value));
+                return true;
+            }
+            return false;
+        };
+
+        Foo foo = new Foo();
+
+        Map<String, Object> prop = new HashMap<>();
+        prop.put("name", "James");
+        prop.put("bar.age", "33");
+        prop.put("bar.gold-customer", "true");
+
+        PropertyBindingSupport.build().withConfigurer(configurer).bind(context, foo, prop);
+
+        assertEquals("James", foo.getName());
+        // the nested properties are not known by the configurer and are set using reflection
+        assertEquals(33, foo.getBar().getAge());
+        assertTrue(foo.getBar().isGoldCustomer());
+        assertEquals(1, counter.get());
+        assertTrue(prop.isEmpty());
+    }
+
+    @Test
+    public void testConfigurerReference() throws Exception {
+        PropertyConfigurer configurer = (camelContext, target, name, value, ignoreCase) -> {
+            fail("Should not configure reference " + name);
+            return false;
+        };
+
+        context.getRegistry().bind("myName", "Donald");
+
+        Foo foo = new Foo();
+
+        Map<String, Object> prop = new HashMap<>();
+        prop.put("name", "#myName");
+
+        PropertyBindingSupport.build().withConfigurer(configurer).bind(context, foo, prop);
+
+        assertEquals("Donald", foo.getName());
+    }
+
+    @Test
+    public void testGeneratedConfigurer() throws Exception {
+        PropertyConfigurer configurer = PropertyConfigurerSupport.resolvePropertyConfigurer(context, TimerEndpoint.class);
+        assertNotNull("Should have generated configurer", configurer);
+
+        TimerEndpoint endpoint = context.getEndpoint("timer:foo?period=250&delay=5&repeatCount=3&fixedRate=true", TimerEndpoint.class);
+        assertEquals(250, endpoint.getPeriod());
+        assertEquals(5, endpoint.getDelay());
+        assertEquals(3, endpoint.getRepeatCount());
+        assertTrue(endpoint.isFixedRate());
+
+        TimerEndpoint other = new TimerEndpoint();
+        assertTrue(configurer.configure(context, other, "period", "1000", false));
+        assertTrue(configurer.configure(context, other, "REPEATCOUNT", 5, true));
+        assertFalse(configurer.configure(context, other, "unknown", "true", false));
+        assertEquals(1000, other.getPeriod());
+        assertEquals(5, other.getRepeatCount());
+
+        // the case must match unless ignoring case, like the reflection based binding
+        assertFalse(configurer.configure(context, other, "repeatcount", 7, false));
+        assertTrue(configurer.configure(context, other, "RepeatCount", 7, false));
+        assertEquals(7, other.getRepeatCount());
+    }
+
+    @Test
+    public void testWrongCaseEndpointOptionRejected() throws Exception {
+        try {
+            context.getEndpoint("timer:foo?repeatcount=3");
+            fail("Should have thrown exception");
+        } catch (ResolveEndpointFailedException e) {
+            assertTrue(e.getMessage(), e.getMessage().contains("Unknown parameters=[{repeatcount=3}]"));
+        }
+    }
+
+    @Test
+    public void testNoGeneratedConfigurer() throws Exception {
+        assertNull(PropertyConfigurerSupport.resolvePropertyConfigurer(context, Foo.class));
+    }
+
+    @Test
+    public void testCachedConfigurer() throws Exception {
+        PropertyConfigurer configurer = PropertyConfigurerSupport.getPropertyConfigurer(context, TimerEndpoint.class);
+        assertNotNull(configurer);
+        assertSame(configurer, PropertyConfigurerSupport.getPropertyConfigurer(context, TimerEndpoint.class));
+        assertNull(PropertyConfigurerSupport.getPropertyConfigurer(context, Foo.class));
+        assertNull(PropertyConfigurerSupport.getPropertyConfigurer(context, Foo.class));
+    }
+
+    @Test
+    public void testConfigurerFailureNotRetriedWithReflection() throws Exception {
+        AtomicInteger counter = new AtomicInteger();
+        PropertyConfigurer configurer = (camelContext, target, name, value, ignoreCase) -> {
+            if ("name".equals(name)) {
+                // a validating setter which is invoked by the configurer
+                counter.incrementAndGet();
+                throw new IllegalArgumentException("Invalid name: " + value);
+            }
+            return false;
+        };
+
+        Foo foo = new Foo();
+
+        Map<String, Object> prop = new HashMap<>();
+        prop.put("name", "James");
+
+        try {
+            PropertyBindingSupport.build().withConfigurer(configurer).bind(context, foo, prop);
+            fail("Should have thrown exception");
+        } catch (PropertyBindingException e) {
+            assertEquals("Invalid name: James", e.getCause().getMessage());
+        }
+        assertEquals(1, counter.get());
+        assertNull(foo.getName());
+    }
+
+}
@@ -0,0 +1,178 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.apache.camel.support.processor.idempotent;
+
+import org.apache.camel.ContextTestSupport;
+import org.apache.camel.builder.RouteBuilder;
+import org.apache.camel.component.mock.MockEndpoint;
+import org.junit.Test;
+
+public class HashedMemoryIdempotentRepositoryTest extends ContextTestSupport {
+
+    @Test
+    public void testAddContainsRemove() throws Exception {
+        HashedMemoryIdempotentRepository repo = new HashedMemoryIdempotentRepository(0);
+        repo.setOffHeap(true);
+        repo.setExpireAfter(60000);
+        repo.start();
+
+        for (int i = 0; i < 10000; i++) {
+            assertTrue(repo.add("key-" + i));
+        }
+        assertFalse(repo.add("key-42"));
+        assertEquals(10000, repo.getSize());
+        assertTrue(repo.getCapacity() >= 10000);
+
+        for (int i = 0; i < 10000; i += 2) {
+            assertTrue(repo.remove("key-" + i));
+        }
+        for (int i = 0; i < 10000; i++) {
+            assertEquals(i % 2 == 1, repo.contains("key-" + i));
+        }
+        assertEquals(5000, repo.getSize());
+
+        repo.clear();
+        assertEquals(0, repo.getSize());
+        assertFalse(repo.contains("key-1"));
+        repo.stop();
+    }
+
+    @Test
+    public void testRingIsCompacted() throws Exception {
+        HashedMemoryIdempotentRepository repo = new HashedMemoryIdempotentRepository(0);
+        repo.start();
+        int ringCapacity = repo.getRingCapacity();
+
+        // the oldest key stays live while other keys are added and removed
+        assertTrue(repo.add("head"));
+        for (int i = 0; i < 10 * ringCapacity; i++) {
+            assertTrue(repo.add("key-" + i));
+            assertTrue(repo.remove("key-" + i));
+        }
+        assertEquals(1, repo.getSize());
+        assertEquals(ringCapacity, repo.getRingCapacity());
+        assertTrue(repo.contains("head"));
+        assertFalse(repo.add("head"));
+        repo.stop();
+    }
+
+    @Test
+    public void testNotStarted() throws Exception {
+        HashedMemoryIdempotentRepository repo = new HashedMemoryIdempotentRepository(100);
+        repo.start();
+        assertTrue(repo.add("A"));
+        repo.stop();
+
+        try {
+            repo.add("B");
+            fail("Should have thrown exception");
+        } catch (IllegalStateException e) {
+            // expected
+        }
+    }
+
+    @Test
+    public void testMaxSize() throws Exception {
+        HashedMemoryIdempotentRepository repo = new HashedMemoryIdempotentRepository(100);
+        repo.setBloomFilter(true);
+        repo.start();
+
+        for (int i = 0; i < 1000; i++) {
+            assertTrue(repo.add("key-" + i));
+            // remove some keys as if the exchange failed
+            if (i % 10 == 0) {
+                assertTrue(repo.remove("key-" + i));
+            }
+        }
+        assertEquals(100, repo.getSize());
+        assertTrue(repo.getEvictedCount() > 0);
+        assertTrue(repo.contains("key-999"));
+        assertFalse(repo.contains("key-990"));
+        assertFalse(repo.contains("key-1"));
+        repo.stop();
+    }
+
+    @Test
+    public void testExpireAfter() throws Exception {
+        HashedMemoryIdempotentRepository repo = new HashedMemoryIdempotentRepository(0);
+        repo.setExpireAfter(200);
+        repo.start();
+
+        assertTrue(repo.add("A"));
+        assertFalse(repo.add("A"));
+        Thread.sleep(300);
+        assertFalse(repo.contains("A"));
+        assertTrue(repo.add("A"));
+        assertTrue(repo.contains("A"));
+        repo.stop();
+    }
+
+    @Test
+    public void testProbabilistic() throws Exception {
+        HashedMemoryIdempotentRepository repo = new HashedMemoryIdempotentRepository(1000);
+        repo.setProbabilistic(true);
+        repo.setFalsePositiveProbability(0.001);
+        repo.start();
+
+        int falseDuplicates = 0;
+        for (int i = 0; i < 1000; i++) {
+            if (!repo.add("key-" + i)) {
+                falseDuplicates++;
+            }
+        }
+        assertTrue("Too many false duplicates: " + falseDuplicates, falseDuplicates < 10);
+        for (int i = 0; i < 1000; i++) {
+            assertTrue(repo.contains("key-" + i));
+        }
+        assertFalse(repo.remove("key-1"));
+
+        // rotate the generations so the first keys are forgotten
+        for (int i = 1000; i < 3000; i++) {
+            repo.add("key-" + i);
+        }
+        int remembered = 0;
+        for (int i = 0; i < 1000; i++) {
+            if (repo.contains("key-" + i)) {
+                remembered++;
+            }
+        }
+        assertTrue("Too many remembered keys: " + remembered, remembered < 10);
+        repo.stop();
+    }
+
+    @Test
+    public void testIdempotentConsumer() throws Exception {
+        context.addRoutes(new RouteBuilder() {
+            @Override
+            public void configure() throws Exception {
+                from("direct:start")
+                    .idempotentConsumer(header("messageId"), HashedMemoryIdempotentRepository.hashedMemoryIdempotentRepository(100))
+                    .to("mock:result");
+            }
+        });
+
+        MockEndpoint mock = getMockEndpoint("mock:result");
+        mock.expectedBodiesReceived("one", "two", "three");
+
+        template.sendBodyAndHeader("direct:start", "one", "messageId", "1");
+        template.sendBodyAndHeader("direct:start", "two", "messageId", "2");
+        template.sendBodyAndHeader("direct:start", "one again", "messageId", "1");
+        template.sendBodyAndHeader("direct:start", "three", "messageId", "3");
+
+        assertMockEndpointsSatisfied();
+    }
+}
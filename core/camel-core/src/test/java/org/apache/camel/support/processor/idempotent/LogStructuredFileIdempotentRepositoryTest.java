@@ -0,0 +1,220 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.apache.camel.support.processor.idempotent;
+
+import java.io.File;
+import java.io.RandomAccessFile;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+
+import org.apache.camel.ContextTestSupport;
+import org.apache.camel.builder.RouteBuilder;
+import org.apache.camel.component.mock.MockEndpoint;
+import org.junit.Test;
+
+public class LogStructuredFileIdempotentRepositoryTest extends ContextTestSupport {
+
+    private static final String STORE = "target/data/logstore";
+
+    private LogStructuredFileIdempotentRepository repo;
+
+    @Override
+    public void setUp() throws Exception {
+        deleteDirectory(STORE);
+        repo = new LogStructuredFileIdempotentRepository(new File(STORE));
+        super.setUp();
+    }
+
+    @Override
+    public void tearDown() throws Exception {
+        super.tearDown();
+        repo.stop();
+    }
+
+    @Test
+    public void testAddContainsRemove() throws Exception {
+        repo.start();
+
+        assertTrue(repo.add("A"));
+        assertTrue(repo.add("B"));
+        assertFalse(repo.add("A"));
+        assertTrue(repo.contains("A"));
+        assertFalse(repo.contains("C"));
+        assertEquals(2, repo.getSize());
+
+        assertTrue(repo.remove("A"));
+        assertFalse(repo.remove("A"));
+        assertFalse(repo.contains("A"));
+        assertTrue(repo.add("A"));
+        assertEquals(2, repo.getSize());
+
+        repo.clear();
+        assertEquals(0, repo.getSize());
+        assertFalse(repo.contains("B"));
+
+        // the previous index is deleted when cleared
+        repo.clear();
+        assertEquals(1, new File(STORE).listFiles((dir, name) -> name.startsWith("index-")).length);
+    }
+
+    @Test
+    public void testRecoverAfterRestart() throws Exception {
+        repo.setSegmentSize(256);
+        repo.start();
+
+        for (int i = 0; i < 1000; i++) {
+            repo.add("key-" + i);
+        }
+        for (int i = 0; i < 1000; i += 2) {
+            repo.remove("key-" + i);
+        }
+        assertTrue(repo.getSegmentCount() > 1);
+        repo.stop();
+
+        repo.start();
+        assertTrue("Should reuse the index", repo.isIndexReused());
+        assertEquals(500, repo.getSize());
+        for (int i = 0; i < 1000; i++) {
+            assertEquals("key-" + i, i % 2 == 1, repo.contains("key-" + i));
+        }
+        assertTrue(repo.add("key-0"));
+        assertFalse(repo.add("key-1"));
+    }
+
+    @Test
+    public void testRebuildIndexAfterCrash() throws Exception {
+        repo.start();
+        for (int i = 0; i < 100; i++) {
+            repo.add("key-" + i);
+        }
+        repo.stop();
+        repo.start();
+        assertTrue(repo.isIndexReused());
+        repo.remove("key-0");
+
+        // simulate a crash where the repository is not stopped, and start a new repository on the same store
+        LogStructuredFileIdempotentRepository other = new LogStructuredFileIdempotentRepository(new File(STORE));
+        other.start();
+        try {
+            assertFalse("Should rebuild the index", other.isIndexReused());
+            assertEquals(99, other.getSize());
+            assertFalse(other.contains("key-0"));
+            assertTrue(other.contains("key-99"));
+        } finally {
+            other.stop();
+        }
+    }
+
+    @Test
+    public void testTruncatePartialRecord() throws Exception {
+        repo.start();
+        repo.add("A");
+        repo.add("B");
+        repo.stop();
+
+        // simulate a crash while writing a record
+        File segment = new File(STORE).listFiles((dir, name) -> name.endsWith(".log"))[0];
+        long size = segment.length();
+        try (RandomAccessFile raf = new RandomAccessFile(segment, "rw")) {
+            raf.seek(size);
+            raf.write(new byte[] {1, 0, 0, 0, 10, 'C'});
+        }
+
+        repo.start();
+        assertFalse("Should rebuild the index", repo.isIndexReused());
+        assertEquals(2, repo.getSize());
+        assertEquals(size, segment.length());
+        assertTrue(repo.add("C"));
+        assertTrue(repo.contains("C"));
+    }
+
+    @Test
+    public void testCompaction() throws Exception {
+        repo.setSegmentSize(1024);
+        repo.setMinCompactionSize(4096);
+        repo.start();
+
+        for (int i = 0; i < 2000; i++) {
+            repo.add("key-" + i);
+            if (i >= 10) {
+                repo.remove("key-" + (i - 10));
+            }
+        }
+
+        assertTrue(repo.getCompactionCount() > 0);
+        assertTrue(repo.getLogSize() < 2 * 4096 + 1024);
+        assertEquals(10, repo.getSize());
+        for (int i = 1990; i < 2000; i++) {
+            assertTrue(repo.contains("key-" + i));
+        }
+        assertFalse(repo.contains("key-1989"));
+
+        repo.stop();
+        repo.start();
+        assertEquals(10, repo.getSize());
+        assertTrue(repo.contains("key-1995"));
+        assertFalse(repo.contains("key-5"));
+    }
+
+    @Test
+    public void testConcurrentSync() throws Exception {
+        repo.setSync(true);
+        repo.setSegmentSize(4096);
+        repo.start();
+
+        ExecutorService executor = Executors.newFixedThreadPool(8);
+        for (int t = 0; t < 8; t++) {
+            final int thread = t;
+            executor.submit(() -> {
+                for (int i = 0; i < 100; i++) {
+                    repo.add("key-" + thread + "-" + i);
+                }
+            });
+        }
+        executor.shutdown();
+        assertTrue(executor.awaitTermination(30, TimeUnit.SECONDS));
+
+        assertEquals(800, repo.getSize());
+        repo.stop();
+        repo.start();
+        assertEquals(800, repo.getSize());
+    }
+
+    @Test
+    public void testIdempotentConsumer() throws Exception {
+        context.addRoutes(new RouteBuilder() {
+            @Override
+            public void configure() throws Exception {
+                from("direct:start")
+                    .idempotentConsumer(header("messageId"), repo)
+                    .to("mock:result");
+            }
+        });
+
+        MockEndpoint mock = getMockEndpoint("mock:result");
+        mock.expectedBodiesReceived("one", "two", "three");
+
+        template.sendBodyAndHeader("direct:start", "one", "messageId", "1");
+        template.sendBodyAndHeader("direct:start", "two", "messageId", "2");
+        template.sendBodyAndHeader("direct:start", "one again", "messageId", "1");
+        template.sendBodyAndHeader("direct:start", "three", "messageId", "3");
+
+        assertMockEndpointsSatisfied();
+        assertSame(context, repo.getCamelContext());
+    }
+}
@@ -241,6 +241,34 @@ public interface VmEndpointBuilderFactory {
             setProperty("multipleConsumers", multipleConsumers);
             return this;
         }
+        /**
+         * The maximum number of exchanges the consumer takes from the queue per
+         * poll. Setting a value higher than 1 lets the consumer drain a batch
+         * of exchanges per wakeup, which reduces the hand-off overhead between
+         * the producers and consumers at high message rates. The exchanges in
+         * the batch are processed one by one by the same consumer thread.
+         * The option is a <code>int</code> type.
+         * @group consumer (advanced)
+         */
+        default AdvancedVmEndpointConsumerBuilder pollBatchSize(
+                int pollBatchSize) {
+            setProperty("pollBatchSize", pollBatchSize);
+            return this;
+        }
+        /**
+         * The maximum number of exchanges the consumer takes from the queue per
+         * poll. Setting a value higher than 1 lets the consumer drain a batch
+         * of exchanges per wakeup, which reduces the hand-off overhead between
+         * the producers and consumers at high message rates. The exchanges in
+         * the batch are processed one by one by the same consumer thread.
+         * The option will be converted to a <code>int</code> type.
+         * @group consumer (advanced)
+         */
+        default AdvancedVmEndpointConsumerBuilder pollBatchSize(
+                String pollBatchSize) {
+            setProperty("pollBatchSize", pollBatchSize);
+            return this;
+        }
         /**
          * The timeout used when polling. When a timeout occurs, the consumer
          * can check whether it is allowed to continue running. Setting a lower
@@ -110,6 +110,7 @@ public final class DefaultConfigurationConfigurer {
         camelContext.setStreamCaching(config.isStreamCachingEnabled());
         camelContext.getStreamCachingStrategy().setAnySpoolRules(config.isStreamCachingAnySpoolRules());
         camelContext.getStreamCachingStrategy().setBufferSize(config.getStreamCachingBufferSize());
+        camelContext.getStreamCachingStrategy().setOffHeap(config.isStreamCachingOffHeap());
         camelContext.getStreamCachingStrategy().setRemoveSpoolDirectoryWhenStopping(config.isStreamCachingRemoveSpoolDirectoryWhenStopping());
         camelContext.getStreamCachingStrategy().setSpoolCipher(config.getStreamCachingSpoolCipher());
         if (config.getStreamCachingSpoolDirectory() != null) {
@@ -47,6 +47,7 @@ public abstract class DefaultConfigurationProperties<T> {
     private String streamCachingSpoolUsedHeapMemoryLimit;
     private boolean streamCachingAnySpoolRules;
     private int streamCachingBufferSize;
+    private boolean streamCachingOffHeap;
     private boolean streamCachingRemoveSpoolDirectoryWhenStopping = true;
     private boolean streamCachingStatisticsEnabled;
     private boolean tracing;
@@ -363,6 +364,21 @@ public abstract class DefaultConfigurationProperties<T> {
         this.streamCachingBufferSize = streamCachingBufferSize;
     }
 
+    public boolean isStreamCachingOffHeap() {
+        return streamCachingOffHeap;
+    }
+
+    /**
+     * Sets whether to keep the stream caches off the heap. When enabled the in-memory stream caches are held in
+     * pooled direct byte buffers, and the stream caches spooled to disk are read back through memory mapped
+     * segments of the spool file.
+     *
+     * The stream cache must not be used after the exchange has completed. This option is default false.
+     */
+    public void setStreamCachingOffHeap(boolean streamCachingOffHeap) {
+        this.streamCachingOffHeap = streamCachingOffHeap;
+    }
+
     public boolean isStreamCachingRemoveSpoolDirectoryWhenStopping() {
         return streamCachingRemoveSpoolDirectoryWhenStopping;
     }
@@ -866,6 +882,18 @@ public abstract class DefaultConfigurationProperties<T> {
         return (T) this;
     }
 
+    /**
+     * Sets whether to keep the stream caches off the heap. When enabled the in-memory stream caches are held in
+     * pooled direct byte buffers, and the stream caches spooled to disk are read back through memory mapped
+     * segments of the spool file.
+     *
+     * The stream cache must not be used after the exchange has completed. This option is default false.
+     */
+    public T withStreamCachingOffHeap(boolean streamCachingOffHeap) {
+        this.streamCachingOffHeap = streamCachingOffHeap;
+        return (T) this;
+    }
+
     /**
      * Whether to remove stream caching temporary directory when stopping.
      * This option is default true.
@@ -51,6 +51,9 @@ public final class JmxSystemPropertyKeys {
     // whether to enable gathering load statistics in the background
     public static final String LOAD_STATISTICS_ENABLED = "org.apache.camel.jmx.loadStatisticsEnabled";
 
+    // whether to enable recording latency histograms of the processing time
+    public static final String LATENCY_HISTOGRAM_ENABLED = "org.apache.camel.jmx.latencyHistogramEnabled";
+
     // whether to enable gathering endpoint runtime statistics
     public static final String ENDPOINT_RUNTIME_STATISTICS_ENABLED = "org.apache.camel.jmx.endpointRuntimeStatisticsEnabled";
 
@@ -135,9 +135,9 @@ public final class CamelOpenMBeanTypes {
 
     public static CompositeType choiceCompositeType() throws OpenDataException {
         return new CompositeType("predicates", "Predicates",
-                new String[]{"predicate", "language", "matches"},
-                new String[]{"Predicate", "Language", "Matches"},
-                new OpenType[]{SimpleType.STRING, SimpleType.STRING, SimpleType.LONG});
+                new String[]{"predicate", "language", "matches", "indexed"},
+                new String[]{"Predicate", "Language", "Matches", "Indexed"},
+                new OpenType[]{SimpleType.STRING, SimpleType.STRING, SimpleType.LONG, SimpleType.BOOLEAN});
     }
 
     public static TabularType loadbalancerExceptionsTabularType() throws OpenDataException {
@@ -69,6 +69,9 @@ public interface ManagedAggregateProcessorMBean extends ManagedProcessorMBean {
     @ManagedAttribute(description = "Optimistic locking")
     boolean isOptimisticLocking();
 
+    @ManagedAttribute(description = "Number of lock stripes used to aggregate different correlation groups concurrently")
+    int getLockStripes();
+
     @ManagedAttribute(description = "Whether or not to eager check for completion when a new incoming Exchange has been received")
     boolean isEagerCheckCompletion();
 
@@ -132,6 +135,12 @@ public interface ManagedAggregateProcessorMBean extends ManagedProcessorMBean {
     @ManagedAttribute(description = "Total number of exchanged completed by completion force trigger")
     long getCompletedByForce();
 
+    @ManagedAttribute(description = "Total number of times an exchange had to wait for the aggregation lock held by another exchange")
+    long getLockContended();
+
+    @ManagedAttribute(description = "Total time in millis exchanges have been waiting for the aggregation lock held by another exchange")
+    long getLockWaitTime();
+
     @ManagedOperation(description = " Reset the statistics counters")
     void resetStatistics();
 
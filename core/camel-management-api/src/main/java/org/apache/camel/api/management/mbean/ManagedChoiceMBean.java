@@ -18,10 +18,14 @@ package org.apache.camel.api.management.mbean;
 
 import javax.management.openmbean.TabularData;
 
+import org.apache.camel.api.management.ManagedAttribute;
 import org.apache.camel.api.management.ManagedOperation;
 
 public interface ManagedChoiceMBean extends ManagedProcessorMBean {
 
+    @ManagedAttribute(description = "Number of when clauses which predicates are evaluated by a lookup in an index")
+    Integer getIndexedWhenClauses();
+
     @ManagedOperation(description = "Statistics of the content based router for each predicate")
     TabularData choiceStatistics();
 
@@ -38,6 +38,21 @@ public interface ManagedEndpointRegistryMBean extends ManagedServiceMBean {
     @ManagedAttribute(description = "Maximum cache size (capacity)")
     Integer getMaximumCacheSize();
 
+    @ManagedAttribute(description = "Endpoint uri cache hits (lookups which did not need to normalize the uri)")
+    Long getUriCacheHits();
+
+    @ManagedAttribute(description = "Endpoint uri cache misses")
+    Long getUriCacheMisses();
+
+    @ManagedAttribute(description = "Endpoint uri cache hit ratio in percent")
+    Double getUriCacheHitRatio();
+
+    @ManagedAttribute(description = "Number of normalized endpoint uris cached")
+    Integer getUriCacheSize();
+
+    @ManagedOperation(description = "Reset the endpoint uri cache statistics")
+    void resetUriCacheStatistics();
+
     @ManagedOperation(description = "Purges the cache")
     void purge();
 
@@ -47,6 +47,21 @@ public interface ManagedErrorHandlerMBean {
     @ManagedAttribute(description = "Number of Exchanges scheduled for redelivery (waiting to be redelivered in the future)")
     Integer getPendingRedeliveryCount();
 
+    @ManagedAttribute(description = "Number of Exchanges waiting in the timer for an asynchronous delayed redelivery")
+    Integer getScheduledRedeliveryCount();
+
+    @ManagedAttribute(description = "Time in millis the oldest Exchange has been waiting for an asynchronous delayed redelivery")
+    Long getOldestScheduledRedeliveryAge();
+
+    @ManagedAttribute(description = "Number of times the maximum pending redeliveries was reached and the redelivery was done synchronously")
+    Long getRedeliveryBackpressureCount();
+
+    @ManagedAttribute(description = "Maximum number of Exchanges waiting for an asynchronous delayed redelivery (0 is unbounded)")
+    Integer getMaximumPendingRedeliveries();
+
+    @ManagedAttribute(description = "Maximum number of Exchanges waiting for an asynchronous delayed redelivery (0 is unbounded)")
+    void setMaximumPendingRedeliveries(Integer maximum);
+
     @ManagedAttribute(description = "RedeliveryPolicy for maximum redeliveries")
     Integer getMaximumRedeliveries();
 
@@ -29,6 +29,12 @@ public interface ManagedInflightRepositoryMBean extends ManagedServiceMBean {
     @ManagedOperation(description = "Current size of inflight exchanges which are from the given route.")
     int size(String routeId);
 
+    @ManagedAttribute(description = "Whether browsing each inflight exchange is enabled")
+    boolean isInflightBrowseEnabled();
+
+    @ManagedAttribute(description = "Whether browsing each inflight exchange is enabled")
+    void setInflightBrowseEnabled(boolean inflightBrowseEnabled);
+
     @ManagedOperation(description = "Lists all the exchanges which are currently inflight")
     TabularData browse();
 
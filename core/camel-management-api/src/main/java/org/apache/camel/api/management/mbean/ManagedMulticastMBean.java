@@ -38,4 +38,19 @@ public interface ManagedMulticastMBean extends ManagedProcessorMBean {
     @ManagedAttribute(description = "The total timeout specified in millis, when using parallel processing.")
     Long getTimeout();
 
+    @ManagedAttribute(description = "The maximum number of exchanges which are sent and not yet aggregated, when using parallel processing (0 is unbounded).")
+    Integer getMaxInFlight();
+
+    @ManagedAttribute(description = "If enabled then Camel will aggregate replies in the same order as the exchanges was sent, also in streaming mode.")
+    Boolean isAggregateInOrder();
+
+    @ManagedAttribute(description = "Number of exchanges which has been sent and are not yet aggregated (only tracked when maxInFlight or aggregateInOrder is enabled)")
+    Integer getSubExchangesInflight();
+
+    @ManagedAttribute(description = "Number of exchanges which are completed and waiting in the reorder buffer to be aggregated (only tracked when maxInFlight or aggregateInOrder is enabled)")
+    Integer getSubExchangesPendingAggregation();
+
+    @ManagedAttribute(description = "Number of exchanges which has been completed and aggregated")
+    Long getSubExchangesCompleted();
+
 }
\ No newline at end of file
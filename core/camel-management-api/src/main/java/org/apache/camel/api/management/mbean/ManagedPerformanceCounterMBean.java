@@ -89,6 +89,27 @@ public interface ManagedPerformanceCounterMBean extends ManagedCounterMBean {
     @ManagedAttribute(description = "Statistics enabled")
     void setStatisticsEnabled(boolean statisticsEnabled);
 
+    @ManagedAttribute(description = "Latency histogram enabled")
+    boolean isLatencyHistogramEnabled();
+
+    @ManagedAttribute(description = "Latency histogram enabled")
+    void setLatencyHistogramEnabled(boolean latencyHistogramEnabled);
+
+    @ManagedAttribute(description = "50th Percentile Processing Time [milliseconds] (requires latency histogram enabled)")
+    long getP50ProcessingTime() throws Exception;
+
+    @ManagedAttribute(description = "99th Percentile Processing Time [milliseconds] (requires latency histogram enabled)")
+    long getP99ProcessingTime() throws Exception;
+
+    @ManagedAttribute(description = "99.9th Percentile Processing Time [milliseconds] (requires latency histogram enabled)")
+    long getP999ProcessingTime() throws Exception;
+
+    @ManagedOperation(description = "Processing Time [milliseconds] at the given percentile (requires latency histogram enabled)")
+    long processingTimePercentile(double percentile) throws Exception;
+
+    @ManagedOperation(description = "Dumps a snapshot of the latency histogram as XML, optionally resetting the histogram to start a new interval")
+    String dumpLatencyHistogramAsXml(boolean reset);
+
     @ManagedOperation(description = "Dumps the statistics as XML")
     String dumpStatsAsXml(boolean fullStats);
 
@@ -61,6 +61,9 @@ public interface ManagedStreamCachingStrategyMBean extends ManagedServiceMBean {
     @ManagedAttribute(description = "Buffer size in bytes to use when coping between buffers")
     int getBufferSize();
 
+    @ManagedAttribute(description = "Whether the stream caches are kept off the heap")
+    boolean isOffHeap();
+
     @ManagedAttribute(description = "Whether to remove spool directory when stopping")
     void setRemoveSpoolDirectoryWhenStopping(boolean remove);
 
@@ -41,4 +41,7 @@ public interface ManagedThrottlerMBean extends ManagedProcessorMBean {
     @ManagedAttribute(description = "Whether or not throttler throws the ThrottlerRejectedExecutionException when the exchange exceeds the request limit")
     Boolean isRejectExecution();
 
+    @ManagedAttribute(description = "Whether or not the throttler uses a token bucket per correlation key")
+    Boolean isTokenBucket();
+
 }
\ No newline at end of file
@@ -88,6 +88,7 @@ public class DefaultManagementAgent extends ServiceSupport implements Management
     private Boolean createConnector = false;
     private Boolean onlyRegisterProcessorWithCustomId = false;
     private Boolean loadStatisticsEnabled = false;
+    private Boolean latencyHistogramEnabled = false;
     private Boolean endpointRuntimeStatisticsEnabled;
     private Boolean registerAlways = false;
     private Boolean registerNewRoutes = true;
@@ -164,6 +165,10 @@ public class DefaultManagementAgent extends ServiceSupport implements Management
             loadStatisticsEnabled = Boolean.getBoolean(JmxSystemPropertyKeys.LOAD_STATISTICS_ENABLED);
             values.put(JmxSystemPropertyKeys.LOAD_STATISTICS_ENABLED, loadStatisticsEnabled);
         }
+        if (System.getProperty(JmxSystemPropertyKeys.LATENCY_HISTOGRAM_ENABLED) != null) {
+            latencyHistogramEnabled = Boolean.getBoolean(JmxSystemPropertyKeys.LATENCY_HISTOGRAM_ENABLED);
+            values.put(JmxSystemPropertyKeys.LATENCY_HISTOGRAM_ENABLED, latencyHistogramEnabled);
+        }
         if (System.getProperty(JmxSystemPropertyKeys.ENDPOINT_RUNTIME_STATISTICS_ENABLED) != null) {
             endpointRuntimeStatisticsEnabled = Boolean.getBoolean(JmxSystemPropertyKeys.ENDPOINT_RUNTIME_STATISTICS_ENABLED);
             values.put(JmxSystemPropertyKeys.ENDPOINT_RUNTIME_STATISTICS_ENABLED, endpointRuntimeStatisticsEnabled);
@@ -314,6 +319,14 @@ public class DefaultManagementAgent extends ServiceSupport implements Management
         this.loadStatisticsEnabled = loadStatisticsEnabled;
     }
 
+    public Boolean getLatencyHistogramEnabled() {
+        return latencyHistogramEnabled;
+    }
+
+    public void setLatencyHistogramEnabled(Boolean latencyHistogramEnabled) {
+        this.latencyHistogramEnabled = latencyHistogramEnabled;
+    }
+
     public Boolean getEndpointRuntimeStatisticsEnabled() {
         return endpointRuntimeStatisticsEnabled;
     }
@@ -135,6 +135,10 @@ public class ManagedAggregateProcessor extends ManagedProcessor implements Manag
         return processor.isOptimisticLocking();
     }
 
+    public int getLockStripes() {
+        return processor.getLockStripes();
+    }
+
     public boolean isEagerCheckCompletion() {
         return processor.isEagerCheckCompletion();
     }
@@ -241,6 +245,14 @@ public class ManagedAggregateProcessor extends ManagedProcessor implements Manag
         return processor.getStatistics().getCompletedByForce();
     }
 
+    public long getLockContended() {
+        return processor.getStatistics().getLockContended();
+    }
+
+    public long getLockWaitTime() {
+        return processor.getStatistics().getLockWaitTime();
+    }
+
     public void resetStatistics() {
         processor.getStatistics().reset();
     }
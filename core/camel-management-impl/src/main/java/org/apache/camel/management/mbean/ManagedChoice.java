@@ -60,6 +60,11 @@ public class ManagedChoice extends ManagedProcessor implements ManagedChoiceMBea
         return true;
     }
 
+    @Override
+    public Integer getIndexedWhenClauses() {
+        return processor.getIndexedFiltersCount();
+    }
+
     @Override
     public TabularData choiceStatistics() {
         try {
@@ -76,10 +81,11 @@ public class ManagedChoice extends ManagedProcessor implements ManagedChoiceMBea
                 String predicate = when.getExpression().getExpression();
                 String language = when.getExpression().getLanguage();
                 Long matches = filter.getFilteredCount();
+                Boolean indexed = processor.isIndexed(filter);
 
                 CompositeData data = new CompositeDataSupport(ct,
-                        new String[]{"predicate", "language", "matches"},
-                        new Object[]{predicate, language, matches});
+                        new String[]{"predicate", "language", "matches", "indexed"},
+                        new Object[]{predicate, language, matches, indexed});
                 answer.put(data);
             }
             if (getDefinition().getOtherwise() != null) {
@@ -89,8 +95,8 @@ public class ManagedChoice extends ManagedProcessor implements ManagedChoiceMBea
                 Long matches = processor.getNotFilteredCount();
 
                 CompositeData data = new CompositeDataSupport(ct,
-                        new String[]{"predicate", "language", "matches"},
-                        new Object[]{predicate, language, matches});
+                        new String[]{"predicate", "language", "matches", "indexed"},
+                        new Object[]{predicate, language, matches, false});
                 answer.put(data);
             }
 
@@ -26,6 +26,7 @@ import javax.management.openmbean.TabularDataSupport;
 
 import org.apache.camel.CamelContext;
 import org.apache.camel.Endpoint;
+import org.apache.camel.ExtendedCamelContext;
 import org.apache.camel.RuntimeCamelException;
 import org.apache.camel.api.management.ManagedResource;
 import org.apache.camel.api.management.mbean.CamelOpenMBeanTypes;
@@ -73,6 +74,28 @@ public class ManagedEndpointRegistry extends ManagedService implements ManagedEn
         return endpointRegistry.getMaximumCacheSize();
     }
 
+    public Long getUriCacheHits() {
+        return getContext().adapt(ExtendedCamelContext.class).getEndpointUriCacheHits();
+    }
+
+    public Long getUriCacheMisses() {
+        return getContext().adapt(ExtendedCamelContext.class).getEndpointUriCacheMisses();
+    }
+
+    public Double getUriCacheHitRatio() {
+        long hits = getUriCacheHits();
+        long total = hits + getUriCacheMisses();
+        return total > 0 ? hits * 100d / total : 0d;
+    }
+
+    public Integer getUriCacheSize() {
+        return getContext().adapt(ExtendedCamelContext.class).getEndpointUriCacheSize();
+    }
+
+    public void resetUriCacheStatistics() {
+        getContext().adapt(ExtendedCamelContext.class).resetEndpointUriCacheStatistics();
+    }
+
     public void purge() {
         endpointRegistry.purge();
     }
@@ -481,4 +481,49 @@ public class ManagedErrorHandler implements ManagedErrorHandlerMBean {
         return redelivery.getPendingRedeliveryCount();
     }
 
+    public Integer getScheduledRedeliveryCount() {
+        if (!isSupportRedelivery()) {
+            return null;
+        }
+
+        RedeliveryErrorHandler redelivery = (RedeliveryErrorHandler) errorHandler;
+        return redelivery.getScheduledRedeliveryCount();
+    }
+
+    public Long getOldestScheduledRedeliveryAge() {
+        if (!isSupportRedelivery()) {
+            return null;
+        }
+
+        RedeliveryErrorHandler redelivery = (RedeliveryErrorHandler) errorHandler;
+        return redelivery.getOldestScheduledRedeliveryAge();
+    }
+
+    public Long getRedeliveryBackpressureCount() {
+        if (!isSupportRedelivery()) {
+            return null;
+        }
+
+        RedeliveryErrorHandler redelivery = (RedeliveryErrorHandler) errorHandler;
+        return redelivery.getRedeliveryBackpressureCount();
+    }
+
+    public Integer getMaximumPendingRedeliveries() {
+        if (!isSupportRedelivery()) {
+            return null;
+        }
+
+        RedeliveryErrorHandler redelivery = (RedeliveryErrorHandler) errorHandler;
+        return redelivery.getMaximumPendingRedeliveries();
+    }
+
+    public void setMaximumPendingRedeliveries(Integer maximum) {
+        if (!isSupportRedelivery()) {
+            throw new IllegalArgumentException("This error handler does not support redelivery");
+        }
+
+        RedeliveryErrorHandler redelivery = (RedeliveryErrorHandler) errorHandler;
+        redelivery.setMaximumPendingRedeliveries(maximum);
+    }
+
 }
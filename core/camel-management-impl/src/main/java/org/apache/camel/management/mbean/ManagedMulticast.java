@@ -60,4 +60,35 @@ public class ManagedMulticast extends ManagedProcessor implements ManagedMultica
     public Long getTimeout() {
         return processor.getTimeout();
     }
+
+    @Override
+    public Integer getMaxInFlight() {
+        return processor.getMaxInFlight();
+    }
+
+    @Override
+    public Boolean isAggregateInOrder() {
+        return processor.isAggregateInOrder();
+    }
+
+    @Override
+    public Integer getSubExchangesInflight() {
+        return processor.getSubExchangesInflight();
+    }
+
+    @Override
+    public Integer getSubExchangesPendingAggregation() {
+        return processor.getSubExchangesPendingAggregation();
+    }
+
+    @Override
+    public Long getSubExchangesCompleted() {
+        return processor.getSubExchangesCompleted();
+    }
+
+    @Override
+    public void reset() {
+        processor.reset();
+        super.reset();
+    }
 }
@@ -51,6 +51,7 @@ public abstract class ManagedPerformanceCounter extends ManagedCounter implement
     private String lastExchangeCompletedExchangeId;
     private Statistic lastExchangeFailureTimestamp;
     private String lastExchangeFailureExchangeId;
+    private volatile StatisticHistogram latencyHistogram;
     private boolean statisticsEnabled = true;
 
     public void init(ManagementStrategy strategy) {
@@ -74,6 +75,11 @@ public abstract class ManagedPerformanceCounter extends ManagedCounter implement
         this.firstExchangeFailureTimestamp = new StatisticValue();
         this.lastExchangeCompletedTimestamp = new StatisticValue();
         this.lastExchangeFailureTimestamp = new StatisticValue();
+
+        Boolean histogram = strategy.getManagementAgent() != null ? strategy.getManagementAgent().getLatencyHistogramEnabled() : null;
+        if (histogram != null && histogram) {
+            this.latencyHistogram = new StatisticHistogram();
+        }
     }
 
     @Override
@@ -99,6 +105,10 @@ public abstract class ManagedPerformanceCounter extends ManagedCounter implement
         lastExchangeCompletedExchangeId = null;
         lastExchangeFailureTimestamp.reset();
         lastExchangeFailureExchangeId = null;
+        StatisticHistogram histogram = latencyHistogram;
+        if (histogram != null) {
+            histogram.reset();
+        }
     }
 
     public long getExchangesCompleted() throws Exception {
@@ -193,6 +203,64 @@ public abstract class ManagedPerformanceCounter extends ManagedCounter implement
         this.statisticsEnabled = statisticsEnabled;
     }
 
+    public boolean isLatencyHistogramEnabled() {
+        return latencyHistogram != null;
+    }
+
+    public void setLatencyHistogramEnabled(boolean latencyHistogramEnabled) {
+        if (latencyHistogramEnabled && latencyHistogram == null) {
+            latencyHistogram = new StatisticHistogram();
+        } else if (!latencyHistogramEnabled) {
+            latencyHistogram = null;
+        }
+    }
+
+    public long getP50ProcessingTime() throws Exception {
+        return processingTimePercentile(50);
+    }
+
+    public long getP99ProcessingTime() throws Exception {
+        return processingTimePercentile(99);
+    }
+
+    public long getP999ProcessingTime() throws Exception {
+        return processingTimePercentile(99.9);
+    }
+
+    public long processingTimePercentile(double percentile) throws Exception {
+        StatisticHistogram histogram = latencyHistogram;
+        return histogram != null ? histogram.getValueAtPercentile(percentile) : 0;
+    }
+
+    /**
+     * Takes a snapshot of the latency histogram, or returns <tt>null</tt> if the latency histogram is not enabled.
+     *
+     * @param reset whether to reset the histogram so the next snapshot only covers the following interval
+     */
+    public StatisticHistogram.Snapshot latencyHistogramSnapshot(boolean reset) {
+        StatisticHistogram histogram = latencyHistogram;
+        return histogram != null ? histogram.snapshot(reset) : null;
+    }
+
+    public String dumpLatencyHistogramAsXml(boolean reset) {
+        StatisticHistogram.Snapshot snapshot = latencyHistogramSnapshot(reset);
+        if (snapshot == null) {
+            return "<latencyHistogram enabled=\"false\"/>";
+        }
+        StringBuilder sb = new StringBuilder();
+        sb.append("<latencyHistogram");
+        sb.append(String.format(" count=\"%s\"", snapshot.getCount()));
+        sb.append(String.format(" minProcessingTime=\"%s\"", snapshot.getMin()));
+        sb.append(String.format(" meanProcessingTime=\"%s\"", snapshot.getMean()));
+        sb.append(String.format(" maxProcessingTime=\"%s\"", snapshot.getMax()));
+        sb.append(String.format(" p50ProcessingTime=\"%s\"", snapshot.getValueAtPercentile(50)));
+        sb.append(String.format(" p90ProcessingTime=\"%s\"", snapshot.getValueAtPercentile(90)));
+        sb.append(String.format(" p99ProcessingTime=\"%s\"", snapshot.getValueAtPercentile(99)));
+        sb.append(String.format(" p999ProcessingTime=\"%s\"", snapshot.getValueAtPercentile(99.9)));
+        sb.append("/>");
+        return sb.toString();
+    }
+
     public void processExchange(Exchange exchange) {
         exchangesInflight.increment();
     }
@@ -215,6 +283,10 @@ public abstract class ManagedPerformanceCounter extends ManagedCounter implement
         totalProcessingTime.updateValue(time);
         lastProcessingTime.updateValue(time);
         deltaProcessingTime.updateValue(time);
+        StatisticHistogram histogram = latencyHistogram;
+        if (histogram != null) {
+            histogram.updateValue(time);
+        }
 
         long now = System.currentTimeMillis();
         if (!firstExchangeCompletedTimestamp.isUpdated()) {
@@ -112,6 +112,10 @@ public class ManagedStreamCachingStrategy extends ManagedService implements Mana
         return streamCachingStrategy.getBufferSize();
     }
 
+    public boolean isOffHeap() {
+        return streamCachingStrategy.isOffHeap();
+    }
+
     public void setRemoveSpoolDirectoryWhenStopping(boolean remove) {
         streamCachingStrategy.setRemoveSpoolDirectoryWhenStopping(remove);
     }
@@ -0,0 +1,218 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.apache.camel.management.mbean;
+
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * A lock-free histogram of recorded values, using the same log-linear bucketing as HdrHistogram.
+ * <p/>
+ * Values below 256 are counted exactly, and larger values are counted in buckets which are
+ * at most 1/128 (about 0.8%) wide relative to the value, so percentiles are accurate to two significant digits.
+ * Values above {@link #HIGHEST_TRACKABLE_VALUE} are counted as that value.
+ * <p/>
+ * Recording a value is a single atomic increment and does not allocate.
+ * The buckets can be copied into a {@link Snapshot}, optionally resetting them at the same time,
+ * which allows taking interval snapshots where a value recorded concurrently is counted
+ * in exactly one of the intervals.
+ */
+public class StatisticHistogram extends Statistic {
+
+    public static final long HIGHEST_TRACKABLE_VALUE = Integer.MAX_VALUE;
+
+    private static final int SUB_BUCKET_BITS = 8;
+    private static final int SUB_BUCKET_COUNT = 1 << SUB_BUCKET_BITS;
+    private static final int SUB_BUCKET_HALF_COUNT = SUB_BUCKET_COUNT >> 1;
+    private static final int BUCKETS = indexOf(HIGHEST_TRACKABLE_VALUE) + 1;
+
+    private final AtomicLongArray counts = new AtomicLongArray(BUCKETS);
+    private final LongAdder total = new LongAdder();
+
+    public void updateValue(long newValue) {
+        long value = newValue < 0 ? 0 : Math.min(newValue, HIGHEST_TRACKABLE_VALUE);
+        counts.incrementAndGet(indexOf(value));
+        total.add(value);
+    }
+
+    /**
+     * Number of recorded values
+     */
+    public long getValue() {
+        long count = 0;
+        for (int i = 0; i < BUCKETS; i++) {
+            count += counts.get(i);
+        }
+        return count;
+    }
+
+    @Override
+    public boolean isUpdated() {
+        for (int i = 0; i < BUCKETS; i++) {
+            if (counts.get(i) > 0) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Gets the value at the given percentile (0-100) of the recorded values, or 0 if no values has been recorded.
+     */
+    public long getValueAtPercentile(double percentile) {
+        long count = getValue();
+        if (count == 0) {
+            return 0;
+        }
+        // iterate the live buckets to not allocate a snapshot, values recorded concurrently may or may not be counted
+        long target = targetCount(percentile, count);
+        long seen = 0;
+        int last = 0;
+        for (int i = 0; i < BUCKETS; i++) {
+            long c = counts.get(i);
+            if (c > 0) {
+                seen += c;
+                last = i;
+                if (seen >= target) {
+                    return highestEquivalentValue(i);
+                }
+            }
+        }
+        // the histogram was reset concurrently
+        return highestEquivalentValue(last);
+    }
+
+    /**
+     * Takes a snapshot of the recorded values.
+     *
+     * @param reset whether to reset the histogram, so the next snapshot only covers the values recorded after this one
+     */
+    public Snapshot snapshot(boolean reset) {
+        long[] copy = new long[BUCKETS];
+        for (int i = 0; i < BUCKETS; i++) {
+            copy[i] = reset ? counts.getAndSet(i, 0) : counts.get(i);
+        }
+        long sum = reset ? total.sumThenReset() : total.sum();
+        return new Snapshot(copy, sum);
+    }
+
+    public void reset() {
+        for (int i = 0; i < BUCKETS; i++) {
+            counts.set(i, 0);
+        }
+        total.reset();
+    }
+
+    @Override
+    public String toString() {
+        return "" + getValue();
+    }
+
+    static long targetCount(double percentile, long count) {
+        double p = Math.min(Math.max(percentile, 0), 100);
+        return Math.max(1, (long) Math.ceil(p / 100 * count));
+    }
+
+    static int indexOf(long value) {
+        if (value < SUB_BUCKET_COUNT) {
+            return (int) value;
+        }
+        // shift the value so it lands in the upper half of the sub buckets
+        int shift = 64 - Long.numberOfLeadingZeros(value) - SUB_BUCKET_BITS;
+        return shift * SUB_BUCKET_HALF_COUNT + (int) (value >>> shift);
+    }
+
+    static long highestEquivalentValue(int index) {
+        if (index < SUB_BUCKET_COUNT) {
+            return index;
+        }
+        int shift = index / SUB_BUCKET_HALF_COUNT - 1;
+        long sub = index - shift * SUB_BUCKET_HALF_COUNT;
+        return ((sub + 1) << shift) - 1;
+    }
+
+    static long lowestEquivalentValue(int index) {
+        if (index < SUB_BUCKET_COUNT) {
+            return index;
+        }
+        int shift = index / SUB_BUCKET_HALF_COUNT - 1;
+        long sub = index - shift * SUB_BUCKET_HALF_COUNT;
+        return sub << shift;
+    }
+
+    /**
+     * An immutable copy of the histogram at a point in time.
+     */
+    public static final class Snapshot {
+
+        private final long[] counts;
+        private final long count;
+        private final long total;
+
+        private Snapshot(long[] counts, long total) {
+            this.counts = counts;
+            this.total = total;
+            long sum = 0;
+            for (long c : counts) {
+                sum += c;
+            }
+            this.count = sum;
+        }
+
+        public long getCount() {
+            return count;
+        }
+
+        public long getMin() {
+            for (int i = 0; i < counts.length; i++) {
+                if (counts[i] > 0) {
+                    return lowestEquivalentValue(i);
+                }
+            }
+            return 0;
+        }
+
+        public long getMax() {
+            for (int i = counts.length - 1; i >= 0; i--) {
+                if (counts[i] > 0) {
+                    return highestEquivalentValue(i);
+                }
+            }
+            return 0;
+        }
+
+        public long getMean() {
+            return count > 0 ? total / count : 0;
+        }
+
+        public long getValueAtPercentile(double percentile) {
+            if (count == 0) {
+                return 0;
+            }
+            long target = targetCount(percentile, count);
+            long seen = 0;
+            for (int i = 0; i < counts.length; i++) {
+                seen += counts[i];
+                if (seen >= target) {
+                    return highestEquivalentValue(i);
+                }
+            }
+            return getMax();
+        }
+    }
+
+}
@@ -18,6 +18,7 @@ package org.apache.camel.management;
 
 import javax.management.MBeanServer;
 import javax.management.ObjectName;
+import javax.management.openmbean.CompositeData;
 import javax.management.openmbean.TabularData;
 
 import org.apache.camel.ServiceStatus;
@@ -61,6 +62,40 @@ public class ManagedChoiceTest extends ManagementTestSupport {
         TabularData data = (TabularData) mbeanServer.invoke(on, "choiceStatistics", null, null);
         assertNotNull(data);
         assertEquals(2, data.size());
+
+        Integer indexed = (Integer) mbeanServer.getAttribute(on, "IndexedWhenClauses");
+        assertEquals(0, indexed.intValue());
+    }
+
+    @Test
+    public void testManageIndexedChoice() throws Exception {
+        // JMX tests dont work well on AIX CI servers (hangs them)
+        if (isPlatform("aix")) {
+            return;
+        }
+
+        getMockEndpoint("mock:gold").expectedMessageCount(1);
+
+        template.sendBodyAndHeader("direct:indexed", "Hello World", "level", "gold");
+
+        assertMockEndpointsSatisfied();
+
+        MBeanServer mbeanServer = getMBeanServer();
+        ObjectName on = ObjectName.getInstance("org.apache.camel:context=camel-1,type=processors,name=\"myindexed\"");
+
+        Integer indexed = (Integer) mbeanServer.getAttribute(on, "IndexedWhenClauses");
+        assertEquals(3, indexed.intValue());
+
+        TabularData data = (TabularData) mbeanServer.invoke(on, "choiceStatistics", null, null);
+        assertEquals(5, data.size());
+        int count = 0;
+        for (Object row : data.values()) {
+            CompositeData composite = (CompositeData) row;
+            if ((Boolean) composite.get("indexed")) {
+                count++;
+            }
+        }
+        assertEquals(3, count);
     }
 
     @Override
@@ -74,6 +109,19 @@ public class ManagedChoiceTest extends ManagementTestSupport {
                             .to("mock:foo")
                         .otherwise()
                             .to("mock:bar");
+
+                from("direct:indexed")
+                    .choice().id("myindexed")
+                        .when(header("level").isEqualTo("gold"))
+                            .to("mock:gold")
+                        .when(header("level").isEqualTo("silver"))
+                            .to("mock:silver")
+                        .when(header("level").isEqualTo("bronze"))
+                            .to("mock:bronze")
+                        .when(header("vip"))
+                            .to("mock:vip")
+                        .otherwise()
+                            .to("mock:other");
             }
         };
     }
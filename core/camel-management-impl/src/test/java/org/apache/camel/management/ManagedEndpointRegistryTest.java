@@ -78,6 +78,20 @@ public class ManagedEndpointRegistryTest extends ManagementTestSupport {
         TabularData data = (TabularData) mbeanServer.invoke(on, "listEndpoints", null, null);
         assertEquals(3, data.size());
 
+        // the route and the template looks up direct:start
+        Long hits = (Long) mbeanServer.getAttribute(on, "UriCacheHits");
+        assertTrue("Hits was " + hits, hits > 0);
+        Long misses = (Long) mbeanServer.getAttribute(on, "UriCacheMisses");
+        assertTrue("Misses was " + misses, misses >= 2);
+        Double ratio = (Double) mbeanServer.getAttribute(on, "UriCacheHitRatio");
+        assertTrue("Ratio was " + ratio, ratio > 0 && ratio < 100);
+        current = (Integer) mbeanServer.getAttribute(on, "UriCacheSize");
+        assertTrue("Size was " + current, current >= 3);
+
+        mbeanServer.invoke(on, "resetUriCacheStatistics", null, null);
+        hits = (Long) mbeanServer.getAttribute(on, "UriCacheHits");
+        assertEquals(0, hits.longValue());
+
         // purge
         mbeanServer.invoke(on, "purge", null, null);
 
@@ -0,0 +1,108 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.apache.camel.management;
+
+import java.util.Set;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import javax.management.MBeanServer;
+import javax.management.ObjectName;
+
+import org.apache.camel.Exchange;
+import org.apache.camel.builder.RouteBuilder;
+import org.junit.Test;
+
+public class ManagedErrorHandlerPendingRedeliveriesTest extends ManagementTestSupport {
+
+    private final CountDownLatch failed = new CountDownLatch(2);
+
+    @Test
+    public void testPendingRedeliveries() throws Exception {
+        // JMX tests dont work well on AIX CI servers (hangs them)
+        if (isPlatform("aix")) {
+            return;
+        }
+
+        MBeanServer mbeanServer = getMBeanServer();
+        Set<ObjectName> set = mbeanServer.queryNames(new ObjectName("*:type=errorhandlers,*"), null);
+        assertEquals(1, set.size());
+        ObjectName on = set.iterator().next();
+
+        assertEquals(2, mbeanServer.getAttribute(on, "MaximumPendingRedeliveries"));
+
+        getMockEndpoint("mock:result").expectedMessageCount(5);
+
+        // the first two exchanges are scheduled for redelivery in the timer
+        template.sendBody("seda:start", "A");
+        template.sendBody("seda:start", "B");
+        assertTrue(failed.await(5, TimeUnit.SECONDS));
+
+        // wait for the failed exchanges to be scheduled
+        Integer scheduled = 0;
+        for (int i = 0; i < 100 && scheduled < 2; i++) {
+            Thread.sleep(10);
+            scheduled = (Integer) mbeanServer.getAttribute(on, "ScheduledRedeliveryCount");
+        }
+        assertEquals(2, scheduled.intValue());
+        Integer pending = (Integer) mbeanServer.getAttribute(on, "PendingRedeliveryCount");
+        assertTrue("Pending was " + pending, pending >= 2);
+        Thread.sleep(50);
+        Long age = (Long) mbeanServer.getAttribute(on, "OldestScheduledRedeliveryAge");
+        assertTrue("Age was " + age, age >= 50);
+
+        // and as the maximum is reached the next exchanges are redelivered synchronously
+        template.sendBody("seda:start", "C");
+        template.sendBody("seda:start", "D");
+        template.sendBody("seda:start", "E");
+
+        assertMockEndpointsSatisfied();
+
+        Long backpressure = (Long) mbeanServer.getAttribute(on, "RedeliveryBackpressureCount");
+        assertEquals(3, backpressure.longValue());
+        scheduled = (Integer) mbeanServer.getAttribute(on, "ScheduledRedeliveryCount");
+        assertEquals(0, scheduled.intValue());
+        age = (Long) mbeanServer.getAttribute(on, "OldestScheduledRedeliveryAge");
+        assertEquals(0, age.longValue());
+    }
+
+    @Override
+    protected RouteBuilder createRouteBuilder() throws Exception {
+        return new RouteBuilder() {
+            @Override
+            public void configure() throws Exception {
+                errorHandler(defaultErrorHandler()
+                    .maximumRedeliveries(1).redeliveryDelay(1000)
+                    .asyncDelayedRedelivery().maximumPendingRedeliveries(2));
+
+                from("seda:start?concurrentConsumers=5")
+                    .process(e -> {
+                        // fail the first attempt
+                        if (!e.getIn().getHeader(Exchange.REDELIVERED, false, Boolean.class)) {
+                            String body = e.getIn().getBody(String.class);
+                            if ("A".equals(body) || "B".equals(body)) {
+                                failed.countDown();
+                            }
+                            throw new IllegalArgumentException("Forced");
+                        }
+                    })
+                    .to("mock:result");
+            }
+        };
+    }
+
+}
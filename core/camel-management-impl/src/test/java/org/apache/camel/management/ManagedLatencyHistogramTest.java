@@ -0,0 +1,111 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.apache.camel.management;
+
+import java.util.Set;
+
+import javax.management.Attribute;
+import javax.management.MBeanServer;
+import javax.management.ObjectName;
+
+import org.apache.camel.CamelContext;
+import org.apache.camel.builder.RouteBuilder;
+import org.apache.camel.component.mock.MockEndpoint;
+import org.junit.Test;
+
+public class ManagedLatencyHistogramTest extends ManagementTestSupport {
+
+    @Override
+    protected CamelContext createCamelContext() throws Exception {
+        CamelContext context = super.createCamelContext();
+        context.init();
+        context.getManagementStrategy().getManagementAgent().setLatencyHistogramEnabled(true);
+        return context;
+    }
+
+    @Test
+    public void testLatencyHistogram() throws Exception {
+        // JMX tests dont work well on AIX CI servers (hangs them)
+        if (isPlatform("aix")) {
+            return;
+        }
+
+        MockEndpoint result = getMockEndpoint("mock:result");
+        result.expectedMessageCount(100);
+
+        // 95 fast and 5 slow messages
+        for (int i = 0; i < 100; i++) {
+            template.sendBodyAndHeader("direct:start", "Hello " + i, "delay", i % 20 == 0 ? 50 : 0);
+        }
+
+        assertMockEndpointsSatisfied();
+
+        MBeanServer mbeanServer = getMBeanServer();
+        Set<ObjectName> set = mbeanServer.queryNames(new ObjectName("*:type=routes,*"), null);
+        assertEquals(1, set.size());
+        ObjectName route = set.iterator().next();
+        ObjectName processor = ObjectName.getInstance("org.apache.camel:context=camel-1,type=processors,name=\"delay\"");
+
+        for (ObjectName on : new ObjectName[]{route, processor}) {
+            assertEquals(Boolean.TRUE, mbeanServer.getAttribute(on, "LatencyHistogramEnabled"));
+
+            Long p50 = (Long) mbeanServer.getAttribute(on, "P50ProcessingTime");
+            Long p99 = (Long) mbeanServer.getAttribute(on, "P99ProcessingTime");
+            Long p999 = (Long) mbeanServer.getAttribute(on, "P999ProcessingTime");
+            assertTrue("p50 was " + p50, p50 < 50);
+            assertTrue("p99 was " + p99, p99 >= 50);
+            assertTrue("p999 was " + p999, p999 >= p99);
+
+            Long p95 = (Long) mbeanServer.invoke(on, "processingTimePercentile", new Object[]{95d}, new String[]{"double"});
+            assertTrue("p95 was " + p95, p95 < 50);
+        }
+
+        // take an interval snapshot and reset the histogram
+        String xml = (String) mbeanServer.invoke(processor, "dumpLatencyHistogramAsXml", new Object[]{true}, new String[]{"boolean"});
+        assertTrue(xml, xml.startsWith("<latencyHistogram count=\"100\""));
+
+        Long p99 = (Long) mbeanServer.getAttribute(processor, "P99ProcessingTime");
+        assertEquals(0, p99.longValue());
+        xml = (String) mbeanServer.invoke(processor, "dumpLatencyHistogramAsXml", new Object[]{false}, new String[]{"boolean"});
+        assertTrue(xml, xml.startsWith("<latencyHistogram count=\"0\""));
+
+        // the route histogram is not affected by the processor snapshot
+        p99 = (Long) mbeanServer.getAttribute(route, "P99ProcessingTime");
+        assertTrue("p99 was " + p99, p99 >= 50);
+
+        // and can be turned off at runtime
+        mbeanServer.setAttribute(route, new Attribute("LatencyHistogramEnabled", false));
+        assertEquals(Boolean.FALSE, mbeanServer.getAttribute(route, "LatencyHistogramEnabled"));
+        p99 = (Long) mbeanServer.getAttribute(route, "P99ProcessingTime");
+        assertEquals(0, p99.longValue());
+        xml = (String) mbeanServer.invoke(route, "dumpLatencyHistogramAsXml", new Object[]{false}, new String[]{"boolean"});
+        assertEquals("<latencyHistogram enabled=\"false\"/>", xml);
+    }
+
+    @Override
+    protected RouteBuilder createRouteBuilder() throws Exception {
+        return new RouteBuilder() {
+            @Override
+            public void configure() throws Exception {
+                from("direct:start")
+                    .process(e -> Thread.sleep(e.getIn().getHeader("delay", Integer.class))).id("delay")
+                    .to("mock:result");
+            }
+        };
+    }
+
+}
@@ -0,0 +1,75 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.apache.camel.management;
+
+import javax.management.Attribute;
+import javax.management.MBeanServer;
+import javax.management.ObjectName;
+
+import org.apache.camel.builder.RouteBuilder;
+import org.junit.Test;
+
+public class ManagedMessageHistorySamplingTest extends ManagementTestSupport {
+
+    @Test
+    public void testSampling() throws Exception {
+        // JMX tests dont work well on AIX CI servers (hangs them)
+        if (isPlatform("aix")) {
+            return;
+        }
+
+        MBeanServer mbeanServer = getMBeanServer();
+        ObjectName on = ObjectName.getInstance("org.apache.camel:context=camel-1,type=services,name=DefaultMessageHistoryFactory");
+        assertTrue("Should be registered", mbeanServer.isRegistered(on));
+
+        mbeanServer.setAttribute(on, new Attribute("SamplingInterval", 2));
+        mbeanServer.setAttribute(on, new Attribute("SampledBufferSize", 10));
+        assertEquals(2, mbeanServer.getAttribute(on, "SamplingInterval"));
+
+        getMockEndpoint("mock:result").expectedMessageCount(4);
+        for (int i = 0; i < 4; i++) {
+            template.sendBody("direct:start", "Hello " + i);
+        }
+        assertMockEndpointsSatisfied();
+
+        Long sampled = (Long) mbeanServer.getAttribute(on, "SampledCounter");
+        assertEquals(2, sampled.longValue());
+
+        String xml = (String) mbeanServer.invoke(on, "dumpSampledMessageHistoriesAsXml", null, null);
+        assertEquals(2, xml.split("<sampledMessageHistory ").length - 1);
+        assertTrue(xml, xml.contains("<node routeId=\"route1\" id=\"foo\""));
+
+        mbeanServer.invoke(on, "clearSampledMessageHistories", null, null);
+        xml = (String) mbeanServer.invoke(on, "dumpSampledMessageHistoriesAsXml", null, null);
+        assertFalse(xml, xml.contains("<sampledMessageHistory "));
+    }
+
+    @Override
+    protected RouteBuilder createRouteBuilder() throws Exception {
+        return new RouteBuilder() {
+            @Override
+            public void configure() throws Exception {
+                context.setMessageHistory(true);
+
+                from("direct:start")
+                    .to("log:foo").id("foo")
+                    .to("mock:result");
+            }
+        };
+    }
+
+}
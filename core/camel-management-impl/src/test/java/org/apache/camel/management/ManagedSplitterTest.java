@@ -62,6 +62,15 @@ public class ManagedSplitterTest extends ManagementTestSupport {
         String exp = (String) mbeanServer.getAttribute(on, "Expression");
         assertEquals("${body}", exp);
 
+        Long completed = (Long) mbeanServer.getAttribute(on, "SubExchangesCompleted");
+        assertEquals(2, completed.longValue());
+
+        Integer inflight = (Integer) mbeanServer.getAttribute(on, "SubExchangesInflight");
+        assertEquals(0, inflight.intValue());
+
+        Integer max = (Integer) mbeanServer.getAttribute(on, "MaxInFlight");
+        assertEquals(0, max.intValue());
+
         String xml = (String) mbeanServer.invoke(on, "dumpProcessorAsXml", null, null);
         assertTrue(xml.contains("<split"));
         assertTrue(xml.contains("</split>"));
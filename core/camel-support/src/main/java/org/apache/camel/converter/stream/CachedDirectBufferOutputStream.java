@@ -0,0 +1,103 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.apache.camel.converter.stream;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.ByteBuffer;
+import java.util.ArrayList;
+import java.util.List;
+
+import org.apache.camel.converter.stream.FileInputStreamCache.TempFileManager;
+import org.apache.camel.spi.StreamCachingStrategy;
+
+/**
+ * An {@link OutputStream} which keeps the data in pooled direct {@link ByteBuffer}s, and is capable of returning a
+ * {@link DirectBufferInputStreamCache} view of the buffers.
+ * <p/>
+ * The buffers are acquired from the {@link StreamCachingStrategy}, and are owned by the {@link TempFileManager}
+ * which returns them to the strategy when the exchanges using the stream cache are done.
+ */
+final class CachedDirectBufferOutputStream extends OutputStream {
+
+    private final TempFileManager tempFileManager;
+    private final StreamCachingStrategy strategy;
+    private final List<ByteBuffer> buffers = new ArrayList<>();
+    private ByteBuffer current;
+    private long count;
+
+    CachedDirectBufferOutputStream(TempFileManager tempFileManager, StreamCachingStrategy strategy) {
+        this.tempFileManager = tempFileManager;
+        this.strategy = strategy;
+    }
+
+    @Override
+    public void write(int b) throws IOException {
+        ensureCapacity().put((byte) b);
+        count++;
+    }
+
+    @Override
+    public void write(byte[] b, int off, int len) throws IOException {
+        while (len > 0) {
+            ByteBuffer buffer = ensureCapacity();
+            int chunk = Math.min(len, buffer.remaining());
+            buffer.put(b, off, chunk);
+            off += chunk;
+            len -= chunk;
+            count += chunk;
+        }
+    }
+
+    /**
+     * Writes the buffered data to the given stream
+     */
+    void writeTo(OutputStream os) throws IOException {
+        DirectBufferInputStreamCache.writeTo(views(), os);
+    }
+
+    long size() {
+        return count;
+    }
+
+    /**
+     * Creates a new {@link DirectBufferInputStreamCache} view of the buffers
+     */
+    DirectBufferInputStreamCache newInputStreamCache() {
+        return new DirectBufferInputStreamCache(tempFileManager, views(), count);
+    }
+
+    private ByteBuffer[] views() {
+        ByteBuffer[] answer = new ByteBuffer[buffers.size()];
+        for (int i = 0; i < answer.length; i++) {
+            ByteBuffer view = buffers.get(i).duplicate();
+            view.flip();
+            answer[i] = view.asReadOnlyBuffer();
+        }
+        return answer;
+    }
+
+    private ByteBuffer ensureCapacity() {
+        if (current == null || !current.hasRemaining()) {
+            current = strategy.acquireDirectBuffer();
+            buffers.add(current);
+            tempFileManager.addDirectBuffer(strategy, current);
+        }
+        return current;
+    }
+
+}
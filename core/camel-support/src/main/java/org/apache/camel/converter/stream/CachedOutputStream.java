@@ -56,7 +56,11 @@ public class CachedOutputStream extends OutputStream {
         tempFileManager = new TempFileManager(closedOnCompletion);
         tempFileManager.addExchange(exchange);
         this.strategy = exchange.getContext().getStreamCachingStrategy();
-        currentStream = new CachedByteArrayOutputStream(strategy.getBufferSize());
+        if (strategy.isOffHeap()) {
+            currentStream = new CachedDirectBufferOutputStream(tempFileManager, strategy);
+        } else {
+            currentStream = new CachedByteArrayOutputStream(strategy.getBufferSize());
+        }
     }
 
     public void flush() throws IOException {
@@ -69,6 +73,7 @@ public class CachedOutputStream extends OutputStream {
         if (!closedOnCompletion) {
             tempFileManager.closeFileInputStreams();
             tempFileManager.cleanUpTempFile();
+            tempFileManager.releaseDirectBuffers();
         }
     }
 
@@ -90,7 +95,7 @@ public class CachedOutputStream extends OutputStream {
 
     public void write(byte[] b, int off, int len) throws IOException {
         this.totalLength += len;
-        if (inMemory && currentStream instanceof ByteArrayOutputStream && strategy.shouldSpoolCache(totalLength)) {
+        if (inMemory && strategy.shouldSpoolCache(totalLength)) {
             pageToFileStream();
         }
         currentStream.write(b, off, len);
@@ -98,7 +103,7 @@ public class CachedOutputStream extends OutputStream {
 
     public void write(byte[] b) throws IOException {
         this.totalLength += b.length;
-        if (inMemory && currentStream instanceof ByteArrayOutputStream && strategy.shouldSpoolCache(totalLength)) {
+        if (inMemory && strategy.shouldSpoolCache(totalLength)) {
             pageToFileStream();
         }
         currentStream.write(b);
@@ -106,7 +111,7 @@ public class CachedOutputStream extends OutputStream {
 
     public void write(int b) throws IOException {
         this.totalLength++;
-        if (inMemory && currentStream instanceof ByteArrayOutputStream && strategy.shouldSpoolCache(totalLength)) {
+        if (inMemory && strategy.shouldSpoolCache(totalLength)) {
             pageToFileStream();
         }
         currentStream.write(b);
@@ -130,6 +135,8 @@ public class CachedOutputStream extends OutputStream {
         if (inMemory) {
             if (currentStream instanceof CachedByteArrayOutputStream) {
                 return ((CachedByteArrayOutputStream) currentStream).newInputStreamCache();
+            } else if (currentStream instanceof CachedDirectBufferOutputStream) {
+                return ((CachedDirectBufferOutputStream) currentStream).newInputStreamCache();
             } else {
                 throw new IllegalStateException("CurrentStream should be an instance of CachedByteArrayOutputStream but is: " + currentStream.getClass().getName());
             }
@@ -141,11 +148,15 @@ public class CachedOutputStream extends OutputStream {
 
     private void pageToFileStream() throws IOException {
         flush();
-        ByteArrayOutputStream bout = (ByteArrayOutputStream)currentStream;
+        OutputStream bout = currentStream;
         try {
             // creates an tmp file and a file output stream
             currentStream = tempFileManager.createOutputStream(strategy);
-            bout.writeTo(currentStream);
+            if (bout instanceof CachedDirectBufferOutputStream) {
+                ((CachedDirectBufferOutputStream) bout).writeTo(currentStream);
+            } else {
+                ((ByteArrayOutputStream) bout).writeTo(currentStream);
+            }
         } finally {
             // ensure flag is flipped to file based
             inMemory = false;
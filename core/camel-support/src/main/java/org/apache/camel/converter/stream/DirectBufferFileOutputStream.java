@@ -0,0 +1,121 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.apache.camel.converter.stream;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.channels.WritableByteChannel;
+
+import org.apache.camel.spi.StreamCachingStrategy;
+
+/**
+ * An {@link OutputStream} which writes to a {@link FileChannel} through a direct {@link ByteBuffer} acquired from
+ * the {@link StreamCachingStrategy}, so the data is not copied to a temporary direct buffer by the channel.
+ * <p/>
+ * The stream is also a {@link WritableByteChannel}, which allows writing buffers directly to the file.
+ * The buffer is returned to the strategy when the stream is closed.
+ */
+final class DirectBufferFileOutputStream extends OutputStream implements WritableByteChannel {
+
+    private final FileChannel channel;
+    private final StreamCachingStrategy strategy;
+    private ByteBuffer buffer;
+
+    DirectBufferFileOutputStream(FileChannel channel, StreamCachingStrategy strategy) {
+        this.channel = channel;
+        this.strategy = strategy;
+        this.buffer = strategy.acquireDirectBuffer();
+    }
+
+    @Override
+    public void write(int b) throws IOException {
+        checkOpen();
+        if (!buffer.hasRemaining()) {
+            flushBuffer();
+        }
+        buffer.put((byte) b);
+    }
+
+    @Override
+    public void write(byte[] b, int off, int len) throws IOException {
+        checkOpen();
+        while (len > 0) {
+            if (!buffer.hasRemaining()) {
+                flushBuffer();
+            }
+            int chunk = Math.min(len, buffer.remaining());
+            buffer.put(b, off, chunk);
+            off += chunk;
+            len -= chunk;
+        }
+    }
+
+    @Override
+    public int write(ByteBuffer src) throws IOException {
+        checkOpen();
+        // keep the order of any buffered data
+        flushBuffer();
+        int answer = src.remaining();
+        while (src.hasRemaining()) {
+            channel.write(src);
+        }
+        return answer;
+    }
+
+    @Override
+    public void flush() throws IOException {
+        if (buffer != null) {
+            flushBuffer();
+        }
+    }
+
+    @Override
+    public boolean isOpen() {
+        return buffer != null;
+    }
+
+    @Override
+    public void close() throws IOException {
+        if (buffer == null) {
+            return;
+        }
+        try {
+            flushBuffer();
+        } finally {
+            strategy.releaseDirectBuffer(buffer);
+            buffer = null;
+            channel.close();
+        }
+    }
+
+    private void flushBuffer() throws IOException {
+        buffer.flip();
+        while (buffer.hasRemaining()) {
+            channel.write(buffer);
+        }
+        buffer.clear();
+    }
+
+    private void checkOpen() throws IOException {
+        if (buffer == null) {
+            throw new IOException("Stream is closed");
+        }
+    }
+
+}
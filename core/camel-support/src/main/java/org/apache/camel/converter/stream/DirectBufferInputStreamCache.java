@@ -0,0 +1,196 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.apache.camel.converter.stream;
+
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.ByteBuffer;
+import java.nio.channels.Channels;
+import java.nio.channels.WritableByteChannel;
+
+import org.apache.camel.Exchange;
+import org.apache.camel.StreamCache;
+import org.apache.camel.converter.stream.FileInputStreamCache.TempFileManager;
+
+/**
+ * A {@link StreamCache} for data held in direct {@link ByteBuffer}s off the heap.
+ * <p/>
+ * The buffers are shared with the copies of this stream cache, and are returned to the pool
+ * when the exchanges using the stream cache are done, after which the stream cache can no longer be read.
+ */
+public final class DirectBufferInputStreamCache extends InputStream implements StreamCache {
+
+    private final TempFileManager tempFileManager;
+    private final ByteBuffer[] buffers;
+    private final long length;
+    private int index;
+    private int markIndex;
+    private int markPosition;
+
+    DirectBufferInputStreamCache(TempFileManager tempFileManager, ByteBuffer[] buffers, long length) {
+        this.tempFileManager = tempFileManager;
+        this.buffers = buffers;
+        this.length = length;
+    }
+
+    @Override
+    public int read() throws IOException {
+        ByteBuffer buffer = current();
+        if (buffer == null) {
+            return -1;
+        }
+        return buffer.get() & 0xff;
+    }
+
+    @Override
+    public int read(byte[] b, int off, int len) throws IOException {
+        if (len == 0) {
+            return 0;
+        }
+        ByteBuffer buffer = current();
+        if (buffer == null) {
+            return -1;
+        }
+        int total = 0;
+        while (buffer != null && len > 0) {
+            int chunk = Math.min(len, buffer.remaining());
+            buffer.get(b, off, chunk);
+            off += chunk;
+            len -= chunk;
+            total += chunk;
+            buffer = current();
+        }
+        return total;
+    }
+
+    @Override
+    public long skip(long n) throws IOException {
+        long skipped = 0;
+        ByteBuffer buffer = current();
+        while (buffer != null && skipped < n) {
+            int chunk = (int) Math.min(n - skipped, buffer.remaining());
+            buffer.position(buffer.position() + chunk);
+            skipped += chunk;
+            buffer = current();
+        }
+        return skipped;
+    }
+
+    @Override
+    public int available() throws IOException {
+        checkNotReleased();
+        long answer = 0;
+        for (int i = index; i < buffers.length; i++) {
+            answer += buffers[i].remaining();
+        }
+        return (int) Math.min(answer, Integer.MAX_VALUE);
+    }
+
+    @Override
+    public boolean markSupported() {
+        return true;
+    }
+
+    @Override
+    public synchronized void mark(int readlimit) {
+        markIndex = index;
+        markPosition = index < buffers.length ? buffers[index].position() : 0;
+    }
+
+    @Override
+    public synchronized void reset() {
+        for (int i = markIndex + 1; i < buffers.length; i++) {
+            buffers[i].rewind();
+        }
+        index = markIndex;
+        if (index < buffers.length) {
+            buffers[index].position(markPosition);
+        }
+    }
+
+    @Override
+    public void close() {
+        // noop as the buffers are released when the exchange is done
+    }
+
+    public void writeTo(OutputStream os) throws IOException {
+        checkNotReleased();
+        // write from the current position as the other stream caches
+        ByteBuffer[] views = new ByteBuffer[buffers.length];
+        for (int i = 0; i < views.length; i++) {
+            views[i] = buffers[i].duplicate();
+        }
+        writeTo(views, os);
+    }
+
+    public StreamCache copy(Exchange exchange) throws IOException {
+        tempFileManager.addExchange(exchange);
+        ByteBuffer[] views = new ByteBuffer[buffers.length];
+        for (int i = 0; i < views.length; i++) {
+            views[i] = buffers[i].duplicate();
+            views[i].rewind();
+        }
+        return new DirectBufferInputStreamCache(tempFileManager, views, length);
+    }
+
+    public boolean inMemory() {
+        return true;
+    }
+
+    public long length() {
+        return length;
+    }
+
+    static void writeTo(ByteBuffer[] views, OutputStream os) throws IOException {
+        // write to files directly from the off-heap buffers without copying to the heap
+        WritableByteChannel channel;
+        if (os instanceof WritableByteChannel) {
+            channel = (WritableByteChannel) os;
+        } else if (os instanceof FileOutputStream) {
+            channel = ((FileOutputStream) os).getChannel();
+        } else {
+            channel = Channels.newChannel(os);
+        }
+        for (ByteBuffer view : views) {
+            while (view.hasRemaining()) {
+                channel.write(view);
+            }
+        }
+        os.flush();
+    }
+
+    private ByteBuffer current() throws IOException {
+        checkNotReleased();
+        while (index < buffers.length) {
+            ByteBuffer buffer = buffers[index];
+            if (buffer.hasRemaining()) {
+                return buffer;
+            }
+            index++;
+        }
+        return null;
+    }
+
+    private void checkNotReleased() throws IOException {
+        if (tempFileManager.isReleased()) {
+            throw new IOException("Cannot read stream cache as its buffers has been released when the exchange was done");
+        }
+    }
+
+}
@@ -20,9 +20,14 @@ import java.io.BufferedInputStream;
 import java.io.BufferedOutputStream;
 import java.io.File;
 import java.io.FileNotFoundException;
+import java.io.FileOutputStream;
 import java.io.IOException;
 import java.io.InputStream;
 import java.io.OutputStream;
+import java.nio.ByteBuffer;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.channels.WritableByteChannel;
 import java.nio.file.Files;
 import java.nio.file.StandardOpenOption;
 import java.security.GeneralSecurityException;
@@ -91,7 +96,11 @@ public final class FileInputStreamCache extends InputStream implements StreamCac
 
     public void writeTo(OutputStream os) throws IOException {
         if (stream == null && ciphers == null) {
-            Files.copy(file.toPath(), os);
+            if (tempFileManager.isOffHeap()) {
+                transferFileTo(os);
+            } else {
+                Files.copy(file.toPath(), os);
+            }
         } else {
             IOHelper.copy(getInputStream(), os);
         }
@@ -128,8 +137,26 @@ public final class FileInputStreamCache extends InputStream implements StreamCac
         return stream;
     }
 
+    private void transferFileTo(OutputStream os) throws IOException {
+        // zero copy transfer from the spool file when writing to files
+        WritableByteChannel out = os instanceof FileOutputStream ? ((FileOutputStream) os).getChannel() : Channels.newChannel(os);
+        try (FileChannel in = FileChannel.open(file.toPath(), StandardOpenOption.READ)) {
+            long position = 0;
+            long size = in.size();
+            while (position < size) {
+                position += in.transferTo(position, size - position, out);
+            }
+        }
+        os.flush();
+    }
+
     private InputStream createInputStream(File file) throws IOException {
-        InputStream in = new BufferedInputStream(Files.newInputStream(file.toPath(), StandardOpenOption.READ));
+        InputStream in;
+        if (tempFileManager.isOffHeap()) {
+            in = new MappedFileInputStream(file);
+        } else {
+            in = new BufferedInputStream(Files.newInputStream(file.toPath(), StandardOpenOption.READ));
+        }
         if (ciphers != null) {
             in = new CipherInputStream(in, ciphers.getDecryptor()) {
                 boolean closed;
@@ -162,6 +189,10 @@ public final class FileInputStreamCache extends InputStream implements StreamCac
         private File tempFile;
         private OutputStream outputStream; // file output stream
         private CipherPair ciphers;
+        private boolean offHeap;
+        private StreamCachingStrategy directBufferOwner;
+        private List<ByteBuffer> directBuffers;
+        private volatile boolean released;
         
         // there can be several input streams, for example in the multi-cast, or wiretap parallel processing
         private List<FileInputStreamCache> fileInputStreamCaches;
@@ -202,6 +233,7 @@ public final class FileInputStreamCache extends InputStream implements StreamCac
                                 if (outputStream != null) {
                                     outputStream.close();
                                 }
+                                releaseDirectBuffers();
                                 try {
                                     cleanUpTempFile();
                                 } catch (Exception e) {
@@ -238,9 +270,17 @@ public final class FileInputStreamCache extends InputStream implements StreamCac
                 throw new IllegalStateException("The method 'createOutputStream' can only be called once!");
             }
             tempFile = FileUtil.createTempFile("cos", ".tmp", strategy.getSpoolDirectory());
+            offHeap = strategy.isOffHeap();
 
             LOG.trace("Creating temporary stream cache file: {}", tempFile);
-            OutputStream out = new BufferedOutputStream(Files.newOutputStream(tempFile.toPath(), StandardOpenOption.CREATE, StandardOpenOption.WRITE));
+            OutputStream out;
+            if (offHeap) {
+                // write through a pooled direct buffer so the data is not copied to a temporary direct buffer
+                FileChannel channel = FileChannel.open(tempFile.toPath(), StandardOpenOption.CREATE, StandardOpenOption.WRITE);
+                out = new DirectBufferFileOutputStream(channel, strategy);
+            } else {
+                out = new BufferedOutputStream(Files.newOutputStream(tempFile.toPath(), StandardOpenOption.CREATE, StandardOpenOption.WRITE));
+            }
             if (ObjectHelper.isNotEmpty(strategy.getSpoolCipher())) {
                 try {
                     if (ciphers == null) {
@@ -292,6 +332,36 @@ public final class FileInputStreamCache extends InputStream implements StreamCac
             }
         }
         
+        /**
+         * Adds a direct buffer, which is returned to the strategy when the exchanges are done.
+         */
+        synchronized void addDirectBuffer(StreamCachingStrategy strategy, ByteBuffer buffer) {
+            if (directBuffers == null) {
+                directBuffers = new ArrayList<>();
+            }
+            directBufferOwner = strategy;
+            directBuffers.add(buffer);
+        }
+
+        synchronized void releaseDirectBuffers() {
+            if (directBuffers != null) {
+                // flip the flag first so the stream caches fail instead of reading recycled buffers
+                released = true;
+                for (ByteBuffer buffer : directBuffers) {
+                    directBufferOwner.releaseDirectBuffer(buffer);
+                }
+                directBuffers = null;
+            }
+        }
+
+        boolean isReleased() {
+            return released;
+        }
+
+        boolean isOffHeap() {
+            return offHeap;
+        }
+
         File getTempFile() {
             return tempFile;
         }
@@ -0,0 +1,113 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.apache.camel.converter.stream;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.StandardOpenOption;
+
+/**
+ * An {@link InputStream} which reads a file through memory mapped segments, so the data is not copied through
+ * intermediate heap buffers. Only one segment is mapped at any time, which allows reading very large files.
+ */
+final class MappedFileInputStream extends InputStream {
+
+    static final int SEGMENT_SIZE = 64 * 1024 * 1024;
+
+    private final FileChannel channel;
+    private final long length;
+    private final int segmentSize;
+    private MappedByteBuffer segment;
+    private long segmentOffset;
+
+    MappedFileInputStream(File file) throws IOException {
+        this(file, SEGMENT_SIZE);
+    }
+
+    MappedFileInputStream(File file, int segmentSize) throws IOException {
+        this.channel = FileChannel.open(file.toPath(), StandardOpenOption.READ);
+        this.length = channel.size();
+        this.segmentSize = segmentSize;
+    }
+
+    @Override
+    public int read() throws IOException {
+        if (!nextSegment()) {
+            return -1;
+        }
+        return segment.get() & 0xff;
+    }
+
+    @Override
+    public int read(byte[] b, int off, int len) throws IOException {
+        if (len == 0) {
+            return 0;
+        }
+        if (!nextSegment()) {
+            return -1;
+        }
+        int chunk = Math.min(len, segment.remaining());
+        segment.get(b, off, chunk);
+        return chunk;
+    }
+
+    @Override
+    public long skip(long n) throws IOException {
+        if (n <= 0) {
+            return 0;
+        }
+        long position = position();
+        long skipped = Math.min(n, length - position);
+        // map the segment lazily at the new position on next read
+        segment = null;
+        segmentOffset = position + skipped;
+        return skipped;
+    }
+
+    @Override
+    public int available() throws IOException {
+        return (int) Math.min(length - position(), Integer.MAX_VALUE);
+    }
+
+    @Override
+    public void close() throws IOException {
+        segment = null;
+        channel.close();
+    }
+
+    private long position() {
+        return segment != null ? segmentOffset + segment.position() : segmentOffset;
+    }
+
+    private boolean nextSegment() throws IOException {
+        if (segment != null && segment.hasRemaining()) {
+            return true;
+        }
+        long offset = position();
+        if (offset >= length) {
+            return false;
+        }
+        // the previous segment is unmapped by the garbage collector when no longer referenced
+        segment = channel.map(FileChannel.MapMode.READ_ONLY, offset, Math.min(segmentSize, length - offset));
+        segmentOffset = offset;
+        return true;
+    }
+
+}
@@ -0,0 +1,50 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.apache.camel.support;
+
+import org.apache.camel.Exchange;
+
+/**
+ * An {@link org.apache.camel.Expression} which returns a constant value.
+ * <p/>
+ * The value can be accessed without an {@link Exchange} which allows optimizations
+ * such as the content based router which can index equality tests against constant values.
+ */
+public class ConstantExpressionAdapter extends ExpressionAdapter {
+
+    private final Object value;
+
+    public ConstantExpressionAdapter(Object value) {
+        this.value = value;
+    }
+
+    public Object evaluate(Exchange exchange) {
+        return value;
+    }
+
+    /**
+     * Gets the constant value
+     */
+    public Object getValue() {
+        return value;
+    }
+
+    @Override
+    public String toString() {
+        return "" + value;
+    }
+}
@@ -34,6 +34,7 @@ import org.apache.camel.Endpoint;
 import org.apache.camel.ResolveEndpointFailedException;
 import org.apache.camel.component.extension.ComponentExtension;
 import org.apache.camel.spi.Metadata;
+import org.apache.camel.spi.PropertyConfigurer;
 import org.apache.camel.support.service.ServiceSupport;
 import org.apache.camel.util.ObjectHelper;
 import org.apache.camel.util.URISupport;
@@ -385,17 +386,31 @@ public abstract class DefaultComponent extends ServiceSupport implements Compone
      * @param parameters    properties to set
      */
     protected void setProperties(CamelContext camelContext, Object bean, Map<String, Object> parameters) throws Exception {
+        PropertyConfigurer configurer = getPropertyConfigurer(camelContext, bean.getClass());
         if (basicPropertyBinding) {
             // use basic binding
             PropertyBindingSupport.build()
                     .withPlaceholder(false).withNesting(false).withDeepNesting(false).withReference(false)
+                    .withConfigurer(configurer)
                     .bind(camelContext, bean, parameters);
         } else {
             // use advanced binding
-            PropertyBindingSupport.bindProperties(camelContext, bean, parameters);
+            PropertyBindingSupport.build().withConfigurer(configurer).bind(camelContext, bean, parameters);
         }
     }
 
+    /**
+     * Gets the generated {@link PropertyConfigurer} used for binding properties on beans of the given type
+     * without reflection.
+     *
+     * @param camelContext  the {@link CamelContext} to use
+     * @param type          the type of the bean
+     * @return the configurer, or <tt>null</tt> to only use reflection
+     */
+    protected PropertyConfigurer getPropertyConfigurer(CamelContext camelContext, Class<?> type) {
+        return PropertyConfigurerSupport.getPropertyConfigurer(camelContext, type);
+    }
+
     /**
      * Derived classes may wish to overload this to prevent the default introspection of URI parameters
      * on the created Endpoint instance
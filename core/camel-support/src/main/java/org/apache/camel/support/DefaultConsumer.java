@@ -25,6 +25,7 @@ import org.apache.camel.Processor;
 import org.apache.camel.Route;
 import org.apache.camel.RouteAware;
 import org.apache.camel.spi.ExceptionHandler;
+import org.apache.camel.spi.Synchronization;
 import org.apache.camel.spi.UnitOfWork;
 import org.apache.camel.support.service.ServiceHelper;
 import org.apache.camel.support.service.ServiceSupport;
@@ -41,6 +42,20 @@ public class DefaultConsumer extends ServiceSupport implements Consumer, RouteAw
     private volatile AsyncProcessor asyncProcessor;
     private ExceptionHandler exceptionHandler;
     private Route route;
+    private final Synchronization exceptionHandlerOnFailure = new SynchronizationAdapter() {
+        @Override
+        public void onFailure(Exchange exchange) {
+            if (exchange.getException() != null) {
+                getExceptionHandler().handleException("Error processing exchange", exchange, exchange.getException());
+            }
+        }
+
+        @Override
+        public boolean allowHandover() {
+            // the failure of this exchange only is handled by the consumer
+            return false;
+        }
+    };
 
     public DefaultConsumer(Endpoint endpoint, Processor processor) {
         this.endpoint = endpoint;
@@ -101,6 +116,41 @@ public class DefaultConsumer extends ServiceSupport implements Consumer, RouteAw
         UnitOfWorkHelper.doneUow(exchange.getUnitOfWork(), exchange);
     }
 
+    /**
+     * Creates an {@link Exchange} for a message received by this consumer.
+     * <p/>
+     * When auto release is enabled, the exchange is released back to the {@link org.apache.camel.spi.ExchangeFactory}
+     * when its {@link UnitOfWork} is done, and any exception is handled by the {@link ExceptionHandler} of this
+     * consumer while the unit of work is done. The consumer must then not use the exchange after it has been
+     * processed. Otherwise the consumer is responsible for {@link #releaseExchange(Exchange) releasing} the exchange.
+     *
+     * @param autoRelease whether to release the exchange when its unit of work is done
+     * @return the exchange
+     */
+    public Exchange createExchange(boolean autoRelease) {
+        Exchange exchange = endpoint.createExchange();
+        if (autoRelease) {
+            exchange.addOnCompletion(exceptionHandlerOnFailure);
+            if (exchange instanceof DefaultExchange) {
+                ((DefaultExchange) exchange).setAutoRelease(true);
+            }
+        }
+        return exchange;
+    }
+
+    /**
+     * Releases the {@link Exchange} back to the {@link org.apache.camel.spi.ExchangeFactory} so it can be recycled
+     * when using a pooled factory.
+     * <p/>
+     * Important: This must only be called when the consumer is done with the exchange, which is after the
+     * {@link UnitOfWork} has completed. The exchange must not be used after it has been released.
+     *
+     * @param exchange the exchange
+     */
+    public void releaseExchange(Exchange exchange) {
+        getEndpoint().getCamelContext().adapt(ExtendedCamelContext.class).getExchangeFactory().release(exchange);
+    }
+
     public Endpoint getEndpoint() {
         return endpoint;
     }
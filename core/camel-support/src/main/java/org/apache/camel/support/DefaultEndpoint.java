@@ -27,11 +27,13 @@ import org.apache.camel.Consumer;
 import org.apache.camel.Endpoint;
 import org.apache.camel.Exchange;
 import org.apache.camel.ExchangePattern;
+import org.apache.camel.ExtendedCamelContext;
 import org.apache.camel.PollingConsumer;
 import org.apache.camel.Producer;
 import org.apache.camel.ResolveEndpointFailedException;
 import org.apache.camel.spi.ExceptionHandler;
 import org.apache.camel.spi.HasId;
+import org.apache.camel.spi.PropertyConfigurer;
 import org.apache.camel.spi.UriParam;
 import org.apache.camel.support.service.ServiceSupport;
 import org.apache.camel.util.ObjectHelper;
@@ -224,6 +226,10 @@ public abstract class DefaultEndpoint extends ServiceSupport implements Endpoint
     }
 
     public Exchange createExchange(ExchangePattern pattern) {
+        CamelContext context = getCamelContext();
+        if (context != null) {
+            return context.adapt(ExtendedCamelContext.class).getExchangeFactory().create(this, pattern);
+        }
         return new DefaultExchange(this, pattern);
     }
 
@@ -399,17 +405,31 @@ public abstract class DefaultEndpoint extends ServiceSupport implements Endpoint
      * @param parameters  properties to set
      */
     protected void setProperties(Object bean, Map<String, Object> parameters) throws Exception {
+        PropertyConfigurer configurer = getPropertyConfigurer(camelContext, bean.getClass());
         if (basicPropertyBinding) {
             // use basic binding
             PropertyBindingSupport.build()
                     .withPlaceholder(false).withNesting(false).withDeepNesting(false).withReference(false)
+                    .withConfigurer(configurer)
                     .bind(camelContext, bean, parameters);
         } else {
             // use advanced binding
-            PropertyBindingSupport.bindProperties(camelContext, bean, parameters);
+            PropertyBindingSupport.build().withConfigurer(configurer).bind(camelContext, bean, parameters);
         }
     }
 
+    /**
+     * Gets the generated {@link PropertyConfigurer} used for binding properties on beans of the given type
+     * without reflection.
+     *
+     * @param camelContext  the {@link CamelContext} to use
+     * @param type          the type of the bean
+     * @return the configurer, or <tt>null</tt> to only use reflection
+     */
+    protected PropertyConfigurer getPropertyConfigurer(CamelContext camelContext, Class<?> type) {
+        return PropertyConfigurerSupport.getPropertyConfigurer(camelContext, type);
+    }
+
     /**
      * A factory method to lazily create the endpointUri if none is specified
      */
@@ -52,6 +52,8 @@ public final class DefaultExchange implements Exchange {
     private Endpoint fromEndpoint;
     private String fromRouteId;
     private List<Synchronization> onCompletions;
+    private boolean sharedProperties;
+    private boolean autoRelease;
 
     public DefaultExchange(CamelContext context) {
         this(context, ExchangePattern.InOnly);
@@ -93,6 +95,35 @@ public final class DefaultExchange implements Exchange {
         }
     }
 
+    /**
+     * Resets the exchange so it can be reused, which is used by a pooled {@link org.apache.camel.spi.ExchangeFactory}
+     * to recycle the exchange when it is no longer in use.
+     */
+    public void reset() {
+        // only reuse the IN message if its a plain message that belongs to this exchange
+        if (in != null && in.getClass() == DefaultMessage.class && in.getExchange() == this) {
+            ((DefaultMessage) in).reset();
+        } else {
+            in = null;
+        }
+        out = null;
+        // clear the properties in place, unless the map was set from outside as it may be shared with other exchanges
+        if (properties != null && !sharedProperties) {
+            properties.clear();
+        } else {
+            properties = null;
+        }
+        sharedProperties = false;
+        autoRelease = false;
+        exception = null;
+        exchangeId = null;
+        unitOfWork = null;
+        pattern = ExchangePattern.InOnly;
+        fromEndpoint = null;
+        fromRouteId = null;
+        onCompletions = null;
+    }
+
     public Exchange copy() {
         DefaultExchange exchange = new DefaultExchange(this);
 
@@ -272,6 +303,7 @@ public final class DefaultExchange implements Exchange {
 
     public void setProperties(Map<String, Object> properties) {
         this.properties = properties;
+        this.sharedProperties = properties != null;
     }
 
     public Message getIn() {
@@ -537,6 +569,18 @@ public final class DefaultExchange implements Exchange {
         return context.getUuidGenerator().generateUuid();
     }
 
+    /**
+     * Whether the exchange is released back to the {@link org.apache.camel.spi.ExchangeFactory} when its
+     * {@link UnitOfWork} is done.
+     */
+    boolean isAutoRelease() {
+        return autoRelease;
+    }
+
+    void setAutoRelease(boolean autoRelease) {
+        this.autoRelease = autoRelease;
+    }
+
     protected Map<String, Object> createProperties() {
         return new ConcurrentHashMap<>();
     }
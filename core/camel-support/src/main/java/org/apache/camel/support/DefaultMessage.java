@@ -43,6 +43,7 @@ import org.apache.camel.util.ObjectHelper;
 public class DefaultMessage extends MessageSupport {
     private boolean fault;
     private Map<String, Object> headers;
+    private boolean sharedHeaders;
     private Map<String, DataHandler> attachments;
     private Map<String, Attachment> attachmentObjects;
 
@@ -217,9 +218,11 @@ public class DefaultMessage extends MessageSupport {
 
         if (getCamelContext().getHeadersMapFactory().isInstanceOf(headers)) {
             this.headers = headers;
+            this.sharedHeaders = true;
         } else {
             // create a new map
             this.headers = getCamelContext().getHeadersMapFactory().newMap(headers);
+            this.sharedHeaders = false;
         }
     }
 
@@ -231,6 +234,21 @@ public class DefaultMessage extends MessageSupport {
         return headers != null && !headers.isEmpty();
     }
 
+    @Override
+    public void reset() {
+        super.reset();
+        fault = false;
+        // clear the headers in place, unless the map was set from outside as it may be shared with other messages
+        if (headers != null && !sharedHeaders) {
+            headers.clear();
+        } else {
+            headers = null;
+        }
+        sharedHeaders = false;
+        attachments = null;
+        attachmentObjects = null;
+    }
+
     public DefaultMessage newInstance() {
         ObjectHelper.notNull(getCamelContext(), "CamelContext", this);
 
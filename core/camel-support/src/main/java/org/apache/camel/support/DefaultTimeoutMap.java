@@ -145,6 +145,13 @@ public class DefaultTimeoutMap<K, V> extends ServiceSupport implements TimeoutMa
         return map.size();
     }
 
+    /**
+     * Whether there is an entry with the given key, without updating its expire time
+     */
+    protected boolean containsKey(K key) {
+        return map.containsKey(key);
+    }
+
     /**
      * The timer task which purges old requests and schedules another poll
      */
@@ -362,6 +362,10 @@ public final class EndpointHelper {
      * @throws URISyntaxException is thrown if uri is invalid
      */
     public static ExchangePattern resolveExchangePatternFromUrl(String url) throws URISyntaxException {
+        // this is called per message for dynamic endpoints, so avoid parsing the query when there is no pattern
+        if (!url.contains("exchangePattern")) {
+            return null;
+        }
         int idx = url.indexOf("?");
         if (idx > 0) {
             url = url.substring(idx + 1);
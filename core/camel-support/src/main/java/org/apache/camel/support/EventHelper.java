@@ -214,26 +214,22 @@ public final class EventHelper {
     }
 
     private static boolean doNotifyExchange(CamelContext context, Exchange exchange, Function<EventFactory, CamelEvent> eventSupplier, Predicate<EventNotifier> notifierFilter) {
-        if (exchange.getProperty(Exchange.NOTIFY_EVENT, false, Boolean.class)) {
-            // do not generate events for an notify event
-            return false;
-        }
-        return doNotify(context,
+        return doNotify(context, exchange,
                 eventSupplier,
                 notifierFilter.or(EventNotifier::isIgnoreExchangeEvents));
     }
 
     private static boolean doNotifyStep(CamelContext context, Exchange exchange, Function<EventFactory, CamelEvent> eventSupplier, Predicate<EventNotifier> notifierFilter) {
-        if (exchange.getProperty(Exchange.NOTIFY_EVENT, false, Boolean.class)) {
-            // do not generate events for an notify event
-            return false;
-        }
-        return doNotify(context,
+        return doNotify(context, exchange,
             eventSupplier,
             notifierFilter.or(EventNotifier::isIgnoreStepEvents));
     }
 
     private static boolean doNotify(CamelContext context, Function<EventFactory, CamelEvent> eventSupplier, Predicate<EventNotifier> notifierFilter) {
+        return doNotify(context, null, eventSupplier, notifierFilter);
+    }
+
+    private static boolean doNotify(CamelContext context, Exchange exchange, Function<EventFactory, CamelEvent> eventSupplier, Predicate<EventNotifier> notifierFilter) {
         ManagementStrategy management = context.getManagementStrategy();
         if (management == null) {
             return false;
@@ -260,6 +256,11 @@ public final class EventHelper {
             }
 
             if (event == null) {
+                // the event is only created when a notifier accepts this kind of event
+                if (exchange != null && exchange.getProperty(Exchange.NOTIFY_EVENT, false, Boolean.class)) {
+                    // do not generate events for an notify event
+                    return false;
+                }
                 // only create event once
                 event = eventSupplier.apply(factory);
                 if (event == null) {
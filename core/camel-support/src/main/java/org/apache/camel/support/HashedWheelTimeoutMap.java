@@ -0,0 +1,398 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.apache.camel.support;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.TimeUnit;
+
+import org.apache.camel.TimeoutMap;
+import org.apache.camel.support.service.ServiceSupport;
+import org.apache.camel.util.ObjectHelper;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import static org.apache.camel.TimeoutMap.Listener.Type.Evict;
+import static org.apache.camel.TimeoutMap.Listener.Type.Put;
+import static org.apache.camel.TimeoutMap.Listener.Type.Remove;
+
+/**
+ * A {@link TimeoutMap} which tracks the timeouts in a hashed timing wheel.
+ * <p/>
+ * Unlike {@link DefaultTimeoutMap} which scans every entry on each purge, the entries are kept in a wheel of
+ * buckets where each bucket holds the entries which times out in the same tick. On each tick only the bucket of
+ * that tick is visited, which makes put, remove and expiry O(1) no matter how many entries are in the map.
+ * <p/>
+ * There is no global lock. The entries are looked up in a {@link ConcurrentHashMap}, and new and removed entries
+ * are handed over to the wheel via lock-free queues, so only the purge task (which runs on the
+ * {@link ScheduledExecutorService}) is updating the wheel. This makes the map suitable for tracking a very
+ * large number of in-flight request/reply correlations.
+ * <p/>
+ * The timeouts are accurate to the tick duration, which is the purge poll time.
+ * You must invoke {@link #start()} to startup the timeout map, before its ready to be used.
+ * And you must invoke {@link #stop()} to stop the map when no longer in use.
+ */
+public class HashedWheelTimeoutMap<K, V> extends ServiceSupport implements TimeoutMap<K, V> {
+
+    protected final Logger log = LoggerFactory.getLogger(getClass());
+
+    private final ConcurrentMap<K, WheelEntry<K, V>> map = new ConcurrentHashMap<>();
+    private final Queue<WheelEntry<K, V>> added = new ConcurrentLinkedQueue<>();
+    private final Queue<WheelEntry<K, V>> removed = new ConcurrentLinkedQueue<>();
+    private final ScheduledExecutorService executor;
+    private volatile ScheduledFuture<?> future;
+    private final long purgePollTime;
+    private final Bucket<K, V>[] wheel;
+    private final int mask;
+    private final long origin;
+    private long lastTick;
+
+    private final List<Listener<K, V>> listeners = new ArrayList<>(2);
+
+    public HashedWheelTimeoutMap(ScheduledExecutorService executor) {
+        this(executor, 1000);
+    }
+
+    public HashedWheelTimeoutMap(ScheduledExecutorService executor, long requestMapPollTimeMillis) {
+        this(executor, requestMapPollTimeMillis, 512);
+    }
+
+    @SuppressWarnings("unchecked")
+    public HashedWheelTimeoutMap(ScheduledExecutorService executor, long requestMapPollTimeMillis, int wheelSize) {
+        ObjectHelper.notNull(executor, "ScheduledExecutorService");
+        if (requestMapPollTimeMillis <= 0) {
+            throw new IllegalArgumentException("Purge poll time must be positive, was: " + requestMapPollTimeMillis);
+        }
+        if (wheelSize <= 0 || wheelSize > 1 << 20) {
+            throw new IllegalArgumentException("Wheel size must be between 1 and " + (1 << 20) + ", was: " + wheelSize);
+        }
+        this.executor = executor;
+        this.purgePollTime = requestMapPollTimeMillis;
+        int size = 1;
+        while (size < wheelSize) {
+            size <<= 1;
+        }
+        this.wheel = new Bucket[size];
+        for (int i = 0; i < size; i++) {
+            wheel[i] = new Bucket<>();
+        }
+        this.mask = size - 1;
+        this.origin = currentTime();
+        this.lastTick = 0;
+    }
+
+    public V get(K key) {
+        WheelEntry<K, V> entry = map.get(key);
+        if (entry == null) {
+            return null;
+        }
+        // the wheel is lazy updated, when the entry is due the new expire time is checked and the entry rescheduled
+        updateExpireTime(entry);
+        return entry.getValue();
+    }
+
+    public V put(K key, V value, long timeoutMillis) {
+        WheelEntry<K, V> entry = new WheelEntry<>(key, value, timeoutMillis);
+        updateExpireTime(entry);
+        WheelEntry<K, V> result = map.put(key, entry);
+        added.add(entry);
+        if (result != null) {
+            cancel(result);
+        }
+        emitEvent(Put, key, value);
+        return unwrap(result);
+    }
+
+    public V putIfAbsent(K key, V value, long timeoutMillis) {
+        WheelEntry<K, V> entry = new WheelEntry<>(key, value, timeoutMillis);
+        updateExpireTime(entry);
+        // just make sure we don't override the old entry
+        WheelEntry<K, V> result = map.putIfAbsent(key, entry);
+        if (result == null) {
+            added.add(entry);
+            emitEvent(Put, key, value);
+        }
+        return unwrap(result);
+    }
+
+    public V remove(K key) {
+        WheelEntry<K, V> entry = map.remove(key);
+        if (entry == null) {
+            return null;
+        }
+        cancel(entry);
+        emitEvent(Remove, key, entry.getValue());
+        return entry.getValue();
+    }
+
+    public int size() {
+        return map.size();
+    }
+
+    /**
+     * The timer task which purges old requests
+     */
+    private void purgeTask() {
+        // only purge if allowed
+        if (!isRunAllowed()) {
+            log.trace("Purge task not allowed to run");
+            return;
+        }
+
+        log.trace("Running purge task to see if any entries have been timed out");
+        try {
+            purge();
+        } catch (Throwable t) {
+            // must catch and log exception otherwise the executor will now schedule next purgeTask
+            log.warn("Exception occurred during purge task. This exception will be ignored.", t);
+        }
+    }
+
+    /**
+     * Advances the wheel up till the current time and evicts the entries which has timed out.
+     */
+    protected synchronized void purge() {
+        long now = currentTime();
+        long tick = tick(now);
+
+        // unlink the removed entries, and schedule the new entries in the wheel
+        for (WheelEntry<K, V> entry = removed.poll(); entry != null; entry = removed.poll()) {
+            if (entry.bucket != null) {
+                entry.bucket.unlink(entry);
+            }
+        }
+        for (WheelEntry<K, V> entry = added.poll(); entry != null; entry = added.poll()) {
+            if (!entry.cancelled) {
+                schedule(entry, Math.max(deadline(entry.getExpireTime()), lastTick + 1));
+            }
+        }
+
+        if (tick <= lastTick) {
+            return;
+        }
+
+        // visit the buckets of the ticks passed since last time, which is at most one round of the wheel
+        List<WheelEntry<K, V>> expired = null;
+        long from = Math.max(lastTick + 1, tick - mask);
+        for (long t = from; t <= tick; t++) {
+            Bucket<K, V> bucket = wheel[(int) (t & mask)];
+            WheelEntry<K, V> entry = bucket.head;
+            while (entry != null) {
+                WheelEntry<K, V> next = entry.next;
+                if (entry.deadline <= tick) {
+                    bucket.unlink(entry);
+                    if (entry.getExpireTime() >= now) {
+                        // the expire time was updated when the entry was accessed
+                        schedule(entry, Math.max(deadline(entry.getExpireTime()), tick + 1));
+                    } else if (!isValidForEviction(entry)) {
+                        // check again on next tick
+                        schedule(entry, tick + 1);
+                    } else if (map.remove(entry.getKey(), entry)) {
+                        log.debug("Evicting inactive entry ID: {}", entry);
+                        if (expired == null) {
+                            expired = new ArrayList<>();
+                        }
+                        expired.add(entry);
+                    }
+                }
+                entry = next;
+            }
+        }
+        lastTick = tick;
+
+        if (expired != null) {
+            for (WheelEntry<K, V> entry : expired) {
+                emitEvent(Evict, entry.getKey(), entry.getValue());
+            }
+        }
+    }
+
+    // Properties
+    // -------------------------------------------------------------------------
+
+    public long getPurgePollTime() {
+        return purgePollTime;
+    }
+
+    public int getWheelSize() {
+        return wheel.length;
+    }
+
+    public ScheduledExecutorService getExecutor() {
+        return executor;
+    }
+
+    // Implementation methods
+    // -------------------------------------------------------------------------
+
+    private static <K, V> V unwrap(TimeoutMapEntry<K, V> entry) {
+        return entry == null ? null : entry.getValue();
+    }
+
+    private void cancel(WheelEntry<K, V> entry) {
+        entry.cancelled = true;
+        removed.add(entry);
+    }
+
+    private long tick(long time) {
+        return (time - origin) / purgePollTime;
+    }
+
+    private long deadline(long expireTime) {
+        // round up so the entry is not due before its expire time
+        long time = expireTime - origin;
+        return time <= 0 ? 0 : (time + purgePollTime - 1) / purgePollTime;
+    }
+
+    private void schedule(WheelEntry<K, V> entry, long deadline) {
+        entry.deadline = deadline;
+        wheel[(int) (deadline & mask)].link(entry);
+    }
+
+    @Override
+    public void addListener(Listener<K, V> listener) {
+        this.listeners.add(listener);
+    }
+
+    private void emitEvent(Listener.Type type, K key, V value) {
+        for (Listener<K, V> listener : listeners) {
+            try {
+                listener.timeoutMapEvent(type, key, value);
+            } catch (Throwable t) {
+                // Ignore
+            }
+        }
+    }
+
+    protected void schedulePoll() {
+        future = executor.scheduleWithFixedDelay(this::purgeTask, purgePollTime, purgePollTime, TimeUnit.MILLISECONDS);
+    }
+
+    /**
+     * A hook to allow derivations to avoid evicting the current entry
+     */
+    protected boolean isValidForEviction(TimeoutMapEntry<K, V> entry) {
+        return true;
+    }
+
+    protected void updateExpireTime(TimeoutMapEntry<K, V> entry) {
+        long now = currentTime();
+        entry.setExpireTime(entry.getTimeout() + now);
+    }
+
+    protected long currentTime() {
+        return System.currentTimeMillis();
+    }
+
+    @Override
+    protected void doStart() throws Exception {
+        if (executor.isShutdown()) {
+            throw new IllegalStateException("The ScheduledExecutorService is shutdown");
+        }
+        schedulePoll();
+    }
+
+    @Override
+    protected void doStop() throws Exception {
+        if (future != null) {
+            future.cancel(false);
+            future = null;
+        }
+        // clear map if we stop
+        synchronized (this) {
+            map.clear();
+            added.clear();
+            removed.clear();
+            for (Bucket<K, V> bucket : wheel) {
+                bucket.head = null;
+            }
+        }
+    }
+
+    /**
+     * An entry in the wheel, which is linked in the bucket of the tick it times out.
+     */
+    private static final class WheelEntry<K, V> extends TimeoutMapEntry<K, V> {
+
+        // updated by get from any thread
+        private volatile long expireTime;
+        // set when removed from the map, so the entry is not scheduled in the wheel
+        private volatile boolean cancelled;
+        // only accessed by the purge task
+        private long deadline;
+        private Bucket<K, V> bucket;
+        private WheelEntry<K, V> prev;
+        private WheelEntry<K, V> next;
+
+        private WheelEntry(K key, V value, long timeout) {
+            super(key, value, timeout);
+        }
+
+        @Override
+        public long getExpireTime() {
+            return expireTime;
+        }
+
+        @Override
+        public void setExpireTime(long expireTime) {
+            this.expireTime = expireTime;
+        }
+    }
+
+    /**
+     * A doubly linked list of the entries which times out in the same tick, so entries can be unlinked in O(1).
+     */
+    private static final class Bucket<K, V> {
+
+        private WheelEntry<K, V> head;
+
+        private void link(WheelEntry<K, V> entry) {
+            // add to the head so an entry rescheduled while visiting the bucket is not visited again
+            entry.bucket = this;
+            entry.prev = null;
+            entry.next = head;
+            if (head != null) {
+                head.prev = entry;
+            }
+            head = entry;
+        }
+
+        private void unlink(WheelEntry<K, V> entry) {
+            if (entry.bucket != this) {
+                return;
+            }
+            if (entry.prev != null) {
+                entry.prev.next = entry.next;
+            } else {
+                head = entry.next;
+            }
+            if (entry.next != null) {
+                entry.next.prev = entry.prev;
+            }
+            entry.bucket = null;
+            entry.prev = null;
+            entry.next = null;
+        }
+    }
+
+}
@@ -0,0 +1,342 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.apache.camel.support;
+
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicIntegerFieldUpdater;
+import java.util.concurrent.locks.LockSupport;
+
+import org.apache.camel.CamelContext;
+import org.apache.camel.support.service.ServiceHelper;
+import org.apache.camel.support.service.ServiceSupport;
+import org.apache.camel.util.ObjectHelper;
+
+/**
+ * A timer which schedules tasks in a hashed timing wheel, which is intended for a very large number of short lived
+ * timeouts which are most often cancelled before they expire.
+ * <p/>
+ * Scheduling and cancelling a task are O(1) and lock-free, and only allocates a small {@link TimerTask} handle.
+ * Unlike {@link java.util.Timer} a cancelled task is unlinked from the wheel on the next tick, so cancelled tasks
+ * do not pile up. The tasks are executed by the single timer thread in the resolution of the tick duration, so
+ * the tasks must be short and must not block; longer work should be handed over to a thread pool.
+ * <p/>
+ * Use {@link #getTimer(CamelContext)} to use the timer which is shared by the {@link CamelContext}.
+ */
+public class HashedWheelTimer extends ServiceSupport {
+
+    public static final long DEFAULT_TICK_DURATION = 10;
+    public static final int DEFAULT_WHEEL_SIZE = 512;
+
+    // guards creating the timer shared by a camel context, without locking the camel context itself
+    private static final Object SHARED_TIMER_LOCK = new Object();
+
+    private final String threadName;
+    private final long tickNanos;
+    private final Bucket[] wheel;
+    private final int mask;
+    private final Queue<TimerTask> scheduled = new ConcurrentLinkedQueue<>();
+    private final Queue<TimerTask> cancelled = new ConcurrentLinkedQueue<>();
+    private final AtomicInteger pending = new AtomicInteger();
+    private volatile Worker worker;
+
+    public HashedWheelTimer(String threadName) {
+        this(threadName, DEFAULT_TICK_DURATION, TimeUnit.MILLISECONDS, DEFAULT_WHEEL_SIZE);
+    }
+
+    public HashedWheelTimer(String threadName, long tickDuration, TimeUnit unit, int wheelSize) {
+        ObjectHelper.notNull(threadName, "threadName");
+        if (tickDuration <= 0) {
+            throw new IllegalArgumentException("Tick duration must be positive, was: " + tickDuration);
+        }
+        if (wheelSize <= 0 || wheelSize > 1 << 20) {
+            throw new IllegalArgumentException("Wheel size must be between 1 and " + (1 << 20) + ", was: " + wheelSize);
+        }
+        this.threadName = threadName;
+        this.tickNanos = unit.toNanos(tickDuration);
+        int size = 1;
+        while (size < wheelSize) {
+            size <<= 1;
+        }
+        this.wheel = new Bucket[size];
+        for (int i = 0; i < size; i++) {
+            wheel[i] = new Bucket();
+        }
+        this.mask = size - 1;
+    }
+
+    /**
+     * Gets the timer which is shared by the given {@link CamelContext}, which is created and started on first use,
+     * and is stopped when the {@link CamelContext} is stopped.
+     *
+     * @param context the camel context
+     * @return the started timer
+     */
+    public static HashedWheelTimer getTimer(CamelContext context) {
+        HashedWheelTimer timer = context.getExtension(HashedWheelTimer.class);
+        if (timer == null) {
+            synchronized (SHARED_TIMER_LOCK) {
+                timer = context.getExtension(HashedWheelTimer.class);
+                if (timer == null) {
+                    timer = new HashedWheelTimer(context.getExecutorServiceManager().resolveThreadName("Timer"));
+                    context.setExtension(HashedWheelTimer.class, timer);
+                }
+            }
+        }
+        // the timer may have been stopped if the camel context was restarted
+        ServiceHelper.startService(timer);
+        return timer;
+    }
+
+    /**
+     * Schedules the task to run once after the given delay.
+     *
+     * @param task  the task, which is executed by the timer thread
+     * @param delay the delay
+     * @param unit  the unit of the delay
+     * @return the handle which can be used to cancel the task
+     */
+    public TimerTask schedule(Runnable task, long delay, TimeUnit unit) {
+        ObjectHelper.notNull(task, "task");
+        TimerTask timerTask = new TimerTask(this, task, System.nanoTime() + unit.toNanos(Math.max(0, delay)));
+        pending.incrementAndGet();
+        scheduled.add(timerTask);
+        return timerTask;
+    }
+
+    /**
+     * Number of tasks which are scheduled and not yet executed or cancelled
+     */
+    public int getPendingTasks() {
+        return pending.get();
+    }
+
+    public long getTickDuration() {
+        return TimeUnit.NANOSECONDS.toMillis(tickNanos);
+    }
+
+    public int getWheelSize() {
+        return wheel.length;
+    }
+
+    @Override
+    protected void doStart() throws Exception {
+        worker = new Worker();
+        worker.start();
+    }
+
+    @Override
+    protected void doStop() throws Exception {
+        Worker w = worker;
+        worker = null;
+        if (w != null) {
+            w.interrupt();
+            if (Thread.currentThread() != w) {
+                w.join(TimeUnit.SECONDS.toMillis(5));
+            }
+        }
+        // discard the tasks which are not yet executed
+        for (TimerTask task = scheduled.poll(); task != null; task = scheduled.poll()) {
+            task.cancel();
+        }
+        for (Bucket bucket : wheel) {
+            for (TimerTask task = bucket.head; task != null; task = task.next) {
+                task.cancel();
+            }
+            bucket.head = null;
+        }
+        cancelled.clear();
+    }
+
+    private final class Worker extends Thread {
+
+        private final long origin = System.nanoTime();
+        private long tick;
+
+        Worker() {
+            super(threadName);
+            setDaemon(true);
+        }
+
+        @Override
+        public void run() {
+            while (worker == this) {
+                long deadline = origin + (tick + 1) * tickNanos;
+                long now = System.nanoTime();
+                while (now < deadline) {
+                    LockSupport.parkNanos(this, deadline - now);
+                    if (worker != this) {
+                        return;
+                    }
+                    now = System.nanoTime();
+                }
+                tick++;
+                try {
+                    unlinkCancelled();
+                    transferScheduled();
+                    expire(wheel[(int) (tick & mask)]);
+                } catch (Throwable t) {
+                    // must catch so the timer thread keeps running
+                    log.warn("Error during timer tick. This exception is ignored.", t);
+                }
+            }
+        }
+
+        private void unlinkCancelled() {
+            for (TimerTask task = cancelled.poll(); task != null; task = cancelled.poll()) {
+                if (task.bucket != null) {
+                    task.bucket.unlink(task);
+                }
+            }
+        }
+
+        private void transferScheduled() {
+            // limit the number of tasks transferred per tick so the timer thread cannot be starved by producers
+            for (int i = 0; i < 100000; i++) {
+                TimerTask task = scheduled.poll();
+                if (task == null) {
+                    break;
+                }
+                if (task.state == TimerTask.ST_INIT) {
+                    // round up so the task does not run before its deadline, and schedule past ticks on the next tick
+                    long ticks = (task.deadline - origin + tickNanos - 1) / tickNanos;
+                    task.tick = Math.max(ticks, tick);
+                    wheel[(int) (task.tick & mask)].link(task);
+                }
+            }
+        }
+
+        private void expire(Bucket bucket) {
+            TimerTask task = bucket.head;
+            while (task != null) {
+                TimerTask next = task.next;
+                if (task.tick <= tick) {
+                    bucket.unlink(task);
+                    task.expire();
+                } else if (task.state != TimerTask.ST_INIT) {
+                    bucket.unlink(task);
+                }
+                task = next;
+            }
+        }
+    }
+
+    /**
+     * A handle to a task scheduled in the {@link HashedWheelTimer}.
+     */
+    public static final class TimerTask {
+
+        private static final int ST_INIT = 0;
+        private static final int ST_CANCELLED = 1;
+        private static final int ST_EXPIRED = 2;
+        private static final AtomicIntegerFieldUpdater<TimerTask> STATE
+                = AtomicIntegerFieldUpdater.newUpdater(TimerTask.class, "state");
+
+        private final HashedWheelTimer timer;
+        private final Runnable task;
+        private final long deadline;
+        private volatile int state;
+        // only accessed by the timer thread
+        private long tick;
+        private Bucket bucket;
+        private TimerTask prev;
+        private TimerTask next;
+
+        private TimerTask(HashedWheelTimer timer, Runnable task, long deadline) {
+            this.timer = timer;
+            this.task = task;
+            this.deadline = deadline;
+        }
+
+        /**
+         * Cancels the task.
+         *
+         * @return <tt>true</tt> if cancelled, <tt>false</tt> if the task has already been executed or cancelled
+         */
+        public boolean cancel() {
+            if (!STATE.compareAndSet(this, ST_INIT, ST_CANCELLED)) {
+                return false;
+            }
+            timer.pending.decrementAndGet();
+            timer.cancelled.add(this);
+            return true;
+        }
+
+        public boolean isCancelled() {
+            return state == ST_CANCELLED;
+        }
+
+        public boolean isExpired() {
+            return state == ST_EXPIRED;
+        }
+
+        private void expire() {
+            if (!STATE.compareAndSet(this, ST_INIT, ST_EXPIRED)) {
+                return;
+            }
+            timer.pending.decrementAndGet();
+            try {
+                task.run();
+            } catch (Throwable t) {
+                timer.log.warn("Error executing timer task: " + task + ". This exception is ignored.", t);
+            }
+        }
+
+        @Override
+        public String toString() {
+            return "TimerTask[" + task + "]";
+        }
+    }
+
+    /**
+     * A doubly linked list of the tasks which are due in the same slot of the wheel, so tasks can be unlinked in O(1).
+     */
+    private static final class Bucket {
+
+        private TimerTask head;
+
+        private void link(TimerTask task) {
+            task.bucket = this;
+            task.prev = null;
+            task.next = head;
+            if (head != null) {
+                head.prev = task;
+            }
+            head = task;
+        }
+
+        private void unlink(TimerTask task) {
+            if (task.bucket != this) {
+                return;
+            }
+            if (task.prev != null) {
+                task.prev.next = task.next;
+            } else {
+                head = task.next;
+            }
+            if (task.next != null) {
+                task.next.prev = task.prev;
+            }
+            task.bucket = null;
+            task.prev = null;
+            task.next = null;
+        }
+    }
+
+}
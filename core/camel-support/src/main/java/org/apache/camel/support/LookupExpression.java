@@ -0,0 +1,39 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.apache.camel.support;
+
+import org.apache.camel.Expression;
+
+/**
+ * An {@link Expression} which looks up a value by its name, such as a message header or an exchange property.
+ * <p/>
+ * Two lookup expressions with the same language and expression evaluate to the same value for a given
+ * {@link org.apache.camel.Exchange}, which allows optimizations such as evaluating the lookup only once.
+ */
+public interface LookupExpression extends Expression {
+
+    /**
+     * The language of the lookup, such as <tt>header</tt> or <tt>exchangeProperty</tt>
+     */
+    String getLanguage();
+
+    /**
+     * The name to lookup
+     */
+    String getExpression();
+
+}
@@ -279,6 +279,16 @@ public abstract class MessageSupport implements Message, CamelContextAware, Data
      */
     public abstract Message newInstance();
 
+    /**
+     * Resets the message so it can be reused, such as when the exchange is recycled by a pooled
+     * {@link org.apache.camel.spi.ExchangeFactory}.
+     */
+    public void reset() {
+        body = null;
+        messageId = null;
+        dataType = null;
+    }
+
     /**
      * A factory method to allow a provider to lazily create the message body
      * for inbound messages from other sources
@@ -26,6 +26,7 @@ import java.util.Set;
 
 import org.apache.camel.CamelContext;
 import org.apache.camel.PropertyBindingException;
+import org.apache.camel.spi.PropertyConfigurer;
 
 import static org.apache.camel.support.IntrospectionSupport.findSetterMethods;
 import static org.apache.camel.util.ObjectHelper.isNotEmpty;
@@ -45,7 +46,9 @@ import static org.apache.camel.util.ObjectHelper.isNotEmpty;
  *     <li>reference new class - Values can refer to creating new beans by their class name by prefixing with #class, eg #class:com.foo.MyClassType</li>
  * </ul>
  * <p/>
- * This implementations reuses parts of {@link IntrospectionSupport}.
+ * This implementations reuses parts of {@link IntrospectionSupport}. A {@link PropertyConfigurer} can be used to set
+ * the properties of the target object without reflection, which falls back to reflection for properties that the
+ * configurer does not know.
  */
 public final class PropertyBindingSupport {
 
@@ -61,6 +64,7 @@ public final class PropertyBindingSupport {
         private boolean fluentBuilder = true;
         private boolean allowPrivateSetter = true;
         private String optionPrefix;
+        private PropertyConfigurer configurer;
 
         /**
          * Whether nesting is in use
@@ -121,6 +125,15 @@ public final class PropertyBindingSupport {
             return this;
         }
 
+        /**
+         * To use a {@link PropertyConfigurer} for setting the properties on the target object without reflection.
+         * Properties which cannot be set by the configurer are set using reflection.
+         */
+        public Builder withConfigurer(PropertyConfigurer configurer) {
+            this.configurer = configurer;
+            return this;
+        }
+
         /**
          * Binds the properties to the target object, and removes the property that was bound from properties.
          *
@@ -134,7 +147,7 @@ public final class PropertyBindingSupport {
             org.apache.camel.util.ObjectHelper.notNull(target, "target");
             org.apache.camel.util.ObjectHelper.notNull(properties, "properties");
 
-            return bindProperties(camelContext, target, properties, optionPrefix, nesting, deepNesting, fluentBuilder, allowPrivateSetter, reference, placeholder);
+            return doBindProperties(camelContext, target, properties, optionPrefix, nesting, deepNesting, fluentBuilder, allowPrivateSetter, reference, placeholder, configurer);
         }
 
     }
@@ -339,6 +352,13 @@ public final class PropertyBindingSupport {
                                          String optionPrefix,
                                          boolean nesting, boolean deepNesting, boolean fluentBuilder, boolean allowPrivateSetter,
                                          boolean reference, boolean placeholder) {
+        return doBindProperties(camelContext, target, properties, optionPrefix, nesting, deepNesting, fluentBuilder, allowPrivateSetter, reference, placeholder, null);
+    }
+
+    private static boolean doBindProperties(CamelContext camelContext, Object target, Map<String, Object> properties,
+                                            String optionPrefix,
+                                            boolean nesting, boolean deepNesting, boolean fluentBuilder, boolean allowPrivateSetter,
+                                            boolean reference, boolean placeholder, PropertyConfigurer configurer) {
         org.apache.camel.util.ObjectHelper.notNull(camelContext, "camelContext");
         org.apache.camel.util.ObjectHelper.notNull(target, "target");
         org.apache.camel.util.ObjectHelper.notNull(properties, "properties");
@@ -359,7 +379,7 @@ public final class PropertyBindingSupport {
                 key = key.substring(optionPrefix.length());
             }
 
-            if (bindProperty(camelContext, target, key, value, nesting, deepNesting, fluentBuilder, allowPrivateSetter, reference, placeholder)) {
+            if (bindProperty(camelContext, target, key, value, nesting, deepNesting, fluentBuilder, allowPrivateSetter, reference, placeholder, configurer)) {
                 iter.remove();
                 rc = true;
             }
@@ -380,7 +400,7 @@ public final class PropertyBindingSupport {
     public static boolean bindProperty(CamelContext camelContext, Object target, String name, Object value) {
         try {
             if (target != null && name != null) {
-                return setProperty(camelContext, target, name, value, false, true, true, true, true, true, true);
+                return setProperty(camelContext, target, name, value, false, true, true, true, true, true, true, null);
             }
         } catch (Exception e) {
             throw new PropertyBindingException(target, name, e);
@@ -390,10 +410,11 @@ public final class PropertyBindingSupport {
     }
 
     private static boolean bindProperty(CamelContext camelContext, Object target, String name, Object value,
-                                        boolean nesting, boolean deepNesting, boolean fluentBuilder, boolean allowPrivateSetter, boolean reference, boolean placeholder) {
+                                        boolean nesting, boolean deepNesting, boolean fluentBuilder, boolean allowPrivateSetter, boolean reference, boolean placeholder,
+                                        PropertyConfigurer configurer) {
         try {
             if (target != null && name != null) {
-                return setProperty(camelContext, target, name, value, false, nesting, deepNesting, fluentBuilder, allowPrivateSetter, reference, placeholder);
+                return setProperty(camelContext, target, name, value, false, nesting, deepNesting, fluentBuilder, allowPrivateSetter, reference, placeholder, configurer);
             }
         } catch (Exception e) {
             throw new PropertyBindingException(target, name, e);
@@ -413,7 +434,7 @@ public final class PropertyBindingSupport {
     public static void bindMandatoryProperty(CamelContext camelContext, Object target, String name, Object value) {
         try {
             if (target != null && name != null) {
-                boolean bound = setProperty(camelContext, target, name, value, true, true, true, true, true, true, true);
+                boolean bound = setProperty(camelContext, target, name, value, true, true, true, true, true, true, true, null);
                 if (!bound) {
                     throw new PropertyBindingException(target, name);
                 }
@@ -425,8 +446,9 @@ public final class PropertyBindingSupport {
 
     private static boolean setProperty(CamelContext context, Object target, String name, Object value, boolean mandatory,
                                        boolean nesting, boolean deepNesting, boolean fluentBuilder, boolean allowPrivateSetter,
-                                       boolean reference, boolean placeholder) throws Exception {
+                                       boolean reference, boolean placeholder, PropertyConfigurer configurer) throws Exception {
         String refName = null;
+        Object originalTarget = target;
 
         if (placeholder) {
             // resolve property placeholders
@@ -523,6 +545,15 @@ public final class PropertyBindingSupport {
             }
         }
 
+        // the configurer only knows the plain properties of the original target
+        if (configurer != null && target == originalTarget && refName == null && value != null
+                && name.indexOf('[') == -1 && !(value instanceof String && isReferenceParameter((String) value))) {
+            // only fallback to reflection if the property is unknown, as the setter may already have been invoked
+            if (configurer.configure(context, target, name, value, false)) {
+                return true;
+            }
+        }
+
         boolean hit = IntrospectionSupport.setProperty(context, context.getTypeConverter(), target, name, value, refName, fluentBuilder, allowPrivateSetter);
         if (!hit && mandatory) {
             // there is no setter with this given name, so lets report this as a problem
@@ -0,0 +1,132 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.apache.camel.support;
+
+import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+
+import org.apache.camel.CamelContext;
+import org.apache.camel.ExtendedCamelContext;
+import org.apache.camel.NoFactoryAvailableException;
+import org.apache.camel.NoTypeConversionAvailableException;
+import org.apache.camel.spi.FactoryFinder;
+import org.apache.camel.spi.PropertyConfigurer;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Helper methods for resolving and implementing {@link PropertyConfigurer}s.
+ * <p/>
+ * The Camel annotation processor generates a configurer for components and endpoints, which is registered
+ * in <tt>META-INF/services/org/apache/camel/configurer/</tt> using the class name of the configured class as key.
+ */
+public final class PropertyConfigurerSupport {
+
+    public static final String CONFIGURER_RESOURCE_PATH = "META-INF/services/org/apache/camel/configurer/";
+
+    private static final Logger LOG = LoggerFactory.getLogger(PropertyConfigurerSupport.class);
+
+    // guards creating the cache of the camel context, without locking the camel context itself
+    private static final Object CACHE_LOCK = new Object();
+
+    /**
+     * Utility classes should not have a public constructor.
+     */
+    private PropertyConfigurerSupport() {
+    }
+
+    /**
+     * Gets the generated {@link PropertyConfigurer} for the given type, which is resolved once per type
+     * and cached by the camel context, including when the type has no configurer.
+     *
+     * @param camelContext  the camel context
+     * @param type          the type of the objects to configure
+     * @return the configurer, or <tt>null</tt> if there is no configurer for the type
+     */
+    public static PropertyConfigurer getPropertyConfigurer(CamelContext camelContext, Class<?> type) {
+        PropertyConfigurerCache cache = camelContext.getExtension(PropertyConfigurerCache.class);
+        if (cache == null) {
+            synchronized (CACHE_LOCK) {
+                cache = camelContext.getExtension(PropertyConfigurerCache.class);
+                if (cache == null) {
+                    cache = new PropertyConfigurerCache();
+                    camelContext.setExtension(PropertyConfigurerCache.class, cache);
+                }
+            }
+        }
+        return cache.configurers.computeIfAbsent(type, t -> Optional.ofNullable(resolvePropertyConfigurer(camelContext, t))).orElse(null);
+    }
+
+    /**
+     * Resolves the generated {@link PropertyConfigurer} for the given type.
+     *
+     * @param camelContext  the camel context
+     * @param type          the type of the objects to configure
+     * @return the configurer, or <tt>null</tt> if there is no configurer for the type
+     */
+    public static PropertyConfigurer resolvePropertyConfigurer(CamelContext camelContext, Class<?> type) {
+        try {
+            FactoryFinder finder = camelContext.adapt(ExtendedCamelContext.class).getFactoryFinder(CONFIGURER_RESOURCE_PATH);
+            Class<?> clazz = finder.findClass(type.getName());
+            Object configurer = camelContext.getInjector().newInstance(clazz, false);
+            if (configurer instanceof PropertyConfigurer) {
+                LOG.debug("Using property configurer: {} for: {}", clazz.getName(), type.getName());
+                return (PropertyConfigurer) configurer;
+            }
+        } catch (NoFactoryAvailableException e) {
+            // no configurer so use reflection
+        } catch (Exception e) {
+            LOG.debug("Cannot resolve property configurer for: {}. Will use reflection instead.", type.getName(), e);
+        }
+        return null;
+    }
+
+    /**
+     * The resolved configurers (or none) by type of a camel context.
+     */
+    private static final class PropertyConfigurerCache {
+        private final ConcurrentMap<Class<?>, Optional<PropertyConfigurer>> configurers = new ConcurrentHashMap<>();
+    }
+
+    /**
+     * Returns the property value as the given type, converting the value using the type converter if needed.
+     * <p/>
+     * This is used by the generated configurers.
+     *
+     * @param camelContext  the camel context
+     * @param type          the type of the property
+     * @param value         the value of the property
+     * @return the value as the given type
+     * @throws IllegalArgumentException is thrown if the value cannot be converted
+     */
+    @SuppressWarnings("unchecked")
+    public static <T> T property(CamelContext camelContext, Class<T> type, Object value) {
+        if (value == null) {
+            return null;
+        }
+        if (org.apache.camel.util.ObjectHelper.convertPrimitiveTypeToWrapperType(type).isInstance(value)) {
+            return (T) value;
+        }
+        try {
+            return camelContext.getTypeConverter().mandatoryConvertTo(type, value);
+        } catch (NoTypeConversionAvailableException e) {
+            throw new IllegalArgumentException("Cannot convert value: " + value + " to type: " + type.getName(), e);
+        }
+    }
+
+}
@@ -21,6 +21,7 @@ import java.util.Collections;
 import java.util.List;
 
 import org.apache.camel.Exchange;
+import org.apache.camel.ExtendedCamelContext;
 import org.apache.camel.Route;
 import org.apache.camel.spi.Synchronization;
 import org.apache.camel.spi.SynchronizationRouteAware;
@@ -40,6 +41,9 @@ public final class UnitOfWorkHelper {
 
     /**
      * Done and stop the {@link UnitOfWork}.
+     * <p/>
+     * If the exchange was created by a consumer with auto release enabled, then the exchange is released
+     * back to the {@link org.apache.camel.spi.ExchangeFactory} afterwards.
      *
      * @param uow the unit of work
      * @param exchange the exchange (will unset the UoW on the exchange)
@@ -65,6 +69,11 @@ public final class UnitOfWorkHelper {
 
         // remove uow from exchange as its done
         exchange.setUnitOfWork(null);
+
+        // the exchange is done and can be recycled if the consumer has no further use of it
+        if (uow != null && exchange instanceof DefaultExchange && ((DefaultExchange) exchange).isAutoRelease()) {
+            exchange.getContext().adapt(ExtendedCamelContext.class).getExchangeFactory().release(exchange);
+        }
     }
 
     public static void doneSynchronizations(Exchange exchange, List<Synchronization> synchronizations, Logger log) {
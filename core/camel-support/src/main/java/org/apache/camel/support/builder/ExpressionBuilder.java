@@ -40,6 +40,7 @@ import org.apache.camel.spi.Language;
 import org.apache.camel.spi.PropertiesComponent;
 import org.apache.camel.spi.RouteContext;
 import org.apache.camel.spi.UnitOfWork;
+import org.apache.camel.support.ConstantExpressionAdapter;
 import org.apache.camel.support.ExchangeHelper;
 import org.apache.camel.support.ExpressionAdapter;
 import org.apache.camel.support.GroupIterator;
@@ -669,16 +670,7 @@ public class ExpressionBuilder {
      * @return an expression object which will return the constant value
      */
     public static Expression constantExpression(final Object value) {
-        return new ExpressionAdapter() {
-            public Object evaluate(Exchange exchange) {
-                return value;
-            }
-
-            @Override
-            public String toString() {
-                return "" + value;
-            }
-        };
+        return new ConstantExpressionAdapter(value);
     }
 
     /**
@@ -0,0 +1,639 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.apache.camel.support.processor.idempotent;
+
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.LongBuffer;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+import org.apache.camel.api.management.ManagedAttribute;
+import org.apache.camel.api.management.ManagedOperation;
+import org.apache.camel.api.management.ManagedResource;
+import org.apache.camel.spi.IdempotentRepository;
+import org.apache.camel.support.service.ServiceSupport;
+
+/**
+ * A memory efficient implementation of {@link org.apache.camel.spi.IdempotentRepository}.
+ * <p/>
+ * Instead of keeping every key as a {@link String} in a map, this implementation only stores a 64-bit hash
+ * of each key in a primitive open addressing table, which can optionally be allocated off-heap. This costs around
+ * 40 bytes per key and creates no garbage per message, at the price of treating two keys with the same 64-bit hash
+ * as the same key (which is extremely unlikely).
+ * <p/>
+ * Keys are expired in insertion order, either when the repository holds more than {@link #getMaxSize() maxSize} keys
+ * or when a key is older than {@link #getExpireAfter() expireAfter} millis. Notice that unlike the {@link org.apache.camel.support.LRUCache}
+ * used by {@link MemoryIdempotentRepository}, looking up a key does not refresh it.
+ * <p/>
+ * A Bloom filter can be enabled in front of the table to reject new keys without probing the table. In
+ * {@link #setProbabilistic(boolean) probabilistic} mode only the Bloom filter is kept, which uses a fixed amount
+ * of memory, but may wrongly report a new key as a duplicate according to the configured
+ * {@link #getFalsePositiveProbability() false positive probability}, and keys cannot be removed.
+ */
+@ManagedResource(description = "Hashed memory based idempotent repository")
+public class HashedMemoryIdempotentRepository extends ServiceSupport implements IdempotentRepository {
+
+    private static final long EMPTY = 0;
+    private static final long DELETED = 1;
+    private static final int MAX_CAPACITY = 1 << 26;
+
+    private final ReentrantReadWriteLock lock = new ReentrantReadWriteLock();
+    private final LongAdder evicted = new LongAdder();
+
+    private int maxSize = 1000;
+    private long expireAfter;
+    private boolean offHeap;
+    private boolean bloomFilter;
+    private boolean probabilistic;
+    private double falsePositiveProbability = 0.01d;
+    private int initialCapacity = 1024;
+
+    // open addressing table with pairs of key hash and insertion sequence
+    private LongBuffer table;
+    private int capacity;
+    private int used;
+    private int size;
+    // insertion ordered ring of key hashes (and insertion times) indexed by sequence
+    private LongBuffer ring;
+    private LongBuffer ringTimes;
+    private long headSeq;
+    private long nextSeq;
+    // bloom filters, where previous is only used in probabilistic mode
+    private BloomFilter bloom;
+    private BloomFilter previousBloom;
+    private int bloomCount;
+    private int bloomStale;
+    private long bloomStarted;
+
+    public HashedMemoryIdempotentRepository() {
+    }
+
+    public HashedMemoryIdempotentRepository(int maxSize) {
+        this.maxSize = maxSize;
+    }
+
+    /**
+     * Creates a new hashed memory based repository holding at most the given number of keys.
+     *
+     * @param maxSize  the maximum number of keys, before the oldest keys are expired
+     */
+    public static IdempotentRepository hashedMemoryIdempotentRepository(int maxSize) {
+        return new HashedMemoryIdempotentRepository(maxSize);
+    }
+
+    /**
+     * Creates a new hashed memory based repository where keys expire after the given time.
+     *
+     * @param maxSize      the maximum number of keys, before the oldest keys are expired (0 for unbounded)
+     * @param expireAfter  the time in millis before a key expires
+     */
+    public static IdempotentRepository hashedMemoryIdempotentRepository(int maxSize, long expireAfter) {
+        HashedMemoryIdempotentRepository answer = new HashedMemoryIdempotentRepository(maxSize);
+        answer.setExpireAfter(expireAfter);
+        return answer;
+    }
+
+    @ManagedOperation(description = "Adds the key to the store")
+    public boolean add(String key) {
+        long hash = hash(key);
+        lock.writeLock().lock();
+        try {
+            checkStarted();
+            long now = expireAfter > 0 ? System.currentTimeMillis() : 0;
+            if (probabilistic) {
+                rotateBloom(now);
+                if (bloom.mightContain(hash) || previousBloom.mightContain(hash)) {
+                    return false;
+                }
+                bloom.put(hash);
+                bloomCount++;
+                return true;
+            }
+
+            expire(now);
+            if (bloom == null || bloom.mightContain(hash)) {
+                int slot = find(hash);
+                if (slot >= 0) {
+                    if (!isExpired(table.get(slot * 2 + 1), now)) {
+                        return false;
+                    }
+                    delete(slot);
+                }
+            }
+            insert(hash, now);
+            return true;
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    @ManagedOperation(description = "Does the store contain the given key")
+    public boolean contains(String key) {
+        long hash = hash(key);
+        lock.readLock().lock();
+        try {
+            if (table == null && bloom == null) {
+                return false;
+            }
+            if (probabilistic) {
+                return bloom.mightContain(hash) || previousBloom.mightContain(hash);
+            }
+            if (bloom != null && !bloom.mightContain(hash)) {
+                return false;
+            }
+            int slot = find(hash);
+            return slot >= 0 && !isExpired(table.get(slot * 2 + 1), expireAfter > 0 ? System.currentTimeMillis() : 0);
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    @ManagedOperation(description = "Remove the key from the store")
+    public boolean remove(String key) {
+        if (probabilistic) {
+            // a bloom filter cannot forget a key
+            return false;
+        }
+        long hash = hash(key);
+        lock.writeLock().lock();
+        try {
+            checkStarted();
+            int slot = find(hash);
+            if (slot < 0) {
+                return false;
+            }
+            delete(slot);
+            return true;
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    public boolean confirm(String key) {
+        // noop
+        return true;
+    }
+
+    @ManagedOperation(description = "Clear the store")
+    public void clear() {
+        lock.writeLock().lock();
+        try {
+            if (table != null || bloom != null) {
+                allocate(initialCapacity);
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    @ManagedAttribute(description = "The current number of keys in the store")
+    public int getSize() {
+        lock.readLock().lock();
+        try {
+            return probabilistic ? bloomCount : size;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    @ManagedAttribute(description = "The current capacity of the hash table")
+    public int getCapacity() {
+        lock.readLock().lock();
+        try {
+            return capacity;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    @ManagedAttribute(description = "The current capacity of the insertion ordered ring")
+    public int getRingCapacity() {
+        lock.readLock().lock();
+        try {
+            return ring != null ? ring.capacity() : 0;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    @ManagedAttribute(description = "Number of keys which has been expired")
+    public long getEvictedCount() {
+        return evicted.sum();
+    }
+
+    @ManagedAttribute(description = "The maximum number of keys in the store")
+    public int getMaxSize() {
+        return maxSize;
+    }
+
+    /**
+     * Sets the maximum number of keys in the store, before the oldest keys are expired. Use 0 for unbounded,
+     * in which case an {@link #setExpireAfter(long) expireAfter} should be configured. Is default 1000.
+     * <p/>
+     * In probabilistic mode this is the number of keys per generation of the Bloom filter, and a key is
+     * remembered for at least this many subsequent keys.
+     */
+    public void setMaxSize(int maxSize) {
+        this.maxSize = maxSize;
+    }
+
+    @ManagedAttribute(description = "The time in millis before a key expires")
+    public long getExpireAfter() {
+        return expireAfter;
+    }
+
+    /**
+     * Sets the time in millis after a key was added before it expires. Use 0 to not expire keys by time,
+     * which is the default.
+     */
+    public void setExpireAfter(long expireAfter) {
+        this.expireAfter = expireAfter;
+    }
+
+    @ManagedAttribute(description = "Whether the hash table is stored off-heap")
+    public boolean isOffHeap() {
+        return offHeap;
+    }
+
+    /**
+     * Whether to allocate the hash table and Bloom filter off-heap in direct memory, which keeps very large
+     * repositories out of the Java heap. Is default false.
+     */
+    public void setOffHeap(boolean offHeap) {
+        this.offHeap = offHeap;
+    }
+
+    @ManagedAttribute(description = "Whether a Bloom filter is used in front of the hash table")
+    public boolean isBloomFilter() {
+        return bloomFilter;
+    }
+
+    /**
+     * Whether to use a Bloom filter in front of the hash table, which rejects most new keys without
+     * probing the table. Is default false.
+     */
+    public void setBloomFilter(boolean bloomFilter) {
+        this.bloomFilter = bloomFilter;
+    }
+
+    @ManagedAttribute(description = "Whether only a Bloom filter is used which may report false duplicates")
+    public boolean isProbabilistic() {
+        return probabilistic;
+    }
+
+    /**
+     * Whether to only use Bloom filters and no hash table. This uses a fixed amount of memory, but a new key
+     * may be reported as a duplicate, and keys cannot be removed. Is default false.
+     */
+    public void setProbabilistic(boolean probabilistic) {
+        this.probabilistic = probabilistic;
+    }
+
+    @ManagedAttribute(description = "The false positive probability of the Bloom filter")
+    public double getFalsePositiveProbability() {
+        return falsePositiveProbability;
+    }
+
+    /**
+     * Sets the false positive probability used for sizing the Bloom filter. Is default 0.01.
+     */
+    public void setFalsePositiveProbability(double falsePositiveProbability) {
+        this.falsePositiveProbability = falsePositiveProbability;
+    }
+
+    public int getInitialCapacity() {
+        return initialCapacity;
+    }
+
+    /**
+     * Sets the initial capacity of the hash table, which grows on demand. Is default 1024.
+     */
+    public void setInitialCapacity(int initialCapacity) {
+        this.initialCapacity = initialCapacity;
+    }
+
+    @Override
+    protected void doStart() throws Exception {
+        if (maxSize <= 0 && expireAfter <= 0 && probabilistic) {
+            throw new IllegalArgumentException("Either maxSize or expireAfter must be configured in probabilistic mode");
+        }
+        if (falsePositiveProbability <= 0 || falsePositiveProbability >= 1) {
+            throw new IllegalArgumentException("FalsePositiveProbability must be between 0 and 1, was: " + falsePositiveProbability);
+        }
+        lock.writeLock().lock();
+        try {
+            allocate(maxSize > 0 ? Math.min(maxSize + 1, initialCapacity) : initialCapacity);
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    @Override
+    protected void doStop() throws Exception {
+        lock.writeLock().lock();
+        try {
+            table = null;
+            ring = null;
+            ringTimes = null;
+            bloom = null;
+            previousBloom = null;
+            capacity = 0;
+            size = 0;
+            used = 0;
+            bloomCount = 0;
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    private void checkStarted() {
+        if (table == null && bloom == null) {
+            // the table is released when stopped
+            throw new IllegalStateException("HashedMemoryIdempotentRepository is not started");
+        }
+    }
+
+    private void allocate(int expected) {
+        size = 0;
+        used = 0;
+        headSeq = 0;
+        nextSeq = 0;
+        bloomCount = 0;
+        bloomStale = 0;
+        bloomStarted = System.currentTimeMillis();
+
+        if (probabilistic) {
+            int n = maxSize > 0 ? maxSize : initialCapacity;
+            bloom = new BloomFilter(n, falsePositiveProbability, offHeap);
+            previousBloom = new BloomFilter(n, falsePositiveProbability, offHeap);
+            return;
+        }
+
+        capacity = tableCapacity(expected);
+        table = allocateLongs(capacity * 2, offHeap);
+        int ringCapacity = Integer.highestOneBit(Math.max(16, expected - 1) << 1);
+        ring = allocateLongs(ringCapacity, offHeap);
+        ringTimes = expireAfter > 0 ? allocateLongs(ringCapacity, offHeap) : null;
+        bloom = bloomFilter ? new BloomFilter(bloomSize(), falsePositiveProbability, offHeap) : null;
+    }
+
+    private void insert(long hash, long now) {
+        if (used + 1 > capacity * 3 / 4) {
+            rehash(size + 1 > capacity * 3 / 8 ? tableCapacity(capacity * 2) : capacity);
+        }
+        if (nextSeq - headSeq == ring.capacity()) {
+            rebuildRing();
+        }
+        putSlot(hash, nextSeq);
+        size++;
+
+        // append to the insertion ordered ring
+        int index = (int) (nextSeq & (ring.capacity() - 1));
+        ring.put(index, hash);
+        if (ringTimes != null) {
+            ringTimes.put(index, now);
+        }
+        nextSeq++;
+
+        if (bloom != null) {
+            bloom.put(hash);
+        }
+        expire(now);
+    }
+
+    private void putSlot(long hash, long seq) {
+        int mask = capacity - 1;
+        int i = (int) hash & mask;
+        while (true) {
+            long h = table.get(i * 2);
+            if (h == EMPTY || h == DELETED) {
+                if (h == EMPTY) {
+                    used++;
+                }
+                table.put(i * 2, hash);
+                table.put(i * 2 + 1, seq);
+                return;
+            }
+            i = (i + 1) & mask;
+        }
+    }
+
+    private int find(long hash) {
+        int mask = capacity - 1;
+        int i = (int) hash & mask;
+        for (int n = 0; n < capacity; n++) {
+            long h = table.get(i * 2);
+            if (h == EMPTY) {
+                return -1;
+            }
+            if (h == hash) {
+                return i;
+            }
+            i = (i + 1) & mask;
+        }
+        return -1;
+    }
+
+    private void delete(int slot) {
+        table.put(slot * 2, DELETED);
+        size--;
+        bloomStale++;
+        if (bloom != null && bloomStale > bloomSize()) {
+            // removed keys cannot be cleared from a bloom filter so rebuild it from the live keys
+            rebuildBloom();
+        }
+    }
+
+    /**
+     * Expires the oldest keys in insertion order, while the store holds too many keys or they are too old.
+     */
+    private void expire(long now) {
+        int mask = ring.capacity() - 1;
+        while (headSeq < nextSeq) {
+            int index = (int) (headSeq & mask);
+            long hash = ring.get(index);
+            int slot = find(hash);
+            if (slot >= 0 && table.get(slot * 2 + 1) == headSeq) {
+                if ((maxSize > 0 && size > maxSize) || isExpired(headSeq, now)) {
+                    delete(slot);
+                    evicted.increment();
+                } else {
+                    break;
+                }
+            }
+            headSeq++;
+        }
+    }
+
+    private boolean isExpired(long seq, long now) {
+        if (ringTimes == null) {
+            return false;
+        }
+        return now - ringTimes.get((int) (seq & (ringTimes.capacity() - 1))) >= expireAfter;
+    }
+
+    private void rehash(int newCapacity) {
+        LongBuffer old = table;
+        int oldCapacity = capacity;
+        table = allocateLongs(newCapacity * 2, offHeap);
+        capacity = newCapacity;
+        used = 0;
+        for (int i = 0; i < oldCapacity; i++) {
+            long h = old.get(i * 2);
+            if (h != EMPTY && h != DELETED) {
+                putSlot(h, old.get(i * 2 + 1));
+            }
+        }
+        if (bloom != null) {
+            rebuildBloom();
+        }
+    }
+
+    /**
+     * Rebuilds the full insertion ordered ring with only the live keys, which are renumbered from zero,
+     * as removed keys leave tombstones in the ring. The ring is only grown if it is mostly live keys.
+     */
+    private void rebuildRing() {
+        int oldCapacity = ring.capacity();
+        int newCapacity = size >= oldCapacity / 2 ? oldCapacity * 2 : oldCapacity;
+        LongBuffer newRing = allocateLongs(newCapacity, offHeap);
+        LongBuffer newTimes = ringTimes != null ? allocateLongs(newCapacity, offHeap) : null;
+        int to = 0;
+        for (long seq = headSeq; seq < nextSeq; seq++) {
+            int from = (int) (seq & (oldCapacity - 1));
+            long hash = ring.get(from);
+            int slot = find(hash);
+            if (slot >= 0 && table.get(slot * 2 + 1) == seq) {
+                table.put(slot * 2 + 1, to);
+                newRing.put(to, hash);
+                if (newTimes != null) {
+                    newTimes.put(to, ringTimes.get(from));
+                }
+                to++;
+            }
+        }
+        ring = newRing;
+        ringTimes = newTimes;
+        headSeq = 0;
+        nextSeq = to;
+    }
+
+
+    private void rebuildBloom() {
+        bloom = new BloomFilter(bloomSize(), falsePositiveProbability, offHeap);
+        for (int i = 0; i < capacity; i++) {
+            long h = table.get(i * 2);
+            if (h != EMPTY && h != DELETED) {
+                bloom.put(h);
+            }
+        }
+        bloomStale = 0;
+    }
+
+    private void rotateBloom(long now) {
+        if ((maxSize > 0 && bloomCount >= maxSize) || (expireAfter > 0 && now - bloomStarted >= expireAfter)) {
+            BloomFilter oldest = previousBloom;
+            oldest.clear();
+            previousBloom = bloom;
+            bloom = oldest;
+            evicted.add(bloomCount);
+            bloomCount = 0;
+            bloomStarted = now;
+        }
+    }
+
+    private int bloomSize() {
+        return maxSize > 0 ? maxSize : Math.max(initialCapacity, capacity * 3 / 4);
+    }
+
+    private static int tableCapacity(int expected) {
+        long slots = Math.max(16, (long) expected * 4 / 3 + 1);
+        if (slots > MAX_CAPACITY) {
+            throw new IllegalStateException("Cannot hold more than " + (MAX_CAPACITY * 3 / 4) + " keys");
+        }
+        return Integer.highestOneBit((int) slots - 1) << 1;
+    }
+
+    private static LongBuffer allocateLongs(int size, boolean offHeap) {
+        if (offHeap) {
+            return ByteBuffer.allocateDirect(size * 8).order(ByteOrder.nativeOrder()).asLongBuffer();
+        }
+        return LongBuffer.allocate(size);
+    }
+
+    /**
+     * 64-bit FNV-1a hash of the characters with a final avalanche, where the two values reserved for
+     * empty and deleted slots are remapped.
+     */
+    private static long hash(String key) {
+        long h = 0xcbf29ce484222325L;
+        for (int i = 0; i < key.length(); i++) {
+            h ^= key.charAt(i);
+            h *= 0x100000001b3L;
+        }
+        h ^= h >>> 33;
+        h *= 0xff51afd7ed558ccdL;
+        h ^= h >>> 33;
+        h *= 0xc4ceb9fe1a85ec53L;
+        h ^= h >>> 33;
+        return h == EMPTY || h == DELETED ? h + 2 : h;
+    }
+
+    private static final class BloomFilter {
+        private final LongBuffer bits;
+        private final long numBits;
+        private final int numHashes;
+
+        BloomFilter(int expected, double fpp, boolean offHeap) {
+            double ln2 = Math.log(2);
+            long m = (long) Math.ceil(-Math.max(1, expected) * Math.log(fpp) / (ln2 * ln2));
+            int words = (int) Math.min(Integer.MAX_VALUE / 8, Math.max(1, (m + 63) >>> 6));
+            this.numBits = words * 64L;
+            this.numHashes = Math.max(1, (int) Math.round((double) numBits / Math.max(1, expected) * ln2));
+            this.bits = allocateLongs(words, offHeap);
+        }
+
+        void put(long hash) {
+            int h1 = (int) hash;
+            int h2 = (int) (hash >>> 32);
+            for (int i = 1; i <= numHashes; i++) {
+                long index = ((h1 + (long) i * h2) & Long.MAX_VALUE) % numBits;
+                int word = (int) (index >>> 6);
+                bits.put(word, bits.get(word) | (1L << index));
+            }
+        }
+
+        boolean mightContain(long hash) {
+            int h1 = (int) hash;
+            int h2 = (int) (hash >>> 32);
+            for (int i = 1; i <= numHashes; i++) {
+                long index = ((h1 + (long) i * h2) & Long.MAX_VALUE) % numBits;
+                if ((bits.get((int) (index >>> 6)) & (1L << index)) == 0) {
+                    return false;
+                }
+            }
+            return true;
+        }
+
+        void clear() {
+            for (int i = 0; i < bits.capacity(); i++) {
+                bits.put(i, 0);
+            }
+        }
+    }
+}
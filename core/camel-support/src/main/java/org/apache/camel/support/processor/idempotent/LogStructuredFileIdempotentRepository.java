@@ -0,0 +1,1123 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.apache.camel.support.processor.idempotent;
+
+import java.io.BufferedInputStream;
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.EOFException;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.RandomAccessFile;
+import java.lang.reflect.Field;
+import java.lang.reflect.Method;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.ClosedChannelException;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.StandardOpenOption;
+import java.nio.file.Files;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.TreeMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.zip.CRC32;
+
+import org.apache.camel.CamelContext;
+import org.apache.camel.CamelContextAware;
+import org.apache.camel.RuntimeCamelException;
+import org.apache.camel.api.management.ManagedAttribute;
+import org.apache.camel.api.management.ManagedOperation;
+import org.apache.camel.api.management.ManagedResource;
+import org.apache.camel.spi.IdempotentRepository;
+import org.apache.camel.support.service.ServiceSupport;
+import org.apache.camel.util.FileUtil;
+import org.apache.camel.util.IOHelper;
+import org.apache.camel.util.ObjectHelper;
+
+/**
+ * A log structured file based implementation of {@link org.apache.camel.spi.IdempotentRepository}.
+ * <p/>
+ * Unlike {@link FileIdempotentRepository} the store is never rewritten when keys are added or removed.
+ * Instead every add and remove is appended as a record to a segmented log in the given directory, and
+ * all keys are located by a memory mapped hash index holding a 64-bit hash and the position of the
+ * record in the log. A key is therefore looked up without scanning the file store, and removing a key
+ * (for example when an exchange is rolled back) costs a single append of a tombstone record.
+ * <p/>
+ * When the amount of dead records in the log exceeds the {@link #getCompactionThreshold() compaction threshold}
+ * the sealed segments are compacted by copying the live records into a new segment, which happens in a background
+ * thread when the repository has been given a {@link CamelContext}.
+ * <p/>
+ * When the repository is stopped the index is kept together with a checkpoint of the size of every segment,
+ * and the index is reused on startup if the checkpoint matches the segments in the directory. Otherwise (for example
+ * after a crash) the index is rebuilt from the log, and a record which was only partially written is truncated from the log.
+ * <p/>
+ * By default the log is left to the operating system to flush to disk. If {@link #setSync(boolean) sync} is enabled
+ * then {@link #add(String)} and {@link #remove(String)} do not return before the record has been forced to disk,
+ * where concurrent writers share the same force (group commit).
+ */
+@ManagedResource(description = "Log structured file based idempotent repository")
+public class LogStructuredFileIdempotentRepository extends ServiceSupport implements IdempotentRepository, CamelContextAware {
+
+    private static final byte RECORD_ADD = 1;
+    private static final byte RECORD_REMOVE = 2;
+    private static final int RECORD_HEADER_SIZE = 5;
+    private static final String SEGMENT_PREFIX = "segment-";
+    private static final String SEGMENT_SUFFIX = ".log";
+    private static final String INDEX_PREFIX = "index-";
+    private static final String INDEX_SUFFIX = ".dat";
+    private static final String CHECKPOINT_FILE = "index.checkpoint";
+    private static final int CHECKPOINT_VERSION = 1;
+    private static final int COMPACTION_BATCH_SIZE = 1024;
+
+    private final ReentrantReadWriteLock lock = new ReentrantReadWriteLock();
+    private final ReentrantLock syncLock = new ReentrantLock();
+    private final ReentrantLock compactionLock = new ReentrantLock();
+    private final AtomicBoolean compactionScheduled = new AtomicBoolean();
+    private final AtomicLong compactions = new AtomicLong();
+    private final TreeMap<Integer, Segment> segments = new TreeMap<>();
+
+    private CamelContext camelContext;
+    private ExecutorService compactionExecutor;
+    private File directory;
+    private long segmentSize = 64 * 1024 * 1024L; // 64mb segments
+    private boolean sync;
+    private double compactionThreshold = 0.5d;
+    private long minCompactionSize = 4 * 1024 * 1024L;
+    private int initialIndexCapacity = 1 << 16;
+
+    // guarded by lock
+    private HashIndex index;
+    private Segment active;
+    private int nextSegmentId;
+    private int nextIndexId;
+    private long writtenSeq;
+    private volatile long liveBytes;
+    private volatile long totalBytes;
+    private volatile long syncedSeq;
+    private volatile boolean indexReused;
+
+    public LogStructuredFileIdempotentRepository() {
+    }
+
+    public LogStructuredFileIdempotentRepository(File directory) {
+        this.directory = directory;
+    }
+
+    /**
+     * Creates a new log structured file based repository storing its segments and index in the given directory.
+     *
+     * @param directory  the directory for the log segments and index
+     */
+    public static IdempotentRepository logStructuredFileIdempotentRepository(File directory) {
+        return new LogStructuredFileIdempotentRepository(directory);
+    }
+
+    /**
+     * Creates a new log structured file based repository storing its segments and index in the given directory.
+     *
+     * @param directory  the directory for the log segments and index
+     * @param sync       whether to force every write to disk before returning
+     */
+    public static IdempotentRepository logStructuredFileIdempotentRepository(File directory, boolean sync) {
+        LogStructuredFileIdempotentRepository repository = new LogStructuredFileIdempotentRepository(directory);
+        repository.setSync(sync);
+        return repository;
+    }
+
+    @Override
+    public CamelContext getCamelContext() {
+        return camelContext;
+    }
+
+    @Override
+    public void setCamelContext(CamelContext camelContext) {
+        this.camelContext = camelContext;
+    }
+
+    @ManagedOperation(description = "Adds the key to the store")
+    public boolean add(String key) {
+        byte[] data = key.getBytes(StandardCharsets.UTF_8);
+        long hash = hash(data);
+        long seq;
+
+        lock.writeLock().lock();
+        try {
+            if (findSlot(hash, data) >= 0) {
+                return false;
+            }
+            long location = append(RECORD_ADD, data);
+            insert(hash, location);
+            liveBytes += recordSize(data);
+            seq = ++writtenSeq;
+        } catch (IOException e) {
+            throw RuntimeCamelException.wrapRuntimeCamelException(e);
+        } finally {
+            lock.writeLock().unlock();
+        }
+
+        afterWrite(seq);
+        return true;
+    }
+
+    @ManagedOperation(description = "Does the store contain the given key")
+    public boolean contains(String key) {
+        byte[] data = key.getBytes(StandardCharsets.UTF_8);
+        long hash = hash(data);
+
+        lock.readLock().lock();
+        try {
+            return findSlot(hash, data) >= 0;
+        } catch (IOException e) {
+            throw RuntimeCamelException.wrapRuntimeCamelException(e);
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    @ManagedOperation(description = "Remove the key from the store")
+    public boolean remove(String key) {
+        byte[] data = key.getBytes(StandardCharsets.UTF_8);
+        long hash = hash(data);
+        long seq;
+
+        lock.writeLock().lock();
+        try {
+            int slot = findSlot(hash, data);
+            if (slot < 0) {
+                return false;
+            }
+            append(RECORD_REMOVE, data);
+            index.delete(slot);
+            liveBytes -= recordSize(data);
+            seq = ++writtenSeq;
+        } catch (IOException e) {
+            throw RuntimeCamelException.wrapRuntimeCamelException(e);
+        } finally {
+            lock.writeLock().unlock();
+        }
+
+        afterWrite(seq);
+        return true;
+    }
+
+    public boolean confirm(String key) {
+        // noop
+        return true;
+    }
+
+    @ManagedOperation(description = "Clear the store (danger this removes all entries)")
+    public void clear() {
+        compactionLock.lock();
+        try {
+            lock.writeLock().lock();
+            try {
+                closeSegments(true);
+                if (index != null) {
+                    index.delete();
+                }
+                index = newIndex(initialIndexCapacity);
+                active = newSegment(nextSegmentId++);
+                liveBytes = 0;
+                totalBytes = 0;
+            } catch (IOException e) {
+                throw RuntimeCamelException.wrapRuntimeCamelException(e);
+            } finally {
+                lock.writeLock().unlock();
+            }
+        } finally {
+            compactionLock.unlock();
+        }
+    }
+
+    /**
+     * Compacts the sealed segments of the log by copying the live records into a new segment
+     * and deleting the old segments afterwards.
+     * <p/>
+     * Adds and removes are not blocked while the records are copied, only while the index entries of
+     * the copied records are relocated in small batches.
+     */
+    @ManagedOperation(description = "Compacts the log by removing dead records")
+    public void compact() {
+        compactionLock.lock();
+        try {
+            doCompact();
+        } catch (IOException e) {
+            log.warn("Error compacting idempotent log store: " + directory + ". This exception is ignored.", e);
+        } finally {
+            compactionLock.unlock();
+        }
+    }
+
+    public File getDirectory() {
+        return directory;
+    }
+
+    public void setDirectory(File directory) {
+        this.directory = directory;
+    }
+
+    @ManagedAttribute(description = "The directory path for the log segments and index")
+    public String getDirectoryPath() {
+        return directory != null ? directory.getPath() : null;
+    }
+
+    @ManagedAttribute(description = "The maximum size in bytes of a log segment before a new segment is started")
+    public long getSegmentSize() {
+        return segmentSize;
+    }
+
+    /**
+     * Sets the maximum size in bytes of a log segment, before the log rolls over to a new segment.
+     * <p/>
+     * Only sealed segments are compacted, so smaller segments allows dead records to be reclaimed sooner.
+     * The default is 64mb.
+     */
+    public void setSegmentSize(long segmentSize) {
+        this.segmentSize = segmentSize;
+    }
+
+    @ManagedAttribute(description = "Whether every add and remove is forced to disk before returning")
+    public boolean isSync() {
+        return sync;
+    }
+
+    /**
+     * Whether every add and remove is forced to disk before returning.
+     * <p/>
+     * Concurrent writers waiting for their records to be forced share a single force of the log,
+     * so the cost is amortized when there are many concurrent consumers. Is default false.
+     */
+    public void setSync(boolean sync) {
+        this.sync = sync;
+    }
+
+    @ManagedAttribute(description = "The ratio of dead records in the log which triggers a compaction")
+    public double getCompactionThreshold() {
+        return compactionThreshold;
+    }
+
+    /**
+     * Sets the ratio (between 0 and 1) of dead bytes in the log which triggers a compaction. Is default 0.5.
+     */
+    public void setCompactionThreshold(double compactionThreshold) {
+        this.compactionThreshold = compactionThreshold;
+    }
+
+    @ManagedAttribute(description = "The minimum size in bytes of the log before a compaction is triggered")
+    public long getMinCompactionSize() {
+        return minCompactionSize;
+    }
+
+    /**
+     * Sets the minimum size in bytes of the log before a compaction is triggered. Is default 4mb.
+     */
+    public void setMinCompactionSize(long minCompactionSize) {
+        this.minCompactionSize = minCompactionSize;
+    }
+
+    public int getInitialIndexCapacity() {
+        return initialIndexCapacity;
+    }
+
+    /**
+     * Sets the initial number of slots in the hash index, which is grown on demand. Is default 65536.
+     */
+    public void setInitialIndexCapacity(int initialIndexCapacity) {
+        this.initialIndexCapacity = initialIndexCapacity;
+    }
+
+    @ManagedAttribute(description = "The current number of keys in the store")
+    public int getSize() {
+        lock.readLock().lock();
+        try {
+            return index != null ? index.live : 0;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    @ManagedAttribute(description = "The current number of log segments")
+    public int getSegmentCount() {
+        lock.readLock().lock();
+        try {
+            return segments.size();
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    @ManagedAttribute(description = "The current size of the log in bytes")
+    public long getLogSize() {
+        return totalBytes;
+    }
+
+    @ManagedAttribute(description = "The size in bytes of the live records in the log")
+    public long getLiveSize() {
+        return liveBytes;
+    }
+
+    @ManagedAttribute(description = "Number of compactions of the log")
+    public long getCompactionCount() {
+        return compactions.get();
+    }
+
+    @ManagedAttribute(description = "Whether the index was reused on startup instead of being rebuilt from the log")
+    public boolean isIndexReused() {
+        return indexReused;
+    }
+
+    @Override
+    protected void doStart() throws Exception {
+        ObjectHelper.notNull(directory, "directory", this);
+        if (segmentSize <= RECORD_HEADER_SIZE) {
+            throw new IllegalArgumentException("SegmentSize must be larger than " + RECORD_HEADER_SIZE + ", was: " + segmentSize);
+        }
+
+        if (!directory.exists()) {
+            log.debug("Creating idempotent log store directory: {}", directory);
+            if (!directory.mkdirs()) {
+                throw new IOException("Cannot create idempotent log store directory: " + directory);
+            }
+        }
+
+        lock.writeLock().lock();
+        try {
+            loadStore();
+        } finally {
+            lock.writeLock().unlock();
+        }
+
+        if (camelContext != null && compactionExecutor == null) {
+            compactionExecutor = camelContext.getExecutorServiceManager().newSingleThreadExecutor(this, "LogStructuredIdempotentCompaction");
+        }
+    }
+
+    @Override
+    protected void doStop() throws Exception {
+        if (compactionExecutor != null) {
+            camelContext.getExecutorServiceManager().shutdownGraceful(compactionExecutor);
+            compactionExecutor = null;
+        }
+
+        compactionLock.lock();
+        try {
+            lock.writeLock().lock();
+            try {
+                if (index != null) {
+                    writeCheckpoint();
+                    index.close();
+                    index = null;
+                }
+                closeSegments(false);
+            } finally {
+                lock.writeLock().unlock();
+            }
+        } finally {
+            compactionLock.unlock();
+        }
+    }
+
+    /**
+     * Loads the index kept when the repository was stopped, or rebuilds the index by replaying
+     * all segments in the order they were created.
+     */
+    protected void loadStore() throws IOException {
+        File[] files = directory.listFiles();
+        List<Integer> ids = new ArrayList<>();
+        List<File> indexFiles = new ArrayList<>();
+        if (files != null) {
+            for (File file : files) {
+                String name = file.getName();
+                if (name.startsWith(INDEX_PREFIX) && name.endsWith(INDEX_SUFFIX)) {
+                    indexFiles.add(file);
+                } else if (name.startsWith(SEGMENT_PREFIX) && name.endsWith(SEGMENT_SUFFIX)) {
+                    String id = name.substring(SEGMENT_PREFIX.length(), name.length() - SEGMENT_SUFFIX.length());
+                    try {
+                        ids.add(Integer.valueOf(id));
+                    } catch (NumberFormatException e) {
+                        log.warn("Ignoring unknown file: {} in idempotent log store: {}", file, directory);
+                    }
+                }
+            }
+        }
+        ids.sort(null);
+
+        liveBytes = 0;
+        totalBytes = 0;
+        nextSegmentId = 0;
+        for (Integer id : ids) {
+            Segment segment = new Segment(id, segmentFile(id));
+            segments.put(id, segment);
+            nextSegmentId = id + 1;
+        }
+
+        // the checkpoint is only valid until the index is changed, so it is always deleted when loaded
+        index = loadCheckpoint();
+        indexReused = index != null;
+        for (File file : indexFiles) {
+            if (index == null || !file.equals(index.file)) {
+                FileUtil.deleteFile(file);
+            }
+        }
+        if (index == null) {
+            index = newIndex(initialIndexCapacity);
+            liveBytes = 0;
+            for (Segment segment : segments.values()) {
+                replay(segment);
+            }
+        }
+        for (Segment segment : segments.values()) {
+            totalBytes += segment.size;
+        }
+
+        Segment last = segments.isEmpty() ? null : segments.lastEntry().getValue();
+        active = last != null && last.size < segmentSize ? last : newSegment(nextSegmentId++);
+
+        log.debug("Loaded {} keys from {} segments in idempotent log store: {} (index reused: {})", index.live, segments.size(), directory, indexReused);
+    }
+
+    /**
+     * Writes the checkpoint of the index and the size of every segment, so the index can be reused on startup.
+     */
+    private void writeCheckpoint() {
+        File file = new File(directory, CHECKPOINT_FILE);
+        try {
+            index.force();
+            ByteArrayOutputStream bos = new ByteArrayOutputStream();
+            DataOutputStream out = new DataOutputStream(bos);
+            out.writeInt(CHECKPOINT_VERSION);
+            out.writeUTF(index.file.getName());
+            out.writeInt(index.capacity);
+            out.writeInt(index.used);
+            out.writeInt(index.live);
+            out.writeLong(liveBytes);
+            out.writeInt(segments.size());
+            for (Segment segment : segments.values()) {
+                segment.channel.force(false);
+                out.writeInt(segment.id);
+                out.writeLong(segment.size);
+            }
+            out.flush();
+            byte[] data = bos.toByteArray();
+            CRC32 crc = new CRC32();
+            crc.update(data, 0, data.length);
+
+            File tmp = new File(directory, CHECKPOINT_FILE + ".tmp");
+            try (FileOutputStream fos = new FileOutputStream(tmp); DataOutputStream dos = new DataOutputStream(fos)) {
+                dos.write(data);
+                dos.writeLong(crc.getValue());
+                dos.flush();
+                fos.getFD().sync();
+            }
+            if (!FileUtil.renameFile(tmp, file, true)) {
+                throw new IOException("Cannot rename " + tmp + " to " + file);
+            }
+        } catch (IOException e) {
+            log.warn("Error writing index checkpoint of idempotent log store: " + directory + ". The index will be rebuilt on startup.", e);
+            FileUtil.deleteFile(file);
+        }
+    }
+
+    /**
+     * Loads the index from the checkpoint if the checkpoint is valid and matches the segments in the directory.
+     *
+     * @return the index, or <tt>null</tt> if the index must be rebuilt from the log
+     */
+    private HashIndex loadCheckpoint() {
+        File file = new File(directory, CHECKPOINT_FILE);
+        if (!file.exists()) {
+            return null;
+        }
+        try {
+            byte[] bytes = Files.readAllBytes(file.toPath());
+            FileUtil.deleteFile(file);
+            if (bytes.length < 8) {
+                return null;
+            }
+            CRC32 crc = new CRC32();
+            crc.update(bytes, 0, bytes.length - 8);
+            DataInputStream in = new DataInputStream(new ByteArrayInputStream(bytes));
+            in.skipBytes(bytes.length - 8);
+            if (in.readLong() != crc.getValue()) {
+                log.debug("Ignoring corrupt index checkpoint in idempotent log store: {}", directory);
+                return null;
+            }
+
+            in = new DataInputStream(new ByteArrayInputStream(bytes, 0, bytes.length - 8));
+            if (in.readInt() != CHECKPOINT_VERSION) {
+                return null;
+            }
+            File indexFile = new File(directory, in.readUTF());
+            int capacity = in.readInt();
+            int used = in.readInt();
+            int live = in.readInt();
+            long checkpointLiveBytes = in.readLong();
+            int count = in.readInt();
+            if (count != segments.size()) {
+                log.debug("Index checkpoint does not match the segments in idempotent log store: {}", directory);
+                return null;
+            }
+            for (int i = 0; i < count; i++) {
+                Segment segment = segments.get(in.readInt());
+                if (segment == null || segment.size != in.readLong()) {
+                    log.debug("Index checkpoint does not match the segments in idempotent log store: {}", directory);
+                    return null;
+                }
+            }
+            HashIndex answer = HashIndex.open(indexFile, capacity, used, live);
+            if (answer == null) {
+                return null;
+            }
+            String name = indexFile.getName();
+            nextIndexId = Integer.parseInt(name.substring(INDEX_PREFIX.length(), name.length() - INDEX_SUFFIX.length())) + 1;
+            liveBytes = checkpointLiveBytes;
+            return answer;
+        } catch (IOException | NumberFormatException e) {
+            log.debug("Ignoring unreadable index checkpoint in idempotent log store: " + directory, e);
+            return null;
+        }
+    }
+
+    private void replay(Segment segment) throws IOException {
+        long offset = 0;
+        try (DataInputStream in = new DataInputStream(new BufferedInputStream(new FileInputStream(segment.file)))) {
+            while (offset < segment.size) {
+                byte type = in.readByte();
+                int length = in.readInt();
+                if ((type != RECORD_ADD && type != RECORD_REMOVE) || length < 0 || offset + RECORD_HEADER_SIZE + length > segment.size) {
+                    break;
+                }
+                byte[] data = new byte[length];
+                in.readFully(data);
+
+                long hash = hash(data);
+                int slot = findSlot(hash, data);
+                if (type == RECORD_ADD) {
+                    if (slot >= 0) {
+                        // a duplicate from an interrupted compaction so the newest record wins
+                        index.setLocation(slot, location(segment.id, offset));
+                    } else {
+                        insert(hash, location(segment.id, offset));
+                        liveBytes += recordSize(data);
+                    }
+                } else if (slot >= 0) {
+                    index.delete(slot);
+                    liveBytes -= recordSize(data);
+                }
+                offset += RECORD_HEADER_SIZE + length;
+            }
+        } catch (EOFException e) {
+            // partial record at the end of the segment
+        }
+
+        if (offset < segment.size) {
+            log.warn("Truncating partial record at position: {} in idempotent log segment: {}", offset, segment.file);
+            segment.channel.truncate(offset);
+            segment.size = offset;
+        }
+    }
+
+    private void doCompact() throws IOException {
+        List<Segment> sealed = new ArrayList<>();
+        Segment compacted;
+
+        lock.writeLock().lock();
+        try {
+            if (index == null || segments.size() <= 1 && active.size == 0) {
+                return;
+            }
+            // the compacted segment must be replayed after the sealed segments but before the new active segment
+            compacted = newSegment(nextSegmentId++);
+            roll();
+            for (Segment segment : segments.values()) {
+                if (segment.id < compacted.id) {
+                    sealed.add(segment);
+                }
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+
+        log.debug("Compacting {} segments in idempotent log store: {}", sealed.size(), directory);
+
+        long[] hashes = new long[COMPACTION_BATCH_SIZE];
+        long[] from = new long[COMPACTION_BATCH_SIZE];
+        long[] to = new long[COMPACTION_BATCH_SIZE];
+        int batch = 0;
+
+        for (Segment segment : sealed) {
+            long offset = 0;
+            try (DataInputStream in = new DataInputStream(new BufferedInputStream(new FileInputStream(segment.file)))) {
+                while (offset < segment.size) {
+                    byte type = in.readByte();
+                    int length = in.readInt();
+                    byte[] data = new byte[length];
+                    in.readFully(data);
+                    long location = location(segment.id, offset);
+                    offset += RECORD_HEADER_SIZE + length;
+
+                    // tombstones are dropped as all older records are compacted as well
+                    if (type != RECORD_ADD) {
+                        continue;
+                    }
+                    long hash = hash(data);
+                    lock.readLock().lock();
+                    try {
+                        if (index.findLocation(hash, location) < 0) {
+                            continue;
+                        }
+                    } finally {
+                        lock.readLock().unlock();
+                    }
+
+                    hashes[batch] = hash;
+                    from[batch] = location;
+                    to[batch] = location(compacted.id, compacted.append(record(RECORD_ADD, data)));
+                    if (++batch == COMPACTION_BATCH_SIZE) {
+                        relocate(hashes, from, to, batch);
+                        batch = 0;
+                    }
+                }
+            }
+        }
+        relocate(hashes, from, to, batch);
+        compacted.channel.force(false);
+
+        lock.writeLock().lock();
+        try {
+            long size = 0;
+            for (Segment segment : sealed) {
+                segments.remove(segment.id);
+                IOHelper.close(segment.channel);
+                FileUtil.deleteFile(segment.file);
+            }
+            for (Segment segment : segments.values()) {
+                size += segment.size;
+            }
+            totalBytes = size;
+        } finally {
+            lock.writeLock().unlock();
+        }
+
+        compactions.incrementAndGet();
+        log.debug("Compacted idempotent log store: {} to {} bytes", directory, totalBytes);
+    }
+
+    private void relocate(long[] hashes, long[] from, long[] to, int count) {
+        if (count == 0) {
+            return;
+        }
+        lock.writeLock().lock();
+        try {
+            for (int i = 0; i < count; i++) {
+                // the key may have been removed while its record was copied
+                int slot = index.findLocation(hashes[i], from[i]);
+                if (slot >= 0) {
+                    index.setLocation(slot, to[i]);
+                }
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    private void afterWrite(long seq) {
+        if (sync) {
+            syncTo(seq);
+        }
+
+        long total = totalBytes;
+        if (total >= minCompactionSize && (total - liveBytes) >= total * compactionThreshold
+            && compactionScheduled.compareAndSet(false, true)) {
+            Runnable task = () -> {
+                try {
+                    compact();
+                } finally {
+                    compactionScheduled.set(false);
+                }
+            };
+            if (compactionExecutor != null) {
+                compactionExecutor.execute(task);
+            } else {
+                task.run();
+            }
+        }
+    }
+
+    private void syncTo(long seq) {
+        if (syncedSeq >= seq) {
+            return;
+        }
+        syncLock.lock();
+        try {
+            // another writer may have forced our record as part of its force
+            if (syncedSeq >= seq) {
+                return;
+            }
+            long target;
+            Segment segment;
+            lock.readLock().lock();
+            try {
+                target = writtenSeq;
+                segment = active;
+            } finally {
+                lock.readLock().unlock();
+            }
+            try {
+                segment.channel.force(false);
+            } catch (ClosedChannelException e) {
+                // the segment was forced when it was sealed
+            }
+            syncedSeq = target;
+        } catch (IOException e) {
+            throw RuntimeCamelException.wrapRuntimeCamelException(e);
+        } finally {
+            syncLock.unlock();
+        }
+    }
+
+    private long append(byte type, byte[] data) throws IOException {
+        if (active.size >= segmentSize) {
+            roll();
+        }
+        ByteBuffer record = record(type, data);
+        int size = record.remaining();
+        long offset = active.append(record);
+        totalBytes += size;
+        return location(active.id, offset);
+    }
+
+    private void roll() throws IOException {
+        if (sync) {
+            active.channel.force(false);
+        }
+        active = newSegment(nextSegmentId++);
+    }
+
+    private int findSlot(long hash, byte[] data) throws IOException {
+        int mask = index.capacity - 1;
+        int i = (int) hash & mask;
+        for (int n = 0; n < index.capacity; n++) {
+            long h = index.hash(i);
+            if (h == HashIndex.EMPTY) {
+                return -1;
+            }
+            if (h == hash && keyEquals(index.location(i), data)) {
+                return i;
+            }
+            i = (i + 1) & mask;
+        }
+        return -1;
+    }
+
+    private void insert(long hash, long location) throws IOException {
+        if (index.used + 1 > index.capacity * 0.7) {
+            // grow if the table is mostly live keys, otherwise only purge the deleted slots
+            int capacity = index.live + 1 > index.capacity * 0.35 ? index.capacity << 1 : index.capacity;
+            HashIndex old = index;
+            index = newIndex(capacity);
+            for (int i = 0; i < old.capacity; i++) {
+                long h = old.hash(i);
+                if (h != HashIndex.EMPTY && h != HashIndex.DELETED) {
+                    index.put(h, old.location(i));
+                }
+            }
+            old.delete();
+        }
+        index.put(hash, location);
+    }
+
+    private boolean keyEquals(long location, byte[] data) throws IOException {
+        Segment segment = segments.get((int) (location >>> 40));
+        if (segment == null) {
+            return false;
+        }
+        ByteBuffer buffer = ByteBuffer.allocate(RECORD_HEADER_SIZE + data.length);
+        long position = location & 0xFFFFFFFFFFL;
+        while (buffer.hasRemaining()) {
+            if (segment.channel.read(buffer, position + buffer.position()) < 0) {
+                return false;
+            }
+        }
+        buffer.flip();
+        if (buffer.get() != RECORD_ADD || buffer.getInt() != data.length) {
+            return false;
+        }
+        for (byte b : data) {
+            if (buffer.get() != b) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private HashIndex newIndex(int capacity) throws IOException {
+        if (capacity > HashIndex.MAX_CAPACITY) {
+            throw new IllegalStateException("Idempotent log store: " + directory + " cannot hold more than " + HashIndex.MAX_CAPACITY + " keys");
+        }
+        return new HashIndex(new File(directory, INDEX_PREFIX + nextIndexId++ + INDEX_SUFFIX), capacity);
+    }
+
+    private Segment newSegment(int id) throws IOException {
+        Segment segment = new Segment(id, segmentFile(id));
+        segments.put(id, segment);
+        return segment;
+    }
+
+    private File segmentFile(int id) {
+        return new File(directory, String.format("%s%010d%s", SEGMENT_PREFIX, id, SEGMENT_SUFFIX));
+    }
+
+    private void closeSegments(boolean delete) {
+        for (Segment segment : segments.values()) {
+            if (!delete && sync) {
+                try {
+                    segment.channel.force(false);
+                } catch (IOException e) {
+                    log.warn("Error forcing idempotent log segment: " + segment.file + ". This exception is ignored.", e);
+                }
+            }
+            IOHelper.close(segment.channel);
+            if (delete) {
+                FileUtil.deleteFile(segment.file);
+            }
+        }
+        segments.clear();
+        active = null;
+    }
+
+    private static ByteBuffer record(byte type, byte[] data) {
+        ByteBuffer record = ByteBuffer.allocate(RECORD_HEADER_SIZE + data.length);
+        record.put(type).putInt(data.length).put(data);
+        record.flip();
+        return record;
+    }
+
+    private static int recordSize(byte[] data) {
+        return RECORD_HEADER_SIZE + data.length;
+    }
+
+    private static long location(int segmentId, long offset) {
+        return ((long) segmentId << 40) | offset;
+    }
+
+    /**
+     * 64-bit FNV-1a hash with a final avalanche, where the two values reserved for empty and deleted slots
+     * are remapped.
+     */
+    private static long hash(byte[] data) {
+        long h = 0xcbf29ce484222325L;
+        for (byte b : data) {
+            h ^= b & 0xff;
+            h *= 0x100000001b3L;
+        }
+        h ^= h >>> 33;
+        h *= 0xff51afd7ed558ccdL;
+        h ^= h >>> 33;
+        h *= 0xc4ceb9fe1a85ec53L;
+        h ^= h >>> 33;
+        return h == HashIndex.EMPTY || h == HashIndex.DELETED ? h + 2 : h;
+    }
+
+    private static final class Segment {
+        private final int id;
+        private final File file;
+        private final FileChannel channel;
+        private volatile long size;
+
+        Segment(int id, File file) throws IOException {
+            this.id = id;
+            this.file = file;
+            this.channel = FileChannel.open(file.toPath(), StandardOpenOption.CREATE, StandardOpenOption.READ, StandardOpenOption.WRITE);
+            this.size = channel.size();
+        }
+
+        long append(ByteBuffer record) throws IOException {
+            long offset = size;
+            long position = offset;
+            while (record.hasRemaining()) {
+                position += channel.write(record, position);
+            }
+            size = position;
+            return offset;
+        }
+    }
+
+    /**
+     * Open addressing hash table with linear probing stored in a memory mapped file, where each slot
+     * holds the 64-bit hash of the key and the location of its record in the log.
+     */
+    private static final class HashIndex {
+        static final long EMPTY = 0;
+        static final long DELETED = 1;
+        static final int SLOT_SIZE = 16;
+        static final int MAX_CAPACITY = 1 << 26;
+
+        private final File file;
+        private final MappedByteBuffer buffer;
+        private final int capacity;
+        private int used;
+        private int live;
+
+        HashIndex(File file, int capacity) throws IOException {
+            this.file = file;
+            this.capacity = Integer.highestOneBit(Math.max(16, capacity - 1) << 1);
+            try (RandomAccessFile raf = new RandomAccessFile(file, "rw")) {
+                raf.setLength(0);
+                raf.setLength((long) this.capacity * SLOT_SIZE);
+                this.buffer = raf.getChannel().map(FileChannel.MapMode.READ_WRITE, 0, (long) this.capacity * SLOT_SIZE);
+            }
+        }
+
+        private HashIndex(File file, int capacity, MappedByteBuffer buffer, int used, int live) {
+            this.file = file;
+            this.capacity = capacity;
+            this.buffer = buffer;
+            this.used = used;
+            this.live = live;
+        }
+
+        /**
+         * Maps an existing index file.
+         *
+         * @return the index, or <tt>null</tt> if the file does not exist or does not have the expected size
+         */
+        static HashIndex open(File file, int capacity, int used, int live) throws IOException {
+            if (capacity <= 0 || Integer.bitCount(capacity) != 1 || capacity > MAX_CAPACITY || used > capacity || live > used
+                || !file.isFile() || file.length() != (long) capacity * SLOT_SIZE) {
+                return null;
+            }
+            try (RandomAccessFile raf = new RandomAccessFile(file, "rw")) {
+                MappedByteBuffer buffer = raf.getChannel().map(FileChannel.MapMode.READ_WRITE, 0, (long) capacity * SLOT_SIZE);
+                return new HashIndex(file, capacity, buffer, used, live);
+            }
+        }
+
+        long hash(int slot) {
+            return buffer.getLong(slot * SLOT_SIZE);
+        }
+
+        long location(int slot) {
+            return buffer.getLong(slot * SLOT_SIZE + 8);
+        }
+
+        void setLocation(int slot, long location) {
+            buffer.putLong(slot * SLOT_SIZE + 8, location);
+        }
+
+        void put(long hash, long location) {
+            int mask = capacity - 1;
+            int i = (int) hash & mask;
+            while (true) {
+                long h = hash(i);
+                if (h == EMPTY || h == DELETED) {
+                    if (h == EMPTY) {
+                        used++;
+                    }
+                    buffer.putLong(i * SLOT_SIZE, hash);
+                    buffer.putLong(i * SLOT_SIZE + 8, location);
+                    live++;
+                    return;
+                }
+                i = (i + 1) & mask;
+            }
+        }
+
+        int findLocation(long hash, long location) {
+            int mask = capacity - 1;
+            int i = (int) hash & mask;
+            for (int n = 0; n < capacity; n++) {
+                long h = hash(i);
+                if (h == EMPTY) {
+                    return -1;
+                }
+                if (h == hash && location(i) == location) {
+                    return i;
+                }
+                i = (i + 1) & mask;
+            }
+            return -1;
+        }
+
+        void delete(int slot) {
+            buffer.putLong(slot * SLOT_SIZE, DELETED);
+            live--;
+        }
+
+        void force() {
+            buffer.force();
+        }
+
+        /**
+         * Unmaps the index, which must not be used afterwards.
+         */
+        void close() {
+            unmap(buffer);
+        }
+
+        /**
+         * Unmaps and deletes the index, which must not be used afterwards.
+         */
+        void delete() {
+            close();
+            FileUtil.deleteFile(file);
+        }
+
+        /**
+         * Releases the mapping right away, as it is otherwise only released when the buffer is garbage collected,
+         * which keeps the deleted file on disk and prevents deleting it on some platforms.
+         */
+        private static void unmap(MappedByteBuffer buffer) {
+            try {
+                Class<?> unsafeClass = Class.forName("sun.misc.Unsafe");
+                Method invokeCleaner;
+                try {
+                    invokeCleaner = unsafeClass.getMethod("invokeCleaner", ByteBuffer.class);
+                } catch (NoSuchMethodException e) {
+                    invokeCleaner = null;
+                }
+                if (invokeCleaner != null) {
+                    // java 9 onwards
+                    Field field = unsafeClass.getDeclaredField("theUnsafe");
+                    field.setAccessible(true);
+                    invokeCleaner.invoke(field.get(null), buffer);
+                } else {
+                    Method cleanerMethod = buffer.getClass().getMethod("cleaner");
+                    cleanerMethod.setAccessible(true);
+                    Object cleaner = cleanerMethod.invoke(buffer);
+                    if (cleaner != null) {
+                        Method clean = cleaner.getClass().getMethod("clean");
+                        clean.setAccessible(true);
+                        clean.invoke(cleaner);
+                    }
+                }
+            } catch (Throwable e) {
+                // ignore as the mapping is then released when the buffer is garbage collected
+            }
+        }
+    }
+}
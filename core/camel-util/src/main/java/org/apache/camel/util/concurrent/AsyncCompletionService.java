@@ -69,6 +69,19 @@ public class AsyncCompletionService<V> {
         }
     }
 
+    /**
+     * Number of completed tasks which are not yet polled
+     */
+    public int size() {
+        final ReentrantLock lock = this.lock;
+        lock.lock();
+        try {
+            return queue.size();
+        } finally {
+            lock.unlock();
+        }
+    }
+
     public V poll() {
         final ReentrantLock lock = this.lock;
         lock.lock();
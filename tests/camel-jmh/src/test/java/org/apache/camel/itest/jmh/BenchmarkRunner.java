@@ -0,0 +1,133 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.apache.camel.itest.jmh;
+
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.FileOutputStream;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import java.util.Properties;
+import java.util.TreeMap;
+
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.infra.BenchmarkParams;
+import org.openjdk.jmh.profile.GCProfiler;
+import org.openjdk.jmh.results.RunResult;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.options.ChainedOptionsBuilder;
+
+/**
+ * Runs the benchmarks and optionally compares the scores against a baseline, so hot path regressions can be caught.
+ * <p/>
+ * The runner is configured using system properties:
+ * <ul>
+ *     <li>camel.jmh.gc - whether to add the GC profiler to measure the allocation rate (default false)</li>
+ *     <li>camel.jmh.baseline - the baseline file to compare against (default target/jmh-baseline.properties)</li>
+ *     <li>camel.jmh.updateBaseline - whether to store the scores in the baseline file instead of comparing (default false)</li>
+ *     <li>camel.jmh.threshold - the allowed regression in percent before the run fails (default 10)</li>
+ * </ul>
+ * For example to record a baseline before a change, and compare after the change:
+ * <pre>
+ *     mvn test -P jmh -Dtest=RouteEipTest -Dcamel.jmh.updateBaseline=true
+ *     mvn test -P jmh -Dtest=RouteEipTest -Dcamel.jmh.gc=true
+ * </pre>
+ */
+public final class BenchmarkRunner {
+
+    private BenchmarkRunner() {
+    }
+
+    public static Collection<RunResult> run(ChainedOptionsBuilder builder) throws Exception {
+        if (Boolean.getBoolean("camel.jmh.gc")) {
+            builder.addProfiler(GCProfiler.class);
+        }
+        Collection<RunResult> results = new Runner(builder.build()).run();
+
+        File baseline = new File(System.getProperty("camel.jmh.baseline", "target/jmh-baseline.properties"));
+        if (Boolean.getBoolean("camel.jmh.updateBaseline")) {
+            updateBaseline(baseline, results);
+        } else if (baseline.exists()) {
+            double threshold = Double.parseDouble(System.getProperty("camel.jmh.threshold", "10"));
+            List<String> regressions = compare(baseline, results, threshold);
+            if (!regressions.isEmpty()) {
+                throw new AssertionError("Benchmarks regressed more than " + threshold + "% compared to baseline " + baseline + ":\n"
+                        + String.join("\n", regressions));
+            }
+        }
+        return results;
+    }
+
+    static List<String> compare(File baseline, Collection<RunResult> results, double threshold) throws Exception {
+        Properties scores = load(baseline);
+        List<String> regressions = new ArrayList<>();
+        for (RunResult result : results) {
+            String key = key(result.getParams());
+            String value = scores.getProperty(key);
+            if (value == null) {
+                continue;
+            }
+            double before = Double.parseDouble(value);
+            double after = result.getPrimaryResult().getScore();
+            // throughput is better when higher, the time based modes are better when lower
+            double change = result.getParams().getMode() == Mode.Throughput
+                    ? (before - after) / before * 100 : (after - before) / before * 100;
+            if (change > threshold) {
+                regressions.add(String.format("  %s: %.3f -> %.3f %s (%.1f%% worse)", key, before, after,
+                        result.getPrimaryResult().getScoreUnit(), change));
+            }
+        }
+        return regressions;
+    }
+
+    static void updateBaseline(File baseline, Collection<RunResult> results) throws Exception {
+        Properties scores = baseline.exists() ? load(baseline) : new Properties();
+        for (RunResult result : results) {
+            scores.setProperty(key(result.getParams()), Double.toString(result.getPrimaryResult().getScore()));
+        }
+        if (baseline.getParentFile() != null) {
+            baseline.getParentFile().mkdirs();
+        }
+        try (OutputStream os = new FileOutputStream(baseline)) {
+            scores.store(os, "JMH baseline scores");
+        }
+    }
+
+    private static Properties load(File file) throws Exception {
+        Properties answer = new Properties();
+        try (InputStream is = new FileInputStream(file)) {
+            answer.load(is);
+        }
+        return answer;
+    }
+
+    private static String key(BenchmarkParams params) {
+        StringBuilder sb = new StringBuilder(params.getBenchmark());
+        Map<String, String> sorted = new TreeMap<>();
+        for (String name : params.getParamsKeys()) {
+            sorted.put(name, params.getParam(name));
+        }
+        sorted.forEach((k, v) -> sb.append(':').append(k).append('=').append(v));
+        sb.append(':').append(params.getMode().shortLabel()).append(":t").append(params.getThreads());
+        return sb.toString();
+    }
+
+}
@@ -0,0 +1,137 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.apache.camel.itest.jmh;
+
+import java.util.concurrent.TimeUnit;
+
+import org.apache.camel.CamelContext;
+import org.apache.camel.Exchange;
+import org.apache.camel.Processor;
+import org.apache.camel.ProducerTemplate;
+import org.apache.camel.builder.RouteBuilder;
+import org.apache.camel.impl.DefaultCamelContext;
+import org.junit.Test;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.infra.Blackhole;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+import org.openjdk.jmh.runner.options.TimeValue;
+
+/**
+ * Tests the overhead of the error handlers when a message is routed successfully, and when an exception is handled.
+ */
+public class ErrorHandlerTest {
+
+    @Test
+    public void launchBenchmark() throws Exception {
+        OptionsBuilder opt = new OptionsBuilder();
+        opt
+            // Specify which benchmarks to run.
+            // You can be more specific if you'd like to run only one benchmark per test.
+            .include(this.getClass().getName() + ".*")
+            // Set the following options as needed
+            .mode(Mode.Throughput)
+            .mode(Mode.SampleTime)
+            .timeUnit(TimeUnit.MICROSECONDS)
+            .warmupTime(TimeValue.seconds(1))
+            .warmupIterations(2)
+            .measurementTime(TimeValue.seconds(2))
+            .measurementIterations(3)
+            .threads(1)
+            .forks(1)
+            .shouldFailOnError(true)
+            .shouldDoGC(true);
+
+        BenchmarkRunner.run(opt);
+    }
+
+    // The JMH samples are the best documentation for how to use it
+    // http://hg.openjdk.java.net/code-tools/jmh/file/tip/jmh-samples/src/main/java/org/openjdk/jmh/samples/
+    @State(Scope.Benchmark)
+    public static class BenchmarkState {
+
+        @Param({"noErrorHandler", "defaultErrorHandler", "deadLetterChannel", "onException", "redelivery"})
+        String errorHandler;
+
+        @Param({"false", "true"})
+        boolean fail;
+
+        CamelContext camel;
+        ProducerTemplate producer;
+        String uri;
+        Processor prepare;
+
+        @Setup(Level.Trial)
+        public void initialize() throws Exception {
+            camel = new DefaultCamelContext();
+            camel.addRoutes(new RouteBuilder() {
+                @Override
+                public void configure() throws Exception {
+                    from("direct:noErrorHandler").errorHandler(noErrorHandler())
+                        .to("direct:process");
+
+                    from("direct:defaultErrorHandler").errorHandler(defaultErrorHandler().logExhausted(false))
+                        .to("direct:process");
+
+                    from("direct:deadLetterChannel").errorHandler(deadLetterChannel("mock:dead?retainFirst=0"))
+                        .to("direct:process");
+
+                    from("direct:onException")
+                        .onException(IllegalArgumentException.class).handled(true).to("mock:handled?retainFirst=0").end()
+                        .to("direct:process");
+
+                    from("direct:redelivery").errorHandler(deadLetterChannel("mock:dead?retainFirst=0").maximumRedeliveries(2).redeliveryDelay(0))
+                        .to("direct:process");
+
+                    from("direct:process").errorHandler(noErrorHandler())
+                        .process(BenchmarkState::process)
+                        .to("mock:result?retainFirst=0");
+                }
+            });
+            camel.start();
+            producer = camel.createProducerTemplate();
+            uri = "direct:" + errorHandler;
+            prepare = e -> e.getIn().setHeader("fail", fail);
+        }
+
+        @TearDown(Level.Trial)
+        public void close() throws Exception {
+            producer.stop();
+            camel.stop();
+        }
+
+        private static void process(Exchange exchange) {
+            if (exchange.getIn().getHeader("fail", boolean.class)) {
+                throw new IllegalArgumentException("Forced");
+            }
+        }
+
+    }
+
+    @Benchmark
+    public void send(BenchmarkState state, Blackhole bh) {
+        // the exchange is returned as is, so a failed exchange is not thrown as an exception
+        bh.consume(state.producer.send(state.uri, state.prepare));
+    }
+
+}
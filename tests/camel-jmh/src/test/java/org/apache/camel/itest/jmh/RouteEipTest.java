@@ -0,0 +1,154 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.apache.camel.itest.jmh;
+
+import java.util.concurrent.TimeUnit;
+
+import org.apache.camel.CamelContext;
+import org.apache.camel.ExchangePattern;
+import org.apache.camel.ProducerTemplate;
+import org.apache.camel.builder.RouteBuilder;
+import org.apache.camel.impl.DefaultCamelContext;
+import org.apache.camel.processor.aggregate.UseLatestAggregationStrategy;
+import org.junit.Test;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.infra.Blackhole;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+import org.openjdk.jmh.runner.options.TimeValue;
+
+/**
+ * Tests the throughput and latency of the EIPs and the direct and seda hops in a running route.
+ * <p/>
+ * Each EIP is measured as a separate route, which is selected by the <tt>eip</tt> parameter.
+ */
+public class RouteEipTest {
+
+    @Test
+    public void launchBenchmark() throws Exception {
+        OptionsBuilder opt = new OptionsBuilder();
+        opt
+            // Specify which benchmarks to run.
+            // You can be more specific if you'd like to run only one benchmark per test.
+            .include(this.getClass().getName() + ".*")
+            // Set the following options as needed
+            .mode(Mode.Throughput)
+            .mode(Mode.SampleTime)
+            .timeUnit(TimeUnit.MICROSECONDS)
+            .warmupTime(TimeValue.seconds(1))
+            .warmupIterations(2)
+            .measurementTime(TimeValue.seconds(2))
+            .measurementIterations(3)
+            .threads(1)
+            .forks(1)
+            .shouldFailOnError(true)
+            .shouldDoGC(true);
+
+        BenchmarkRunner.run(opt);
+    }
+
+    // The JMH samples are the best documentation for how to use it
+    // http://hg.openjdk.java.net/code-tools/jmh/file/tip/jmh-samples/src/main/java/org/openjdk/jmh/samples/
+    @State(Scope.Benchmark)
+    public static class BenchmarkState {
+
+        @Param({"pipeline", "direct", "seda", "choice", "recipientList", "wireTap", "split", "multicast", "multicastParallel", "aggregate"})
+        String eip;
+
+        CamelContext camel;
+        ProducerTemplate producer;
+        String uri;
+        String body = "A,B,C,D,E,F,G,H,I,J";
+
+        @Setup(Level.Trial)
+        public void initialize() throws Exception {
+            camel = new DefaultCamelContext();
+            camel.addRoutes(new RouteBuilder() {
+                @Override
+                public void configure() throws Exception {
+                    from("direct:pipeline")
+                        .setHeader("foo", constant("123"))
+                        .setHeader("bar", constant("456"))
+                        .to("mock:result?retainFirst=0");
+
+                    from("direct:direct")
+                        .to("direct:hop");
+                    from("direct:hop")
+                        .to("mock:result?retainFirst=0");
+
+                    from("direct:seda")
+                        .to(ExchangePattern.InOut, "seda:hop");
+                    from("seda:hop")
+                        .to("mock:result?retainFirst=0");
+
+                    from("direct:choice")
+                        .setHeader("country", constant("DK"))
+                        .choice()
+                            .when(header("country").isEqualTo("SE")).to("mock:se?retainFirst=0")
+                            .when(header("country").isEqualTo("NO")).to("mock:no?retainFirst=0")
+                            .when(header("country").isEqualTo("DK")).to("mock:dk?retainFirst=0")
+                            .otherwise().to("mock:other?retainFirst=0");
+
+                    from("direct:recipientList")
+                        .recipientList(constant("mock:a?retainFirst=0,mock:b?retainFirst=0,mock:c?retainFirst=0"));
+
+                    from("direct:wireTap")
+                        .wireTap("mock:tap?retainFirst=0")
+                        .to("mock:result?retainFirst=0");
+
+                    from("direct:split")
+                        .split(body().tokenize(","))
+                            .to("mock:line?retainFirst=0");
+
+                    from("direct:multicast")
+                        .multicast(new UseLatestAggregationStrategy())
+                            .to("mock:a?retainFirst=0", "mock:b?retainFirst=0", "mock:c?retainFirst=0");
+
+                    from("direct:multicastParallel")
+                        .multicast(new UseLatestAggregationStrategy()).parallelProcessing()
+                            .to("mock:a?retainFirst=0", "mock:b?retainFirst=0", "mock:c?retainFirst=0");
+
+                    from("direct:aggregate")
+                        .aggregate(constant(true), new UseLatestAggregationStrategy()).completionSize(10)
+                            .to("mock:result?retainFirst=0");
+                }
+            });
+            camel.start();
+            producer = camel.createProducerTemplate();
+            uri = "direct:" + eip;
+        }
+
+        @TearDown(Level.Trial)
+        public void close() throws Exception {
+            producer.stop();
+            camel.stop();
+        }
+
+    }
+
+    @Benchmark
+    public void send(BenchmarkState state, Blackhole bh) {
+        bh.consume(state.producer.requestBody(state.uri, state.body));
+    }
+
+}
@@ -21,6 +21,7 @@ import java.util.concurrent.TimeUnit;
 import org.apache.camel.CamelContext;
 import org.apache.camel.Exchange;
 import org.apache.camel.impl.DefaultCamelContext;
+import org.apache.camel.language.simple.SimpleLanguage;
 import org.apache.camel.spi.Language;
 import org.apache.camel.support.DefaultExchange;
 import org.junit.Test;
@@ -71,16 +72,24 @@ public class SimpleExpressionTest {
     public static class BenchmarkState {
         CamelContext camel;
         String expression = "Hello ${body}";
+        String predicate = "${header.amount} > 100 && ${header.country} == 'DK'";
+        String ognl = "${body.name}";
         Exchange exchange;
+        Exchange ognlExchange;
         Language simple;
 
         @Setup(Level.Trial)
         public void initialize() {
             camel = new DefaultCamelContext();
             try {
+                configure(camel);
                 camel.start();
                 exchange = new DefaultExchange(camel);
                 exchange.getIn().setBody("World");
+                exchange.getIn().setHeader("amount", 123);
+                exchange.getIn().setHeader("country", "DK");
+                ognlExchange = new DefaultExchange(camel);
+                ognlExchange.getIn().setBody(new MyOrder("Camel"));
                 simple = camel.resolveLanguage("simple");
 
             } catch (Exception e) {
@@ -88,6 +97,10 @@ public class SimpleExpressionTest {
             }
         }
 
+        protected void configure(CamelContext camel) {
+            // noop
+        }
+
         @TearDown(Level.Trial)
         public void close() {
             try {
@@ -99,9 +112,64 @@ public class SimpleExpressionTest {
 
     }
 
+    @State(Scope.Thread)
+    public static class BenchmarkCompiledState extends BenchmarkState {
+
+        @Override
+        protected void configure(CamelContext camel) {
+            camel.getGlobalOptions().put(SimpleLanguage.SIMPLE_COMPILED, "true");
+        }
+    }
+
+    public static class MyOrder {
+        private final String name;
+
+        public MyOrder(String name) {
+            this.name = name;
+        }
+
+        public String getName() {
+            return name;
+        }
+    }
+
     @Benchmark
     @Measurement(batchSize = 1000)
     public void simpleExpression(BenchmarkState state, Blackhole bh) {
+        doSimpleExpression(state, bh);
+    }
+
+    @Benchmark
+    @Measurement(batchSize = 1000)
+    public void simplePredicate(BenchmarkState state, Blackhole bh) {
+        doSimplePredicate(state, bh);
+    }
+
+    @Benchmark
+    @Measurement(batchSize = 1000)
+    public void simpleOgnl(BenchmarkState state, Blackhole bh) {
+        doSimpleOgnl(state, bh);
+    }
+
+    @Benchmark
+    @Measurement(batchSize = 1000)
+    public void compiledSimpleExpression(BenchmarkCompiledState state, Blackhole bh) {
+        doSimpleExpression(state, bh);
+    }
+
+    @Benchmark
+    @Measurement(batchSize = 1000)
+    public void compiledSimplePredicate(BenchmarkCompiledState state, Blackhole bh) {
+        doSimplePredicate(state, bh);
+    }
+
+    @Benchmark
+    @Measurement(batchSize = 1000)
+    public void compiledSimpleOgnl(BenchmarkCompiledState state, Blackhole bh) {
+        doSimpleOgnl(state, bh);
+    }
+
+    private static void doSimpleExpression(BenchmarkState state, Blackhole bh) {
         String out = state.simple.createExpression(state.expression).evaluate(state.exchange, String.class);
         if (!out.equals("Hello World")) {
             throw new IllegalArgumentException("Evaluation failed");
@@ -109,4 +177,20 @@ public class SimpleExpressionTest {
         bh.consume(out);
     }
 
+    private static void doSimplePredicate(BenchmarkState state, Blackhole bh) {
+        boolean out = state.simple.createPredicate(state.predicate).matches(state.exchange);
+        if (!out) {
+            throw new IllegalArgumentException("Evaluation failed");
+        }
+        bh.consume(out);
+    }
+
+    private static void doSimpleOgnl(BenchmarkState state, Blackhole bh) {
+        String out = state.simple.createExpression(state.ognl).evaluate(state.ognlExchange, String.class);
+        if (!out.equals("Camel")) {
+            throw new IllegalArgumentException("Evaluation failed");
+        }
+        bh.consume(out);
+    }
+
 }
@@ -26,6 +26,7 @@ import org.w3c.dom.Document;
 
 import org.apache.camel.CamelContext;
 import org.apache.camel.impl.DefaultCamelContext;
+import org.apache.camel.impl.converter.BaseTypeConverterRegistry;
 import org.apache.camel.util.IOHelper;
 import org.junit.Test;
 import org.openjdk.jmh.annotations.Benchmark;
@@ -78,11 +79,14 @@ public class TypeConverterTest {
         String xmlAsString;
         byte[] xmlAsBytes;
 
+        MyBean someBean = new MyBean();
+
         CamelContext camel;
 
         @Setup(Level.Trial)
         public void initialize() throws IOException {
             camel = new DefaultCamelContext();
+            configure(camel);
             try {
                 camel.start();
             } catch (Exception e) {
@@ -93,6 +97,10 @@ public class TypeConverterTest {
             xmlAsBytes = xmlAsString.getBytes(StandardCharsets.UTF_8);
         }
 
+        protected void configure(CamelContext camel) {
+            // noop
+        }
+
         @TearDown(Level.Trial)
         public void close() {
             try {
@@ -103,6 +111,24 @@ public class TypeConverterTest {
         }
     }
 
+    @State(Scope.Thread)
+    public static class BenchmarkFrozenCamelContextState extends BenchmarkCamelContextState {
+
+        @Override
+        protected void configure(CamelContext camel) {
+            // freeze the type converter registry when started
+            camel.getGlobalOptions().put(BaseTypeConverterRegistry.TYPE_CONVERTER_FREEZE, "true");
+        }
+    }
+
+    public static class MyBean {
+
+        @Override
+        public String toString() {
+            return "MyBean";
+        }
+    }
+
 
     @Benchmark
     public void typeConvertIntegerToString(BenchmarkCamelContextState state, Blackhole bh) {
@@ -151,4 +177,46 @@ public class TypeConverterTest {
         String string = state.camel.getTypeConverter().convertTo(String.class, state.xmlAsBytes);
         bh.consume(string);
     }
+
+    @Benchmark
+    public void typeConvertObjectToStringFallback(BenchmarkCamelContextState state, Blackhole bh) {
+        String string = state.camel.getTypeConverter().convertTo(String.class, state.someBean);
+        bh.consume(string);
+    }
+
+    @Benchmark
+    public void typeConvertMiss(BenchmarkCamelContextState state, Blackhole bh) {
+        Thread thread = state.camel.getTypeConverter().tryConvertTo(Thread.class, state.someIntegerString);
+        bh.consume(thread);
+    }
+
+    @Benchmark
+    public void frozenTypeConvertIntegerToString(BenchmarkFrozenCamelContextState state, Blackhole bh) {
+        String string = state.camel.getTypeConverter().convertTo(String.class, state.someInteger);
+        bh.consume(string);
+    }
+
+    @Benchmark
+    public void frozenTypeConvertStringToInteger(BenchmarkFrozenCamelContextState state, Blackhole bh) {
+        Integer integer = state.camel.getTypeConverter().convertTo(Integer.class, state.someIntegerString);
+        bh.consume(integer);
+    }
+
+    @Benchmark
+    public void frozenTypeConvertStringToByteArray(BenchmarkFrozenCamelContextState state, Blackhole bh) {
+        byte[] bytes = state.camel.getTypeConverter().convertTo(byte[].class, state.xmlAsString);
+        bh.consume(bytes);
+    }
+
+    @Benchmark
+    public void frozenTypeConvertObjectToStringFallback(BenchmarkFrozenCamelContextState state, Blackhole bh) {
+        String string = state.camel.getTypeConverter().convertTo(String.class, state.someBean);
+        bh.consume(string);
+    }
+
+    @Benchmark
+    public void frozenTypeConvertMiss(BenchmarkFrozenCamelContextState state, Blackhole bh) {
+        Thread thread = state.camel.getTypeConverter().tryConvertTo(Thread.class, state.someIntegerString);
+        bh.consume(thread);
+    }
 }
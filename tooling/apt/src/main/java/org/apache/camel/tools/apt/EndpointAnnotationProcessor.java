@@ -21,6 +21,7 @@ import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.Collections;
 import java.util.HashMap;
+import java.util.HashSet;
 import java.util.LinkedHashSet;
 import java.util.List;
 import java.util.Map;
@@ -77,6 +78,8 @@ public class EndpointAnnotationProcessor extends AbstractCamelAnnotationProcesso
 
     private static final String HEADER_FILTER_STRATEGY_JAVADOC = "To use a custom HeaderFilterStrategy to filter header to and from Camel message.";
 
+    private final Set<String> configurers = new HashSet<>();
+
     protected void doProcess(Set<? extends TypeElement> annotations, final RoundEnvironment roundEnv) throws Exception {
         Set<? extends Element> elements = roundEnv.getElementsAnnotatedWith(UriEndpoint.class);
         for (Element element : elements) {
@@ -117,10 +120,43 @@ public class EndpointAnnotationProcessor extends AbstractCamelAnnotationProcesso
                     processFile(processingEnv, packageName, fileName,
                             writer -> writeJSonSchemeDocumentation(writer, roundEnv, classElement, uriEndpoint, aliasTitle, alias, extendsAlias, label, schemes));
                 }
+
+                // generate property configurers for the endpoint and its component
+                generatePropertyConfigurer(classElement);
+                TypeElement componentClassElement = findComponentClass(roundEnv, schemes[0]);
+                if (componentClassElement != null) {
+                    generatePropertyConfigurer(componentClassElement);
+                }
+            }
+        }
+    }
+
+    private void generatePropertyConfigurer(TypeElement classElement) {
+        // a component class can be shared by several endpoints
+        if (configurers.add(classElement.getQualifiedName().toString())) {
+            try {
+                PropertyConfigurerGenerator.generatePropertyConfigurer(processingEnv, classElement);
+            } catch (Exception e) {
+                throw new RuntimeException("Error generating property configurer for " + classElement.getQualifiedName() + ": " + e.getMessage(), e);
             }
         }
     }
 
+    private TypeElement findComponentClass(RoundEnvironment roundEnv, String scheme) {
+        // get the component class via the @Component annotation
+        Set<? extends Element> elements = roundEnv.getElementsAnnotatedWith(Component.class);
+        if (elements != null) {
+            for (Element e : elements) {
+                Component comp = e.getAnnotation(Component.class);
+                String[] schemes = comp.value().split(",");
+                if (Arrays.asList(schemes).contains(scheme) && e.getKind() == ElementKind.CLASS) {
+                    return (TypeElement) e;
+                }
+            }
+        }
+        return null;
+    }
+
     protected void writeJSonSchemeDocumentation(PrintWriter writer, RoundEnvironment roundEnv, TypeElement classElement, UriEndpoint uriEndpoint,
                                                 String title, String scheme, String extendsScheme, String label, String[] schemes) {
         // gather component information
@@ -429,18 +465,9 @@ public class EndpointAnnotationProcessor extends AbstractCamelAnnotationProcesso
         }
 
         // get the java type class name via the @Component annotation from its component class
-        Set<? extends Element> elements = roundEnv.getElementsAnnotatedWith(Component.class);
-        if (elements != null) {
-            for (Element e : elements) {
-                Component comp = e.getAnnotation(Component.class);
-                String[] schemes = comp.value().split(",");
-                if (Arrays.asList(schemes).contains(scheme) && e.getKind() == ElementKind.CLASS) {
-                    TypeElement te = (TypeElement) e;
-                    String name = te.getQualifiedName().toString();
-                    model.setJavaType(name);
-                    break;
-                }
-            }
+        TypeElement componentClassElement = findComponentClass(roundEnv, scheme);
+        if (componentClassElement != null) {
+            model.setJavaType(componentClassElement.getQualifiedName().toString());
         }
 
         // we can mark a component as deprecated by using the annotation
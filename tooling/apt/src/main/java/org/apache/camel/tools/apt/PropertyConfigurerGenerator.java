@@ -0,0 +1,197 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.apache.camel.tools.apt;
+
+import java.io.Writer;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeMap;
+import javax.annotation.processing.ProcessingEnvironment;
+import javax.lang.model.element.ElementKind;
+import javax.lang.model.element.ExecutableElement;
+import javax.lang.model.element.Modifier;
+import javax.lang.model.element.PackageElement;
+import javax.lang.model.element.TypeElement;
+import javax.lang.model.type.DeclaredType;
+import javax.lang.model.type.TypeKind;
+import javax.lang.model.type.TypeMirror;
+import javax.lang.model.util.ElementFilter;
+import javax.lang.model.util.Types;
+import javax.tools.FileObject;
+import javax.tools.JavaFileObject;
+import javax.tools.StandardLocation;
+
+/**
+ * Generates a <tt>PropertyConfigurer</tt> for a component or endpoint class, which sets the properties
+ * using a switch on the property name instead of reflection.
+ * <p/>
+ * All the public setters of the class (and its super classes) are included, except overloaded setters and
+ * setters which throws checked exceptions, which are left for the reflection based property binding.
+ */
+public final class PropertyConfigurerGenerator {
+
+    private static final String CONFIGURER_RESOURCE_PATH = "META-INF/services/org/apache/camel/configurer/";
+
+    private PropertyConfigurerGenerator() {
+    }
+
+    public static void generatePropertyConfigurer(ProcessingEnvironment processingEnv, TypeElement classElement) throws Exception {
+        // only top level classes as the configurer is generated in the same package
+        if (classElement.getNestingKind().isNested() || classElement.getModifiers().contains(Modifier.PRIVATE)) {
+            return;
+        }
+
+        Map<String, ExecutableElement> setters = findSetters(processingEnv, classElement);
+
+        String fqn = classElement.getQualifiedName().toString();
+        String packageName = ((PackageElement) classElement.getEnclosingElement()).getQualifiedName().toString();
+        String className = classElement.getSimpleName().toString();
+        String configurerName = className + "PropertyConfigurer";
+        Types types = processingEnv.getTypeUtils();
+
+        JavaFileObject jfo = processingEnv.getFiler().createSourceFile(packageName + "." + configurerName, classElement);
+        try (Writer writer = jfo.openWriter()) {
+            writer.append("package ").append(packageName).append(";\n");
+            writer.append("\n");
+            writer.append("import org.apache.camel.CamelContext;\n");
+            writer.append("import org.apache.camel.spi.PropertyConfigurer;\n");
+            writer.append("\n");
+            writer.append("import static org.apache.camel.support.PropertyConfigurerSupport.property;\n");
+            writer.append("\n");
+            writer.append("/**\n");
+            writer.append(" * Source code generated by org.apache.camel:apt\n");
+            writer.append(" */\n");
+            writer.append("@SuppressWarnings({\"unchecked\", \"rawtypes\"})\n");
+            writer.append("public class ").append(configurerName).append(" implements PropertyConfigurer {\n");
+            writer.append("\n");
+            writer.append("    @Override\n");
+            writer.append("    public boolean configure(CamelContext camelContext, Object target, String name, Object value, boolean ignoreCase) {\n");
+            if (setters.isEmpty()) {
+                writer.append("        return false;\n");
+            } else {
+                writer.append("        ").append(className).append(" bean = (").append(className).append(") target;\n");
+                // when ignoring case then match the lower case names
+                writer.append("        if (ignoreCase) {\n");
+                writer.append("            switch (name.toLowerCase()) {\n");
+                Set<String> labels = new HashSet<>();
+                for (Map.Entry<String, ExecutableElement> entry : setters.entrySet()) {
+                    String lower = entry.getKey().toLowerCase();
+                    // the names must be unique in the switch
+                    if (labels.add(lower)) {
+                        writer.append("            case \"").append(lower).append("\":\n");
+                        writeSetter(writer, types, entry.getValue(), "                ");
+                    }
+                }
+                writer.append("            default:\n");
+                writer.append("                return false;\n");
+                writer.append("            }\n");
+                writer.append("        }\n");
+                // otherwise only the names which the reflection based property binding matches
+                // (the property name and the capitalized name as in the setter)
+                writer.append("        switch (name) {\n");
+                labels.clear();
+                for (Map.Entry<String, ExecutableElement> entry : setters.entrySet()) {
+                    String name = entry.getKey();
+                    String capitalized = Character.toUpperCase(name.charAt(0)) + name.substring(1);
+                    boolean hasName = labels.add(name);
+                    boolean hasCapitalized = !capitalized.equals(name) && labels.add(capitalized);
+                    if (!hasName && !hasCapitalized) {
+                        continue;
+                    }
+                    if (hasName) {
+                        writer.append("        case \"").append(name).append("\":\n");
+                    }
+                    if (hasCapitalized) {
+                        writer.append("        case \"").append(capitalized).append("\":\n");
+                    }
+                    writeSetter(writer, types, entry.getValue(), "            ");
+                }
+                writer.append("        default:\n");
+                writer.append("            return false;\n");
+                writer.append("        }\n");
+            }
+            writer.append("    }\n");
+            writer.append("\n");
+            writer.append("}\n");
+        }
+
+        FileObject fo = processingEnv.getFiler().createResource(StandardLocation.CLASS_OUTPUT, "", CONFIGURER_RESOURCE_PATH + fqn, classElement);
+        try (Writer writer = fo.openWriter()) {
+            writer.append("# Generated by camel annotation processor\n");
+            writer.append("class=").append(packageName).append(".").append(configurerName).append("\n");
+        }
+    }
+
+    private static void writeSetter(Writer writer, Types types, ExecutableElement setter, String indent) throws Exception {
+        String type = types.erasure(setter.getParameters().get(0).asType()).toString();
+        writer.append(indent).append("bean.").append(setter.getSimpleName()).append("(property(camelContext, ")
+            .append(type).append(".class, value));\n");
+        writer.append(indent).append("return true;\n");
+    }
+
+    private static Map<String, ExecutableElement> findSetters(ProcessingEnvironment processingEnv, TypeElement classElement) {
+        Types types = processingEnv.getTypeUtils();
+        TypeMirror runtimeException = processingEnv.getElementUtils().getTypeElement("java.lang.RuntimeException").asType();
+        TypeMirror error = processingEnv.getElementUtils().getTypeElement("java.lang.Error").asType();
+
+        Map<String, ExecutableElement> answer = new TreeMap<>();
+        Set<String> excluded = new HashSet<>();
+
+        TypeElement type = classElement;
+        while (type != null && !"java.lang.Object".equals(type.getQualifiedName().toString())) {
+            List<ExecutableElement> methods = ElementFilter.methodsIn(type.getEnclosedElements());
+            for (ExecutableElement method : methods) {
+                String methodName = method.getSimpleName().toString();
+                if (methodName.length() < 4 || !methodName.startsWith("set") || !Character.isUpperCase(methodName.charAt(3))
+                        || !method.getModifiers().contains(Modifier.PUBLIC) || method.getModifiers().contains(Modifier.STATIC)
+                        || method.getParameters().size() != 1 || method.getReturnType().getKind() != TypeKind.VOID) {
+                    continue;
+                }
+                boolean checked = method.getThrownTypes().stream()
+                    .anyMatch(t -> !types.isSubtype(t, runtimeException) && !types.isSubtype(t, error));
+                String name = Character.toLowerCase(methodName.charAt(3)) + methodName.substring(4);
+                if (checked) {
+                    excluded.add(name);
+                    answer.remove(name);
+                    continue;
+                }
+                if (excluded.contains(name)) {
+                    continue;
+                }
+                ExecutableElement existing = answer.get(name);
+                if (existing == null) {
+                    answer.put(name, method);
+                } else if (!types.isSameType(types.erasure(existing.getParameters().get(0).asType()), types.erasure(method.getParameters().get(0).asType()))) {
+                    // overloaded setters are left for reflection which can pick the best setter for the given value
+                    excluded.add(name);
+                    answer.remove(name);
+                }
+            }
+
+            TypeMirror superclass = type.getSuperclass();
+            if (superclass.getKind() == TypeKind.DECLARED && ((DeclaredType) superclass).asElement().getKind() == ElementKind.CLASS) {
+                type = (TypeElement) ((DeclaredType) superclass).asElement();
+            } else {
+                type = null;
+            }
+        }
+        return answer;
+    }
+
+}